@@ -2,15 +2,23 @@ package org.example;
 
 import io.javalin.Javalin;
 import org.example.config.ApplicationConfig;
+import org.example.config.Bootstrap;
 
 import java.io.IOException;
 
 public class Main {
 
     public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(ApplicationConfig.getProperty("javalin.port"));
         ApplicationConfig
                 .startServer(
                         Javalin.create(),
-                        Integer.parseInt(ApplicationConfig.getProperty("javalin.port")));
+                        port);
+
+        // AppCDS training run: exercise the request path once, the archive is written at exit
+        if (Boolean.parseBoolean(ApplicationConfig.getProperty("boot.training", "false"))) {
+            Bootstrap.train(port);
+            System.exit(0);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,487 @@
+package org.example.availability;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.ApplicationConfig;
+import org.example.dao.DaoListener;
+import org.example.dao.impl.BookingDao;
+import org.example.dao.impl.HotelDao;
+import org.example.dao.impl.RoomDao;
+import org.example.model.Booking;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+
+// In-memory room availability. Every room owns a slot holding its hotel, number, price and type and
+// one bit per night of the booking horizon (availability.horizon.days, starting today). The bits
+// of all rooms live in one flat AtomicLongArray, slot * words + night / 64, so checking a stay
+// is a few word reads. Temporary holds have their own bit layer of the same shape; a night is free
+// when neither layer has its bit set, so holds hide rooms from searches as soon as they are placed
+// and releasing one never touches a booking. Writes come from the DAO listeners after commit and
+// from the hold service, they are serialized on the
+// index; reads never lock and may briefly lag a write that is in progress. A load queries the
+// database and builds its table without the lock, writes made meanwhile are recorded and replayed
+// onto the new table when it is swapped in.
+// Bookings of the same room are assumed not to overlap, releasing a stay clears its nights.
+public class AvailabilityIndex {
+
+    private static AvailabilityIndex instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AvailabilityIndex.class);
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FREE = 0;
+    private static final Room.RoomType[] ROOM_TYPES = Room.RoomType.values();
+
+    private final int horizonDays;
+    private final int words;
+    private volatile Table table;
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    // one load at a time; while it runs the writes it may have missed are kept here, guarded by this
+    private final Object loading = new Object();
+    private List<UnaryOperator<Table>> missed;
+
+    public AvailabilityIndex(LocalDate origin, int horizonDays) {
+        this.horizonDays = horizonDays;
+        this.words = (horizonDays + 63) >>> 6;
+        this.table = new Table(origin.toEpochDay(), INITIAL_CAPACITY, words);
+    }
+
+    public static AvailabilityIndex getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            int horizonDays = Integer.parseInt(ApplicationConfig.getProperty("availability.horizon.days", "365"));
+            AvailabilityIndex index = new AvailabilityIndex(LocalDate.now(), horizonDays);
+            // listen before loading, replaying a write that the load already saw is harmless
+            RoomDao.getInstance(emf).addListener(index.roomListener(emf));
+            HotelDao.getInstance(emf).addListener(index.hotelListener());
+            BookingDao.getInstance(emf).addListener(index.bookingListener());
+            index.load(emf);
+
+            // the horizon starts today, so move it forward once a day
+            ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "availability-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleAtFixedRate(() -> index.load(emf), 1, 1, TimeUnit.DAYS);
+            instance = index;
+        }
+        return instance;
+    }
+
+    // Rebuilds the index from the database with the horizon starting today
+    public void load(EntityManagerFactory emf) {
+        synchronized (loading) {
+            synchronized (this) {
+                missed = new ArrayList<>();
+            }
+            Table fresh = null;
+            try {
+                fresh = read(emf);
+            } finally {
+                synchronized (this) {
+                    if (fresh != null) {
+                        // replaying a write the queries already saw is harmless
+                        for (UnaryOperator<Table> write : missed) {
+                            fresh = write.apply(fresh);
+                        }
+                        // this node's holds are not among the bookings, carry them over
+                        for (Hold hold : holds.values()) {
+                            fresh.mark(fresh.held, hold.roomId(), hold.checkIn(), hold.checkOut(), true);
+                        }
+                        table = fresh;
+                    }
+                    missed = null;
+                }
+            }
+        }
+    }
+
+    private Table read(EntityManagerFactory emf) {
+        long start = System.nanoTime();
+        Table fresh = new Table(LocalDate.now().toEpochDay(), INITIAL_CAPACITY, words);
+        try (var em = emf.createEntityManager()) {
+            List<Object[]> rooms = em.createQuery(
+                    "SELECT r.roomId, r.hotel.id, r.roomNumber, r.roomPrice, r.roomType FROM Room r", Object[].class)
+                    .getResultList();
+            for (Object[] room : rooms) {
+                fresh = fresh.put((Integer) room[0], (Integer) room[1], (Integer) room[2], (BigDecimal) room[3], (Room.RoomType) room[4]);
+            }
+
+            List<Object[]> bookings = em.createQuery(
+                    "SELECT b.room.roomId, b.checkIn, b.checkOut FROM Booking b WHERE b.checkOut > :origin", Object[].class)
+                    .setParameter("origin", LocalDate.ofEpochDay(fresh.originDay))
+                    .getResultList();
+            for (Object[] booking : bookings) {
+                fresh.mark(fresh.nights, (Integer) booking[0], (LocalDate) booking[1], (LocalDate) booking[2], true);
+            }
+            LOGGER.info("Loaded availability for {} rooms and {} bookings in {} ms",
+                    rooms.size(), bookings.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return fresh;
+    }
+
+    public void putRoom(int roomId, int hotelId, int roomNumber, BigDecimal price, Room.RoomType roomType) {
+        write(t -> t.put(roomId, hotelId, roomNumber, price, roomType));
+    }
+
+    public void removeRoom(int roomId) {
+        write(t -> {
+            t.remove(roomId);
+            return t;
+        });
+    }
+
+    public void removeHotel(int hotelId) {
+        write(t -> {
+            int[] slots = t.slotsByHotel.get(hotelId);
+            if (slots != null) {
+                for (int slot : slots) {
+                    t.remove(t.roomIds[slot]);
+                }
+            }
+            return t;
+        });
+    }
+
+    public void book(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        write(t -> {
+            t.mark(t.nights, roomId, checkIn, checkOut, true);
+            return t;
+        });
+    }
+
+    public void release(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        write(t -> {
+            t.mark(t.nights, roomId, checkIn, checkOut, false);
+            return t;
+        });
+    }
+
+    // Applies a room or booking write, and keeps it for the load in progress if there is one
+    private synchronized void write(UnaryOperator<Table> write) {
+        table = write.apply(table);
+        if (missed != null) missed.add(write);
+    }
+
+    // Places the hold when every night of it is free of bookings and other holds
+    public synchronized boolean hold(Hold hold) {
+        Table t = table;
+        int first = night(t, hold.checkIn());
+        int end = night(t, hold.checkOut());
+        checkStay(first, end);
+        Integer slot = t.slotByRoom.get(hold.roomId());
+        if (slot == null || !t.isFree(slot, first, end)) return false;
+        t.mark(t.held, hold.roomId(), hold.checkIn(), hold.checkOut(), true);
+        holds.put(hold.id(), hold);
+        return true;
+    }
+
+    // Frees the nights of a hold, false when it was already released
+    public synchronized boolean releaseHold(long holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) return false;
+        table.mark(table.held, hold.roomId(), hold.checkIn(), hold.checkOut(), false);
+        return true;
+    }
+
+    public Hold getHold(long holdId) {
+        return holds.get(holdId);
+    }
+
+    public int holdCount() {
+        return holds.size();
+    }
+
+    // True when from is before to and the whole stay lies within the horizon
+    public boolean covers(LocalDate from, LocalDate to) {
+        long origin = table.originDay;
+        long first = from.toEpochDay() - origin;
+        long end = to.toEpochDay() - origin;
+        return first >= 0 && first < end && end <= horizonDays;
+    }
+
+    public boolean hasRoom(int roomId) {
+        return table.slotByRoom.containsKey(roomId);
+    }
+
+    public boolean isAvailable(int roomId, LocalDate from, LocalDate to) {
+        Table t = table;
+        int first = night(t, from);
+        int end = night(t, to);
+        checkStay(first, end);
+        Integer slot = t.slotByRoom.get(roomId);
+        return slot != null && t.isFree(slot, first, end);
+    }
+
+    // Rooms free for every night from "from" up to "to", optionally limited to a hotel and a maximum price
+    public List<AvailableRoom> findAvailable(Integer hotelId, BigDecimal maxPrice, LocalDate from, LocalDate to) {
+        Table t = table;
+        List<AvailableRoom> result = new ArrayList<>();
+        scan(t, hotelId, maxPrice, from, to, slot -> result.add(new AvailableRoom(t.roomIds[slot], t.hotelIds[slot],
+                t.roomNumbers[slot], BigDecimal.valueOf(t.priceCents[slot], 2), ROOM_TYPES[t.roomTypes[slot]])));
+        return result;
+    }
+
+    public int countAvailable(Integer hotelId, BigDecimal maxPrice, LocalDate from, LocalDate to) {
+        return scan(table, hotelId, maxPrice, from, to, null);
+    }
+
+    private int scan(Table t, Integer hotelId, BigDecimal maxPrice, LocalDate from, LocalDate to, IntConsumer onMatch) {
+        int first = night(t, from);
+        int end = night(t, to);
+        checkStay(first, end);
+        long maxCents = maxPrice != null ? toCents(maxPrice) : Long.MAX_VALUE;
+        int size = t.size;
+        int matches = 0;
+
+        if (hotelId != null) {
+            int[] slots = t.slotsByHotel.get(hotelId);
+            if (slots == null) return 0;
+            for (int slot : slots) {
+                // slots added after this table was replaced are not in its arrays
+                if (slot < size && t.priceCents[slot] <= maxCents && t.isFree(slot, first, end)) {
+                    matches++;
+                    if (onMatch != null) onMatch.accept(slot);
+                }
+            }
+        } else {
+            for (int slot = 0; slot < size; slot++) {
+                if (t.roomIds[slot] != FREE && t.priceCents[slot] <= maxCents && t.isFree(slot, first, end)) {
+                    matches++;
+                    if (onMatch != null) onMatch.accept(slot);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private int night(Table t, LocalDate date) {
+        long night = date.toEpochDay() - t.originDay;
+        if (night < 0 || night > horizonDays) {
+            throw new IllegalArgumentException(date + " is outside the availability horizon");
+        }
+        return (int) night;
+    }
+
+    private static void checkStay(int first, int end) {
+        if (first >= end) throw new IllegalArgumentException("A stay ends after it starts");
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).longValue();
+    }
+
+    // Bits lo (inclusive) to hi (exclusive) of a word, 0 <= lo < hi <= 64
+    private static long mask(int lo, int hi) {
+        return (-1L << lo) & (-1L >>> (64 - hi));
+    }
+
+    private DaoListener<Room> roomListener(EntityManagerFactory emf) {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Room room) {
+                putRoom(room.getRoomId(), room.getHotel().getId(), room.getRoomNumber(), room.getRoomPrice(), room.getRoomType());
+            }
+
+            @Override
+            public void onDelete(Room room) {
+                removeRoom(room.getRoomId());
+            }
+
+            @Override
+            public void onReload() {
+                load(emf);
+            }
+        };
+    }
+
+    private DaoListener<Hotel> hotelListener() {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Hotel hotel) {
+                for (Room room : hotel.getRooms()) {
+                    putRoom(room.getRoomId(), hotel.getId(), room.getRoomNumber(), room.getRoomPrice(), room.getRoomType());
+                }
+            }
+
+            @Override
+            public void onDelete(Hotel hotel) {
+                removeHotel(hotel.getId());
+            }
+        };
+    }
+
+    private DaoListener<Booking> bookingListener() {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Booking booking) {
+                book(booking.getRoom().getRoomId(), booking.getCheckIn(), booking.getCheckOut());
+            }
+
+            @Override
+            public void onDelete(Booking booking) {
+                release(booking.getRoom().getRoomId(), booking.getCheckIn(), booking.getCheckOut());
+            }
+        };
+    }
+
+    // Slot storage. Slots are appended and never move; a new table is only created when the
+    // arrays have to grow, and it shares the id maps with the table it replaces.
+    // The published table is only changed while holding the AvailabilityIndex lock, a load fills
+    // its own table before publishing it.
+    private static final class Table {
+
+        final long originDay;
+        final int words;
+        final int[] roomIds;
+        final int[] hotelIds;
+        final int[] roomNumbers;
+        final long[] priceCents;
+        final byte[] roomTypes;
+        final AtomicLongArray nights;
+        final AtomicLongArray held;
+        final Map<Integer, Integer> slotByRoom;
+        final Map<Integer, int[]> slotsByHotel;
+
+        // slots below size are fully written before size is published
+        volatile int size;
+
+        Table(long originDay, int capacity, int words) {
+            this(originDay, words, new int[capacity], new int[capacity], new int[capacity], new long[capacity], new byte[capacity],
+                    new AtomicLongArray(capacity * words), new AtomicLongArray(capacity * words),
+                    new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), 0);
+        }
+
+        private Table(long originDay, int words, int[] roomIds, int[] hotelIds, int[] roomNumbers, long[] priceCents,
+                      byte[] roomTypes, AtomicLongArray nights, AtomicLongArray held, Map<Integer, Integer> slotByRoom, Map<Integer, int[]> slotsByHotel, int size) {
+            this.originDay = originDay;
+            this.words = words;
+            this.roomIds = roomIds;
+            this.hotelIds = hotelIds;
+            this.roomNumbers = roomNumbers;
+            this.priceCents = priceCents;
+            this.roomTypes = roomTypes;
+            this.nights = nights;
+            this.held = held;
+            this.slotByRoom = slotByRoom;
+            this.slotsByHotel = slotsByHotel;
+            this.size = size;
+        }
+
+        // Returns the table holding the room, which is a new one if the arrays had to grow
+        Table put(int roomId, int hotelId, int roomNumber, BigDecimal price, Room.RoomType roomType) {
+            Integer existing = slotByRoom.get(roomId);
+            if (existing != null) {
+                int slot = existing;
+                if (hotelIds[slot] != hotelId) {
+                    slotsByHotel.computeIfPresent(hotelIds[slot], (id, slots) -> without(slots, slot));
+                    slotsByHotel.merge(hotelId, new int[]{slot}, Table::concat);
+                    hotelIds[slot] = hotelId;
+                }
+                roomNumbers[slot] = roomNumber;
+                priceCents[slot] = toCents(price);
+                roomTypes[slot] = (byte) roomType.ordinal();
+                return this;
+            }
+
+            Table target = size < roomIds.length ? this : grow();
+            int slot = target.size;
+            target.roomIds[slot] = roomId;
+            target.hotelIds[slot] = hotelId;
+            target.roomNumbers[slot] = roomNumber;
+            target.priceCents[slot] = toCents(price);
+            target.roomTypes[slot] = (byte) roomType.ordinal();
+            target.size = slot + 1;
+            slotByRoom.put(roomId, slot);
+            slotsByHotel.merge(hotelId, new int[]{slot}, Table::concat);
+            return target;
+        }
+
+        // The slot is left empty, it is reclaimed on the next load
+        void remove(int roomId) {
+            Integer existing = slotByRoom.remove(roomId);
+            if (existing == null) return;
+            int slot = existing;
+            slotsByHotel.computeIfPresent(hotelIds[slot], (id, slots) -> {
+                int[] remaining = without(slots, slot);
+                return remaining.length == 0 ? null : remaining;
+            });
+            roomIds[slot] = FREE;
+            for (int w = 0; w < words; w++) {
+                nights.set(slot * words + w, 0);
+                held.set(slot * words + w, 0);
+            }
+        }
+
+        // Sets or clears the nights of a stay in one of the bit layers, nights or held
+        void mark(AtomicLongArray bits, int roomId, LocalDate checkIn, LocalDate checkOut, boolean set) {
+            Integer slot = slotByRoom.get(roomId);
+            if (slot == null) return;
+            long first = Math.max(checkIn.toEpochDay() - originDay, 0);
+            long end = Math.min(checkOut.toEpochDay() - originDay, (long) words * 64);
+            int base = slot * words;
+            for (int night = (int) first; night < end; ) {
+                int w = night >>> 6;
+                int wordEnd = (int) Math.min(end, (w + 1) << 6);
+                long mask = mask(night & 63, wordEnd - (w << 6));
+                long word = bits.get(base + w);
+                bits.set(base + w, set ? word | mask : word & ~mask);
+                night = wordEnd;
+            }
+        }
+
+        boolean isFree(int slot, int first, int end) {
+            int base = slot * words;
+            for (int night = first; night < end; ) {
+                int w = night >>> 6;
+                int wordEnd = Math.min(end, (w + 1) << 6);
+                if (((nights.get(base + w) | held.get(base + w)) & mask(night & 63, wordEnd - (w << 6))) != 0) return false;
+                night = wordEnd;
+            }
+            return true;
+        }
+
+        private Table grow() {
+            int capacity = roomIds.length * 2;
+            AtomicLongArray grown = new AtomicLongArray(capacity * words);
+            AtomicLongArray grownHeld = new AtomicLongArray(capacity * words);
+            for (int i = 0; i < size * words; i++) {
+                grown.set(i, nights.get(i));
+                grownHeld.set(i, held.get(i));
+            }
+            return new Table(originDay, words,
+                    Arrays.copyOf(roomIds, capacity), Arrays.copyOf(hotelIds, capacity),
+                    Arrays.copyOf(roomNumbers, capacity), Arrays.copyOf(priceCents, capacity), Arrays.copyOf(roomTypes, capacity),
+                    grown, grownHeld, slotByRoom, slotsByHotel, size);
+        }
+
+        private static int[] concat(int[] a, int[] b) {
+            int[] result = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, result, a.length, b.length);
+            return result;
+        }
+
+        private static int[] without(int[] slots, int slot) {
+            int[] result = new int[slots.length - 1];
+            int i = 0;
+            for (int s : slots) {
+                if (s != slot && i < result.length) result[i++] = s;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.availability;
+
+import org.example.model.Room;
+
+import java.math.BigDecimal;
+
+public record AvailableRoom(int roomId, int hotelId, int roomNumber, BigDecimal price, Room.RoomType roomType) {
+}
@@ -0,0 +1,8 @@
+package org.example.availability;
+
+import java.time.LocalDate;
+
+// A room kept off the market from checkIn up to checkOut until expiresAt (epoch millis) while a guest checks out.
+// owner is the user who placed it, only they (or an admin or manager) may read, release or confirm it.
+public record Hold(long id, int roomId, LocalDate checkIn, LocalDate checkOut, String owner, long expiresAt) {
+}
@@ -0,0 +1,177 @@
+package org.example.availability;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.ApplicationConfig;
+import org.example.dao.impl.BookingDao;
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Short-lived holds that keep a room off the market while a guest checks out. A hold is recorded in
+// the database, where every booking checks it under the room lock whichever node it is made on, and
+// in the availability index of the node that placed it, which hides the room from searches and is
+// released by the timer wheel when the TTL runs out. Expiry only frees the index: the row is dead
+// from its expiry on and needs no write.
+//
+// The row is what counts. A hold placed on another node is read from the database, and releasing
+// or confirming it removes its row; a confirm only books when it is the one that removes the live
+// row, so a hold is confirmed once whichever nodes race for it. The placing node additionally
+// cancels the hold's timeout first and frees its index. Holds are not sent over the ChangeBus: on
+// the other nodes a held room still shows in searches, but booking or holding it is refused.
+public class HoldService {
+
+    private static HoldService instance;
+
+    // The database side of the holds
+    public interface Store {
+        // Refused with HOLD_CONFLICT when a booking or a live hold overlaps it
+        Hold insert(int roomId, LocalDate checkIn, LocalDate checkOut, String owner, long ttlSeconds) throws ApiException;
+
+        // The live hold, null when it has expired or is gone
+        Hold find(long holdId);
+
+        // false when there was no live hold to delete
+        boolean delete(long holdId);
+
+        // Books the held nights and removes the hold in one transaction, NOT_FOUND when the hold is no longer live
+        Booking book(Hold hold, String guestName) throws ApiException;
+    }
+
+    private final AvailabilityIndex availability;
+    private final Store store;
+    private final TimerWheel wheel;
+    private final long defaultTtlSeconds;
+    private final long maxTtlSeconds;
+
+    private final Map<Long, TimerWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+
+    public HoldService(AvailabilityIndex availability, Store store, TimerWheel wheel, long defaultTtlSeconds, long maxTtlSeconds) {
+        this.availability = availability;
+        this.store = store;
+        this.wheel = wheel;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+    }
+
+    public static HoldService getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            long ttl = Long.parseLong(ApplicationConfig.getProperty("hold.ttl.seconds", "600"));
+            long maxTtl = Long.parseLong(ApplicationConfig.getProperty("hold.max.ttl.seconds", "1800"));
+            long tickMillis = Long.parseLong(ApplicationConfig.getProperty("hold.tick.millis", "100"));
+            // one turn of the wheel covers the longest hold, so a bucket only holds timeouts that are due
+            int slots = Integer.highestOneBit((int) (maxTtl * 1000 / tickMillis)) << 1;
+            BookingDao bookings = BookingDao.getInstance(emf);
+            Store store = new Store() {
+                @Override
+                public Hold insert(int roomId, LocalDate checkIn, LocalDate checkOut, String owner, long ttlSeconds) throws ApiException {
+                    return bookings.placeHold(roomId, checkIn, checkOut, owner, ttlSeconds);
+                }
+
+                @Override
+                public Hold find(long holdId) {
+                    return bookings.readHold(holdId);
+                }
+
+                @Override
+                public boolean delete(long holdId) {
+                    return bookings.removeHold(holdId);
+                }
+
+                @Override
+                public Booking book(Hold hold, String guestName) throws ApiException {
+                    Booking booking = new Booking(null, hold.checkIn(), hold.checkOut(), guestName);
+                    // the booking belongs to whoever placed the hold
+                    booking.setOwner(hold.owner());
+                    return bookings.book(hold.roomId(), booking, hold.id());
+                }
+            };
+            instance = new HoldService(AvailabilityIndex.getInstance(emf), store,
+                    new TimerWheel("hold-expiry", tickMillis, slots), ttl, maxTtl);
+        }
+        return instance;
+    }
+
+    // Holds the room for owner for every night from checkIn up to checkOut, ttlSeconds null for the default
+    public Hold hold(int roomId, LocalDate checkIn, LocalDate checkOut, Long ttlSeconds, String owner) throws ApiException {
+        if (!availability.hasRoom(roomId)) throw ApiException.NOT_FOUND;
+        if (!availability.covers(checkIn, checkOut)) throw ApiException.INVALID_DATE_RANGE;
+        long ttl = ttlSeconds != null ? ttlSeconds : defaultTtlSeconds;
+        if (ttl < 1 || ttl > maxTtlSeconds) throw ApiException.INVALID_HOLD_TTL;
+        // what the index knows to be booked or held is turned away without touching the database
+        if (!availability.isAvailable(roomId, checkIn, checkOut)) throw ApiException.HOLD_CONFLICT;
+
+        Hold hold = store.insert(roomId, checkIn, checkOut, owner, ttl);
+        if (!availability.hold(hold)) {
+            // the index saw a booking or hold placed since the check above, it wins
+            store.delete(hold.id());
+            throw ApiException.HOLD_CONFLICT;
+        }
+        timeouts.put(hold.id(), wheel.schedule(ttl, TimeUnit.SECONDS, () -> expire(hold.id())));
+        return hold;
+    }
+
+    // owner null reads any hold (admins and managers), others only see their own
+    public Hold get(long id, String owner) throws ApiException {
+        Hold hold = availability.getHold(id);
+        // placed on another node
+        if (hold == null) hold = store.find(id);
+        if (hold == null || (owner != null && !owner.equals(hold.owner()))) throw ApiException.NOT_FOUND;
+        return hold;
+    }
+
+    public void release(long id, String owner) throws ApiException {
+        get(id, owner);
+        boolean local = claim(id);
+        try {
+            if (!store.delete(id) && !local) throw ApiException.NOT_FOUND;
+        } finally {
+            if (local) availability.releaseHold(id);
+        }
+    }
+
+    // Books the held nights. The hold is gone afterwards even when the booking fails.
+    public Booking confirm(long id, String owner, String guestName) throws ApiException {
+        Hold hold = get(id, owner);
+        boolean local = claim(id);
+        try {
+            return store.book(hold, guestName);
+        } catch (ApiException | RuntimeException e) {
+            // the hold's removal rolled back with the booking
+            store.delete(id);
+            throw e;
+        } finally {
+            // the booking listener has marked the nights by now, so the room is never shown free in between
+            if (local) availability.releaseHold(id);
+        }
+    }
+
+    public int getActiveCount() {
+        return availability.holdCount();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    // Cancels the expiry of a hold placed on this node, true when this call did. False for a hold of
+    // another node or one this node has already released; the row decides those.
+    private boolean claim(long id) throws ApiException {
+        TimerWheel.Timeout timeout = timeouts.remove(id);
+        if (timeout == null) return false;
+        // a timeout that cannot be cancelled is expiring right now
+        if (!timeout.cancel()) throw ApiException.NOT_FOUND;
+        return true;
+    }
+
+    // Runs on the wheel thread
+    private void expire(long id) {
+        timeouts.remove(id);
+        if (availability.releaseHold(id)) expired.increment();
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.availability;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Hashed timer wheel. A timeout is linked into the bucket of the tick it is due on, so scheduling
+// and cancelling are O(1) whatever the number of pending timeouts. A daemon thread advances one
+// bucket per tick, unlinks what is due and runs it outside the lock. Timeouts due more than a
+// full turn ahead stay in their bucket until their turn comes; size the wheel to the longest delay
+// so buckets only hold timeouts of the current turn. Timeouts fire up to one tick late.
+public class TimerWheel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final Timeout[] buckets;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+
+    // next tick to expire, guarded by this
+    private long tick;
+    private int pending;
+    private volatile boolean running = true;
+
+    public TimerWheel(String name, long tickMillis, int slots) {
+        if (Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Slots must be a power of two");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new Timeout[slots];
+        this.mask = slots - 1;
+
+        worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Runs task on the wheel thread after delay, tasks should be short and must not block
+    public Timeout schedule(long delay, TimeUnit unit, Runnable task) {
+        long due = System.nanoTime() - startNanos + unit.toNanos(delay);
+        // round up, a timeout never fires early
+        long dueTick = (due + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(task);
+        synchronized (this) {
+            timeout.tick = Math.max(dueTick, tick);
+            link(timeout);
+        }
+        return timeout;
+    }
+
+    public synchronized int pending() {
+        return pending;
+    }
+
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        List<Timeout> expired = new ArrayList<>();
+        while (running) {
+            long now = System.nanoTime() - startNanos;
+            synchronized (this) {
+                // catch up on every tick that has passed, the thread may have been descheduled
+                while (tick * tickNanos <= now) {
+                    expire(tick, expired);
+                    tick++;
+                }
+            }
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    // the wheel must survive a failing task
+                    LOGGER.error("Timer task failed", e);
+                }
+            }
+            expired.clear();
+            LockSupport.parkNanos(this, tick * tickNanos - (System.nanoTime() - startNanos));
+        }
+    }
+
+    private void expire(long tick, List<Timeout> expired) {
+        Timeout timeout = buckets[(int) tick & mask];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.tick <= tick) {
+                unlink(timeout);
+                expired.add(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void link(Timeout timeout) {
+        int bucket = (int) timeout.tick & mask;
+        Timeout head = buckets[bucket];
+        timeout.next = head;
+        if (head != null) head.prev = timeout;
+        buckets[bucket] = timeout;
+        timeout.linked = true;
+        pending++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[(int) timeout.tick & mask] = timeout.next;
+        }
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.linked = false;
+        pending--;
+    }
+
+    public final class Timeout {
+
+        private final Runnable task;
+        // guarded by the wheel
+        private long tick;
+        private Timeout prev;
+        private Timeout next;
+        private boolean linked;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        // True when the task will not run: false once it has fired or been cancelled, so exactly
+        // one of cancel and the task wins
+        public boolean cancel() {
+            synchronized (TimerWheel.this) {
+                if (!linked) return false;
+                unlink(this);
+                return true;
+            }
+        }
+    }
+}
@@ -2,16 +2,20 @@ package org.example.config;
 
 import io.javalin.Javalin;
 import io.javalin.config.JavalinConfig;
+import io.javalin.json.JavalinJackson;
 import io.javalin.plugin.bundled.RouteOverviewPlugin;
 import lombok.NoArgsConstructor;
 import org.example.controller.impl.AccessManagerController;
 import org.example.routes.Routes;
 import org.example.security.RouteRoles;
+import org.example.sync.ChangeBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 @NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
@@ -25,12 +29,21 @@ public class ApplicationConfig {
         config.http.defaultContentType = "application/json"; // default content type for requests
         config.plugins.register(new RouteOverviewPlugin("/", RouteRoles.ANYONE)); // enables route overview at /
         config.accessManager(ACCESS_MANAGER_HANDLER::accessManagerHandler);
+        config.jsonMapper(new TimedJsonMapper(new JavalinJackson())); // reports serialization time to Server-Timing
+    }
+
+    // boot.fast: validate the schema instead of updating it and wire the singletons up front, see Bootstrap
+    public static boolean isFastBoot() {
+        return Boolean.parseBoolean(getProperty("boot.fast", "false"));
     }
 
     public static void startServer(Javalin app, int port) {
+        if (isFastBoot()) Bootstrap.wire(HibernateConfig.getEntityManagerFactory());
         Routes routes = new Routes();
         app.updateConfig(ApplicationConfig::configuration);
         app.routes(routes.getRoutes(app));
+        // writes of the other nodes reach the in-memory indexes through the change bus
+        if (ChangeBus.isEnabled()) ChangeBus.getInstance(HibernateConfig.getEntityManagerFactory()).start();
         HibernateConfig.setTest(false);
         app.start(port);
     }
@@ -39,16 +52,44 @@ public class ApplicationConfig {
         app.stop();
     }
 
+    // Properties written by the build, read once into an immutable snapshot. A JVM system property
+    // of the same name wins, so any of them can be overridden at launch (-Djavalin.port=7070).
+    private static final class Snapshot {
+        private static final Map<String, String> PROPERTIES = load();
+
+        private static Map<String, String> load() {
+            try (InputStream is = HibernateConfig.class.getClassLoader().getResourceAsStream("properties-from-pom.properties"))
+            {
+                Properties prop = new Properties();
+                prop.load(is);
+                Map<String, String> properties = new HashMap<>();
+                for (String name : prop.stringPropertyNames()) {
+                    properties.put(name, System.getProperty(name, prop.getProperty(name)));
+                }
+                return Map.copyOf(properties);
+            } catch (IOException | NullPointerException ex) {
+                LOGGER.error("Could not read property from pom file. Build Maven!");
+                return null;
+            }
+        }
+    }
+
     public static String getProperty(String propName) throws IOException
     {
-        try (InputStream is = HibernateConfig.class.getClassLoader().getResourceAsStream("properties-from-pom.properties"))
+        Map<String, String> properties = Snapshot.PROPERTIES;
+        if (properties == null) throw new IOException("Could not read property from pom file. Build Maven!");
+        return properties.get(propName);
+    }
+
+    public static String getProperty(String propName, String defaultValue)
+    {
+        try
         {
-            Properties prop = new Properties();
-            prop.load(is);
-            return prop.getProperty(propName);
-        } catch (IOException ex) {
-            LOGGER.error("Could not read property from pom file. Build Maven!");
-            throw new IOException("Could not read property from pom file. Build Maven!");
+            String value = getProperty(propName);
+            return value != null ? value : defaultValue;
+        } catch (IOException | NullPointerException ex) {
+            LOGGER.warn("Property {} not found, using default {}", propName, defaultValue);
+            return defaultValue;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package org.example.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.NoArgsConstructor;
+import org.example.availability.AvailabilityIndex;
+import org.example.availability.HoldService;
+import org.example.dao.impl.BookingDao;
+import org.example.dao.impl.HotelDao;
+import org.example.dao.impl.PricingRuleDao;
+import org.example.dao.impl.RoomDao;
+import org.example.dao.impl.UserDao;
+import org.example.index.GeoIndex;
+import org.example.index.HotelSearchIndex;
+import org.example.index.RoomIndex;
+import org.example.limit.PriorityLimiter;
+import org.example.logging.AccessLog;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.PersistenceMetrics;
+import org.example.overview.HotelOverviewService;
+import org.example.pricing.PricingEngine;
+import org.example.repricing.RepricingService;
+import org.example.security.TokenFactory;
+import org.example.sql.SqlMonitor;
+import org.example.stats.HotelStats;
+import org.example.sync.ChangeBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Startup in fast-boot mode. The singletons are built here in dependency order before the routes
+// are constructed, instead of one by one as the controllers happen to ask for them. The in-memory
+// indexes each load with their own query, so they load in parallel.
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class Bootstrap {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Bootstrap.class);
+
+    public static void wire(EntityManagerFactory emf) {
+        long start = System.nanoTime();
+        TokenFactory.getInstance();
+        AccessLog.getInstance();
+        MetricsRegistry.getInstance();
+        PriorityLimiter.getInstance();
+        SqlMonitor.getInstance();
+        PersistenceMetrics.getInstance(emf);
+
+        // the indexes register listeners on the DAOs, so the DAOs must exist before they load
+        HotelDao.getInstance(emf);
+        RoomDao.getInstance(emf);
+        BookingDao.getInstance(emf);
+        UserDao.getInstance(emf);
+        PricingRuleDao.getInstance(emf);
+        // listening before the indexes load, so no write of another node falls between load and LISTEN
+        if (ChangeBus.isEnabled()) ChangeBus.getInstance(emf).start();
+
+        try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> loads = List.of(
+                    loaders.submit(() -> AvailabilityIndex.getInstance(emf)),
+                    loaders.submit(() -> RoomIndex.getInstance(emf)),
+                    loaders.submit(() -> GeoIndex.getInstance(emf)),
+                    loaders.submit(() -> HotelSearchIndex.getInstance(emf)),
+                    loaders.submit(() -> HotelStats.getInstance(emf)),
+                    loaders.submit(() -> PricingEngine.getInstance(emf)));
+            for (Future<?> load : loads) {
+                load.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not load the in-memory indexes", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the in-memory indexes", e);
+        }
+
+        // services on top of the indexes
+        HoldService.getInstance(emf);
+        HotelOverviewService.getInstance(emf);
+        RepricingService.getInstance(emf);
+        LOGGER.info("Wired in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Training run for an AppCDS archive (boot.training, see the appcds profile): sends the public
+    // requests once so the classes of the request path are loaded, the JVM then archives them at exit
+    public static void train(int port) {
+        String base = "http://localhost:" + port + "/api/v1";
+        LocalDate today = LocalDate.now();
+        List<String> paths = List.of(
+                "/hotels/search?q=hotel",
+                "/hotels/nearest?lat=55.68&lon=12.57",
+                "/rooms/cheapest",
+                "/rooms/available?from=" + today + "&to=" + today.plusDays(2),
+                "/metrics",
+                "/hotels/1");
+        HttpClient client = HttpClient.newHttpClient();
+        for (String path : paths) {
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + path)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                LOGGER.info("Training request {} returned {}", path, response.statusCode());
+            } catch (Exception e) {
+                LOGGER.warn("Training request {} failed", path, e);
+            }
+        }
+    }
+}
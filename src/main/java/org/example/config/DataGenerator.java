@@ -0,0 +1,380 @@
+package org.example.config;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Synthetic data for local perf work: hotels spread over real cities, rooms whose type mix, size and
+// price follow the hotel type, users with roles and upcoming bookings. Everything is streamed into
+// PostgreSQL with COPY; rooms and bookings are split by hotel over parallel connections. Each hotel
+// draws from its own random stream derived from the seed, so the same settings always give the
+// same data whatever the number of workers. Rows are added after the existing ones, and the
+// generated users are guest1, guest2, ... continuing after the guests already there.
+// Running servers do not see the rows until their indexes reload.
+public class DataGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataGenerator.class);
+
+    // rows buffered before they are handed to COPY
+    private static final int FLUSH_CHARS = 1 << 20;
+    // every generated user has this password
+    public static final String PASSWORD = "password";
+
+    private static final City[] CITIES = {
+            new City("Copenhagen", 55.6761, 12.5683, 8), new City("Aarhus", 56.1629, 10.2039, 3),
+            new City("Stockholm", 59.3293, 18.0686, 6), new City("Oslo", 59.9139, 10.7522, 5),
+            new City("Berlin", 52.5200, 13.4050, 9), new City("Hamburg", 53.5511, 9.9937, 5),
+            new City("Amsterdam", 52.3676, 4.9041, 8), new City("London", 51.5074, -0.1278, 12),
+            new City("Paris", 48.8566, 2.3522, 12), new City("Barcelona", 41.3874, 2.1686, 8),
+            new City("Madrid", 40.4168, -3.7038, 7), new City("Lisbon", 38.7223, -9.1393, 6),
+            new City("Rome", 41.9028, 12.4964, 9), new City("Vienna", 48.2082, 16.3738, 6),
+            new City("Prague", 50.0755, 14.4378, 6), new City("New York", 40.7128, -74.0060, 12),
+            new City("Los Angeles", 34.0522, -118.2437, 8), new City("Chicago", 41.8781, -87.6298, 6),
+            new City("Tokyo", 35.6762, 139.6503, 10), new City("Bangkok", 13.7563, 100.5018, 7),
+            new City("Sydney", -33.8688, 151.2093, 5), new City("Cape Town", -33.9249, 18.4241, 3),
+            new City("Rio de Janeiro", -22.9068, -43.1729, 4), new City("Dubai", 25.2048, 55.2708, 6)};
+
+    private static final String[] NAME_FIRST = {"Grand", "Royal", "Park", "City", "Harbour", "Golden", "Central",
+            "Old Town", "Riverside", "Garden", "Plaza", "Crown", "Blue", "North Star", "Sunset", "Palace"};
+    private static final String[] NAME_LAST = {"Hotel", "Inn", "Suites", "Lodge", "Residence", "House", "Resort", "Hostel"};
+    private static final String[] STREETS = {"Main", "Station", "Church", "Market", "Harbour", "King", "Queen",
+            "Park", "Mill", "High", "Bridge", "Garden", "Castle", "Lake"};
+    private static final String[] FIRST_NAMES = {"Anna", "Peter", "Maria", "Lars", "Sofia", "Jonas", "Emma", "Ali",
+            "Mette", "Oliver", "Ida", "Noah", "Laura", "Mikkel", "Freja", "Yusuf", "Clara", "William"};
+    private static final String[] LAST_NAMES = {"Jensen", "Nielsen", "Hansen", "Pedersen", "Andersen", "Smith",
+            "Garcia", "Müller", "Rossi", "Kowalski", "Larsen", "Berg", "Novak", "Silva", "Tanaka", "Khan"};
+
+    // BUDGET, STANDARD, LUXURY as in Hotel.HotelType
+    private static final String[] HOTEL_TYPES = {"BUDGET", "STANDARD", "LUXURY"};
+    private static final double[] HOTEL_TYPE_SHARE = {0.30, 0.50, 0.20};
+    private static final double[] HOTEL_TYPE_PRICE = {550, 1100, 2800};
+    // SINGLE, DOUBLE, SUITE as in Room.RoomType, share of each per hotel type
+    private static final String[] ROOM_TYPES = {"SINGLE", "DOUBLE", "SUITE"};
+    private static final double[][] ROOM_TYPE_SHARE = {{0.55, 0.40, 0.05}, {0.35, 0.50, 0.15}, {0.10, 0.55, 0.35}};
+    private static final double[] ROOM_TYPE_PRICE = {1.0, 1.4, 2.8};
+    private static final double[] ROOM_TYPE_SQUARE_METERS = {16, 25, 48};
+
+    // random streams of a hotel
+    private static final int HOTEL = 0;
+    private static final int ROOMS = 1;
+    private static final int BOOKINGS = 2;
+
+    public record Settings(int hotels, int roomsPerHotel, int users, int bookingsPerRoom, long seed, int workers) {
+    }
+
+    public record Result(int hotels, long rooms, int users, long bookings, long millis) {
+    }
+
+    private record City(String name, double latitude, double longitude, int weight) {
+    }
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Settings settings;
+
+    public DataGenerator(String url, String username, String password, Settings settings) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.settings = settings;
+    }
+
+    // The settings from the populate.* properties, see the pom
+    public static Settings settingsFromProperties() {
+        return new Settings(
+                Integer.parseInt(ApplicationConfig.getProperty("populate.hotels", "1000")),
+                Integer.parseInt(ApplicationConfig.getProperty("populate.rooms.per.hotel", "100")),
+                Integer.parseInt(ApplicationConfig.getProperty("populate.users", "1000")),
+                Integer.parseInt(ApplicationConfig.getProperty("populate.bookings.per.room", "2")),
+                Long.parseLong(ApplicationConfig.getProperty("populate.seed", "42")),
+                Integer.parseInt(ApplicationConfig.getProperty("populate.workers", "4")));
+    }
+
+    public Result generate() throws SQLException {
+        long start = System.nanoTime();
+        int firstHotelId;
+        int firstRoomId;
+        int firstGuest;
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            firstHotelId = max(statement, "SELECT coalesce(max(hotel_id), 0) FROM hotel") + 1;
+            firstRoomId = max(statement, "SELECT coalesce(max(room_id), 0) FROM room") + 1;
+            firstGuest = max(statement, "SELECT count(*) FROM users WHERE user_name LIKE 'guest%'") + 1;
+            statement.execute("INSERT INTO roles (role_name) VALUES ('user'), ('admin'), ('manager') ON CONFLICT DO NOTHING");
+
+            copy(connection, "COPY hotel (hotel_id, hotel_name, hotel_address, hotel_type, latitude, longitude) FROM STDIN",
+                    sb -> hotels(sb, firstHotelId, 0, settings.hotels()));
+            LOGGER.info("Copied {} hotels", settings.hotels());
+        }
+
+        // rooms and bookings of a range of hotels per worker
+        long[] bookings = new long[1];
+        parallel((from, to) -> {
+            try (Connection connection = connect()) {
+                copy(connection, "COPY room (room_id, room_number, price, square_meters, room_type, hotel_id) FROM STDIN",
+                        sb -> rooms(sb, firstHotelId, firstRoomId, from, to));
+                long copied = settings.bookingsPerRoom() == 0 ? 0 : copy(connection,
+                        "COPY booking (room_id, check_in, check_out, guest_name) FROM STDIN",
+                        sb -> bookings(sb, firstRoomId, from, to));
+                synchronized (bookings) {
+                    bookings[0] += copied;
+                }
+            }
+        });
+        long rooms = (long) settings.hotels() * settings.roomsPerHotel();
+        LOGGER.info("Copied {} rooms and {} bookings", rooms, bookings[0]);
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt());
+            copy(connection, "COPY users (user_name, user_password) FROM STDIN", sb -> {
+                for (int i = 0; i < settings.users(); i++) {
+                    sb.append("guest").append(firstGuest + i).append('\t').append(hash);
+                    sb.endRow();
+                }
+            });
+            // one admin and one manager in a hundred, everyone else is a plain user
+            copy(connection, "COPY user_roles (user_name, role_name) FROM STDIN", sb -> {
+                for (int i = 0; i < settings.users(); i++) {
+                    String role = i % 100 == 0 ? "admin" : i % 100 == 1 ? "manager" : "user";
+                    sb.append("guest").append(firstGuest + i).append('\t').append(role);
+                    sb.endRow();
+                }
+            });
+
+            // explicit ids bypassed the identity sequences
+            statement.execute("SELECT setval(pg_get_serial_sequence('hotel', 'hotel_id'), (SELECT max(hotel_id) FROM hotel))");
+            statement.execute("SELECT setval(pg_get_serial_sequence('room', 'room_id'), (SELECT max(room_id) FROM room))");
+            statement.execute("ANALYZE hotel, room, booking, users, user_roles");
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info("Generated {} hotels, {} rooms, {} users and {} bookings in {} ms",
+                settings.hotels(), rooms, settings.users(), bookings[0], millis);
+        return new Result(settings.hotels(), rooms, settings.users(), bookings[0], millis);
+    }
+
+    private void hotels(Rows sb, int firstHotelId, int from, int to) throws SQLException {
+        int totalWeight = 0;
+        for (City city : CITIES) totalWeight += city.weight();
+
+        for (int hotel = from; hotel < to; hotel++) {
+            SplittableRandom random = random(hotel, HOTEL);
+            int type = hotelType(random);
+            City city = CITIES[CITIES.length - 1];
+            int pick = random.nextInt(totalWeight);
+            for (City candidate : CITIES) {
+                if (pick < candidate.weight()) {
+                    city = candidate;
+                    break;
+                }
+                pick -= candidate.weight();
+            }
+            int hotelId = firstHotelId + hotel;
+            sb.append(hotelId);
+            sb.append('\t').append(NAME_FIRST[random.nextInt(NAME_FIRST.length)]).append(' ')
+                    .append(NAME_LAST[random.nextInt(NAME_LAST.length)]).append(' ')
+                    .append(city.name()).append(' ').append(hotelId);
+            sb.append('\t').append(1 + random.nextInt(200)).append(' ')
+                    .append(STREETS[random.nextInt(STREETS.length)]).append(" Street, ").append(city.name());
+            sb.append('\t').append(HOTEL_TYPES[type]);
+            // about 5 km around the city centre
+            sb.append('\t').append(city.latitude() + gaussian(random) * 0.045);
+            sb.append('\t').append(city.longitude() + gaussian(random) * 0.045 / Math.cos(Math.toRadians(city.latitude())));
+            sb.endRow();
+        }
+    }
+
+    private void rooms(Rows sb, int firstHotelId, int firstRoomId, int from, int to) throws SQLException {
+        int roomsPerHotel = settings.roomsPerHotel();
+        int floors = Math.max(1, (roomsPerHotel + 19) / 20);
+        int perFloor = (roomsPerHotel + floors - 1) / floors;
+        for (int hotel = from; hotel < to; hotel++) {
+            // the hotel type is the first draw of the hotel's own stream
+            int type = hotelType(random(hotel, HOTEL));
+            SplittableRandom random = random(hotel, ROOMS);
+            double hotelFactor = Math.exp(gaussian(random) * 0.2);
+
+            for (int i = 0; i < roomsPerHotel; i++) {
+                int roomType = pick(random, ROOM_TYPE_SHARE[type]);
+                double price = HOTEL_TYPE_PRICE[type] * ROOM_TYPE_PRICE[roomType] * hotelFactor * Math.exp(gaussian(random) * 0.15);
+                double squareMeters = ROOM_TYPE_SQUARE_METERS[roomType] * (1 + type * 0.15) * Math.exp(gaussian(random) * 0.12);
+                sb.append(firstRoomId + (long) hotel * roomsPerHotel + i);
+                sb.append('\t').append((1 + i / perFloor) * 100 + i % perFloor + 1);
+                // whole tens, as rate cards are
+                sb.append('\t').append(Math.max(10, Math.round(price / 10) * 10));
+                sb.append('\t').append(Math.round(squareMeters * 10) / 10.0);
+                sb.append('\t').append(ROOM_TYPES[roomType]);
+                sb.append('\t').append(firstHotelId + hotel);
+                sb.endRow();
+            }
+        }
+    }
+
+    // Stays of 1-7 nights, mostly short, with gaps between them over the coming months
+    private void bookings(Rows sb, int firstRoomId, int from, int to) throws SQLException {
+        LocalDate today = LocalDate.now();
+        int roomsPerHotel = settings.roomsPerHotel();
+        for (int hotel = from; hotel < to; hotel++) {
+            SplittableRandom random = random(hotel, BOOKINGS);
+            for (int i = 0; i < roomsPerHotel; i++) {
+                long roomId = firstRoomId + (long) hotel * roomsPerHotel + i;
+                LocalDate checkIn = today.plusDays(random.nextInt(7));
+                for (int b = 0; b < settings.bookingsPerRoom(); b++) {
+                    int nights = 1 + (int) Math.min(6, -Math.log(1 - random.nextDouble()) * 2.5);
+                    LocalDate checkOut = checkIn.plusDays(nights);
+                    sb.append(roomId).append('\t').append(checkIn).append('\t').append(checkOut).append('\t')
+                            .append(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]).append(' ')
+                            .append(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                    sb.endRow();
+                    checkIn = checkOut.plusDays(random.nextInt(10));
+                }
+            }
+        }
+    }
+
+    // Independent streams per hotel and table, so a hotel's rows do not depend on which worker writes them
+    private SplittableRandom random(int hotel, int table) {
+        return new SplittableRandom((settings.seed() * 0x9E3779B97F4A7C15L + hotel) * 3 + table);
+    }
+
+    private static int hotelType(SplittableRandom random) {
+        return pick(random, HOTEL_TYPE_SHARE);
+    }
+
+    private static int pick(SplittableRandom random, double[] shares) {
+        double r = random.nextDouble();
+        for (int i = 0; i < shares.length - 1; i++) {
+            r -= shares[i];
+            if (r < 0) return i;
+        }
+        return shares.length - 1;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller, SplittableRandom has no nextGaussian
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private interface HotelRange {
+        void load(int from, int to) throws SQLException;
+    }
+
+    private void parallel(HotelRange range) throws SQLException {
+        int workers = Math.max(1, Math.min(settings.workers(), settings.hotels()));
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Object>> parts = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                int from = (int) ((long) settings.hotels() * w / workers);
+                int to = (int) ((long) settings.hotels() * (w + 1) / workers);
+                parts.add(executor.submit(() -> {
+                    range.load(from, to);
+                    return null;
+                }));
+            }
+            for (Future<Object> part : parts) {
+                part.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) throw sqlException;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while copying", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface RowWriter {
+        void write(Rows rows) throws SQLException;
+    }
+
+    // Runs one COPY ... FROM STDIN (text format), returns the number of rows copied
+    private static long copy(Connection connection, String sql, RowWriter writer) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            Rows rows = new Rows(copyIn);
+            writer.write(rows);
+            rows.flush();
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) copyIn.cancelCopy();
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private static int max(Statement statement, String sql) throws SQLException {
+        try (ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    // Text-format COPY rows, built up in a StringBuilder and handed over about a megabyte at a time
+    private static final class Rows {
+        private final CopyIn copyIn;
+        private final StringBuilder sb = new StringBuilder(FLUSH_CHARS + 4096);
+
+        Rows(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        Rows append(String value) {
+            sb.append(value);
+            return this;
+        }
+
+        Rows append(Object value) {
+            sb.append(value);
+            return this;
+        }
+
+        Rows append(char value) {
+            sb.append(value);
+            return this;
+        }
+
+        Rows append(long value) {
+            sb.append(value);
+            return this;
+        }
+
+        Rows append(double value) {
+            sb.append(value);
+            return this;
+        }
+
+        void endRow() throws SQLException {
+            sb.append('\n');
+            if (sb.length() >= FLUSH_CHARS) flush();
+        }
+
+        void flush() throws SQLException {
+            if (sb.isEmpty()) return;
+            byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            sb.setLength(0);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package org.example.config;
 
+import org.example.model.Booking;
 import org.example.model.Hotel;
+import org.example.model.PricingRule;
 import org.example.model.Role;
 import org.example.model.Room;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.NoArgsConstructor;
 import org.example.model.User;
+import org.example.sql.SqlMonitor;
+import org.example.sql.SqlStatementInspector;
+import org.example.sql.SqlTimingListener;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
@@ -45,7 +50,9 @@ public class HibernateConfig {
             props.put("hibernate.connection.driver_class", "org.postgresql.Driver"); // driver class for postgresql
             props.put("hibernate.archive.autodetection", "class"); // hibernate scans for annotated classes
             props.put("hibernate.current_session_context_class", "thread"); // hibernate current session context
-            props.put("hibernate.hbm2ddl.auto", "update"); // hibernate creates tables based on entities
+            // the migrations own the schema, hibernate checks the entities against it; a fast boot may skip that (none)
+            props.put("hibernate.hbm2ddl.auto", ApplicationConfig.isFastBoot() ? ApplicationConfig.getProperty("boot.schema.action", "validate") : "validate");
+            props.put("hibernate.generate_statistics", "true"); // exposed on /metrics
 
             // Hibernate Default Pool Configuration
             // https://www.mastertheboss.com/hibernate-jpa/hibernate-configuration/configure-a-connection-pool-with-hibernate/
@@ -69,12 +76,14 @@ public class HibernateConfig {
             Properties props = new Properties();
             props.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
             props.put("hibernate.connection.driver_class", "org.testcontainers.jdbc.ContainerDatabaseDriver");
-            props.put("hibernate.connection.url", "jdbc:tc:postgresql:15.3-alpine3.18:///test_db");
+            // TC_DAEMON keeps the container up after the migrations close their connection
+            props.put("hibernate.connection.url", "jdbc:tc:postgresql:15.3-alpine3.18:///test_db?TC_DAEMON=true");
             props.put("hibernate.connection.username", "postgres");
             props.put("hibernate.connection.password", "postgres");
             props.put("hibernate.archive.autodetection", "class");
             props.put("hibernate.show_sql", "true");
-            props.put("hibernate.hbm2ddl.auto", "create-drop");
+            props.put("hibernate.hbm2ddl.auto", "validate");
+            props.put("hibernate.generate_statistics", "true");
 
             return getEntityManagerFactory(configuration, props);
         } catch (Throwable ex) {
@@ -84,6 +93,12 @@ public class HibernateConfig {
     }
 
     private static EntityManagerFactory getEntityManagerFactory(Configuration configuration, Properties props) {
+        // SQL instrumentation: latency per statement fingerprint, slow query log and per-request budgets
+        SqlMonitor.getInstance();
+        props.put("hibernate.session_factory.statement_inspector", SqlStatementInspector.class.getName());
+        props.put("hibernate.session.events.auto", SqlTimingListener.class.getName());
+
+        Migrations.migrate(props);
         configuration.setProperties(props);
 
         getAnnotationConfiguration(configuration);
@@ -110,6 +125,8 @@ public class HibernateConfig {
         configuration.addAnnotatedClass(Room.class);
         configuration.addAnnotatedClass(User.class);
         configuration.addAnnotatedClass(Role.class);
+        configuration.addAnnotatedClass(Booking.class);
+        configuration.addAnnotatedClass(PricingRule.class);
     }
 
     public static EntityManagerFactory getEntityManagerFactory() {
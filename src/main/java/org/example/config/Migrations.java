@@ -0,0 +1,40 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.NoArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Properties;
+
+// Versioned schema migrations (src/main/resources/db/migration), applied with Flyway before Hibernate
+// starts; Hibernate only validates the entities against the result. A database whose tables were
+// created by hbm2ddl before there were migrations is baselined at V1 and picks up from V2.
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class Migrations {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Migrations.class);
+
+    // props are the Hibernate connection settings
+    public static void migrate(Properties props) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(props.getProperty("hibernate.connection.driver_class"));
+        config.setJdbcUrl(props.getProperty("hibernate.connection.url"));
+        config.setUsername(props.getProperty("hibernate.connection.username"));
+        config.setPassword(props.getProperty("hibernate.connection.password"));
+        config.setMaximumPoolSize(1);
+
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            MigrateResult result = Flyway.configure()
+                    .dataSource(dataSource)
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+            LOGGER.info("Schema at version {}, {} migrations applied", result.targetSchemaVersion, result.migrationsExecuted);
+        }
+    }
+}
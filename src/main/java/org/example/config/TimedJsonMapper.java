@@ -0,0 +1,50 @@
+package org.example.config;
+
+import io.javalin.json.JsonMapper;
+import org.example.metrics.ServerTiming;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.stream.Stream;
+
+// Delegates to Javalin's Jackson mapper and reports response serialization to ServerTiming
+public class TimedJsonMapper implements JsonMapper {
+
+    private final JsonMapper delegate;
+
+    public TimedJsonMapper(JsonMapper delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String toJsonString(Object obj, Type type) {
+        long start = ServerTiming.start();
+        String json = delegate.toJsonString(obj, type);
+        ServerTiming.stop(ServerTiming.Phase.SERIALIZATION, start);
+        return json;
+    }
+
+    @Override
+    public InputStream toJsonStream(Object obj, Type type) {
+        long start = ServerTiming.start();
+        InputStream json = delegate.toJsonStream(obj, type);
+        ServerTiming.stop(ServerTiming.Phase.SERIALIZATION, start);
+        return json;
+    }
+
+    @Override
+    public void writeToOutputStream(Stream<?> stream, OutputStream outputStream) {
+        delegate.writeToOutputStream(stream, outputStream);
+    }
+
+    @Override
+    public <T> T fromJsonString(String json, Type targetType) {
+        return delegate.fromJsonString(json, targetType);
+    }
+
+    @Override
+    public <T> T fromJsonStream(InputStream json, Type targetType) {
+        return delegate.fromJsonStream(json, targetType);
+    }
+}
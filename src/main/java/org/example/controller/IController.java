@@ -1,14 +1,46 @@
 package org.example.controller;
 
 import io.javalin.http.Context;
+import org.example.exception.ApiException;
+import org.example.metrics.ServerTiming;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 public interface IController<T, D> {
-    void read(Context ctx);
+    void read(Context ctx) throws ApiException;
     void readAll(Context ctx);
     void create(Context ctx);
-    void update(Context ctx);
-    void delete(Context ctx);
+    void update(Context ctx) throws ApiException;
+    void delete(Context ctx) throws ApiException;
     boolean validatePrimaryKey(D d);
     T validateEntity(Context ctx);
 
+    // Unknown ids are an expected outcome, answered with the shared stackless 404
+    default D validateId(Context ctx, Class<D> idClass) throws ApiException {
+        D id = ctx.pathParamAsClass("id", idClass).get();
+        long start = ServerTiming.start();
+        boolean exists = validatePrimaryKey(id);
+        ServerTiming.stop(ServerTiming.Phase.DB, start);
+        if (!exists) throw ApiException.NOT_FOUND;
+        return id;
+    }
+
+    // ISO date query parameter (2024-06-01), defaultValue when absent or a 400 when it is required or malformed
+    default LocalDate validateDate(Context ctx, String name, LocalDate defaultValue) throws ApiException {
+        String value = ctx.queryParam(name);
+        if (value == null && defaultValue != null) return defaultValue;
+        return parseDate(value);
+    }
+
+    // ISO date from a query parameter or request body, a 400 when it is absent or malformed
+    static LocalDate parseDate(String value) throws ApiException {
+        if (value == null) throw ApiException.INVALID_DATE_RANGE;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw ApiException.INVALID_DATE_RANGE;
+        }
+    }
+
 }
@@ -2,63 +2,156 @@ package org.example.controller.impl;
 
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
 import io.javalin.security.RouteRole;
+import org.example.config.ApplicationConfig;
 import org.example.dto.UserDTO;
 import org.example.exception.ApiException;
 import org.example.exception.AuthorizationException;
+import org.example.limit.PriorityLimiter;
+import org.example.limit.PriorityLimiter.Priority;
+import org.example.metrics.ServerTiming;
 import org.example.security.RouteRoles;
 import org.example.security.TokenFactory;
 
 import java.util.Set;
+import java.util.concurrent.Semaphore;
 
 public class AccessManagerController
 {
 
+    private static final String USER = "user";
+
+    // shared by every instance, the budget is per server
+    private static final Semaphore METRICS_BUDGET = new Semaphore(
+            Integer.parseInt(ApplicationConfig.getProperty("limiter.metrics.concurrency", "2")));
+
     private final TokenFactory TOKEN_FACTORY = TokenFactory.getInstance();
+    private final PriorityLimiter LIMITER = PriorityLimiter.getInstance();
+    private final boolean LIMITER_ENABLED = Boolean.parseBoolean(ApplicationConfig.getProperty("limiter.enabled", "true"));
 
     public void accessManagerHandler(Handler handler, Context ctx, Set<? extends RouteRole> permittedRoles) throws Exception
     {
         String path = ctx.path();
         boolean isAuthorized = false;
 
-        if (path.equals("/api/v1/auth/login") || path.equals("/api/v1/auth/register") || path.equals("/api/v1/routes") || permittedRoles.contains(RouteRoles.ANYONE))
+        if (path.equals("/api/v1/auth/login") || path.equals("/api/v1/auth/register"))
         {
-            handler.handle(ctx);
+            handleLimited(handler, ctx, path, Priority.CRITICAL);
             return;
-        } else
+        }
+        if (path.equals("/api/v1/routes") || permittedRoles.contains(RouteRoles.ANYONE))
+        {
+            handleLimited(handler, ctx, path, Priority.LOW);
+            return;
+        }
+
+        Priority priority = Priority.NORMAL;
+        long authStart = ServerTiming.isAvailable() ? System.nanoTime() : 0;
+        RouteRole[] userRole = getUserRole(ctx);
+        for (RouteRole role : userRole)
         {
-            RouteRole[] userRole = getUserRole(ctx);
-            for (RouteRole role : userRole)
+            // admin and manager writes are the last thing to shed
+            if ((role == RouteRoles.ADMIN || role == RouteRoles.MANAGER) && ctx.method() != HandlerType.GET)
             {
-                if (permittedRoles.contains(role))
-                {
-                    isAuthorized = true;
-                    break;
-                }
+                priority = Priority.CRITICAL;
+            }
+            // admins get the Server-Timing breakdown on every request
+            if (role == RouteRoles.ADMIN)
+            {
+                ServerTiming.activate();
+            }
+            if (permittedRoles.contains(role))
+            {
+                isAuthorized = true;
             }
         }
+        ServerTiming.stop(ServerTiming.Phase.AUTH, authStart);
 
         if (isAuthorized)
         {
-            handler.handle(ctx);
+            handleLimited(handler, ctx, path, priority);
         } else
         {
-            throw new AuthorizationException(401, "You are not authorized to perform this action");
+            throw AuthorizationException.NOT_AUTHORIZED;
         }
     }
 
-    private RouteRole[] getUserRole(Context ctx) throws AuthorizationException, ApiException
+    // Requests over their class's share of the adaptive limit wait briefly in the class queue or are
+    // turned away before they queue for a connection. Logins and admin/manager writes are CRITICAL,
+    // other signed-in requests NORMAL, anonymous ones LOW and shed first.
+    // The admin-only metrics endpoints are how the shedding is watched, so they are kept out of the
+    // adaptive limit; a small fixed budget of their own stops them from being used to flood the server.
+    private void handleLimited(Handler handler, Context ctx, String path, Priority priority) throws Exception
     {
+        if (path.startsWith("/api/v1/metrics"))
+        {
+            if (!METRICS_BUDGET.tryAcquire())
+            {
+                throw ApiException.OVERLOADED;
+            }
+            try
+            {
+                handler.handle(ctx);
+            } finally
+            {
+                METRICS_BUDGET.release();
+            }
+            return;
+        }
+        if (!LIMITER_ENABLED)
+        {
+            handler.handle(ctx);
+            return;
+        }
+        if (!LIMITER.acquire(priority))
+        {
+            throw ApiException.OVERLOADED;
+        }
+        long start = System.nanoTime();
         try
         {
-            String token = ctx.header("Authorization").split(" ")[1];
-            UserDTO userDTO = TOKEN_FACTORY.verifyToken(token);
-            return userDTO.getRoles().stream().map(r -> RouteRoles.valueOf(r.toUpperCase())).toArray(RouteRole[]::new);
+            handler.handle(ctx);
+        } finally
+        {
+            LIMITER.release(priority, System.nanoTime() - start);
         }
-        catch (NullPointerException e)
+    }
+
+    private RouteRole[] getUserRole(Context ctx) throws AuthorizationException, ApiException
+    {
+        // Missing or malformed headers are checked up front instead of catching a NullPointerException
+        String header = ctx.header("Authorization");
+        int separator = header != null ? header.indexOf(' ') : -1;
+        if (separator < 0)
         {
-            throw new ApiException(401, "Invalid token");
+            throw ApiException.INVALID_TOKEN;
         }
 
+        String token = header.substring(separator + 1);
+        UserDTO userDTO = TOKEN_FACTORY.verifyToken(token);
+        ctx.attribute(USER, userDTO);
+        return userDTO.getRoles().stream().map(r -> RouteRoles.valueOf(r.toUpperCase())).toArray(RouteRole[]::new);
+
+    }
+
+    // The signed-in caller, set for every route that is not open to ANYONE
+    public static UserDTO caller(Context ctx)
+    {
+        return ctx.attribute(USER);
+    }
+
+    // The user name a signed-in caller's access to owned resources (holds, bookings) is restricted to,
+    // null for admins and managers, who may act on any of them
+    public static String restrictedTo(Context ctx)
+    {
+        return isStaff(ctx) ? null : caller(ctx).getUsername();
+    }
+
+    // Admins and managers, who may also see what the ADMIN/MANAGER routes show (e.g. price stats)
+    public static boolean isStaff(Context ctx)
+    {
+        return caller(ctx).getRoles().stream()
+                .anyMatch(r -> r.equalsIgnoreCase(RouteRoles.ADMIN.toString()) || r.equalsIgnoreCase(RouteRoles.MANAGER.toString()));
     }
-}
\ No newline at end of file
+}
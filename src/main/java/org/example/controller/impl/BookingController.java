@@ -0,0 +1,105 @@
+package org.example.controller.impl;
+
+import io.javalin.http.Context;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.availability.AvailabilityIndex;
+import org.example.config.HibernateConfig;
+import org.example.controller.IController;
+import org.example.dao.impl.BookingDao;
+import org.example.dto.BookingDto;
+import org.example.exception.ApiException;
+import org.example.metrics.ServerTiming;
+import org.example.metrics.ServerTiming.Phase;
+import org.example.model.Booking;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class BookingController {
+
+    private final BookingDao dao;
+    private final AvailabilityIndex availability;
+
+    public BookingController() {
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        this.availability = AvailabilityIndex.getInstance(emf);
+        this.dao = BookingDao.getInstance(emf);
+    }
+
+    // A booking can only be read and cancelled by the user who made it or an admin or manager,
+    // others get 404
+    public void read(Context ctx) throws ApiException {
+        // request
+        int id = ctx.pathParamAsClass("id", Integer.class).get();
+        // entity
+        long start = ServerTiming.start();
+        Booking booking = readOwned(ctx, id);
+        ServerTiming.stop(Phase.DB, start);
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(new BookingDto(booking), BookingDto.class);
+    }
+
+    public void readByRoom(Context ctx) {
+        // request
+        int roomId = ctx.pathParamAsClass("id", Integer.class).get();
+        // entity
+        long start = ServerTiming.start();
+        List<Booking> bookings = dao.readAllByRoom(roomId);
+        ServerTiming.stop(Phase.DB, start);
+        // dto
+        start = ServerTiming.start();
+        List<BookingDto> bookingDtos = BookingDto.toBookingDTOList(bookings);
+        ServerTiming.stop(Phase.MAPPING, start);
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(bookingDtos, BookingDto.class);
+    }
+
+    public void create(Context ctx) throws ApiException {
+        // request
+        BookingDto request = ctx.bodyValidator(BookingDto.class)
+                .check(b -> b.getRoomId() != null, "Not a valid room id")
+                .check(b -> b.getGuestName() != null && !b.getGuestName().isBlank(), "Not a valid guest name")
+                .get();
+        LocalDate checkIn = IController.parseDate(request.getCheckIn());
+        LocalDate checkOut = IController.parseDate(request.getCheckOut());
+        if (!checkIn.isBefore(checkOut)) throw ApiException.INVALID_DATE_RANGE;
+
+        // rooms the index already knows to be taken or held are turned away without touching the database
+        int roomId = request.getRoomId();
+        if (availability.hasRoom(roomId) && availability.covers(checkIn, checkOut)
+                && !availability.isAvailable(roomId, checkIn, checkOut)) {
+            throw ApiException.BOOKING_CONFLICT;
+        }
+
+        // entity
+        long start = ServerTiming.start();
+        Booking booking = new Booking(null, checkIn, checkOut, request.getGuestName());
+        booking.setOwner(AccessManagerController.caller(ctx).getUsername());
+        dao.book(roomId, booking);
+        ServerTiming.stop(Phase.DB, start);
+        // response
+        ctx.res().setStatus(201);
+        ctx.json(new BookingDto(booking), BookingDto.class);
+    }
+
+    public void delete(Context ctx) throws ApiException {
+        // request
+        int id = ctx.pathParamAsClass("id", Integer.class).get();
+        // entity
+        long start = ServerTiming.start();
+        readOwned(ctx, id);
+        dao.delete(id);
+        ServerTiming.stop(Phase.DB, start);
+        // response
+        ctx.res().setStatus(204);
+    }
+
+    private Booking readOwned(Context ctx, int id) throws ApiException {
+        Booking booking = dao.read(id);
+        String owner = AccessManagerController.restrictedTo(ctx);
+        if (booking == null || (owner != null && !owner.equals(booking.getOwner()))) throw ApiException.NOT_FOUND;
+        return booking;
+    }
+}
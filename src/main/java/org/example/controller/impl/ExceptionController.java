@@ -1,8 +1,11 @@
 package org.example.controller.impl;
 
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
 import io.javalin.validation.ValidationError;
 import io.javalin.validation.ValidationException;
+import jakarta.persistence.OptimisticLockException;
 import org.example.exception.ApiException;
 import org.example.exception.AuthorizationException;
 import org.example.exception.Message;
@@ -13,20 +16,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+// 4xx responses are expected outcomes: they are logged at debug level (the access log already
+// records them) and answered with pre-serialized bodies. Only the 500 path logs a stack trace.
 public class ExceptionController {
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     private final Logger LOGGER = LoggerFactory.getLogger(Routes.class);
     public void exceptionHandlerNotAuthorized(AuthorizationException e, Context ctx) {
-        LOGGER.error(ctx.attribute("requestInfo") + " " + ctx.res().getStatus() + " " + e.getMessage());
+        LOGGER.debug("{} {} {} {}", ctx.method(), ctx.path(), e.getStatusCode(), e.getMessage());
         ctx.status(e.getStatusCode());
-        ctx.json(new Message(e.getStatusCode(), e.getMessage()));
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        ctx.result(e.getBody());
     }
 
     public void validationExceptionHandler(ValidationException e, Context ctx) {
-        LOGGER.error(ctx.attribute("requestInfo") + " " + ctx.res().getStatus() + " " + ctx.body());
+        LOGGER.debug("{} {} {} {}", ctx.method(), ctx.path(), ctx.res().getStatus(), e.getErrors().keySet());
 
         Map<String, List<ValidationError<Object>>> errors = e.getErrors();
         List<ValidationError<Object>> errorList = new ArrayList<>();
@@ -50,26 +57,41 @@ public class ExceptionController {
         ctx.json(new ValidationMessage(message, args, value));
     }
 
+    // A delete refused by a foreign key means the row is still referenced: a room or hotel with bookings
     public void constraintViolationExceptionHandler(ConstraintViolationException e, Context ctx) {
-        LOGGER.error(ctx.attribute("requestInfo") + " " + ctx.res().getStatus() + " " + ctx.body());
+        if (ctx.method() == HandlerType.DELETE && FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+            apiExceptionHandler(ApiException.HAS_BOOKINGS, ctx);
+            return;
+        }
+        LOGGER.error("{} {} {} {}", ctx.method(), ctx.path(), ctx.res().getStatus(), ctx.body());
         ctx.status(500);
         ctx.json(new Message(e.getErrorCode(), e.getSQLException().getMessage()));
     }
 
     public void apiExceptionHandler(ApiException e, Context ctx) {
-        LOGGER.error(ctx.attribute("requestInfo") + " " + ctx.res().getStatus() + " " + e.getMessage());
+        if (e.getStatusCode() == 500) {
+            LOGGER.error("{} {} {}", ctx.method(), ctx.path(), e.getMessage(), e);
+        } else {
+            LOGGER.debug("{} {} {} {}", ctx.method(), ctx.path(), e.getStatusCode(), e.getMessage());
+        }
         ctx.status(e.getStatusCode());
-        ctx.json(new Message(e.getStatusCode(), e.getMessage()));
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        ctx.result(e.getBody());
     }
 
-    public void exceptionHandler(Exception e, Context ctx) {
-        LOGGER.error(ctx.attribute("requestInfo") + " " + ctx.res().getStatus() + " " + e.getMessage());
-
-        System.out.println("======================================");
-        System.out.println(Arrays.toString(e.getStackTrace()));
-        System.out.println("======================================");
+    // A PUT whose row was changed between its read and its write, answered like a refused PATCH
+    public void optimisticLockExceptionHandler(OptimisticLockException e, Context ctx) {
+        apiExceptionHandler(ApiException.VERSION_CONFLICT, ctx);
+    }
 
+    public void exceptionHandler(Exception e, Context ctx) {
+        // an expected refusal wrapped where ApiException cannot be thrown, see BookingDao.create
+        if (e.getCause() instanceof ApiException cause) {
+            apiExceptionHandler(cause, ctx);
+            return;
+        }
+        LOGGER.error("{} {} {}", ctx.method(), ctx.path(), e.getMessage(), e);
         ctx.status(500);
         ctx.json(new Message(500, e.getMessage()));
     }
-}
\ No newline at end of file
+}
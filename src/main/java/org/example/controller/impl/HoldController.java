@@ -0,0 +1,79 @@
+package org.example.controller.impl;
+
+import io.javalin.http.Context;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.availability.Hold;
+import org.example.availability.HoldService;
+import org.example.config.HibernateConfig;
+import org.example.controller.IController;
+import org.example.dto.BookingDto;
+import org.example.dto.HoldDto;
+import org.example.exception.ApiException;
+import org.example.metrics.ServerTiming;
+import org.example.metrics.ServerTiming.Phase;
+import org.example.model.Booking;
+
+import java.time.LocalDate;
+
+public class HoldController {
+
+    private final HoldService service;
+
+    public HoldController() {
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        this.service = HoldService.getInstance(emf);
+    }
+
+    // Holds a room while the guest checks out, 409 when any of the nights is booked or held. A hold can
+    // only be read, released and confirmed by its owner or an admin or manager, others get 404.
+    public void create(Context ctx) throws ApiException {
+        // request
+        HoldDto request = ctx.bodyValidator(HoldDto.class)
+                .check(h -> h.getRoomId() != null, "Not a valid room id")
+                .get();
+        LocalDate checkIn = IController.parseDate(request.getCheckIn());
+        LocalDate checkOut = IController.parseDate(request.getCheckOut());
+        if (!checkIn.isBefore(checkOut)) throw ApiException.INVALID_DATE_RANGE;
+        // entity
+        Hold hold = service.hold(request.getRoomId(), checkIn, checkOut, request.getTtlSeconds(),
+                AccessManagerController.caller(ctx).getUsername());
+        // response
+        ctx.res().setStatus(201);
+        ctx.json(new HoldDto(hold), HoldDto.class);
+    }
+
+    public void read(Context ctx) throws ApiException {
+        // request
+        long id = ctx.pathParamAsClass("id", Long.class).get();
+        // entity
+        Hold hold = service.get(id, AccessManagerController.restrictedTo(ctx));
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(new HoldDto(hold), HoldDto.class);
+    }
+
+    public void delete(Context ctx) throws ApiException {
+        // request
+        long id = ctx.pathParamAsClass("id", Long.class).get();
+        // entity
+        service.release(id, AccessManagerController.restrictedTo(ctx));
+        // response
+        ctx.res().setStatus(204);
+    }
+
+    // Turns the hold into a booking, e.g. {"guestName": "Marion Crane"}
+    public void confirm(Context ctx) throws ApiException {
+        // request
+        long id = ctx.pathParamAsClass("id", Long.class).get();
+        BookingDto request = ctx.bodyValidator(BookingDto.class)
+                .check(b -> b.getGuestName() != null && !b.getGuestName().isBlank(), "Not a valid guest name")
+                .get();
+        // entity
+        long start = ServerTiming.start();
+        Booking booking = service.confirm(id, AccessManagerController.restrictedTo(ctx), request.getGuestName());
+        ServerTiming.stop(Phase.DB, start);
+        // response
+        ctx.res().setStatus(201);
+        ctx.json(new BookingDto(booking), BookingDto.class);
+    }
+}
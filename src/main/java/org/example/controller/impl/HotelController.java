@@ -1,32 +1,57 @@
 package org.example.controller.impl;
 
+import org.example.availability.AvailabilityIndex;
 import org.example.config.HibernateConfig;
 import org.example.controller.IController;
 import org.example.dao.impl.HotelDao;
 import org.example.dto.HotelDto;
+import org.example.dto.HotelOverviewDto;
+import org.example.dto.HotelPatchDto;
+import org.example.dto.HotelSearchDto;
+import org.example.dto.NearbyHotelDto;
+import org.example.exception.ApiException;
+import org.example.index.GeoIndex;
+import org.example.index.HotelSearchIndex;
+import org.example.metrics.ServerTiming;
+import org.example.metrics.ServerTiming.Phase;
 import org.example.model.Hotel;
+import org.example.overview.HotelOverviewService;
+import org.example.pricing.CompiledPricing;
 import io.javalin.http.Context;
 import jakarta.persistence.EntityManagerFactory;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public class HotelController implements IController<Hotel, Integer> {
 
     private final HotelDao dao;
+    private final GeoIndex geo;
+    private final AvailabilityIndex availability;
+    private final HotelSearchIndex search;
+    private final HotelOverviewService overview;
 
     public HotelController() {
         EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
         this.dao = HotelDao.getInstance(emf);
+        this.geo = GeoIndex.getInstance(emf);
+        this.availability = AvailabilityIndex.getInstance(emf);
+        this.search = HotelSearchIndex.getInstance(emf);
+        this.overview = HotelOverviewService.getInstance(emf);
     }
 
     @Override
-    public void read(Context ctx)  {
+    public void read(Context ctx) throws ApiException {
         // request
-        int id = ctx.pathParamAsClass("id", Integer.class).check(this::validatePrimaryKey, "Not a valid id").get();
+        int id = validateId(ctx, Integer.class);
         // entity
+        long start = ServerTiming.start();
         Hotel hotel = dao.read(id);
+        ServerTiming.stop(Phase.DB, start);
         // dto
+        start = ServerTiming.start();
         HotelDto hotelDto = new HotelDto(hotel);
+        ServerTiming.stop(Phase.MAPPING, start);
         // response
         ctx.res().setStatus(200);
         ctx.json(hotelDto, HotelDto.class);
@@ -35,9 +60,13 @@ public class HotelController implements IController<Hotel, Integer> {
     @Override
     public void readAll(Context ctx) {
         // entity
+        long start = ServerTiming.start();
         List<Hotel> hotels = dao.readAll();
+        ServerTiming.stop(Phase.DB, start);
         // dto
+        start = ServerTiming.start();
         List<HotelDto> hotelDtos = HotelDto.toHotelDTOList(hotels);
+        ServerTiming.stop(Phase.MAPPING, start);
         // response
         ctx.res().setStatus(200);
         ctx.json(hotelDtos, HotelDto.class);
@@ -46,40 +75,178 @@ public class HotelController implements IController<Hotel, Integer> {
     @Override
     public void create(Context ctx) {
         // request
-        //Hotel jsonRequest = validateEntity(ctx);
-        Hotel jsonRequest = ctx.bodyAsClass(Hotel.class);
+        Hotel jsonRequest = validateEntity(ctx);
         // entity
+        long start = ServerTiming.start();
         Hotel hotel = dao.create(jsonRequest);
+        ServerTiming.stop(Phase.DB, start);
         // dto
+        start = ServerTiming.start();
         HotelDto hotelDto = new HotelDto(hotel);
+        ServerTiming.stop(Phase.MAPPING, start);
         // response
         ctx.res().setStatus(201);
         ctx.json(hotelDto, HotelDto.class);
     }
 
     @Override
-    public void update(Context ctx) {
+    public void update(Context ctx) throws ApiException {
         // request
-        int id = ctx.pathParamAsClass("id", Integer.class).check(this::validatePrimaryKey, "Not a valid id").get();
+        int id = validateId(ctx, Integer.class);
         // entity
+        long start = ServerTiming.start();
         Hotel update = dao.update(id, validateEntity(ctx));
+        ServerTiming.stop(Phase.DB, start);
         // dto
+        start = ServerTiming.start();
         HotelDto hotelDto = new HotelDto(update);
+        ServerTiming.stop(Phase.MAPPING, start);
         // response
         ctx.res().setStatus(200);
         ctx.json(hotelDto, Hotel.class);
     }
 
+    // Only the fields in the body, and only if the hotel is still at the version in the body; 409 when
+    // it has been changed since. One UPDATE, the id is not looked up first and the rooms are not read.
+    public void patch(Context ctx) throws ApiException {
+        // request
+        int id = ctx.pathParamAsClass("id", Integer.class).get();
+        HotelPatchDto request = ctx.bodyValidator(HotelPatchDto.class)
+                .check(HotelPatchDto::isValid, "Not a valid hotel patch, it needs a version and a field to change")
+                .get();
+        // entity
+        long start = ServerTiming.start();
+        Hotel patched = dao.patch(id, request.getVersion(), request.toHotel());
+        ServerTiming.stop(Phase.DB, start);
+        // dto
+        start = ServerTiming.start();
+        HotelDto hotelDto = HotelDto.withoutRooms(patched);
+        ServerTiming.stop(Phase.MAPPING, start);
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(hotelDto, HotelDto.class);
+    }
+
     @Override
-    public void delete(Context ctx) {
+    public void delete(Context ctx) throws ApiException {
         // request
-        int id = ctx.pathParamAsClass("id", Integer.class).check(this::validatePrimaryKey, "Not a valid id").get();
+        int id = validateId(ctx, Integer.class);
         // entity
+        long start = ServerTiming.start();
         dao.delete(id);
+        ServerTiming.stop(Phase.DB, start);
         // response
         ctx.res().setStatus(204);
     }
 
+    // The k hotels nearest to lat/lon with the number of rooms free from "from" to "to" (default tonight)
+    public void readNearest(Context ctx) throws ApiException {
+        // request
+        double lat = validateLatitude(ctx);
+        double lon = validateLongitude(ctx);
+        int k = ctx.queryParamAsClass("k", Integer.class).check(v -> v > 0 && v <= 100, "k must be between 1 and 100").getOrDefault(10);
+        LocalDate from = validateDate(ctx, "from", LocalDate.now());
+        LocalDate to = validateDate(ctx, "to", from.plusDays(1));
+        if (!availability.covers(from, to)) throw ApiException.INVALID_DATE_RANGE;
+
+        // entity
+        long start = ServerTiming.start();
+        GeoIndex.Hits hits = geo.nearest(lat, lon, k);
+        ServerTiming.stop(Phase.DB, start);
+
+        // dto
+        respondNearby(ctx, hits, from, to);
+    }
+
+    // Hotels within km of lat/lon, nearest first, with the number of rooms free from "from" to "to" (default tonight)
+    public void readWithin(Context ctx) throws ApiException {
+        // request
+        double lat = validateLatitude(ctx);
+        double lon = validateLongitude(ctx);
+        double km = ctx.queryParamAsClass("km", Double.class).check(v -> v > 0 && v <= 500, "km must be between 0 and 500").get();
+        int limit = ctx.queryParamAsClass("limit", Integer.class).check(v -> v > 0 && v <= 1000, "limit must be between 1 and 1000").getOrDefault(100);
+        LocalDate from = validateDate(ctx, "from", LocalDate.now());
+        LocalDate to = validateDate(ctx, "to", from.plusDays(1));
+        if (!availability.covers(from, to)) throw ApiException.INVALID_DATE_RANGE;
+
+        // entity
+        long start = ServerTiming.start();
+        GeoIndex.Hits hits = geo.within(lat, lon, km, limit);
+        ServerTiming.stop(Phase.DB, start);
+
+        // dto
+        respondNearby(ctx, hits, from, to);
+    }
+
+    // Hotel, stats and the rooms free from "from" to "to" (default tonight) with stay prices, fetched in parallel
+    public void readOverview(Context ctx) throws ApiException {
+        // request
+        int id = ctx.pathParamAsClass("id", Integer.class).get();
+        LocalDate from = validateDate(ctx, "from", LocalDate.now());
+        LocalDate to = validateDate(ctx, "to", from.plusDays(1));
+        if (!availability.covers(from, to)) throw ApiException.INVALID_DATE_RANGE;
+        int guests = ctx.queryParamAsClass("guests", Integer.class)
+                .check(g -> g > 0 && g <= CompiledPricing.MAX_GUESTS, "guests must be between 1 and " + CompiledPricing.MAX_GUESTS)
+                .getOrDefault(1);
+
+        // entity
+        long start = ServerTiming.start();
+        // price stats are for admins and managers, as on /stats
+        boolean withStats = AccessManagerController.isStaff(ctx);
+        HotelOverviewService.Overview overview = this.overview.overview(id, from, to, guests, withStats);
+        ServerTiming.stop(Phase.DB, start);
+
+        // dto
+        start = ServerTiming.start();
+        HotelOverviewDto overviewDto = new HotelOverviewDto(overview);
+        ServerTiming.stop(Phase.MAPPING, start);
+
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(overviewDto, HotelOverviewDto.class);
+    }
+
+    // Hotels whose name or address matches q, best first. The last word may be a prefix, other words may have typos
+    public void search(Context ctx) {
+        // request
+        String q = ctx.queryParamAsClass("q", String.class).check(v -> !v.isBlank(), "q must be set").get();
+        int limit = ctx.queryParamAsClass("limit", Integer.class).check(v -> v > 0 && v <= 100, "limit must be between 1 and 100").getOrDefault(10);
+
+        // entity
+        long start = ServerTiming.start();
+        List<HotelSearchIndex.SearchHit> hits = search.search(q, limit);
+        ServerTiming.stop(Phase.DB, start);
+
+        // dto
+        start = ServerTiming.start();
+        List<HotelSearchDto> hotelDtos = HotelSearchDto.toHotelSearchDTOList(hits);
+        ServerTiming.stop(Phase.MAPPING, start);
+
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(hotelDtos, HotelSearchDto.class);
+    }
+
+    private void respondNearby(Context ctx, GeoIndex.Hits hits, LocalDate from, LocalDate to) {
+        long start = ServerTiming.start();
+        NearbyHotelDto[] hotelDtos = new NearbyHotelDto[hits.size()];
+        for (int i = 0; i < hits.size(); i++) {
+            hotelDtos[i] = new NearbyHotelDto(hits, i, availability.countAvailable(hits.hotelId(i), null, from, to));
+        }
+        ServerTiming.stop(Phase.MAPPING, start);
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(List.of(hotelDtos), NearbyHotelDto.class);
+    }
+
+    private double validateLatitude(Context ctx) {
+        return ctx.queryParamAsClass("lat", Double.class).check(v -> Math.abs(v) <= 90, "Latitude must be between -90 and 90").get();
+    }
+
+    private double validateLongitude(Context ctx) {
+        return ctx.queryParamAsClass("lon", Double.class).check(v -> Math.abs(v) <= 180, "Longitude must be between -180 and 180").get();
+    }
+
     @Override
     public boolean validatePrimaryKey(Integer integer) {
         return dao.validatePrimaryKey(integer);
@@ -91,6 +258,8 @@ public class HotelController implements IController<Hotel, Integer> {
                 .check( h -> h.getHotelAddress() != null && !h.getHotelAddress().isEmpty(), "Hotel address must be set")
                 .check( h -> h.getHotelName() != null && !h.getHotelName().isEmpty(), "Hotel name must be set")
                 .check( h -> h.getHotelType() != null, "Hotel type must be set")
+                .check( h -> h.getLatitude() == null || Math.abs(h.getLatitude()) <= 90, "Latitude must be between -90 and 90")
+                .check( h -> h.getLongitude() == null || Math.abs(h.getLongitude()) <= 180, "Longitude must be between -180 and 180")
                 .get();
     }
 
@@ -0,0 +1,73 @@
+package org.example.controller.impl;
+
+import io.javalin.http.Context;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.dao.impl.RoomDao;
+import org.example.dao.impl.RoomUpdateBatcher;
+import org.example.dto.SqlFingerprintDto;
+import org.example.limit.PriorityLimiter;
+import org.example.logging.AccessLog;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.PersistenceMetrics;
+import org.example.metrics.PrometheusWriter;
+import org.example.sql.SqlMonitor;
+import org.example.sync.ChangeBus;
+
+import java.util.List;
+
+public class MetricsController {
+
+    private final MetricsRegistry registry = MetricsRegistry.getInstance();
+    private final AccessLog accessLog = AccessLog.getInstance();
+    private final SqlMonitor sqlMonitor = SqlMonitor.getInstance();
+    private final PriorityLimiter limiter = PriorityLimiter.getInstance();
+    private final PersistenceMetrics persistenceMetrics;
+    private final ChangeBus changeBus;
+    private final RoomUpdateBatcher roomUpdates;
+
+    public MetricsController() {
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        persistenceMetrics = PersistenceMetrics.getInstance(emf);
+        changeBus = ChangeBus.isEnabled() ? ChangeBus.getInstance(emf) : null;
+        roomUpdates = RoomDao.getInstance(emf).getBatcher();
+    }
+
+    // Admins only: per-route latency, shedding and batcher internals are not for anonymous callers.
+    // Prometheus scrapes with an admin token (bearer_token in the scrape config).
+    public void scrape(Context ctx) {
+        PrometheusWriter writer = new PrometheusWriter();
+
+        writer.header("http_server_requests_total", "counter", "Requests by status class");
+        for (int statusClass = 1; statusClass <= 5; statusClass++) {
+            writer.sample("http_server_requests_total", accessLog.getStatusClassCount(statusClass), "status", statusClass + "xx");
+        }
+        writer.header("accesslog_sampled_out_total", "counter", "Access log records skipped by sampling")
+                .sample("accesslog_sampled_out_total", accessLog.getSampledOutCount());
+        writer.header("accesslog_dropped_total", "counter", "Access log records dropped because the buffer was full")
+                .sample("accesslog_dropped_total", accessLog.getDroppedCount());
+
+        registry.writeTo(writer);
+        persistenceMetrics.writeTo(writer);
+        sqlMonitor.writeTo(writer);
+        limiter.writeTo(writer);
+        if (changeBus != null) changeBus.writeTo(writer);
+        if (roomUpdates != null) roomUpdates.writeTo(writer);
+
+        // response
+        ctx.res().setStatus(200);
+        ctx.contentType(PrometheusWriter.CONTENT_TYPE);
+        ctx.result(writer.toString());
+    }
+
+    // Top SQL fingerprints by total execution time
+    public void sqlTop(Context ctx) {
+        // request
+        int limit = ctx.queryParamAsClass("limit", Integer.class).getOrDefault(20);
+        // dto
+        List<SqlFingerprintDto> fingerprints = SqlFingerprintDto.toSqlFingerprintDTOList(sqlMonitor.top(limit));
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(fingerprints);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.controller.impl;
+
+import io.javalin.http.Context;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.dao.impl.PricingRuleDao;
+import org.example.dto.PricingRuleDto;
+import org.example.exception.ApiException;
+import org.example.model.PricingRule;
+
+import java.util.List;
+
+public class PricingController {
+
+    private final PricingRuleDao dao;
+
+    public PricingController() {
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        this.dao = PricingRuleDao.getInstance(emf);
+    }
+
+    // Rules in the order they are applied
+    public void readAll(Context ctx) {
+        // entity
+        List<PricingRule> rules = dao.readAll();
+        // dto
+        List<PricingRuleDto> ruleDtos = PricingRuleDto.toPricingRuleDTOList(rules);
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(ruleDtos, PricingRuleDto.class);
+    }
+
+    public void create(Context ctx) {
+        // request
+        PricingRuleDto request = validateRule(ctx);
+        // entity
+        PricingRule rule = dao.create(request.toEntity());
+        // response
+        ctx.res().setStatus(201);
+        ctx.json(new PricingRuleDto(rule), PricingRuleDto.class);
+    }
+
+    public void update(Context ctx) throws ApiException {
+        // request
+        int id = validateId(ctx);
+        PricingRuleDto request = validateRule(ctx);
+        // entity
+        PricingRule rule = dao.update(id, request.toEntity());
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(new PricingRuleDto(rule), PricingRuleDto.class);
+    }
+
+    public void delete(Context ctx) throws ApiException {
+        // request
+        int id = validateId(ctx);
+        // entity
+        dao.delete(id);
+        // response
+        ctx.res().setStatus(204);
+    }
+
+    private int validateId(Context ctx) throws ApiException {
+        int id = ctx.pathParamAsClass("id", Integer.class).get();
+        if (!dao.validatePrimaryKey(id)) throw ApiException.NOT_FOUND;
+        return id;
+    }
+
+    private PricingRuleDto validateRule(Context ctx) {
+        return ctx.bodyValidator(PricingRuleDto.class)
+                .check(PricingRuleDto::isValid, "Rules need a name, priority, adjustment and amount; types, days, dates and guest ranges must be valid")
+                .get();
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.controller.impl;
+
+import io.javalin.http.Context;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.dto.RepricingJobDto;
+import org.example.dto.RepricingRuleDto;
+import org.example.exception.ApiException;
+import org.example.repricing.RepricingJob;
+import org.example.repricing.RepricingRule;
+import org.example.repricing.RepricingService;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class RepricingController {
+
+    private final RepricingService service;
+
+    public RepricingController() {
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        this.service = RepricingService.getInstance(emf);
+    }
+
+    // Starts a job applying every matching rule to each room, e.g. [{"hotelType": "LUXURY", "roomType": "SUITE", "percent": 8}]
+    public void create(Context ctx) {
+        // request
+        RepricingRuleDto[] request = ctx.bodyValidator(RepricingRuleDto[].class)
+                .check(rules -> rules.length > 0, "At least one rule must be given")
+                .check(rules -> Arrays.stream(rules).allMatch(RepricingRuleDto::isValid), "Rules need a known hotel and room type and a percent above -100")
+                .get();
+        // entity
+        List<RepricingRule> rules = Arrays.stream(request).map(RepricingRuleDto::toRule).toList();
+        RepricingJob job = service.submit(rules);
+        // response
+        ctx.res().setStatus(202);
+        ctx.json(new RepricingJobDto(job), RepricingJobDto.class);
+    }
+
+    public void read(Context ctx) throws ApiException {
+        // request
+        RepricingJob job = validateJob(ctx);
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(new RepricingJobDto(job), RepricingJobDto.class);
+    }
+
+    // Cancels a running job, the prices it has written are rolled back
+    public void cancel(Context ctx) throws ApiException {
+        // request
+        RepricingJob job = validateJob(ctx);
+        // entity
+        job.cancel();
+        // response
+        ctx.res().setStatus(202);
+        ctx.json(new RepricingJobDto(job), RepricingJobDto.class);
+    }
+
+    private RepricingJob validateJob(Context ctx) throws ApiException {
+        long id = ctx.pathParamAsClass("id", Long.class).get();
+        RepricingJob job = service.get(id);
+        if (job == null) throw ApiException.NOT_FOUND;
+        return job;
+    }
+}
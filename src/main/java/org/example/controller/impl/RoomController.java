@@ -1,38 +1,61 @@
 package org.example.controller.impl;
 
+import org.example.availability.AvailabilityIndex;
 import org.example.config.HibernateConfig;
 import org.example.controller.IController;
 import org.example.dao.impl.RoomDao;
+import org.example.dto.AvailableRoomDto;
 import org.example.dto.HotelDto;
 import org.example.dto.RoomDto;
+import org.example.dto.RoomPatchDto;
+import org.example.exception.ApiException;
 import org.example.exception.Message;
+import org.example.index.RoomFilter;
+import org.example.index.RoomIndex;
+import org.example.metrics.ServerTiming;
+import org.example.metrics.ServerTiming.Phase;
 import org.example.model.Hotel;
 import org.example.model.Room;
+import org.example.pricing.CompiledPricing;
+import org.example.pricing.PricingEngine;
 import io.javalin.http.Context;
 import jakarta.persistence.EntityManagerFactory;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiFunction;
 
 public class RoomController implements IController<Room, Integer> {
 
     private RoomDao dao;
+    private final AvailabilityIndex availability;
+    private final RoomIndex rooms;
+    private final PricingEngine pricing;
 
     public RoomController() {
         EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
         this.dao = RoomDao.getInstance(emf);
+        this.availability = AvailabilityIndex.getInstance(emf);
+        this.rooms = RoomIndex.getInstance(emf);
+        this.pricing = PricingEngine.getInstance(emf);
     }
 
     @Override
-    public void read(Context ctx) {
+    public void read(Context ctx) throws ApiException {
         // request
-        int id = ctx.pathParamAsClass("id", Integer.class).check(this::validatePrimaryKey, "Not a valid id").get();
+        int id = validateId(ctx, Integer.class);
 
         // entity
+        long start = ServerTiming.start();
         Room room = dao.read(id);
+        ServerTiming.stop(Phase.DB, start);
 
         // dto
+        start = ServerTiming.start();
         RoomDto roomDto = new RoomDto(room);
+        ServerTiming.stop(Phase.MAPPING, start);
 
         // response
         ctx.res().setStatus(200);
@@ -42,36 +65,117 @@ public class RoomController implements IController<Room, Integer> {
 
     @Override
     public void readAll(Context ctx) {
-        List<Room> rooms;
         if (ctx.queryParam("range") != null) {
-            String[] range = ctx.queryParam("range").split("-");
-            if (range.length == 0) {
-                ctx.res().setStatus(400);
-                ctx.json(new Message(400, "Not a valid range"));
-                return;
-            }
-            else if (range.length == 1) {
-                int startRange = Integer.parseInt(range[0]);
-                rooms = dao.readAll(startRange);
-            }
-            else {
-                int startRange = Integer.parseInt(range[0]);
-                int endRange = Integer.parseInt(range[1]);
-                rooms = dao.readAll(startRange, endRange);
-            }
-        }
-        else {
-            // entity
-             rooms= dao.readAll();
+            readPriceRange(ctx);
+            return;
         }
 
+        // entity
+        long start = ServerTiming.start();
+        List<Room> rooms = dao.readAll();
+        ServerTiming.stop(Phase.DB, start);
+
         // dto
+        start = ServerTiming.start();
         List<RoomDto> roomDtos = RoomDto.toRoomDTOList(rooms);
+        ServerTiming.stop(Phase.MAPPING, start);
+
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(roomDtos, RoomDto.class);
+
+    }
+
+    // range=max or range=min-max, answered from the in-memory room index
+    private void readPriceRange(Context ctx) {
+        // request
+        String[] range = ctx.queryParam("range").split("-");
+        if (range.length == 0 || range.length > 2 || !range[0].matches("\\d+") || (range.length == 2 && !range[1].matches("\\d+"))) {
+            ctx.res().setStatus(400);
+            ctx.json(new Message(400, "Not a valid range"));
+            return;
+        }
+        long minCents = range.length == 1 ? 0 : Long.parseLong(range[0]) * 100;
+        long maxCents = Long.parseLong(range[range.length - 1]) * 100;
+
+        // entity
+        long start = ServerTiming.start();
+        RoomIndex.Columns columns = rooms.snapshot();
+        int[] positions = columns.priceRange(minCents, maxCents, validateFilter(ctx), Integer.MAX_VALUE);
+        ServerTiming.stop(Phase.DB, start);
+
+        // dto
+        start = ServerTiming.start();
+        List<RoomDto> roomDtos = RoomDto.toRoomDTOList(columns, positions);
+        ServerTiming.stop(Phase.MAPPING, start);
+
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(roomDtos, RoomDto.class);
+    }
+
+    // The cheapest rooms, optionally of a type, a minimum size or in a hotel
+    public void readCheapest(Context ctx) {
+        // request
+        int limit = ctx.queryParamAsClass("limit", Integer.class).check(l -> l > 0 && l <= 1000, "Not a valid limit").getOrDefault(10);
+
+        // entity
+        long start = ServerTiming.start();
+        RoomIndex.Columns columns = rooms.snapshot();
+        int[] positions = columns.cheapest(limit, validateFilter(ctx));
+        ServerTiming.stop(Phase.DB, start);
+
+        // dto
+        start = ServerTiming.start();
+        List<RoomDto> roomDtos = RoomDto.toRoomDTOList(columns, positions);
+        ServerTiming.stop(Phase.MAPPING, start);
 
         // response
         ctx.res().setStatus(200);
         ctx.json(roomDtos, RoomDto.class);
+    }
+
+    private RoomFilter validateFilter(Context ctx) {
+        Double minSize = ctx.queryParamAsClass("minSize", Double.class).allowNullable().get();
+        String type = ctx.queryParamAsClass("type", String.class).allowNullable()
+                .check(t -> t == null || Arrays.stream(Room.RoomType.values()).anyMatch(r -> r.name().equalsIgnoreCase(t)), "Not a valid room type")
+                .get();
+        Integer hotelId = ctx.queryParamAsClass("hotel", Integer.class).allowNullable().get();
+        return RoomFilter.of(minSize, type != null ? Room.RoomType.valueOf(type.toUpperCase()) : null, hotelId);
+    }
+
+    // Answered from the in-memory availability index, the database is not queried.
+    // stayPrice is the whole stay for the given number of guests after the pricing rules.
+    public void readAvailable(Context ctx) throws ApiException {
+        // request
+        LocalDate from = validateDate(ctx, "from", null);
+        LocalDate to = validateDate(ctx, "to", null);
+        if (!availability.covers(from, to)) throw ApiException.INVALID_DATE_RANGE;
+        Integer hotelId = ctx.queryParamAsClass("hotel", Integer.class).allowNullable().get();
+        Integer maxPrice = ctx.queryParamAsClass("maxPrice", Integer.class).allowNullable().get();
+        int guests = ctx.queryParamAsClass("guests", Integer.class)
+                .check(g -> g > 0 && g <= CompiledPricing.MAX_GUESTS, "guests must be between 1 and " + CompiledPricing.MAX_GUESTS)
+                .getOrDefault(1);
+
+        // entity
+        long start = ServerTiming.start();
+        var rooms = availability.findAvailable(hotelId, maxPrice != null ? BigDecimal.valueOf(maxPrice) : null, from, to);
+        CompiledPricing prices = pricing.current();
+        long[] stayCents = new long[rooms.size()];
+        for (int i = 0; i < stayCents.length; i++) {
+            var room = rooms.get(i);
+            stayCents[i] = prices.stayCents(RoomIndex.toCents(room.price()), room.roomType(), from, to, guests);
+        }
+        ServerTiming.stop(Phase.DB, start);
 
+        // dto
+        start = ServerTiming.start();
+        List<AvailableRoomDto> roomDtos = AvailableRoomDto.toAvailableRoomDTOList(rooms, stayCents);
+        ServerTiming.stop(Phase.MAPPING, start);
+
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(roomDtos, AvailableRoomDto.class);
     }
 
     @Override
@@ -89,33 +193,64 @@ public class RoomController implements IController<Room, Integer> {
         }
 
         // entity
+        long start = ServerTiming.start();
         Hotel hotel = dao.addRoomToHotel(hotelId, jsonRequest);
+        ServerTiming.stop(Phase.DB, start);
         // dto
+        start = ServerTiming.start();
         HotelDto hotelDto = new HotelDto(hotel);
+        ServerTiming.stop(Phase.MAPPING, start);
         // response
         ctx.res().setStatus(201);
         ctx.json(hotelDto, HotelDto.class);
     }
 
     @Override
-    public void update(Context ctx) {
+    public void update(Context ctx) throws ApiException {
         // request
-        int id = ctx.pathParamAsClass("id", Integer.class).check(this::validatePrimaryKey, "Not a valid id").get();
+        int id = validateId(ctx, Integer.class);
         // entity
+        long start = ServerTiming.start();
         Room update = dao.update(id, validateEntity(ctx));
+        ServerTiming.stop(Phase.DB, start);
         // dto
+        start = ServerTiming.start();
         RoomDto roomDto = new RoomDto(update);
+        ServerTiming.stop(Phase.MAPPING, start);
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(roomDto, RoomDto.class);
+    }
+
+    // Only the fields in the body, and only if the room is still at the version in the body; 409 when
+    // it has been changed since. One UPDATE, the id is not looked up first.
+    public void patch(Context ctx) throws ApiException {
+        // request
+        int id = ctx.pathParamAsClass("id", Integer.class).get();
+        RoomPatchDto request = ctx.bodyValidator(RoomPatchDto.class)
+                .check(RoomPatchDto::isValid, "Not a valid room patch, it needs a version and a field to change")
+                .get();
+        // entity
+        long start = ServerTiming.start();
+        Room patched = dao.patch(id, request.getVersion(), request.toRoom());
+        ServerTiming.stop(Phase.DB, start);
+        // dto
+        start = ServerTiming.start();
+        RoomDto roomDto = new RoomDto(patched);
+        ServerTiming.stop(Phase.MAPPING, start);
         // response
         ctx.res().setStatus(200);
         ctx.json(roomDto, RoomDto.class);
     }
 
     @Override
-    public void delete(Context ctx) {
+    public void delete(Context ctx) throws ApiException {
         // request
-        int id = ctx.pathParamAsClass("id", Integer.class).check(this::validatePrimaryKey, "Not a valid id").get();
+        int id = validateId(ctx, Integer.class);
         // entity
+        long start = ServerTiming.start();
         dao.delete(id);
+        ServerTiming.stop(Phase.DB, start);
         // response
         ctx.res().setStatus(204);
     }
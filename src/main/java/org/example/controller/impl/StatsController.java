@@ -0,0 +1,55 @@
+package org.example.controller.impl;
+
+import io.javalin.http.Context;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.dto.HotelStatsDto;
+import org.example.exception.ApiException;
+import org.example.model.Hotel;
+import org.example.stats.HotelStats;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class StatsController {
+
+    private final HotelStats stats;
+
+    public StatsController() {
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        this.stats = HotelStats.getInstance(emf);
+    }
+
+    // Room counts and min/max/avg price by room type for one hotel
+    public void readHotel(Context ctx) throws ApiException {
+        // request
+        int id = ctx.pathParamAsClass("id", Integer.class).get();
+        // entity
+        HotelStats.Summary summary = stats.hotel(id);
+        if (summary == null) throw ApiException.NOT_FOUND;
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(new HotelStatsDto(summary), HotelStatsDto.class);
+    }
+
+    // The same stats for every hotel type
+    public void readHotelTypes(Context ctx) {
+        // dto
+        List<HotelStatsDto> statsDtos = HotelStatsDto.toHotelStatsDTOList(stats.hotelTypes());
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(statsDtos, HotelStatsDto.class);
+    }
+
+    public void readHotelType(Context ctx) {
+        // request
+        String type = ctx.pathParamAsClass("type", String.class)
+                .check(t -> Arrays.stream(Hotel.HotelType.values()).anyMatch(v -> v.name().equalsIgnoreCase(t)), "Not a valid hotel type")
+                .get();
+        // entity
+        HotelStats.Summary summary = stats.hotelType(Hotel.HotelType.valueOf(type.toUpperCase()));
+        // response
+        ctx.res().setStatus(200);
+        ctx.json(new HotelStatsDto(summary), HotelStatsDto.class);
+    }
+}
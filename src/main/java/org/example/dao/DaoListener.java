@@ -0,0 +1,14 @@
+package org.example.dao;
+
+// Notified by a DAO after a write has been committed, used to keep in-memory indexes in sync
+public interface DaoListener<T> {
+
+    void onSave(T t);
+
+    void onDelete(T t);
+
+    // Called after a bulk write that bypassed onSave/onDelete; the listener should reload its state
+    default void onReload() {
+    }
+
+}
@@ -0,0 +1,245 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.NoArgsConstructor;
+import org.example.availability.Hold;
+import org.example.dao.DaoListener;
+import org.example.dao.IDao;
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+import org.example.model.Room;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class BookingDao implements IDao<Booking, Integer> {
+
+    private static BookingDao instance;
+    private static EntityManagerFactory emf;
+
+    private final List<DaoListener<Booking>> listeners = new CopyOnWriteArrayList<>();
+
+    public static BookingDao getInstance(EntityManagerFactory _emf) {
+        if (instance == null) {
+            emf = _emf;
+            instance = new BookingDao();
+        }
+        return instance;
+    }
+
+    public void addListener(DaoListener<Booking> listener) {
+        listeners.add(listener);
+    }
+
+    // Tells the listeners about a change committed by another node, see ChangeBus
+    public void fireSave(Booking booking) {
+        listeners.forEach(listener -> listener.onSave(booking));
+    }
+
+    public void fireDelete(Booking booking) {
+        listeners.forEach(listener -> listener.onDelete(booking));
+    }
+
+    public void fireReload() {
+        listeners.forEach(DaoListener::onReload);
+    }
+
+    @Override
+    public Booking read(Integer integer) {
+        try (var em = emf.createEntityManager()) {
+            return em.find(Booking.class, integer);
+        }
+    }
+
+    @Override
+    public List<Booking> readAll() {
+        try (var em = emf.createEntityManager()) {
+            var query = em.createQuery("SELECT b FROM Booking b", Booking.class);
+            return query.getResultList();
+        }
+    }
+
+    public List<Booking> readAllByRoom(Integer roomId) {
+        try (var em = emf.createEntityManager()) {
+            var query = em.createQuery("SELECT b FROM Booking b WHERE b.room.roomId = :roomId ORDER BY b.checkIn", Booking.class);
+            query.setParameter("roomId", roomId);
+            return query.getResultList();
+        }
+    }
+
+    // Bookings and holds of one room are serialized on its row lock (SELECT ... FOR UPDATE), so the
+    // overlap checks and the insert cannot interleave with another booking or hold of the same room.
+    // Bookings of different rooms never wait on each other.
+    public Booking book(Integer roomId, Booking booking) throws ApiException {
+        return book(roomId, booking, null);
+    }
+
+    // holdId is the hold being confirmed, it is removed in the same transaction and so does not stand
+    // in the way; null for a direct booking. A hold that has expired or was already released or
+    // confirmed, on this node or another, is NOT_FOUND: only one confirm gets to remove the row.
+    public Booking book(Integer roomId, Booking booking, Long holdId) throws ApiException {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            try {
+                lockRoom(em, roomId);
+                if (holdId != null && em.createNativeQuery("DELETE FROM room_hold WHERE hold_id = :holdId AND expires_at > now()")
+                        .setParameter("holdId", holdId)
+                        .executeUpdate() == 0) {
+                    throw ApiException.NOT_FOUND;
+                }
+
+                var overlapping = em.createQuery("SELECT count(b) FROM Booking b WHERE b.room.roomId = :roomId " +
+                                "AND b.checkIn < :checkOut AND b.checkOut > :checkIn", Long.class)
+                        .setParameter("roomId", roomId)
+                        .setParameter("checkIn", booking.getCheckIn())
+                        .setParameter("checkOut", booking.getCheckOut())
+                        .getSingleResult();
+                if (overlapping > 0) throw ApiException.BOOKING_CONFLICT;
+                if (isHeld(em, roomId, booking.getCheckIn(), booking.getCheckOut())) throw ApiException.HOLD_CONFLICT;
+
+                booking.setRoom(em.getReference(Room.class, roomId));
+                em.persist(booking);
+                em.getTransaction().commit();
+            } finally {
+                if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            }
+        }
+        listeners.forEach(listener -> listener.onSave(booking));
+        return booking;
+    }
+
+    // Records a hold under the same room lock as book(): refused when a booking or a live hold of the
+    // room overlaps it. The expiry is taken from the database clock, which all the checks use.
+    // Expired holds of the room are removed on the way.
+    public Hold placeHold(int roomId, LocalDate checkIn, LocalDate checkOut, String owner, long ttlSeconds) throws ApiException {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            try {
+                lockRoom(em, roomId);
+                em.createNativeQuery("DELETE FROM room_hold WHERE room_id = :roomId AND expires_at <= now()")
+                        .setParameter("roomId", roomId)
+                        .executeUpdate();
+
+                var overlapping = em.createQuery("SELECT count(b) FROM Booking b WHERE b.room.roomId = :roomId " +
+                                "AND b.checkIn < :checkOut AND b.checkOut > :checkIn", Long.class)
+                        .setParameter("roomId", roomId)
+                        .setParameter("checkIn", checkIn)
+                        .setParameter("checkOut", checkOut)
+                        .getSingleResult();
+                if (overlapping > 0 || isHeld(em, roomId, checkIn, checkOut)) throw ApiException.HOLD_CONFLICT;
+
+                Object[] row = (Object[]) em.createNativeQuery("INSERT INTO room_hold (room_id, check_in, check_out, user_name, expires_at) " +
+                                "VALUES (:roomId, :checkIn, :checkOut, :owner, now() + :ttl * interval '1 second') " +
+                                "RETURNING hold_id, (extract(epoch FROM expires_at) * 1000)::bigint")
+                        .setParameter("roomId", roomId)
+                        .setParameter("checkIn", checkIn)
+                        .setParameter("checkOut", checkOut)
+                        .setParameter("owner", owner)
+                        .setParameter("ttl", ttlSeconds)
+                        .getSingleResult();
+                em.getTransaction().commit();
+                return new Hold(((Number) row[0]).longValue(), roomId, checkIn, checkOut, owner, ((Number) row[1]).longValue());
+            } finally {
+                if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            }
+        }
+    }
+
+    // A live hold, or null when it has expired or is gone
+    public Hold readHold(long holdId) {
+        try (var em = emf.createEntityManager()) {
+            List<?> rows = em.createNativeQuery("SELECT hold_id, room_id, check_in, check_out, user_name, " +
+                            "(extract(epoch FROM expires_at) * 1000)::bigint FROM room_hold " +
+                            "WHERE hold_id = :holdId AND expires_at > now()")
+                    .setParameter("holdId", holdId)
+                    .getResultList();
+            if (rows.isEmpty()) return null;
+            Object[] row = (Object[]) rows.get(0);
+            return new Hold(((Number) row[0]).longValue(), ((Number) row[1]).intValue(), toLocalDate(row[2]),
+                    toLocalDate(row[3]), (String) row[4], ((Number) row[5]).longValue());
+        }
+    }
+
+    // Removes the hold, expired or not; false when there was no live hold to remove
+    public boolean removeHold(long holdId) {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            List<?> live = em.createNativeQuery("DELETE FROM room_hold WHERE hold_id = :holdId RETURNING expires_at > now()")
+                    .setParameter("holdId", holdId)
+                    .getResultList();
+            em.getTransaction().commit();
+            return !live.isEmpty() && Boolean.TRUE.equals(live.get(0));
+        }
+    }
+
+    // native queries return java.sql.Date or LocalDate depending on the driver settings
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static void lockRoom(EntityManager em, int roomId) throws ApiException {
+        var locked = em.createNativeQuery("SELECT room_id FROM room WHERE room_id = :roomId FOR UPDATE")
+                .setParameter("roomId", roomId)
+                .getResultList();
+        if (locked.isEmpty()) throw ApiException.NOT_FOUND;
+    }
+
+    private static boolean isHeld(EntityManager em, int roomId, LocalDate checkIn, LocalDate checkOut) {
+        return !em.createNativeQuery("SELECT 1 FROM room_hold WHERE room_id = :roomId " +
+                        "AND check_in < :checkOut AND check_out > :checkIn AND expires_at > now() LIMIT 1")
+                .setParameter("roomId", roomId)
+                .setParameter("checkIn", checkIn)
+                .setParameter("checkOut", checkOut)
+                .getResultList()
+                .isEmpty();
+    }
+
+    // IDao cannot throw ApiException, the refusal travels as the cause and the exception handler
+    // answers with it; book() is the entry point that throws it directly
+    @Override
+    public Booking create(Booking booking) {
+        try {
+            return book(booking.getRoom().getRoomId(), booking);
+        } catch (ApiException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    // Only the guest can be changed, new dates are a new booking
+    @Override
+    public Booking update(Integer integer, Booking booking) {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+
+            var b = em.find(Booking.class, integer);
+            b.setGuestName(booking.getGuestName());
+
+            Booking merge = em.merge(b);
+            em.getTransaction().commit();
+            return merge;
+        }
+    }
+
+    @Override
+    public void delete(Integer integer) {
+        Booking booking;
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            booking = em.find(Booking.class, integer);
+            em.remove(booking);
+            em.getTransaction().commit();
+        }
+        listeners.forEach(listener -> listener.onDelete(booking));
+    }
+
+    @Override
+    public boolean validatePrimaryKey(Integer integer) {
+        try (var em = emf.createEntityManager()) {
+            var booking = em.find(Booking.class, integer);
+            return booking != null;
+        }
+    }
+}
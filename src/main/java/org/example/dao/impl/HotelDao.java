@@ -1,11 +1,20 @@
 package org.example.dao.impl;
 
+import org.example.dao.DaoListener;
+import org.example.exception.ApiException;
 import org.example.model.Hotel;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.RollbackException;
 import lombok.NoArgsConstructor;
 import org.example.dao.IDao;
+import org.hibernate.Session;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
 public class HotelDao implements IDao<Hotel, Integer> {
@@ -13,6 +22,8 @@ public class HotelDao implements IDao<Hotel, Integer> {
     private static HotelDao instance;
     private static EntityManagerFactory emf;
 
+    private final List<DaoListener<Hotel>> listeners = new CopyOnWriteArrayList<>();
+
     public static HotelDao getInstance(EntityManagerFactory _emf) {
         if (instance == null) {
             emf = _emf;
@@ -21,6 +32,23 @@ public class HotelDao implements IDao<Hotel, Integer> {
         return instance;
     }
 
+    public void addListener(DaoListener<Hotel> listener) {
+        listeners.add(listener);
+    }
+
+    // Tells the listeners about a change committed by another node, see ChangeBus
+    public void fireSave(Hotel hotel) {
+        listeners.forEach(listener -> listener.onSave(hotel));
+    }
+
+    public void fireDelete(Hotel hotel) {
+        listeners.forEach(listener -> listener.onDelete(hotel));
+    }
+
+    public void fireReload() {
+        listeners.forEach(DaoListener::onReload);
+    }
+
     @Override
     public Hotel read(Integer integer) {
        try (var em = emf.createEntityManager())
@@ -45,10 +73,13 @@ public class HotelDao implements IDao<Hotel, Integer> {
             em.getTransaction().begin();
             em.persist(hotel);
             em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onSave(hotel));
             return hotel;
         }
     }
 
+    // The found hotel is managed, the changes are flushed on commit: only the changed columns, and
+    // only if the row still has the version that was read (OptimisticLockException otherwise)
     @Override
     public Hotel update(Integer integer, Hotel hotel) {
         try(var em = emf.createEntityManager()) {
@@ -58,19 +89,93 @@ public class HotelDao implements IDao<Hotel, Integer> {
             h.setHotelName(hotel.getHotelName());
             h.setHotelAddress(hotel.getHotelAddress());
             h.setHotelType(hotel.getHotelType());
-            Hotel merge = em.merge(h);
+            h.setLatitude(hotel.getLatitude());
+            h.setLongitude(hotel.getLongitude());
             em.getTransaction().commit();
-            return merge;
+            listeners.forEach(listener -> listener.onSave(h));
+            return h;
+        } catch (RollbackException e) {
+            if (e.getCause() instanceof OptimisticLockException conflict) throw conflict;
+            throw e;
+        }
+    }
+
+    // One conditional UPDATE: the columns that are set in changes, and only if the hotel is still at
+    // the version the client read. The hotel comes back from RETURNING without its rooms, the
+    // listeners only need its own columns. Only when no row matched a second query tells a missing
+    // hotel from a changed one.
+    public Hotel patch(Integer id, int version, Hotel changes) throws ApiException {
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if (changes.getHotelName() != null) {
+            columns.add("hotel_name = ?");
+            values.add(changes.getHotelName());
+        }
+        if (changes.getHotelAddress() != null) {
+            columns.add("hotel_address = ?");
+            values.add(changes.getHotelAddress());
+        }
+        if (changes.getHotelType() != null) {
+            columns.add("hotel_type = ?");
+            values.add(changes.getHotelType().name());
+        }
+        if (changes.getLatitude() != null) {
+            columns.add("latitude = ?");
+            values.add(changes.getLatitude());
+        }
+        if (changes.getLongitude() != null) {
+            columns.add("longitude = ?");
+            values.add(changes.getLongitude());
+        }
+        columns.add("version = version + 1");
+        String sql = "UPDATE hotel SET " + String.join(", ", columns) + " WHERE hotel_id = ? AND version = ? " +
+                "RETURNING hotel_name, hotel_address, hotel_type, latitude, longitude, version";
+
+        Hotel patched;
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            try {
+                patched = em.unwrap(Session.class).doReturningWork(connection -> {
+                    try (PreparedStatement update = connection.prepareStatement(sql)) {
+                        int i = 1;
+                        for (Object value : values) update.setObject(i++, value);
+                        update.setInt(i++, id);
+                        update.setInt(i, version);
+                        try (ResultSet row = update.executeQuery()) {
+                            if (!row.next()) return null;
+                            return new Hotel(id, row.getString("hotel_name"), row.getString("hotel_address"),
+                                    Hotel.HotelType.valueOf(row.getString("hotel_type")), row.getObject("latitude", Double.class),
+                                    row.getObject("longitude", Double.class), row.getInt("version"));
+                        }
+                    }
+                });
+                if (patched == null) {
+                    var found = em.createNativeQuery("SELECT 1 FROM hotel WHERE hotel_id = :id")
+                            .setParameter("id", id)
+                            .getResultList();
+                    throw found.isEmpty() ? ApiException.NOT_FOUND : ApiException.VERSION_CONFLICT;
+                }
+                em.getTransaction().commit();
+            } finally {
+                if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            }
         }
+        listeners.forEach(listener -> listener.onSave(patched));
+        return patched;
     }
 
     @Override
+    // Bookings are not deleted along: while one of the hotel's rooms has any, booking.room_id refuses the delete and
+    // the ConstraintViolationException is answered with 409
     public void delete(Integer integer) {
         try(var em = emf.createEntityManager()) {
             em.getTransaction().begin();
             var hotel = em.find(Hotel.class, integer);
             em.remove(hotel);
             em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onDelete(hotel));
+        } catch (RollbackException e) {
+            throw RoomDao.constraintViolation(e);
         }
     }
 
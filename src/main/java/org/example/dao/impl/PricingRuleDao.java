@@ -0,0 +1,111 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.NoArgsConstructor;
+import org.example.dao.DaoListener;
+import org.example.dao.IDao;
+import org.example.model.PricingRule;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public class PricingRuleDao implements IDao<PricingRule, Integer> {
+
+    private static PricingRuleDao instance;
+    private static EntityManagerFactory emf;
+
+    private final List<DaoListener<PricingRule>> listeners = new CopyOnWriteArrayList<>();
+
+    public static PricingRuleDao getInstance(EntityManagerFactory _emf) {
+        if (instance == null) {
+            emf = _emf;
+            instance = new PricingRuleDao();
+        }
+        return instance;
+    }
+
+    public void addListener(DaoListener<PricingRule> listener) {
+        listeners.add(listener);
+    }
+
+    // Tells the listeners about a change committed by another node, see ChangeBus
+    public void fireSave(PricingRule rule) {
+        listeners.forEach(listener -> listener.onSave(rule));
+    }
+
+    public void fireDelete(PricingRule rule) {
+        listeners.forEach(listener -> listener.onDelete(rule));
+    }
+
+    public void fireReload() {
+        listeners.forEach(DaoListener::onReload);
+    }
+
+    @Override
+    public PricingRule read(Integer integer) {
+        try (var em = emf.createEntityManager()) {
+            return em.find(PricingRule.class, integer);
+        }
+    }
+
+    // In the order the rules are applied
+    @Override
+    public List<PricingRule> readAll() {
+        try (var em = emf.createEntityManager()) {
+            var query = em.createQuery("SELECT p FROM PricingRule p ORDER BY p.priority, p.id", PricingRule.class);
+            return query.getResultList();
+        }
+    }
+
+    @Override
+    public PricingRule create(PricingRule rule) {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            em.persist(rule);
+            em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onSave(rule));
+            return rule;
+        }
+    }
+
+    @Override
+    public PricingRule update(Integer integer, PricingRule rule) {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            var p = em.find(PricingRule.class, integer);
+            p.setName(rule.getName());
+            p.setPriority(rule.getPriority());
+            p.setRoomType(rule.getRoomType());
+            p.setValidFrom(rule.getValidFrom());
+            p.setValidTo(rule.getValidTo());
+            p.setDaysOfWeek(rule.getDaysOfWeek());
+            p.setMinGuests(rule.getMinGuests());
+            p.setMaxGuests(rule.getMaxGuests());
+            p.setAdjustment(rule.getAdjustment());
+            p.setAmount(rule.getAmount());
+            PricingRule merge = em.merge(p);
+            em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onSave(merge));
+            return merge;
+        }
+    }
+
+    @Override
+    public void delete(Integer integer) {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            var rule = em.find(PricingRule.class, integer);
+            em.remove(rule);
+            em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onDelete(rule));
+        }
+    }
+
+    @Override
+    public boolean validatePrimaryKey(Integer integer) {
+        try (var em = emf.createEntityManager()) {
+            return em.find(PricingRule.class, integer) != null;
+        }
+    }
+}
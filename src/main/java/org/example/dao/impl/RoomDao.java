@@ -1,13 +1,24 @@
 package org.example.dao.impl;
 
 
+import org.example.config.ApplicationConfig;
+import org.example.dao.DaoListener;
+import org.example.exception.ApiException;
 import org.example.model.Hotel;
 import org.example.model.Room;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.RollbackException;
 import lombok.NoArgsConstructor;
 import org.example.dao.IDao;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 @NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
@@ -16,14 +27,46 @@ public class RoomDao implements IDao<Room, Integer> {
     private static RoomDao instance;
     private static EntityManagerFactory emf;
 
+    private final List<DaoListener<Room>> listeners = new CopyOnWriteArrayList<>();
+    // group commit for update(), null when room.update.batch.window.millis is 0
+    private RoomUpdateBatcher batcher;
+
     public static RoomDao getInstance(EntityManagerFactory _emf) {
         if (instance == null) {
             emf = _emf;
             instance = new RoomDao();
+            int window = Integer.parseInt(ApplicationConfig.getProperty("room.update.batch.window.millis", "0"));
+            if (window > 0) {
+                int maxBatch = Integer.parseInt(ApplicationConfig.getProperty("room.update.batch.max", "64"));
+                instance.batcher = new RoomUpdateBatcher(emf, instance, window, maxBatch);
+            }
         }
         return instance;
     }
 
+    public RoomUpdateBatcher getBatcher() {
+        return batcher;
+    }
+
+    public void addListener(DaoListener<Room> listener) {
+        listeners.add(listener);
+    }
+
+    // Tells the listeners that rooms were changed in bulk outside this dao
+    public void fireReload() {
+        listeners.forEach(DaoListener::onReload);
+    }
+
+    // Tells the listeners about a change committed outside this dao: by another node (see ChangeBus)
+    // or by a group commit (see RoomUpdateBatcher)
+    public void fireSave(Room room) {
+        listeners.forEach(listener -> listener.onSave(room));
+    }
+
+    public void fireDelete(Room room) {
+        listeners.forEach(listener -> listener.onDelete(room));
+    }
+
     public Hotel addRoomToHotel(Integer hotelId, Room room ) {
         try (var em = emf.createEntityManager()) {
             em.getTransaction().begin();
@@ -32,6 +75,7 @@ public class RoomDao implements IDao<Room, Integer> {
             em.persist(room);
             Hotel merge = em.merge(hotel);
             em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onSave(room));
             return merge;
         }
     }
@@ -71,12 +115,20 @@ public class RoomDao implements IDao<Room, Integer> {
             em.getTransaction().begin();
             em.persist(room);
             em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onSave(room));
             return room;
         }
     }
 
     @Override
     public Room update(Integer integer, Room room) {
+        if (batcher != null) return batcher.update(integer, room);
+        return updateNow(integer, room);
+    }
+
+    // The found room is managed, the changes are flushed on commit: only the changed columns, and
+    // only if the row still has the version that was read (OptimisticLockException otherwise)
+    Room updateNow(Integer integer, Room room) {
         try (var em = emf.createEntityManager()) {
             em.getTransaction().begin();
 
@@ -85,19 +137,90 @@ public class RoomDao implements IDao<Room, Integer> {
             r.setRoomType(room.getRoomType());
             r.setRoomPrice(room.getRoomPrice());
 
-            Room merge = em.merge(r);
             em.getTransaction().commit();
-            return merge;
+            listeners.forEach(listener -> listener.onSave(r));
+            return r;
+        } catch (RollbackException e) {
+            if (e.getCause() instanceof OptimisticLockException conflict) throw conflict;
+            throw e;
         }
     }
 
+    // One conditional UPDATE: the columns that are set in changes, and only if the room is still at
+    // the version the client read. RETURNING hands back the room with its hotel's id and type for
+    // the listeners, nothing is read before or after. Only when no row matched a second query tells
+    // a missing room from a changed one.
+    public Room patch(Integer id, int version, Room changes) throws ApiException {
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if (changes.getRoomNumber() != null) {
+            columns.add("room_number = ?");
+            values.add(changes.getRoomNumber());
+        }
+        if (changes.getRoomPrice() != null) {
+            columns.add("price = ?");
+            values.add(changes.getRoomPrice());
+        }
+        if (changes.getRoomType() != null) {
+            columns.add("room_type = ?");
+            values.add(changes.getRoomType().name());
+        }
+        if (changes.getSquareMeters() != null) {
+            columns.add("square_meters = ?");
+            values.add(changes.getSquareMeters());
+        }
+        columns.add("version = r.version + 1");
+        String sql = "UPDATE room AS r SET " + String.join(", ", columns) + " FROM hotel AS h " +
+                "WHERE r.room_id = ? AND r.version = ? AND h.hotel_id = r.hotel_id " +
+                "RETURNING r.room_number, r.price, r.room_type, r.square_meters, r.version, h.hotel_id, h.hotel_type";
+
+        Room patched;
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            try {
+                patched = em.unwrap(Session.class).doReturningWork(connection -> {
+                    try (PreparedStatement update = connection.prepareStatement(sql)) {
+                        int i = 1;
+                        for (Object value : values) update.setObject(i++, value);
+                        update.setInt(i++, id);
+                        update.setInt(i, version);
+                        try (ResultSet row = update.executeQuery()) {
+                            if (!row.next()) return null;
+                            Hotel hotel = new Hotel(row.getInt("hotel_id"), null, null,
+                                    Hotel.HotelType.valueOf(row.getString("hotel_type")), null, null, null);
+                            return new Room(id, row.getInt("room_number"), row.getBigDecimal("price"),
+                                    Room.RoomType.valueOf(row.getString("room_type")), row.getObject("square_meters", Double.class),
+                                    hotel, row.getInt("version"));
+                        }
+                    }
+                });
+                if (patched == null) {
+                    var found = em.createNativeQuery("SELECT 1 FROM room WHERE room_id = :id")
+                            .setParameter("id", id)
+                            .getResultList();
+                    throw found.isEmpty() ? ApiException.NOT_FOUND : ApiException.VERSION_CONFLICT;
+                }
+                em.getTransaction().commit();
+            } finally {
+                if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            }
+        }
+        listeners.forEach(listener -> listener.onSave(patched));
+        return patched;
+    }
+
     @Override
+    // Bookings are not deleted along: while the room has any, booking.room_id refuses the delete and
+    // the ConstraintViolationException is answered with 409
     public void delete(Integer integer) {
         try (var em = emf.createEntityManager()) {
             em.getTransaction().begin();
             var room = em.find(Room.class, integer);
             em.remove(room);
             em.getTransaction().commit();
+            listeners.forEach(listener -> listener.onDelete(room));
+        } catch (RollbackException e) {
+            throw constraintViolation(e);
         }
     }
 
@@ -123,4 +246,11 @@ public class RoomDao implements IDao<Room, Integer> {
         }
     }
 
+    // The constraint violation the flush on commit failed with, for the exception handler
+    static RuntimeException constraintViolation(RollbackException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) return violation;
+        }
+        return e;
+    }
 }
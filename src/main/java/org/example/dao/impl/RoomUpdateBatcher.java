@@ -0,0 +1,201 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.example.metrics.PrometheusWriter;
+import org.example.model.Room;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Group commit for room updates. An update waits up to the window for others to arrive and they
+// are written together by one writer thread: one transaction, one JDBC batch of UPDATEs and one
+// commit, so one WAL flush instead of one per request. The rooms are read back in the same
+// transaction for the callers and the listeners. When the batch fails every update in it is
+// retried on its own, so each caller gets the result or the error it would have got unbatched.
+// A second update of a room already in the batch starts the next batch, so every caller sees
+// its own write.
+public class RoomUpdateBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoomUpdateBatcher.class);
+
+    private static final String UPDATE_SQL = "UPDATE room SET room_number = ?, room_type = ?, price = ?, version = version + 1 WHERE room_id = ?";
+
+    private record Pending(int id, Room room, CompletableFuture<Room> result) {
+    }
+
+    private final EntityManagerFactory emf;
+    private final RoomDao dao;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public RoomUpdateBatcher(EntityManagerFactory emf, RoomDao dao, long windowMillis, int maxBatch) {
+        this.emf = emf;
+        this.dao = dao;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatch = maxBatch;
+
+        Thread writer = new Thread(this::writeLoop, "room-update-batcher");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Blocks until the batch holding this update has committed
+    public Room update(int id, Room room) {
+        Pending pending = new Pending(id, room, new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        Set<Integer> ids = new HashSet<>();
+        Pending carried = null;
+        while (true) {
+            try {
+                Pending first = carried != null ? carried : queue.take();
+                carried = null;
+                batch.add(first);
+                ids.add(first.id());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    if (!ids.add(next.id())) {
+                        carried = next;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // never leave a caller waiting
+                LOGGER.error("Room update batch failed", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+                ids.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Room> rooms;
+        try {
+            rooms = writeBatch(batch);
+        } catch (RuntimeException e) {
+            // one bad update aborts the whole transaction, write them one by one to find it
+            fallbacks.increment();
+            LOGGER.warn("Batch of {} room updates failed, writing them one by one", batch.size(), e);
+            for (Pending pending : batch) {
+                try {
+                    pending.result().complete(dao.updateNow(pending.id(), pending.room()));
+                } catch (RuntimeException failed) {
+                    pending.result().completeExceptionally(failed);
+                }
+            }
+            return;
+        }
+
+        batches.increment();
+        updates.add(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            Room room = rooms.get(i);
+            if (room == null) {
+                pending.result().completeExceptionally(new EntityNotFoundException("No room with id " + pending.id()));
+                continue;
+            }
+            // the indexes are up to date before the caller answers, as with an unbatched update
+            dao.fireSave(room);
+            pending.result().complete(room);
+        }
+    }
+
+    // The updated rooms in batch order, null where the room does not exist
+    private List<Room> writeBatch(List<Pending> batch) {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            try {
+                int[] counts = new int[batch.size()];
+                em.unwrap(Session.class).doWork(connection -> {
+                    try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+                        for (Pending pending : batch) {
+                            Room room = pending.room();
+                            update.setInt(1, room.getRoomNumber());
+                            update.setString(2, room.getRoomType().name());
+                            update.setBigDecimal(3, room.getRoomPrice());
+                            update.setInt(4, pending.id());
+                            update.addBatch();
+                        }
+                        int[] updated = update.executeBatch();
+                        System.arraycopy(updated, 0, counts, 0, counts.length);
+                    }
+                });
+
+                List<Integer> ids = batch.stream().map(Pending::id).toList();
+                Map<Integer, Room> byId = new HashMap<>();
+                for (Room room : em.createQuery("SELECT r FROM Room r JOIN FETCH r.hotel WHERE r.roomId IN :ids", Room.class)
+                        .setParameter("ids", ids)
+                        .getResultList()) {
+                    byId.put(room.getRoomId(), room);
+                }
+                em.getTransaction().commit();
+
+                List<Room> rooms = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    rooms.add(counts[i] == 0 ? null : byId.get(batch.get(i).id()));
+                }
+                return rooms;
+            } finally {
+                if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            }
+        }
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getBatchedUpdates() {
+        return updates.sum();
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        writer.header("room_update_batches_total", "counter", "Group commits of room updates")
+                .sample("room_update_batches_total", batches.sum());
+        writer.header("room_update_batched_total", "counter", "Room updates written in a group commit")
+                .sample("room_update_batched_total", updates.sum());
+        writer.header("room_update_batch_fallbacks_total", "counter", "Batches that failed and were written one update at a time")
+                .sample("room_update_batch_fallbacks_total", fallbacks.sum());
+        writer.header("room_update_queued", "gauge", "Room updates waiting for the next batch")
+                .sample("room_update_queued", queue.size());
+    }
+}
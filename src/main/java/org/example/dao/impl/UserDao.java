@@ -29,7 +29,7 @@ public class UserDao implements IDao<User, String> {
             User user = em.find(User.class, username);
 
             if (user == null || !user.verifyPassword(password)) {
-                throw new AuthorizationException(401, "Invalid user name or password");
+                throw AuthorizationException.INVALID_CREDENTIALS;
             }
             em.getTransaction().commit();
             return user;
@@ -53,7 +53,7 @@ public class UserDao implements IDao<User, String> {
             em.getTransaction().commit();
             return user;
         } catch (Exception e) {
-            throw new AuthorizationException(400, "Username already exists");
+            throw AuthorizationException.USERNAME_TAKEN;
         }
     }
 
@@ -0,0 +1,37 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.availability.AvailableRoom;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@NoArgsConstructor
+@Getter
+public class AvailableRoomDto {
+    private Integer roomId;
+    private Integer hotelId;
+    private Integer roomNumber;
+    private String roomType;
+    private Integer roomPrice;
+    // whole stay after pricing rules
+    private BigDecimal stayPrice;
+
+    public AvailableRoomDto(AvailableRoom room, long stayCents) {
+        this.roomId = room.roomId();
+        this.hotelId = room.hotelId();
+        this.roomNumber = room.roomNumber();
+        this.roomType = room.roomType().name();
+        this.roomPrice = room.price().intValue();
+        this.stayPrice = BigDecimal.valueOf(stayCents, 2);
+    }
+
+    public static List<AvailableRoomDto> toAvailableRoomDTOList(List<AvailableRoom> rooms, long[] stayCents) {
+        AvailableRoomDto[] dtos = new AvailableRoomDto[rooms.size()];
+        for (int i = 0; i < dtos.length; i++) {
+            dtos[i] = new AvailableRoomDto(rooms.get(i), stayCents[i]);
+        }
+        return List.of(dtos);
+    }
+}
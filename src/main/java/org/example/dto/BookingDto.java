@@ -0,0 +1,37 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.model.Booking;
+
+import java.util.List;
+
+// Dates are ISO-8601 strings (2024-06-01), checkOut is the departure day
+@NoArgsConstructor
+@Getter
+public class BookingDto {
+    private Integer id;
+    private Integer roomId;
+    private String checkIn;
+    private String checkOut;
+    private String guestName;
+
+    public BookingDto(Booking booking) {
+        this.id = booking.getId();
+        this.roomId = booking.getRoom().getRoomId();
+        this.checkIn = booking.getCheckIn().toString();
+        this.checkOut = booking.getCheckOut().toString();
+        this.guestName = booking.getGuestName();
+    }
+
+    public BookingDto(Integer roomId, String checkIn, String checkOut, String guestName) {
+        this.roomId = roomId;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.guestName = guestName;
+    }
+
+    public static List<BookingDto> toBookingDTOList(List<Booking> bookings) {
+        return List.of(bookings.stream().map(BookingDto::new).toArray(BookingDto[]::new));
+    }
+}
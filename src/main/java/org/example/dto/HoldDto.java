@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.availability.Hold;
+
+import java.time.Instant;
+
+// Dates are ISO-8601 strings like in BookingDto, ttlSeconds is only read on requests
+@NoArgsConstructor
+@Getter
+public class HoldDto {
+    private Long id;
+    private Integer roomId;
+    private String checkIn;
+    private String checkOut;
+    private Long ttlSeconds;
+    private String expiresAt;
+
+    public HoldDto(Hold hold) {
+        this.id = hold.id();
+        this.roomId = hold.roomId();
+        this.checkIn = hold.checkIn().toString();
+        this.checkOut = hold.checkOut().toString();
+        this.expiresAt = Instant.ofEpochMilli(hold.expiresAt()).toString();
+    }
+}
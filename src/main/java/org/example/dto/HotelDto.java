@@ -7,7 +7,6 @@ import lombok.NoArgsConstructor;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Getter
 @NoArgsConstructor
@@ -17,6 +16,10 @@ public class HotelDto {
     private String hotelName;
     private String hotelAddress;
     private Hotel.HotelType hotelType;
+    private Double latitude;
+    private Double longitude;
+    // to send back with PATCH /hotels/{id}
+    private Integer version;
     private Set<RoomDto> rooms = new HashSet<>();
 
     public HotelDto(Hotel hotel) {
@@ -24,6 +27,9 @@ public class HotelDto {
         this.hotelName = hotel.getHotelName();
         this.hotelAddress = hotel.getHotelAddress();
         this.hotelType = hotel.getHotelType();
+        this.latitude = hotel.getLatitude();
+        this.longitude = hotel.getLongitude();
+        this.version = hotel.getVersion();
         if (hotel.getRooms() != null)
         {
             hotel.getRooms().forEach( room -> rooms.add(new RoomDto(room)));
@@ -37,8 +43,15 @@ public class HotelDto {
         this.hotelType = hotelType;
     }
 
+    // A hotel whose rooms were not read, rooms is null rather than empty
+    public static HotelDto withoutRooms(Hotel hotel) {
+        HotelDto hotelDto = new HotelDto(hotel);
+        hotelDto.rooms = null;
+        return hotelDto;
+    }
+
     public static List<HotelDto> toHotelDTOList(List<Hotel> hotels) {
-        return hotels.stream().map(HotelDto::new).collect(Collectors.toList());
+        return List.of(hotels.stream().map(HotelDto::new).toArray(HotelDto[]::new));
     }
 
     @Override
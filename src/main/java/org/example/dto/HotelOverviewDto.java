@@ -0,0 +1,29 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.overview.HotelOverviewService;
+
+import java.util.List;
+
+// stats and availableRooms are null when their part failed, the part is then named in missing.
+// stats is also null for a hotel without rooms, and for callers who are neither admin nor manager.
+@NoArgsConstructor
+@Getter
+public class HotelOverviewDto {
+    private HotelDto hotel;
+    private HotelStatsDto stats;
+    private List<AvailableRoomDto> availableRooms;
+    private List<String> missing;
+
+    public HotelOverviewDto(HotelOverviewService.Overview overview) {
+        this.hotel = new HotelDto(overview.hotel());
+        if (overview.stats() != null) {
+            this.stats = new HotelStatsDto(overview.stats());
+        }
+        if (overview.availability() != null) {
+            this.availableRooms = AvailableRoomDto.toAvailableRoomDTOList(overview.availability().rooms(), overview.availability().stayCents());
+        }
+        this.missing = overview.missing();
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.model.Hotel;
+
+// Body of PATCH /hotels/{id}: the fields to change, missing ones are kept. version is the one the
+// client read, the update is refused when the hotel has been changed since.
+@NoArgsConstructor
+@Getter
+public class HotelPatchDto {
+    private String hotelName;
+    private String hotelAddress;
+    private Hotel.HotelType hotelType;
+    private Double latitude;
+    private Double longitude;
+    private Integer version;
+
+    public boolean isValid() {
+        return version != null && version >= 0
+                && (hotelName != null || hotelAddress != null || hotelType != null || latitude != null || longitude != null)
+                && (hotelName == null || !hotelName.isEmpty())
+                && (hotelAddress == null || !hotelAddress.isEmpty())
+                && (latitude == null || Math.abs(latitude) <= 90)
+                && (longitude == null || Math.abs(longitude) <= 180);
+    }
+
+    // The changes as a hotel, null where the field is kept
+    public Hotel toHotel() {
+        Hotel hotel = new Hotel(hotelName, hotelAddress, hotelType);
+        hotel.setLatitude(latitude);
+        hotel.setLongitude(longitude);
+        return hotel;
+    }
+}
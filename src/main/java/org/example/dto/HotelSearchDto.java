@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.index.HotelSearchIndex;
+
+import java.util.List;
+
+@NoArgsConstructor
+@Getter
+public class HotelSearchDto {
+    private Integer id;
+    private String hotelName;
+    private String hotelAddress;
+    private Double score;
+
+    public HotelSearchDto(HotelSearchIndex.SearchHit hit) {
+        this.id = hit.hotelId();
+        this.hotelName = hit.hotelName();
+        this.hotelAddress = hit.hotelAddress();
+        this.score = hit.score();
+    }
+
+    public static List<HotelSearchDto> toHotelSearchDTOList(List<HotelSearchIndex.SearchHit> hits) {
+        return List.of(hits.stream().map(HotelSearchDto::new).toArray(HotelSearchDto[]::new));
+    }
+}
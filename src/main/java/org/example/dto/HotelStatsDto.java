@@ -0,0 +1,74 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.model.Room;
+import org.example.stats.HotelStats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@NoArgsConstructor
+@Getter
+public class HotelStatsDto {
+    private Integer hotelId;
+    private String hotelType;
+    private Integer rooms;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal avgPrice;
+    private Map<String, RoomTypeStatsDto> roomTypes;
+
+    public HotelStatsDto(HotelStats.Summary summary) {
+        this.hotelId = summary.hotelId();
+        this.hotelType = summary.hotelType().name();
+        this.rooms = summary.rooms();
+        this.roomTypes = new LinkedHashMap<>();
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0;
+        for (Room.RoomType roomType : Room.RoomType.values()) {
+            int count = summary.rooms(roomType);
+            roomTypes.put(roomType.name(), new RoomTypeStatsDto(summary, roomType));
+            if (count == 0) continue;
+            min = Math.min(min, summary.minCents(roomType));
+            max = Math.max(max, summary.maxCents(roomType));
+            sum += summary.sumCents(roomType);
+        }
+        if (rooms > 0) {
+            this.minPrice = BigDecimal.valueOf(min, 2);
+            this.maxPrice = BigDecimal.valueOf(max, 2);
+            this.avgPrice = average(sum, rooms);
+        }
+    }
+
+    public static List<HotelStatsDto> toHotelStatsDTOList(List<HotelStats.Summary> summaries) {
+        return List.of(summaries.stream().map(HotelStatsDto::new).toArray(HotelStatsDto[]::new));
+    }
+
+    private static BigDecimal average(long sumCents, int count) {
+        return BigDecimal.valueOf(sumCents, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    @NoArgsConstructor
+    @Getter
+    public static class RoomTypeStatsDto {
+        private Integer rooms;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private BigDecimal avgPrice;
+
+        public RoomTypeStatsDto(HotelStats.Summary summary, Room.RoomType roomType) {
+            this.rooms = summary.rooms(roomType);
+            if (rooms > 0) {
+                this.minPrice = BigDecimal.valueOf(summary.minCents(roomType), 2);
+                this.maxPrice = BigDecimal.valueOf(summary.maxCents(roomType), 2);
+                this.avgPrice = average(summary.sumCents(roomType), rooms);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.index.GeoIndex;
+
+@NoArgsConstructor
+@Getter
+public class NearbyHotelDto {
+    private Integer id;
+    private String hotelName;
+    private Double distanceKm;
+    private Integer availableRooms;
+
+    public NearbyHotelDto(GeoIndex.Hits hits, int i, int availableRooms) {
+        this.id = hits.hotelId(i);
+        this.hotelName = hits.name(i);
+        this.distanceKm = Math.round(hits.distanceKm(i) * 1000) / 1000.0;
+        this.availableRooms = availableRooms;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.model.PricingRule;
+import org.example.model.Room;
+import org.example.pricing.CompiledPricing;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+// Dates are ISO-8601 strings, validTo is the first night the rule no longer applies to.
+// daysOfWeek is e.g. "FRIDAY,SATURDAY". Every condition is optional.
+@NoArgsConstructor
+@Getter
+public class PricingRuleDto {
+    private Integer id;
+    private String name;
+    private Integer priority;
+    private String roomType;
+    private String validFrom;
+    private String validTo;
+    private String daysOfWeek;
+    private Integer minGuests;
+    private Integer maxGuests;
+    private String adjustment;
+    private BigDecimal amount;
+
+    public PricingRuleDto(PricingRule rule) {
+        this.id = rule.getId();
+        this.name = rule.getName();
+        this.priority = rule.getPriority();
+        this.roomType = rule.getRoomType() != null ? rule.getRoomType().name() : null;
+        this.validFrom = rule.getValidFrom() != null ? rule.getValidFrom().toString() : null;
+        this.validTo = rule.getValidTo() != null ? rule.getValidTo().toString() : null;
+        this.daysOfWeek = rule.getDaysOfWeek();
+        this.minGuests = rule.getMinGuests();
+        this.maxGuests = rule.getMaxGuests();
+        this.adjustment = rule.getAdjustment().name();
+        this.amount = rule.getAmount();
+    }
+
+    public boolean isValid() {
+        if (name == null || name.isBlank() || priority == null || amount == null) return false;
+        if (adjustment == null || Arrays.stream(PricingRule.Adjustment.values()).noneMatch(a -> a.name().equals(adjustment))) return false;
+        if (roomType != null && Arrays.stream(Room.RoomType.values()).noneMatch(t -> t.name().equals(roomType))) return false;
+        if (minGuests != null && (minGuests < 1 || minGuests > CompiledPricing.MAX_GUESTS)) return false;
+        if (maxGuests != null && (maxGuests < 1 || maxGuests > CompiledPricing.MAX_GUESTS)) return false;
+        if (minGuests != null && maxGuests != null && minGuests > maxGuests) return false;
+        try {
+            if (daysOfWeek != null && !daysOfWeek.isBlank()) CompiledPricing.daysOfWeekMask(daysOfWeek);
+            LocalDate from = validFrom != null ? LocalDate.parse(validFrom) : null;
+            LocalDate to = validTo != null ? LocalDate.parse(validTo) : null;
+            return from == null || to == null || from.isBefore(to);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    public PricingRule toEntity() {
+        PricingRule rule = new PricingRule(name, priority, PricingRule.Adjustment.valueOf(adjustment), amount);
+        rule.setRoomType(roomType != null ? Room.RoomType.valueOf(roomType) : null);
+        rule.setValidFrom(validFrom != null ? LocalDate.parse(validFrom) : null);
+        rule.setValidTo(validTo != null ? LocalDate.parse(validTo) : null);
+        rule.setDaysOfWeek(daysOfWeek != null && !daysOfWeek.isBlank() ? daysOfWeek.toUpperCase() : null);
+        rule.setMinGuests(minGuests);
+        rule.setMaxGuests(maxGuests);
+        return rule;
+    }
+
+    public static List<PricingRuleDto> toPricingRuleDTOList(List<PricingRule> rules) {
+        return List.of(rules.stream().map(PricingRuleDto::new).toArray(PricingRuleDto[]::new));
+    }
+}
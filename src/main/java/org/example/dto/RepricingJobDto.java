@@ -0,0 +1,35 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.repricing.RepricingJob;
+
+import java.util.List;
+
+@NoArgsConstructor
+@Getter
+public class RepricingJobDto {
+    private Long id;
+    private String state;
+    private List<RepricingRuleDto> rules;
+    private Long rooms;
+    private Long priced;
+    private Long written;
+    private Long skipped;
+    private String createdAt;
+    private String finishedAt;
+    private String error;
+
+    public RepricingJobDto(RepricingJob job) {
+        this.id = job.getId();
+        this.state = job.getState().name();
+        this.rules = RepricingRuleDto.toRepricingRuleDTOList(job.getRules());
+        this.rooms = job.getRooms();
+        this.priced = job.getPriced();
+        this.written = job.getWritten();
+        this.skipped = job.getSkipped();
+        this.createdAt = job.getCreatedAt().toString();
+        this.finishedAt = job.getFinishedAt() != null ? job.getFinishedAt().toString() : null;
+        this.error = job.getError();
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.example.repricing.RepricingRule;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+// hotelType and roomType are optional, a missing type matches all. percent is e.g. 8 or -12.5.
+@NoArgsConstructor
+@Getter
+public class RepricingRuleDto {
+    private String hotelType;
+    private String roomType;
+    private BigDecimal percent;
+
+    public RepricingRuleDto(RepricingRule rule) {
+        this.hotelType = rule.hotelType() != null ? rule.hotelType().name() : null;
+        this.roomType = rule.roomType() != null ? rule.roomType().name() : null;
+        this.percent = rule.percent();
+    }
+
+    public boolean isValid() {
+        return percent != null && percent.compareTo(BigDecimal.valueOf(-100)) > 0 && percent.compareTo(BigDecimal.valueOf(1000)) <= 0
+                && (hotelType == null || Arrays.stream(Hotel.HotelType.values()).anyMatch(t -> t.name().equals(hotelType)))
+                && (roomType == null || Arrays.stream(Room.RoomType.values()).anyMatch(t -> t.name().equals(roomType)));
+    }
+
+    public RepricingRule toRule() {
+        return new RepricingRule(hotelType != null ? Hotel.HotelType.valueOf(hotelType) : null,
+                roomType != null ? Room.RoomType.valueOf(roomType) : null, percent);
+    }
+
+    public static List<RepricingRuleDto> toRepricingRuleDTOList(List<RepricingRule> rules) {
+        return List.of(rules.stream().map(RepricingRuleDto::new).toArray(RepricingRuleDto[]::new));
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.dto;
 
+import org.example.index.RoomIndex;
 import org.example.model.Room;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,12 +14,31 @@ public class RoomDto {
     private Integer roomPrice;
     private Room.RoomType roomType;
     private Double squareMeters;
+    // to send back with PATCH /rooms/{id}, null when answered from the room index
+    private Integer version;
 
     public RoomDto(Room room) {
         this.roomNumber = room.getRoomNumber();
         this.roomPrice = room.getRoomPrice().intValue();
         this.roomType = room.getRoomType();
         this.squareMeters = room.getSquareMeters();
+        this.version = room.getVersion();
+    }
+
+    public RoomDto(RoomIndex.Columns columns, int position) {
+        this.roomNumber = columns.roomNumber(position);
+        this.roomPrice = (int) (columns.priceCents(position) / 100);
+        this.roomType = columns.roomType(position);
+        float size = columns.squareMeters(position);
+        this.squareMeters = Float.isNaN(size) ? null : (double) size;
+    }
+
+    public static List<RoomDto> toRoomDTOList(RoomIndex.Columns columns, int[] positions) {
+        RoomDto[] rooms = new RoomDto[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            rooms[i] = new RoomDto(columns, positions[i]);
+        }
+        return List.of(rooms);
     }
 
     public static List<RoomDto> toRoomDTOList(List<Room> rooms) {
@@ -0,0 +1,32 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.example.model.Room;
+
+import java.math.BigDecimal;
+
+// Body of PATCH /rooms/{id}: the fields to change, missing ones are kept. version is the one the
+// client read, the update is refused when the room has been changed since.
+@NoArgsConstructor
+@Getter
+public class RoomPatchDto {
+    private Integer roomNumber;
+    private BigDecimal roomPrice;
+    private Room.RoomType roomType;
+    private Double squareMeters;
+    private Integer version;
+
+    public boolean isValid() {
+        return version != null && version >= 0
+                && (roomNumber != null || roomPrice != null || roomType != null || squareMeters != null)
+                && (roomNumber == null || roomNumber > 0)
+                && (roomPrice == null || roomPrice.signum() >= 0)
+                && (squareMeters == null || squareMeters > 0);
+    }
+
+    // The changes as a room, null where the field is kept
+    public Room toRoom() {
+        return new Room(roomNumber, roomPrice, roomType, squareMeters);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import org.example.sql.SqlMonitor;
+
+import java.util.List;
+
+public record SqlFingerprintDto(String fingerprint, long count, double totalMillis, double meanMillis, double maxMillis) {
+
+    public SqlFingerprintDto(SqlMonitor.FingerprintStats stats) {
+        this(stats.getFingerprint(),
+                stats.getCount(),
+                stats.getTotalNanos() / 1e6,
+                stats.getCount() == 0 ? 0 : stats.getTotalNanos() / 1e6 / stats.getCount(),
+                stats.getMaxNanos() / 1e6);
+    }
+
+    public static List<SqlFingerprintDto> toSqlFingerprintDTOList(List<SqlMonitor.FingerprintStats> stats) {
+        return List.of(stats.stream().map(SqlFingerprintDto::new).toArray(SqlFingerprintDto[]::new));
+    }
+}
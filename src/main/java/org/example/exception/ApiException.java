@@ -2,10 +2,26 @@ package org.example.exception;
 
 public class ApiException extends Exception{
 
+    // Expected failures are thrown often, so they are shared, stackless and carry a pre-serialized body.
+    // Only a 500 captures a stack trace.
+    public static final ApiException INVALID_TOKEN = new ApiException(401, "Invalid token");
+    public static final ApiException NOT_FOUND = new ApiException(404, "Not a valid id");
+    public static final ApiException MALFORMED_JSON = new ApiException(400, "Malformed JSON Supplied");
+    public static final ApiException INVALID_ROLE = new ApiException(400, "Role not valid");
+    public static final ApiException INVALID_DATE_RANGE = new ApiException(400, "Not a valid date range");
+    public static final ApiException BOOKING_CONFLICT = new ApiException(409, "Room is already booked for these dates");
+    public static final ApiException HOLD_CONFLICT = new ApiException(409, "Room is booked or held for these dates");
+    public static final ApiException VERSION_CONFLICT = new ApiException(409, "Changed by someone else, read it again and retry");
+    public static final ApiException HAS_BOOKINGS = new ApiException(409, "Has bookings, cancel them first");
+    public static final ApiException INVALID_HOLD_TTL = new ApiException(400, "Not a valid hold duration");
+    public static final ApiException OVERVIEW_TIMEOUT = new ApiException(504, "Hotel could not be loaded in time");
+    public static final ApiException OVERLOADED = new ApiException(503, "Server is busy, try again later");
+
     private final int statusCode;
+    private String body;
 
     public ApiException(int statusCode, String message) {
-        super(message);
+        super(message, null, false, statusCode == 500);
         this.statusCode = statusCode;
     }
 
@@ -13,4 +29,9 @@ public class ApiException extends Exception{
         return statusCode;
     }
 
+    public String getBody() {
+        if (body == null) body = ErrorBody.of(statusCode, getMessage());
+        return body;
+    }
+
 }
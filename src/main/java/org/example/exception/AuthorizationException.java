@@ -4,10 +4,24 @@ import lombok.Getter;
 
 @Getter
 public class AuthorizationException extends Exception {
+
+    // Shared, stackless instances for the expected authorization failures (see ApiException)
+    public static final AuthorizationException NOT_AUTHORIZED = new AuthorizationException(401, "You are not authorized to perform this action");
+    public static final AuthorizationException INVALID_CREDENTIALS = new AuthorizationException(401, "Invalid user name or password");
+    public static final AuthorizationException INVALID_SIGNATURE = new AuthorizationException(401, "Invalid token signature");
+    public static final AuthorizationException TOKEN_EXPIRED = new AuthorizationException(401, "Token is expired");
+    public static final AuthorizationException USERNAME_TAKEN = new AuthorizationException(400, "Username already exists");
+
     private final int statusCode;
+    private String body;
 
     public AuthorizationException(int statusCode, String message) {
-        super(message);
+        super(message, null, false, statusCode == 500);
         this.statusCode = statusCode;
     }
-}
\ No newline at end of file
+
+    public String getBody() {
+        if (body == null) body = ErrorBody.of(statusCode, getMessage());
+        return body;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Serializes error responses once so preallocated exceptions can reuse the same body
+public final class ErrorBody {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ErrorBody() {
+    }
+
+    public static String of(int statusCode, String message) {
+        try {
+            return MAPPER.writeValueAsString(new Message(statusCode, message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize error body", e);
+        }
+    }
+}
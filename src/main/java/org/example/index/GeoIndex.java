@@ -0,0 +1,362 @@
+package org.example.index;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dao.DaoListener;
+import org.example.dao.impl.HotelDao;
+import org.example.model.Hotel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Hotels on a fixed grid of CELL_DEGREES cells. Hotels are stored as column arrays sorted by
+// cell key (row * COLUMNS + column), so the cells of one grid row that a search box overlaps
+// are one binary search and a contiguous scan. Radius searches check the haversine distance
+// of every hotel in the box; nearest searches repeat the radius search with a doubling radius
+// until k hotels are inside it. Each write copies the arrays once, readers keep the snapshot they
+// started with.
+public class GeoIndex {
+
+    private static GeoIndex instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoIndex.class);
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double CELL_DEGREES = 0.25;
+    static final int ROWS = (int) (180 / CELL_DEGREES);
+    static final int COLUMNS = (int) (360 / CELL_DEGREES);
+
+    private static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+    private static final double FIRST_NEAREST_RADIUS_KM = 2;
+
+    private volatile Cells cells = new Cells.Builder(0).build();
+
+    public static GeoIndex getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            GeoIndex index = new GeoIndex();
+            HotelDao.getInstance(emf).addListener(index.hotelListener(emf));
+            index.load(emf);
+            instance = index;
+        }
+        return instance;
+    }
+
+    public void load(EntityManagerFactory emf) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            try (var em = emf.createEntityManager()) {
+                List<Object[]> hotels = em.createQuery("SELECT h.id, h.hotelName, h.latitude, h.longitude FROM Hotel h " +
+                        "WHERE h.latitude IS NOT NULL AND h.longitude IS NOT NULL", Object[].class).getResultList();
+                Cells.Builder builder = new Cells.Builder(hotels.size());
+                for (Object[] hotel : hotels) {
+                    builder.add((Integer) hotel[0], (String) hotel[1], (Double) hotel[2], (Double) hotel[3]);
+                }
+                cells = builder.build();
+                LOGGER.info("Indexed {} hotel locations in {} ms", hotels.size(), (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    public Cells snapshot() {
+        return cells;
+    }
+
+    public synchronized void replace(Cells cells) {
+        this.cells = cells;
+    }
+
+    public synchronized void put(int hotelId, String name, Double latitude, Double longitude) {
+        cells = cells.replace(hotelId, name, latitude, longitude);
+    }
+
+    public synchronized void remove(int hotelId) {
+        cells = cells.replace(hotelId, null, null, null);
+    }
+
+    // Hotels no further than km from the point, nearest first
+    public Hits within(double latitude, double longitude, double km, int limit) {
+        Cells c = cells;
+        Hits hits = c.collect(latitude, longitude, km);
+        return hits.sorted(limit);
+    }
+
+    // The k hotels nearest to the point
+    public Hits nearest(double latitude, double longitude, int k) {
+        Cells c = cells;
+        double km = FIRST_NEAREST_RADIUS_KM;
+        Hits hits = c.collect(latitude, longitude, km);
+        // once k hotels lie within km, no hotel outside km can be among the k nearest
+        while (hits.size < k && km < MAX_DISTANCE_KM) {
+            km = Math.min(km * 2, MAX_DISTANCE_KM);
+            hits = c.collect(latitude, longitude, km);
+        }
+        return hits.sorted(k);
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    static int row(double latitude) {
+        return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    static int column(double longitude) {
+        int column = (int) Math.floor((longitude + 180) / CELL_DEGREES);
+        return Math.floorMod(column, COLUMNS);
+    }
+
+    private DaoListener<Hotel> hotelListener(EntityManagerFactory emf) {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Hotel hotel) {
+                put(hotel.getId(), hotel.getHotelName(), hotel.getLatitude(), hotel.getLongitude());
+            }
+
+            @Override
+            public void onDelete(Hotel hotel) {
+                remove(hotel.getId());
+            }
+
+            @Override
+            public void onReload() {
+                load(emf);
+            }
+        };
+    }
+
+    // One immutable generation of the grid
+    public static final class Cells {
+
+        private final int[] keys;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final int[] hotelIds;
+        private final String[] names;
+        private int size;
+
+        private Cells(int capacity) {
+            keys = new int[capacity];
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+            hotelIds = new int[capacity];
+            names = new String[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int hotelId(int i) {
+            return hotelIds[i];
+        }
+
+        public String name(int i) {
+            return names[i];
+        }
+
+        public double latitude(int i) {
+            return latitudes[i];
+        }
+
+        public double longitude(int i) {
+            return longitudes[i];
+        }
+
+        private Hits collect(double latitude, double longitude, double km) {
+            Hits hits = new Hits(this);
+            double dLat = Math.toDegrees(km / EARTH_RADIUS_KM);
+            int firstRow = row(latitude - dLat);
+            int lastRow = row(latitude + dLat);
+
+            // the box is widest in longitude at the latitude furthest from the equator
+            double maxAbsLatitude = Math.min(90, Math.abs(latitude) + dLat);
+            double cos = Math.cos(Math.toRadians(maxAbsLatitude));
+            double dLon = cos > 1e-9 ? Math.toDegrees(km / (EARTH_RADIUS_KM * cos)) : 180;
+
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (dLon >= 180) {
+                    scan(hits, row, 0, COLUMNS - 1, latitude, longitude, km);
+                    continue;
+                }
+                int first = (int) Math.floor((longitude - dLon + 180) / CELL_DEGREES);
+                int last = (int) Math.floor((longitude + dLon + 180) / CELL_DEGREES);
+                if (last - first + 1 >= COLUMNS) {
+                    scan(hits, row, 0, COLUMNS - 1, latitude, longitude, km);
+                } else if (first < 0) {
+                    scan(hits, row, first + COLUMNS, COLUMNS - 1, latitude, longitude, km);
+                    scan(hits, row, 0, last, latitude, longitude, km);
+                } else if (last >= COLUMNS) {
+                    scan(hits, row, first, COLUMNS - 1, latitude, longitude, km);
+                    scan(hits, row, 0, last - COLUMNS, latitude, longitude, km);
+                } else {
+                    scan(hits, row, first, last, latitude, longitude, km);
+                }
+            }
+            return hits;
+        }
+
+        // Hotels in columns first to last of a row are contiguous in the key order
+        private void scan(Hits hits, int row, int firstColumn, int lastColumn, double latitude, double longitude, double km) {
+            int lastKey = row * COLUMNS + lastColumn;
+            for (int i = lowerBound(row * COLUMNS + firstColumn); i < size && keys[i] <= lastKey; i++) {
+                double distance = distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+                if (distance <= km) hits.add(i, distance);
+            }
+        }
+
+        private int lowerBound(int key) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private void set(int i, int hotelId, String name, double latitude, double longitude) {
+            keys[i] = row(latitude) * COLUMNS + column(longitude);
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+            hotelIds[i] = hotelId;
+            names[i] = name;
+        }
+
+        // Copy with the hotel moved to the cell of latitude and longitude, or dropped when they are
+        // not set. The old entry is skipped while copying, so the arrays are copied once. This
+        // generation when there is nothing to drop or insert.
+        Cells replace(int hotelId, String name, Double latitude, Double longitude) {
+            int old = -1;
+            for (int i = 0; i < size; i++) {
+                if (hotelIds[i] == hotelId) {
+                    old = i;
+                    break;
+                }
+            }
+            boolean insert = latitude != null && longitude != null;
+            if (old < 0 && !insert) return this;
+            Cells next = new Cells(size - (old < 0 ? 0 : 1) + (insert ? 1 : 0));
+            int at = insert ? lowerBound(row(latitude) * COLUMNS + column(longitude)) : size;
+            next.appendRange(this, 0, at, old);
+            if (insert) next.set(next.size++, hotelId, name, latitude, longitude);
+            next.appendRange(this, at, size, old);
+            return next;
+        }
+
+        // Appends positions from (inclusive) to to (exclusive) of source, except skip
+        private void appendRange(Cells source, int from, int to, int skip) {
+            if (skip >= from && skip < to) {
+                appendRange(source, from, skip, -1);
+                appendRange(source, skip + 1, to, -1);
+                return;
+            }
+            copyFrom(source, from, size, to - from);
+            size += to - from;
+        }
+
+        private void copyFrom(Cells source, int from, int to, int length) {
+            System.arraycopy(source.keys, from, keys, to, length);
+            System.arraycopy(source.latitudes, from, latitudes, to, length);
+            System.arraycopy(source.longitudes, from, longitudes, to, length);
+            System.arraycopy(source.hotelIds, from, hotelIds, to, length);
+            System.arraycopy(source.names, from, names, to, length);
+        }
+
+        // Collects hotels in any order, build() sorts them by cell
+        public static final class Builder {
+
+            private final Cells cells;
+
+            public Builder(int capacity) {
+                cells = new Cells(capacity);
+            }
+
+            public Builder add(int hotelId, String name, double latitude, double longitude) {
+                cells.set(cells.size++, hotelId, name, latitude, longitude);
+                return this;
+            }
+
+            public Cells build() {
+                Cells source = cells;
+                // cell key in the high bits, position in the low bits, sorts without boxing
+                long[] order = new long[source.size];
+                for (int i = 0; i < source.size; i++) {
+                    order[i] = (long) source.keys[i] << 32 | i;
+                }
+                Arrays.sort(order);
+                Cells sorted = new Cells(source.size);
+                for (long entry : order) {
+                    int i = (int) entry;
+                    sorted.set(sorted.size++, source.hotelIds[i], source.names[i], source.latitudes[i], source.longitudes[i]);
+                }
+                return sorted;
+            }
+        }
+    }
+
+    // Search result: positions in a Cells snapshot with their distance
+    public static final class Hits {
+
+        private final Cells cells;
+        private int[] positions = new int[16];
+        private double[] distances = new double[16];
+        private int size;
+
+        private Hits(Cells cells) {
+            this.cells = cells;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int hotelId(int i) {
+            return cells.hotelIds[positions[i]];
+        }
+
+        public String name(int i) {
+            return cells.names[positions[i]];
+        }
+
+        public double distanceKm(int i) {
+            return distances[i];
+        }
+
+        private void add(int position, double distance) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            positions[size] = position;
+            distances[size] = distance;
+            size++;
+        }
+
+        // Nearest first, at most limit hits
+        private Hits sorted(int limit) {
+            // distance in meters in the high bits, hit number in the low bits
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = (long) (distances[i] * 1000) << 32 | i;
+            }
+            Arrays.sort(order);
+            Hits sorted = new Hits(cells);
+            int count = Math.min(size, limit);
+            sorted.positions = new int[Math.max(count, 1)];
+            sorted.distances = new double[Math.max(count, 1)];
+            for (int i = 0; i < count; i++) {
+                int hit = (int) order[i];
+                sorted.positions[i] = positions[hit];
+                sorted.distances[i] = distances[hit];
+            }
+            sorted.size = count;
+            return sorted;
+        }
+    }
+}
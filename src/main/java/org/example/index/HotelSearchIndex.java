@@ -0,0 +1,657 @@
+package org.example.index;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dao.DaoListener;
+import org.example.dao.impl.HotelDao;
+import org.example.model.Hotel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Search over hotel names and addresses. Text is lowercased, folded to ASCII and split into words.
+// Every distinct word has a posting list of (document << 1 | field) entries in document order, and
+// the vocabulary itself has a trigram index ("  word " gives "  w", " wo", "wor", "ord", "rd ").
+//
+// Each query word is expanded to vocabulary words before any document is touched: the word itself,
+// words it is a prefix of when it is the last word typed, and, when the word is not in the
+// vocabulary, the words most similar by trigrams (typos). The expanded posting lists of a query
+// word are merged, the query words are intersected, and hotels are ranked by how well each word
+// matched, whether it matched in the name, and how short the hotel's text is.
+//
+// Hotels are indexed incrementally from HotelDao writes. Updated and deleted hotels leave a dead
+// document behind that is skipped until the index is compacted.
+public class HotelSearchIndex {
+
+    private static HotelSearchIndex instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotelSearchIndex.class);
+
+    private static final int NAME = 0;
+    private static final int ADDRESS = 1;
+
+    // characters are folded to 6 bit codes: space, a-z, 0-9 and a bucket for anything else
+    private static final int CHAR_BITS = 6;
+    private static final int TRIGRAMS = 1 << (3 * CHAR_BITS);
+
+    private static final int MAX_QUERY_WORDS = 8;
+    // merge buffers larger than this are dropped after the search instead of kept for the thread
+    private static final int MAX_SCRATCH_ENTRIES = 4_096;
+    private static final int PREFIX_SCAN = 1_000;
+    private static final int PREFIX_VARIANTS = 20;
+    private static final int TYPO_VARIANTS = 5;
+    private static final double MIN_TYPO_SIMILARITY = 0.3;
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.9f;
+    private static final float TYPO = 0.8f;
+    private static final float NAME_BONUS = 0.1f;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // merge buffers are reused by the searches on a thread, up to MAX_SCRATCH_ENTRIES each
+    private static final ThreadLocal<Matches[]> SCRATCH = ThreadLocal.withInitial(() -> {
+        Matches[] scratch = new Matches[MAX_QUERY_WORDS];
+        for (int i = 0; i < scratch.length; i++) scratch[i] = new Matches();
+        return scratch;
+    });
+
+    // documents
+    private int[] hotelIds;
+    private String[] names;
+    private String[] addresses;
+    private byte[] wordCounts;
+    private boolean[] dead;
+    private final Map<Integer, Integer> documentByHotel = new HashMap<>();
+    private int documents;
+    private int deadDocuments;
+
+    // vocabulary
+    private final NavigableMap<String, Integer> vocabulary = new TreeMap<>();
+    private String[] words;
+    private int[][] postings;
+    private int[] postingSizes;
+    private final int[][] trigramWords = new int[TRIGRAMS][];
+    private final int[] trigramWordSizes = new int[TRIGRAMS];
+
+    public HotelSearchIndex() {
+        clear();
+    }
+
+    public static HotelSearchIndex getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            HotelSearchIndex index = new HotelSearchIndex();
+            HotelDao.getInstance(emf).addListener(index.hotelListener(emf));
+            index.load(emf);
+            instance = index;
+        }
+        return instance;
+    }
+
+    public void load(EntityManagerFactory emf) {
+        long start = System.nanoTime();
+        try (var em = emf.createEntityManager()) {
+            List<Object[]> hotels = em.createQuery("SELECT h.id, h.hotelName, h.hotelAddress FROM Hotel h", Object[].class)
+                    .getResultList();
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (Object[] hotel : hotels) {
+                    add((Integer) hotel[0], (String) hotel[1], (String) hotel[2]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.info("Indexed {} hotels for search in {} ms", hotels.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public void put(int hotelId, String name, String address) {
+        lock.writeLock().lock();
+        try {
+            kill(hotelId);
+            add(hotelId, name, address);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int hotelId) {
+        lock.writeLock().lock();
+        try {
+            kill(hotelId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents - deadDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best matches first, at most limit of them
+    public List<SearchHit> search(String query, int limit) {
+        String[] terms = normalize(query == null ? "" : query).split(" ");
+        int termCount = Math.min(terms.length, MAX_QUERY_WORDS);
+        if (limit <= 0 || terms[0].isEmpty()) return List.of();
+        // past MAX_QUERY_WORDS the middle words are dropped, the last word typed is kept for prefixes
+        terms[termCount - 1] = terms[terms.length - 1];
+
+        Matches[] scratch = SCRATCH.get();
+        lock.readLock().lock();
+        try {
+            List<Matches> matches = new ArrayList<>(termCount);
+            for (int i = 0; i < termCount; i++) {
+                // a word that matches nothing, not even as a typo, is left out of the query
+                if (match(terms[i], i == termCount - 1, scratch[i])) matches.add(scratch[i]);
+            }
+            if (matches.isEmpty()) return List.of();
+            matches.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            TopHits top = new TopHits(limit);
+            Matches driver = matches.get(0);
+            int[] cursors = new int[matches.size()];
+            next:
+            for (int d = 0; d < driver.size; d++) {
+                int document = driver.documents[d];
+                float score = driver.scores[d];
+                for (int m = 1; m < matches.size(); m++) {
+                    Matches other = matches.get(m);
+                    int cursor = other.seek(document, cursors[m]);
+                    cursors[m] = cursor;
+                    if (cursor == other.size || other.documents[cursor] != document) continue next;
+                    score += other.scores[cursor];
+                }
+                score /= matches.size();
+                // among equal matches, hotels with fewer words match more of their text
+                score += 0.05f * Math.min(1f, (float) termCount / wordCounts[document]);
+                top.offer(document, score);
+            }
+            return top.toHits(this);
+        } finally {
+            lock.readLock().unlock();
+            for (int i = 0; i < termCount; i++) scratch[i].trim();
+        }
+    }
+
+    // Fills matches with the documents a query word matches, false when it matches no word
+    private boolean match(String term, boolean last, Matches matches) {
+        int[] variants = new int[PREFIX_VARIANTS + TYPO_VARIANTS + 1];
+        float[] qualities = new float[variants.length];
+        int count = 0;
+
+        Integer exact = vocabulary.get(term);
+        if (exact != null) {
+            variants[count] = exact;
+            qualities[count++] = EXACT;
+        }
+        if (last) {
+            count = addPrefixVariants(term, exact, variants, qualities, count);
+        }
+        if (exact == null && term.length() >= 3) {
+            count = addTypoVariants(term, variants, qualities, count);
+        }
+        if (count == 0) return false;
+        matches.merge(this, variants, qualities, count);
+        return true;
+    }
+
+    // The most used words starting with term
+    private int addPrefixVariants(String term, Integer exact, int[] variants, float[] qualities, int count) {
+        int[] candidates = new int[PREFIX_VARIANTS];
+        int found = 0;
+        int scanned = 0;
+        for (Integer word : vocabulary.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            if (++scanned > PREFIX_SCAN) break;
+            if (found < candidates.length) {
+                candidates[found++] = word;
+            } else {
+                // replace the least used candidate
+                int least = 0;
+                for (int i = 1; i < found; i++) {
+                    if (postingSizes[candidates[i]] < postingSizes[candidates[least]]) least = i;
+                }
+                if (postingSizes[word] > postingSizes[candidates[least]]) candidates[least] = word;
+            }
+        }
+        for (int i = 0; i < found; i++) {
+            if (exact != null && candidates[i] == exact) continue;
+            variants[count] = candidates[i];
+            qualities[count++] = PREFIX;
+        }
+        return count;
+    }
+
+    // Vocabulary words sharing the most trigrams with term (Jaccard similarity)
+    private int addTypoVariants(String term, int[] variants, float[] qualities, int count) {
+        int[] trigrams = trigrams(term);
+        int n = trigrams.length;
+        int[] best = new int[TYPO_VARIANTS];
+        double[] bestSimilarity = new double[TYPO_VARIANTS];
+        int found = 0;
+
+        int[] cursors = new int[n];
+        while (true) {
+            int word = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                int list = trigrams[i];
+                if (cursors[i] < trigramWordSizes[list]) word = Math.min(word, trigramWords[list][cursors[i]]);
+            }
+            if (word == Integer.MAX_VALUE) break;
+
+            int shared = 0;
+            for (int i = 0; i < n; i++) {
+                int list = trigrams[i];
+                if (cursors[i] < trigramWordSizes[list] && trigramWords[list][cursors[i]] == word) {
+                    shared++;
+                    cursors[i]++;
+                }
+            }
+            int length = words[word].length();
+            if (Math.abs(length - term.length()) > 2) continue;
+            // a word of length l has l + 1 trigrams
+            double similarity = (double) shared / (n + length + 1 - shared);
+            if (similarity < MIN_TYPO_SIMILARITY) continue;
+
+            if (found < best.length) {
+                best[found] = word;
+                bestSimilarity[found++] = similarity;
+            } else {
+                int worst = 0;
+                for (int i = 1; i < found; i++) {
+                    if (bestSimilarity[i] < bestSimilarity[worst]) worst = i;
+                }
+                if (similarity > bestSimilarity[worst]) {
+                    best[worst] = word;
+                    bestSimilarity[worst] = similarity;
+                }
+            }
+        }
+        for (int i = 0; i < found; i++) {
+            variants[count] = best[i];
+            qualities[count++] = (float) (TYPO * bestSimilarity[i]);
+        }
+        return count;
+    }
+
+    private void add(int hotelId, String name, String address) {
+        int document = documents++;
+        if (document == hotelIds.length) growDocuments();
+        int wordCount = index(document, NAME, name) + index(document, ADDRESS, address);
+
+        hotelIds[document] = hotelId;
+        names[document] = name;
+        addresses[document] = address;
+        wordCounts[document] = (byte) Math.max(1, Math.min(Byte.MAX_VALUE, wordCount));
+        documentByHotel.put(hotelId, document);
+    }
+
+    // Adds the distinct words of one field to their posting lists, returns the number of words
+    private int index(int document, int field, String text) {
+        if (text == null) return 0;
+        String[] fieldWords = normalize(text).split(" ");
+        Arrays.sort(fieldWords);
+        int indexed = 0;
+        for (int i = 0; i < fieldWords.length; i++) {
+            String word = fieldWords[i];
+            if (word.isEmpty() || (i > 0 && word.equals(fieldWords[i - 1]))) continue;
+            int id = wordId(word);
+            int[] entries = postings[id];
+            int size = postingSizes[id];
+            if (size == entries.length) entries = postings[id] = Arrays.copyOf(entries, size + (size >> 1) + 1);
+            entries[size] = document << 1 | field;
+            postingSizes[id] = size + 1;
+            indexed++;
+        }
+        return indexed;
+    }
+
+    private int wordId(String word) {
+        Integer existing = vocabulary.get(word);
+        if (existing != null) return existing;
+
+        int id = vocabulary.size();
+        if (id == words.length) {
+            words = Arrays.copyOf(words, id * 2);
+            postings = Arrays.copyOf(postings, id * 2);
+            postingSizes = Arrays.copyOf(postingSizes, id * 2);
+        }
+        words[id] = word;
+        postings[id] = new int[2];
+        vocabulary.put(word, id);
+        for (int trigram : trigrams(word)) {
+            int[] entries = trigramWords[trigram];
+            int size = trigramWordSizes[trigram];
+            if (entries == null) {
+                entries = trigramWords[trigram] = new int[4];
+            } else if (size == entries.length) {
+                entries = trigramWords[trigram] = Arrays.copyOf(entries, size + (size >> 1) + 1);
+            }
+            entries[size] = id;
+            trigramWordSizes[trigram] = size + 1;
+        }
+        return id;
+    }
+
+    private void kill(int hotelId) {
+        Integer document = documentByHotel.remove(hotelId);
+        if (document == null) return;
+        dead[document] = true;
+        names[document] = null;
+        addresses[document] = null;
+        deadDocuments++;
+    }
+
+    private void compactIfNeeded() {
+        if (deadDocuments < 1_000 || deadDocuments < documents / 4) return;
+        int[] liveHotelIds = new int[documents - deadDocuments];
+        String[] liveNames = new String[liveHotelIds.length];
+        String[] liveAddresses = new String[liveHotelIds.length];
+        int live = 0;
+        for (int document = 0; document < documents; document++) {
+            if (dead[document]) continue;
+            liveHotelIds[live] = hotelIds[document];
+            liveNames[live] = names[document];
+            liveAddresses[live] = addresses[document];
+            live++;
+        }
+        clear();
+        for (int i = 0; i < live; i++) {
+            add(liveHotelIds[i], liveNames[i], liveAddresses[i]);
+        }
+    }
+
+    private void clear() {
+        hotelIds = new int[1024];
+        names = new String[1024];
+        addresses = new String[1024];
+        wordCounts = new byte[1024];
+        dead = new boolean[1024];
+        documentByHotel.clear();
+        documents = 0;
+        deadDocuments = 0;
+
+        vocabulary.clear();
+        words = new String[1024];
+        postings = new int[1024][];
+        postingSizes = new int[1024];
+        Arrays.fill(trigramWords, null);
+        Arrays.fill(trigramWordSizes, 0);
+    }
+
+    private void growDocuments() {
+        int capacity = hotelIds.length * 2;
+        hotelIds = Arrays.copyOf(hotelIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        addresses = Arrays.copyOf(addresses, capacity);
+        wordCounts = Arrays.copyOf(wordCounts, capacity);
+        dead = Arrays.copyOf(dead, capacity);
+    }
+
+    // Distinct, sorted trigram keys of a normalized word padded with spaces
+    static int[] trigrams(String word) {
+        int length = word.length();
+        int[] keys = new int[length + 1];
+        for (int end = 0; end <= length; end++) {
+            int c1 = end >= 2 ? code(word.charAt(end - 2)) : 0;
+            int c2 = end >= 1 ? code(word.charAt(end - 1)) : 0;
+            int c3 = end < length ? code(word.charAt(end)) : 0;
+            keys[end] = c1 << (2 * CHAR_BITS) | c2 << CHAR_BITS | c3;
+        }
+
+        Arrays.sort(keys);
+        int unique = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (unique == 0 || keys[unique - 1] != keys[i]) keys[unique++] = keys[i];
+        }
+        return unique == keys.length ? keys : Arrays.copyOf(keys, unique);
+    }
+
+    // Lowercase ASCII letters and digits separated by single spaces
+    static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            } else if (c == 'ø') {
+                sb.append('o');
+            } else if (c == 'æ') {
+                sb.append("ae");
+            } else if (c == 'ß') {
+                sb.append("ss");
+            } else if (Character.isLetterOrDigit(c)) {
+                // é -> e, å -> a; letters without a latin base are kept as they are
+                char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+                sb.append(base < 128 ? base : c);
+            } else {
+                if (!space) sb.append(' ');
+                space = true;
+                continue;
+            }
+            space = false;
+        }
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') sb.setLength(end - 1);
+        return sb.toString();
+    }
+
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') return 1 + c - 'a';
+        if (c >= '0' && c <= '9') return 27 + c - '0';
+        return 37 + c % 27;
+    }
+
+    private DaoListener<Hotel> hotelListener(EntityManagerFactory emf) {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Hotel hotel) {
+                put(hotel.getId(), hotel.getHotelName(), hotel.getHotelAddress());
+            }
+
+            @Override
+            public void onDelete(Hotel hotel) {
+                remove(hotel.getId());
+            }
+
+            @Override
+            public void onReload() {
+                load(emf);
+            }
+        };
+    }
+
+    public record SearchHit(int hotelId, String hotelName, String hotelAddress, double score) {
+    }
+
+    // Live documents matched by one query word, in document order, with the best score per document
+    private static final class Matches {
+
+        private int[] documents = new int[0];
+        private float[] scores = new float[0];
+        private int size;
+
+        void merge(HotelSearchIndex index, int[] variants, float[] qualities, int count) {
+            int capacity = 0;
+            for (int i = 0; i < count; i++) capacity += index.postingSizes[variants[i]];
+            if (documents.length < capacity) {
+                documents = new int[capacity];
+                scores = new float[capacity];
+            }
+            size = 0;
+
+            // k-way merge over a min-heap of variants ordered by their current document
+            int[] cursors = new int[count];
+            int[] heap = new int[count];
+            int heapSize = 0;
+            for (int i = 0; i < count; i++) {
+                if (index.postingSizes[variants[i]] > 0) heap[heapSize++] = i;
+            }
+            for (int i = heapSize / 2 - 1; i >= 0; i--) {
+                siftDown(index, variants, cursors, heap, heapSize, i);
+            }
+
+            int previous = -1;
+            while (heapSize > 0) {
+                int variant = heap[0];
+                int[] entries = index.postings[variants[variant]];
+                int entry = entries[cursors[variant]];
+                int document = entry >>> 1;
+                float score = qualities[variant] + ((entry & 1) == NAME ? NAME_BONUS : 0);
+
+                if (++cursors[variant] == index.postingSizes[variants[variant]]) heap[0] = heap[--heapSize];
+                siftDown(index, variants, cursors, heap, heapSize, 0);
+
+                if (index.dead[document]) continue;
+                if (document == previous) {
+                    scores[size - 1] = Math.max(scores[size - 1], score);
+                } else {
+                    documents[size] = document;
+                    scores[size++] = score;
+                    previous = document;
+                }
+            }
+        }
+
+        private static void siftDown(HotelSearchIndex index, int[] variants, int[] cursors, int[] heap, int size, int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int smallest = i;
+                if (left < size && head(index, variants, cursors, heap[left]) < head(index, variants, cursors, heap[smallest])) {
+                    smallest = left;
+                }
+                if (left + 1 < size && head(index, variants, cursors, heap[left + 1]) < head(index, variants, cursors, heap[smallest])) {
+                    smallest = left + 1;
+                }
+                if (smallest == i) return;
+                int swap = heap[i];
+                heap[i] = heap[smallest];
+                heap[smallest] = swap;
+                i = smallest;
+            }
+        }
+
+        // the current entry of a variant; name and address entries of one document sort together
+        private static int head(HotelSearchIndex index, int[] variants, int[] cursors, int variant) {
+            return index.postings[variants[variant]][cursors[variant]];
+        }
+
+        // Drops buffers grown past MAX_SCRATCH_ENTRIES so one broad query does not pin them to the thread
+        void trim() {
+            size = 0;
+            if (documents.length > MAX_SCRATCH_ENTRIES) {
+                documents = new int[0];
+                scores = new float[0];
+            }
+        }
+
+        // First position at or after from holding a document of at least document
+        int seek(int document, int from) {
+            int step = 1;
+            int hi = from;
+            // gallop, then binary search the last step
+            while (hi < size && documents[hi] < document) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            hi = Math.min(hi, size);
+            while (from < hi) {
+                int mid = (from + hi) >>> 1;
+                if (documents[mid] < document) from = mid + 1;
+                else hi = mid;
+            }
+            return from;
+        }
+    }
+
+    // Bounded min-heap of the best scoring documents
+    private static final class TopHits {
+
+        private final int[] documents;
+        private final float[] scores;
+        private int size;
+
+        TopHits(int limit) {
+            documents = new int[limit];
+            scores = new float[limit];
+        }
+
+        void offer(int document, float score) {
+            if (size < documents.length) {
+                documents[size] = document;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                documents[0] = document;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        // best first; equal scores keep the earlier indexed hotel first
+        List<SearchHit> toHits(HotelSearchIndex index) {
+            SearchHit[] hits = new SearchHit[size];
+            while (size > 0) {
+                int document = documents[0];
+                hits[size - 1] = new SearchHit(index.hotelIds[document], index.names[document], index.addresses[document],
+                        Math.round(scores[0] * 1000) / 1000.0);
+                size--;
+                documents[0] = documents[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return List.of(hits);
+        }
+
+        private boolean less(int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && documents[a] > documents[b]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(i, parent)) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int smallest = i;
+                if (left < size && less(left, smallest)) smallest = left;
+                if (left + 1 < size && less(left + 1, smallest)) smallest = left + 1;
+                if (smallest == i) return;
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int document = documents[a];
+            documents[a] = documents[b];
+            documents[b] = document;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
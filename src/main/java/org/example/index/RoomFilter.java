@@ -0,0 +1,20 @@
+package org.example.index;
+
+import org.example.model.Room;
+
+// Optional constraints for RoomIndex queries, unset fields match every room
+public record RoomFilter(float minSquareMeters, int typeOrdinal, int hotelId) {
+
+    public static final RoomFilter ANY = new RoomFilter(0, -1, -1);
+
+    public static RoomFilter of(Double minSquareMeters, Room.RoomType type, Integer hotelId) {
+        return new RoomFilter(
+                minSquareMeters != null ? minSquareMeters.floatValue() : 0,
+                type != null ? type.ordinal() : -1,
+                hotelId != null ? hotelId : -1);
+    }
+
+    boolean isAny() {
+        return minSquareMeters <= 0 && typeOrdinal < 0 && hotelId < 0;
+    }
+}
@@ -0,0 +1,323 @@
+package org.example.index;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dao.DaoListener;
+import org.example.dao.impl.HotelDao;
+import org.example.dao.impl.RoomDao;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+// Read index of every room as primitive column arrays sorted by price, so price ranges are two
+// binary searches and the cheapest rooms are a prefix of the arrays. Nothing is boxed on the
+// read path. Each write builds the next generation in one merge pass over the columns, dropping
+// the replaced rooms and inserting the new ones by price, so a hotel with many rooms still costs
+// a single copy. Readers keep using the snapshot they started with.
+public class RoomIndex {
+
+    private static RoomIndex instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoomIndex.class);
+
+    // price (long), square meters (float), room type (byte), hotel id, room id, room number (int)
+    public static final int BYTES_PER_ROOM = Long.BYTES + Float.BYTES + Byte.BYTES + 3 * Integer.BYTES;
+
+    private volatile Columns columns = new Columns(0);
+
+    public static RoomIndex getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            RoomIndex index = new RoomIndex();
+            RoomDao.getInstance(emf).addListener(index.roomListener(emf));
+            HotelDao.getInstance(emf).addListener(index.hotelListener());
+            index.load(emf);
+            instance = index;
+        }
+        return instance;
+    }
+
+    public void load(EntityManagerFactory emf) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            try (var em = emf.createEntityManager()) {
+                List<Object[]> rooms = em.createQuery("SELECT r.roomId, r.hotel.id, r.roomNumber, r.roomPrice, " +
+                        "r.squareMeters, r.roomType FROM Room r", Object[].class).getResultList();
+                Columns.Builder builder = new Columns.Builder(rooms.size());
+                for (Object[] room : rooms) {
+                    builder.add((Integer) room[0], (Integer) room[1], (Integer) room[2], (BigDecimal) room[3],
+                            (Double) room[4], (Room.RoomType) room[5]);
+                }
+                columns = builder.build();
+                LOGGER.info("Indexed {} rooms in {} ms, {} bytes per room",
+                        rooms.size(), (System.nanoTime() - start) / 1_000_000, BYTES_PER_ROOM);
+            }
+        }
+    }
+
+    public Columns snapshot() {
+        return columns;
+    }
+
+    public synchronized void replace(Columns columns) {
+        this.columns = columns;
+    }
+
+    public synchronized void put(int roomId, int hotelId, int roomNumber, BigDecimal price, Double squareMeters, Room.RoomType type) {
+        Columns added = new Columns.Builder(1).add(roomId, hotelId, roomNumber, price, squareMeters, type).build();
+        Columns current = columns;
+        columns = current.merge(i -> current.roomIds[i] == roomId, added);
+    }
+
+    // Replaces the rooms of one hotel, one copy of the columns for the whole hotel
+    public synchronized void putHotel(int hotelId, List<Room> rooms) {
+        int[] roomIds = new int[rooms.size()];
+        Columns.Builder builder = new Columns.Builder(rooms.size());
+        for (int r = 0; r < roomIds.length; r++) {
+            Room room = rooms.get(r);
+            roomIds[r] = room.getRoomId();
+            builder.add(room.getRoomId(), hotelId, room.getRoomNumber(), room.getRoomPrice(),
+                    room.getSquareMeters(), room.getRoomType());
+        }
+        Arrays.sort(roomIds);
+        Columns current = columns;
+        columns = current.merge(i -> Arrays.binarySearch(roomIds, current.roomIds[i]) >= 0, builder.build());
+    }
+
+    public synchronized void remove(int roomId) {
+        Columns current = columns;
+        columns = current.merge(i -> current.roomIds[i] == roomId, Columns.EMPTY);
+    }
+
+    public synchronized void removeHotel(int hotelId) {
+        Columns current = columns;
+        columns = current.merge(i -> current.hotelIds[i] == hotelId, Columns.EMPTY);
+    }
+
+    public static long toCents(BigDecimal price) {
+        return price.movePointRight(2).longValue();
+    }
+
+    private static float toSquareMeters(Double squareMeters) {
+        return squareMeters != null ? squareMeters.floatValue() : Float.NaN;
+    }
+
+    private DaoListener<Room> roomListener(EntityManagerFactory emf) {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Room room) {
+                put(room.getRoomId(), room.getHotel().getId(), room.getRoomNumber(), room.getRoomPrice(),
+                        room.getSquareMeters(), room.getRoomType());
+            }
+
+            @Override
+            public void onDelete(Room room) {
+                remove(room.getRoomId());
+            }
+
+            @Override
+            public void onReload() {
+                load(emf);
+            }
+        };
+    }
+
+    private DaoListener<Hotel> hotelListener() {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Hotel hotel) {
+                putHotel(hotel.getId(), List.copyOf(hotel.getRooms()));
+            }
+
+            @Override
+            public void onDelete(Hotel hotel) {
+                removeHotel(hotel.getId());
+            }
+        };
+    }
+
+    // One immutable generation of the index. Position i is the i-th cheapest room.
+    public static final class Columns {
+
+        private static final Room.RoomType[] TYPES = Room.RoomType.values();
+
+        static final Columns EMPTY = new Columns(0);
+
+        private final long[] priceCents;
+        private final float[] squareMeters;
+        private final byte[] types;
+        private final int[] hotelIds;
+        private final int[] roomIds;
+        private final int[] roomNumbers;
+        private int size;
+
+        private Columns(int capacity) {
+            priceCents = new long[capacity];
+            squareMeters = new float[capacity];
+            types = new byte[capacity];
+            hotelIds = new int[capacity];
+            roomIds = new int[capacity];
+            roomNumbers = new int[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long priceCents(int i) {
+            return priceCents[i];
+        }
+
+        // NaN when the size of the room is not known
+        public float squareMeters(int i) {
+            return squareMeters[i];
+        }
+
+        public Room.RoomType roomType(int i) {
+            return TYPES[types[i]];
+        }
+
+        public int hotelId(int i) {
+            return hotelIds[i];
+        }
+
+        public int roomId(int i) {
+            return roomIds[i];
+        }
+
+        public int roomNumber(int i) {
+            return roomNumbers[i];
+        }
+
+        // First position with a price of at least cents
+        public int lowerBound(long cents) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (priceCents[mid] < cents) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        // First position with a price above cents
+        public int upperBound(long cents) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (priceCents[mid] <= cents) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        // Positions of the rooms priced from minCents to maxCents (inclusive) that match the filter,
+        // cheapest first and at most limit of them
+        public int[] priceRange(long minCents, long maxCents, RoomFilter filter, int limit) {
+            int from = lowerBound(minCents);
+            int to = upperBound(maxCents);
+            if (from >= to || limit <= 0) return new int[0];
+
+            if (filter.isAny()) {
+                int count = Math.min(to - from, limit);
+                int[] positions = new int[count];
+                for (int i = 0; i < count; i++) positions[i] = from + i;
+                return positions;
+            }
+
+            int[] positions = new int[Math.min(to - from, Math.min(limit, 64))];
+            int count = 0;
+            for (int i = from; i < to && count < limit; i++) {
+                if (matches(i, filter)) {
+                    if (count == positions.length) positions = Arrays.copyOf(positions, Math.min(count * 2, to - from));
+                    positions[count++] = i;
+                }
+            }
+            return count == positions.length ? positions : Arrays.copyOf(positions, count);
+        }
+
+        public int[] cheapest(int k, RoomFilter filter) {
+            return priceRange(Long.MIN_VALUE, Long.MAX_VALUE, filter, k);
+        }
+
+        private boolean matches(int i, RoomFilter filter) {
+            // a room of unknown size (NaN) only passes when no minimum is asked for
+            return (filter.minSquareMeters() <= 0 || squareMeters[i] >= filter.minSquareMeters())
+                    && (filter.typeOrdinal() < 0 || types[i] == filter.typeOrdinal())
+                    && (filter.hotelId() < 0 || hotelIds[i] == filter.hotelId());
+        }
+
+        private void append(int roomId, int hotelId, int roomNumber, long cents, float sqm, Room.RoomType type) {
+            priceCents[size] = cents;
+            squareMeters[size] = sqm;
+            types[size] = (byte) type.ordinal();
+            hotelIds[size] = hotelId;
+            roomIds[size] = roomId;
+            roomNumbers[size] = roomNumber;
+            size++;
+        }
+
+        // Copy without the positions dropped matches and with the rows of added (sorted by price)
+        // inserted after every room of the same or lower price. This generation when nothing changes.
+        Columns merge(IntPredicate dropped, Columns added) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!dropped.test(i)) kept++;
+            }
+            if (kept == size && added.size == 0) return this;
+            Columns next = new Columns(kept + added.size);
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (dropped.test(i)) continue;
+                while (j < added.size && added.priceCents[j] < priceCents[i]) next.appendFrom(added, j++);
+                next.appendFrom(this, i);
+            }
+            while (j < added.size) next.appendFrom(added, j++);
+            return next;
+        }
+
+        private void appendFrom(Columns source, int i) {
+            priceCents[size] = source.priceCents[i];
+            squareMeters[size] = source.squareMeters[i];
+            types[size] = source.types[i];
+            hotelIds[size] = source.hotelIds[i];
+            roomIds[size] = source.roomIds[i];
+            roomNumbers[size] = source.roomNumbers[i];
+            size++;
+        }
+
+        Columns sortedByPrice() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(priceCents[a], priceCents[b]));
+            Columns sorted = new Columns(size);
+            for (int i : order) {
+                sorted.append(roomIds[i], hotelIds[i], roomNumbers[i], priceCents[i], squareMeters[i], TYPES[types[i]]);
+            }
+            return sorted;
+        }
+
+        // Collects rooms in any order, build() sorts them by price
+        public static final class Builder {
+
+            private final Columns columns;
+
+            public Builder(int capacity) {
+                columns = new Columns(capacity);
+            }
+
+            public Builder add(int roomId, int hotelId, int roomNumber, BigDecimal price, Double squareMeters, Room.RoomType type) {
+                columns.append(roomId, hotelId, roomNumber, toCents(price), toSquareMeters(squareMeters), type);
+                return this;
+            }
+
+            public Columns build() {
+                return columns.sortedByPrice();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.limit;
+
+import org.example.config.ApplicationConfig;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Concurrency limit that follows the latency the requests see, a gradient limiter in the style of
+// Netflix's concurrency-limits. Latencies are averaged over short windows and compared with the
+// no-load latency: while a window stays within tolerance of it the limit grows by sqrt(limit), once
+// requests start queueing (for a connection, mostly) the windows get slower and the limit shrinks
+// by that ratio. The no-load latency is the fastest window seen, re-measured every second in a
+// probe window that runs at half the limit, where nothing queues. That is how it learns that the
+// database itself got slower, instead of taking the slowdown for queueing and shedding for good.
+// Requests over the limit are not queued for a connection, the caller rejects them (PriorityLimiter
+// after a short wait at most), so a slow database costs a fast 503 instead of a wait for Hikari's
+// connectionTimeout. tryAcquire is a CAS on the
+// in-flight count, the limit is recomputed once per window under a lock.
+public class AdaptiveLimiter {
+
+    private static AdaptiveLimiter instance;
+
+    // windows between probes of the no-load latency
+    private static final int PROBE_INTERVAL = 10;
+    // share of the gradient applied per window when shrinking
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    private volatile boolean congested;
+
+    // current window, guarded by this
+    private long windowStart = System.nanoTime();
+    private long windowSumNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private double noLoadRttNanos;
+    private double estimate;
+    private int windowsToProbe = PROBE_INTERVAL;
+    private boolean probing;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.estimate = limit;
+    }
+
+    public static AdaptiveLimiter getInstance() {
+        if (instance == null) {
+            instance = new AdaptiveLimiter(
+                    Integer.parseInt(ApplicationConfig.getProperty("limiter.initial", "20")),
+                    Integer.parseInt(ApplicationConfig.getProperty("limiter.min", "4")),
+                    Integer.parseInt(ApplicationConfig.getProperty("limiter.max", "200")),
+                    Double.parseDouble(ApplicationConfig.getProperty("limiter.tolerance", "1.5")),
+                    Long.parseLong(ApplicationConfig.getProperty("limiter.window.millis", "100")));
+        }
+        return instance;
+    }
+
+    // Takes a slot if one is free, release() must follow
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release(long latencyNanos) {
+        sample(latencyNanos, inFlight.getAndDecrement());
+    }
+
+    // Feeds one finished request for callers that count the in-flight requests themselves
+    public void sample(long latencyNanos, int inFlightBefore) {
+        synchronized (this) {
+            windowSumNanos += latencyNanos;
+            windowCount++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+            long now = System.nanoTime();
+            if (now - windowStart >= windowNanos) {
+                update();
+                windowStart = now;
+                windowSumNanos = 0;
+                windowCount = 0;
+                windowMaxInFlight = 0;
+            }
+        }
+    }
+
+    private void update() {
+        double shortRtt = (double) windowSumNanos / windowCount;
+        if (probing) {
+            noLoadRttNanos = shortRtt;
+            probing = false;
+            windowsToProbe = PROBE_INTERVAL;
+            limit = (int) Math.round(estimate);
+            return;
+        }
+        if (noLoadRttNanos == 0 || shortRtt < noLoadRttNanos) noLoadRttNanos = shortRtt;
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * noLoadRttNanos / shortRtt));
+        congested = gradient < 1.0;
+        // with little traffic there is nothing to learn about a higher limit
+        if (windowMaxInFlight >= estimate / 2) {
+            if (gradient == 1.0) estimate += Math.sqrt(estimate);
+            else estimate *= 1 - SMOOTHING * (1 - gradient);
+            estimate = Math.max(minLimit, Math.min(maxLimit, estimate));
+        }
+
+        if (--windowsToProbe == 0) {
+            probing = true;
+            limit = Math.max(minLimit, (int) (estimate / 2));
+        } else {
+            limit = (int) Math.round(estimate);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // The last window missed the latency target: requests are queueing somewhere
+    public boolean isCongested() {
+        return congested;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,237 @@
+package org.example.limit;
+
+import org.example.config.ApplicationConfig;
+import org.example.metrics.PrometheusWriter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Splits the adaptive limit between priority classes. Every class is guaranteed its share of the
+// limit, even while other classes hold more than theirs, so a flood of anonymous reads cannot take
+// the slots that logins and admin writes need. Unused capacity can be borrowed up to the limit, but
+// when the last window missed its latency target only CRITICAL may borrow and LOW is cut to half
+// its share: low-priority traffic is shed first. A class that finds no slot waits in its own
+// bounded queue for up to its wait time; a freed slot goes to the highest class waiting.
+// Total in flight can reach the limit plus the guarantees while borrowed slots drain. Taking and
+// returning a slot are CAS on the class and total counts; the lock is only taken by a request that
+// has to queue and by a release that finds requests waiting.
+public class PriorityLimiter {
+
+    private static PriorityLimiter instance;
+
+    // in order of precedence
+    public enum Priority {
+        CRITICAL, NORMAL, LOW;
+
+        private final String label = name().toLowerCase();
+    }
+
+    public record ClassSettings(double share, int queueSize, long maxWaitMillis) {
+    }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final AdaptiveLimiter limiter;
+    private final ClassSettings[] settings;
+
+    private final AtomicIntegerArray inFlight = new AtomicIntegerArray(PRIORITIES.length);
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    // waiters change under the lock, but are read without it to see if a release must wake anyone
+    private final AtomicIntegerArray waiting = new AtomicIntegerArray(PRIORITIES.length);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition[] turns = new Condition[PRIORITIES.length];
+
+    private final LongAdder[] admitted = adders();
+    private final LongAdder[] queued = adders();
+    private final LongAdder[] rejectedQueueFull = adders();
+    private final LongAdder[] rejectedTimeout = adders();
+
+    public PriorityLimiter(AdaptiveLimiter limiter, ClassSettings critical, ClassSettings normal, ClassSettings low) {
+        this.limiter = limiter;
+        this.settings = new ClassSettings[]{critical, normal, low};
+        for (int i = 0; i < turns.length; i++) {
+            turns[i] = lock.newCondition();
+        }
+    }
+
+    public static PriorityLimiter getInstance() {
+        if (instance == null) {
+            instance = new PriorityLimiter(AdaptiveLimiter.getInstance(),
+                    classSettings(Priority.CRITICAL, "0.3", "64", "1000"),
+                    classSettings(Priority.NORMAL, "0.4", "32", "200"),
+                    classSettings(Priority.LOW, "0.3", "0", "0"));
+        }
+        return instance;
+    }
+
+    private static ClassSettings classSettings(Priority priority, String share, String queueSize, String maxWaitMillis) {
+        String prefix = "limiter." + priority.label + ".";
+        return new ClassSettings(
+                Double.parseDouble(ApplicationConfig.getProperty(prefix + "share", share)),
+                Integer.parseInt(ApplicationConfig.getProperty(prefix + "queue.size", queueSize)),
+                Long.parseLong(ApplicationConfig.getProperty(prefix + "queue.wait.millis", maxWaitMillis)));
+    }
+
+    // Takes a slot for the class, waiting in its queue if needed; false when the request is shed.
+    // release() must follow a true.
+    public boolean acquire(Priority priority) throws InterruptedException {
+        int p = priority.ordinal();
+        if (tryAdmit(p)) return true;
+
+        ClassSettings classSettings = settings[p];
+        lock.lock();
+        try {
+            if (waiting.get(p) >= classSettings.queueSize()) {
+                rejectedQueueFull[p].increment();
+                return false;
+            }
+            queued[p].increment();
+            waiting.incrementAndGet(p);
+            try {
+                // a release that ran before we counted as waiting did not wake us, look again
+                long remaining = TimeUnit.MILLISECONDS.toNanos(classSettings.maxWaitMillis());
+                while (!tryAdmit(p)) {
+                    if (remaining <= 0) {
+                        rejectedTimeout[p].increment();
+                        return false;
+                    }
+                    remaining = turns[p].awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                waiting.decrementAndGet(p);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Priority priority, long latencyNanos) {
+        int p = priority.ordinal();
+        inFlight.decrementAndGet(p);
+        int before = totalInFlight.getAndDecrement();
+        if (anyWaiting()) {
+            lock.lock();
+            try {
+                // a freed slot can open a guarantee and a borrowed slot at once, so every class that
+                // could take one is woken; a lower class never borrows while a higher one still waits
+                for (int c = 0; c < PRIORITIES.length; c++) {
+                    if (waiting.get(c) > 0 && canAdmit(c)) {
+                        turns[c].signal();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        limiter.sample(latencyNanos, before);
+    }
+
+    // Takes a slot from the class's guarantee, else borrows one below the limit
+    private boolean tryAdmit(int p) {
+        int limit = limiter.getLimit();
+        boolean congested = limiter.isCongested();
+        int guarantee = guaranteed(p, limit, congested);
+        for (int current = inFlight.get(p); current < guarantee; current = inFlight.get(p)) {
+            if (inFlight.compareAndSet(p, current, current + 1)) {
+                totalInFlight.incrementAndGet();
+                admitted[p].increment();
+                return true;
+            }
+        }
+        if (!mayBorrow(p, congested)) return false;
+        for (int total = totalInFlight.get(); total < limit; total = totalInFlight.get()) {
+            if (totalInFlight.compareAndSet(total, total + 1)) {
+                inFlight.incrementAndGet(p);
+                admitted[p].increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canAdmit(int p) {
+        int limit = limiter.getLimit();
+        boolean congested = limiter.isCongested();
+        if (inFlight.get(p) < guaranteed(p, limit, congested)) return true;
+        return totalInFlight.get() < limit && mayBorrow(p, congested);
+    }
+
+    // borrowing: never while congested unless CRITICAL, never ahead of a higher class that waits
+    private boolean mayBorrow(int p, boolean congested) {
+        if (congested && p != Priority.CRITICAL.ordinal()) return false;
+        for (int c = 0; c < p; c++) {
+            if (waiting.get(c) > 0) return false;
+        }
+        return true;
+    }
+
+    private boolean anyWaiting() {
+        for (int c = 0; c < PRIORITIES.length; c++) {
+            if (waiting.get(c) > 0) return true;
+        }
+        return false;
+    }
+
+    private int guaranteed(int p, int limit, boolean congested) {
+        double share = settings[p].share();
+        if (congested && p == Priority.LOW.ordinal()) share /= 2;
+        return Math.max(1, (int) (limit * share));
+    }
+
+    public long getAdmitted(Priority priority) {
+        return admitted[priority.ordinal()].sum();
+    }
+
+    public long getRejected(Priority priority) {
+        int p = priority.ordinal();
+        return rejectedQueueFull[p].sum() + rejectedTimeout[p].sum();
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        int limit = limiter.getLimit();
+        boolean congested = limiter.isCongested();
+        writer.header("limiter_limit", "gauge", "Current adaptive concurrency limit")
+                .sample("limiter_limit", limit);
+        writer.header("limiter_congested", "gauge", "1 when the last window missed the latency target")
+                .sample("limiter_congested", congested ? 1 : 0);
+
+        writer.header("limiter_budget", "gauge", "Slots guaranteed to the priority class right now");
+        for (Priority priority : PRIORITIES) {
+            writer.sample("limiter_budget", guaranteed(priority.ordinal(), limit, congested), "priority", priority.label);
+        }
+        writer.header("limiter_in_flight", "gauge", "Requests holding a slot");
+        for (Priority priority : PRIORITIES) {
+            writer.sample("limiter_in_flight", inFlight.get(priority.ordinal()), "priority", priority.label);
+        }
+        writer.header("limiter_waiting", "gauge", "Requests waiting in the class queue");
+        for (Priority priority : PRIORITIES) {
+            writer.sample("limiter_waiting", waiting.get(priority.ordinal()), "priority", priority.label);
+        }
+        writer.header("limiter_admitted_total", "counter", "Requests given a slot");
+        for (Priority priority : PRIORITIES) {
+            writer.sample("limiter_admitted_total", admitted[priority.ordinal()].sum(), "priority", priority.label);
+        }
+        writer.header("limiter_queued_total", "counter", "Requests that had to wait for a slot");
+        for (Priority priority : PRIORITIES) {
+            writer.sample("limiter_queued_total", queued[priority.ordinal()].sum(), "priority", priority.label);
+        }
+        writer.header("limiter_shed_total", "counter", "Requests rejected with 503, by why");
+        for (Priority priority : PRIORITIES) {
+            writer.sample("limiter_shed_total", rejectedQueueFull[priority.ordinal()].sum(), "priority", priority.label, "reason", "queue_full");
+            writer.sample("limiter_shed_total", rejectedTimeout[priority.ordinal()].sum(), "priority", priority.label, "reason", "timeout");
+        }
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[PRIORITIES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.logging;
+
+import io.javalin.http.HandlerType;
+import org.example.config.ApplicationConfig;
+import org.example.metrics.ServerTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Access log pipeline. Request threads claim a preallocated record in a bounded ring buffer
+// and fill it in place; a single daemon writer drains the ring in batches and writes one
+// logging call per batch. When the ring is full the record is dropped instead of blocking.
+public class AccessLog {
+
+    private static AccessLog instance;
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final Logger logger;
+    private final AccessLogRecord[] ring;
+    private final int mask;
+    private final int batchSize;
+    private final double sampleRate;
+
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+    private volatile boolean running = true;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder[] statusClasses = new LongAdder[6];
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread writer;
+
+    public AccessLog(Logger logger, int capacity, int batchSize, double sampleRate) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.logger = logger;
+        this.ring = new AccessLogRecord[capacity];
+        this.mask = capacity - 1;
+        this.batchSize = batchSize;
+        this.sampleRate = sampleRate;
+
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new AccessLogRecord();
+        }
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+
+        writer = new Thread(this::drainLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static AccessLog getInstance() {
+        if (instance == null) {
+            int capacity = Integer.parseInt(ApplicationConfig.getProperty("accesslog.buffer.size", "8192"));
+            int batchSize = Integer.parseInt(ApplicationConfig.getProperty("accesslog.batch.size", "256"));
+            double sampleRate = Double.parseDouble(ApplicationConfig.getProperty("accesslog.sample.rate", "1.0"));
+            instance = new AccessLog(LoggerFactory.getLogger(AccessLog.class), capacity, batchSize, sampleRate);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "access-log-shutdown"));
+        }
+        return instance;
+    }
+
+    // Called on the request thread. Does not allocate and never blocks. timing is null unless the request was timed.
+    public void record(HandlerType method, String path, String route, int status, long durationNanos, ServerTiming timing) {
+        requests.increment();
+        statusClasses[Math.min(status / 100, 5)].increment();
+
+        // Server errors are always logged, everything else is sampled
+        if (status < 500 && sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= ring.length) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        AccessLogRecord record = ring[(int) sequence & mask];
+        record.fill(System.currentTimeMillis(), method, path, route, status, durationNanos, timing);
+        record.publish(sequence);
+    }
+
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        StringBuilder batch = new StringBuilder(batchSize * 160);
+        while (running || tail != head.get()) {
+            if (drain(batch) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drain(StringBuilder batch) {
+        batch.setLength(0);
+        int drained = 0;
+        long next = tail;
+
+        while (drained < batchSize) {
+            AccessLogRecord record = ring[(int) next & mask];
+            if (!record.isPublished(next)) break;
+
+            if (drained > 0) batch.append(System.lineSeparator());
+            record.appendTo(batch);
+            // hand the slot back to the producers as soon as it has been copied
+            tail = ++next;
+            drained++;
+        }
+
+        if (drained > 0) {
+            try {
+                logger.info(batch.toString());
+            } catch (RuntimeException e) {
+                // the writer thread must survive appender failures
+                dropped.add(drained);
+            }
+        }
+        return drained;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getStatusClassCount(int statusClass) {
+        return statusClasses[statusClass].sum();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
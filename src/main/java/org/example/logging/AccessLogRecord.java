@@ -0,0 +1,78 @@
+package org.example.logging;
+
+import io.javalin.http.HandlerType;
+import org.example.metrics.ServerTiming;
+
+import java.time.Instant;
+
+// Preallocated slot in the AccessLog ring buffer. Fields are written by the request thread
+// and published by the volatile write to sequence, so the writer thread only reads a slot
+// after it has been completely filled.
+public class AccessLogRecord {
+
+    private static final ServerTiming.Phase[] PHASES = ServerTiming.Phase.values();
+
+    private volatile long sequence = -1;
+
+    private long timestamp;
+    private HandlerType method;
+    private String path;
+    private String route;
+    private int status;
+    private long durationNanos;
+    private boolean timed;
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    void fill(long timestamp, HandlerType method, String path, String route, int status, long durationNanos, ServerTiming timing) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.path = path;
+        this.route = route;
+        this.status = status;
+        this.durationNanos = durationNanos;
+        this.timed = timing != null;
+        if (timed) {
+            for (ServerTiming.Phase phase : PHASES) {
+                phaseNanos[phase.ordinal()] = timing.getNanos(phase);
+            }
+        }
+    }
+
+    void publish(long sequence) {
+        this.sequence = sequence;
+    }
+
+    boolean isPublished(long sequence) {
+        return this.sequence == sequence;
+    }
+
+    // Called from the writer thread only
+    void appendTo(StringBuilder sb) {
+        sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestamp)).append('"');
+        sb.append(",\"method\":\"").append(method).append('"');
+        sb.append(",\"path\":\"");
+        appendEscaped(sb, path);
+        sb.append("\",\"route\":\"");
+        appendEscaped(sb, route);
+        sb.append("\",\"status\":").append(status);
+        sb.append(",\"durationMicros\":").append(durationNanos / 1_000);
+        if (timed) {
+            sb.append(",\"timingMicros\":{");
+            for (ServerTiming.Phase phase : PHASES) {
+                if (phase.ordinal() > 0) sb.append(',');
+                sb.append('"').append(phase.getMetricName()).append("\":").append(phaseNanos[phase.ordinal()] / 1_000);
+            }
+            sb.append('}');
+        }
+        sb.append('}');
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        if (value == null) return;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+    }
+}
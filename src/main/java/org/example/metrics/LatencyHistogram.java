@@ -0,0 +1,115 @@
+package org.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free log-linear histogram of latencies in microseconds (the bucket layout HdrHistogram uses).
+// Values below 128 get their own bucket, above that every power of two is split into 64 buckets,
+// so a reported percentile is within 1/128 (< 0.8%) of the recorded value.
+// record() only touches preallocated counters and does not allocate.
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+    // one hour is plenty for a request, larger values land in the last bucket
+    private static final long MAX_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int BUCKET_COUNT = bucketIndex(MAX_MICROS) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_MICROS));
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sumMicros.add(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumMicros() {
+        return sumMicros.sum();
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, sumMicros.sum());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sumMicros.reset();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift) - HALF_SUB_BUCKET_COUNT;
+    }
+
+    // Midpoint of the values that map to the bucket
+    static long bucketValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / HALF_SUB_BUCKET_COUNT + 1;
+        long lower = (long) (offset % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+
+    // Point-in-time copy used for percentiles. Concurrent recording can make it lag slightly behind getCount().
+    public static class Snapshot {
+        private final long[] counts;
+        private final long total;
+        private final long sumMicros;
+
+        private Snapshot(long[] counts, long total, long sumMicros) {
+            this.counts = counts;
+            this.total = total;
+            this.sumMicros = sumMicros;
+        }
+
+        public long getCount() {
+            return total;
+        }
+
+        public long getSumMicros() {
+            return sumMicros;
+        }
+
+        public long percentileMicros(double percentile) {
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return bucketValue(i);
+            }
+            return bucketValue(counts.length - 1);
+        }
+
+        public long maxMicros() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) return bucketValue(i);
+            }
+            return 0;
+        }
+    }
+}
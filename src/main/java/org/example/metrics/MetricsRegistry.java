@@ -0,0 +1,62 @@
+package org.example.metrics;
+
+import io.javalin.http.HandlerType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Request latency per route, method and status. Histograms are created the first time a
+// combination is seen; after that recording is a map lookup plus counter increments.
+public class MetricsRegistry {
+
+    private static MetricsRegistry instance;
+
+    static final String UNMATCHED_ROUTE = "unmatched";
+
+    private static final HandlerType[] METHODS = HandlerType.values();
+    private static final int STATUS_SLOTS = 600;
+
+    private final Map<String, AtomicReferenceArray<LatencyHistogram>> routes = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    public void recordRequest(HandlerType method, String route, int status, long durationNanos) {
+        histogram(method, route, status).recordNanos(durationNanos);
+    }
+
+    private LatencyHistogram histogram(HandlerType method, String route, int status) {
+        String key = route == null || route.isEmpty() ? UNMATCHED_ROUTE : route;
+        AtomicReferenceArray<LatencyHistogram> histograms = routes.get(key);
+        if (histograms == null) {
+            histograms = routes.computeIfAbsent(key, k -> new AtomicReferenceArray<>(METHODS.length * STATUS_SLOTS));
+        }
+
+        int slot = method.ordinal() * STATUS_SLOTS + Math.floorMod(status, STATUS_SLOTS);
+        LatencyHistogram histogram = histograms.get(slot);
+        if (histogram == null) {
+            histograms.compareAndSet(slot, null, new LatencyHistogram());
+            histogram = histograms.get(slot);
+        }
+        return histogram;
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        writer.header("http_server_requests_seconds", "summary", "Request latency by route, method and status");
+        routes.forEach((route, histograms) -> {
+            for (int slot = 0; slot < histograms.length(); slot++) {
+                LatencyHistogram histogram = histograms.get(slot);
+                if (histogram == null) continue;
+                writer.summary("http_server_requests_seconds", histogram.snapshot(),
+                        "route", route,
+                        "method", METHODS[slot / STATUS_SLOTS].name(),
+                        "status", Integer.toString(slot % STATUS_SLOTS));
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// HikariCP pool and Hibernate Statistics gauges. The pool is only available when Hibernate runs
+// on the HikariCP connection provider (not in the test configuration).
+public class PersistenceMetrics implements MetricsTrackerFactory {
+
+    private static PersistenceMetrics instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersistenceMetrics.class);
+
+    private final Statistics statistics;
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram usage = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    private PersistenceMetrics(EntityManagerFactory emf) {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        this.statistics = sessionFactory.getStatistics();
+        bindPool(sessionFactory);
+    }
+
+    public static PersistenceMetrics getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            instance = new PersistenceMetrics(emf);
+        }
+        return instance;
+    }
+
+    private void bindPool(SessionFactoryImplementor sessionFactory) {
+        try {
+            ConnectionProvider provider = sessionFactory.getServiceRegistry().getService(ConnectionProvider.class);
+            HikariDataSource dataSource = provider.unwrap(HikariDataSource.class);
+            dataSource.setMetricsTrackerFactory(this);
+        } catch (RuntimeException e) {
+            LOGGER.info("Connection pool metrics not available: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.recordNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.recordMicros(elapsedBorrowedMillis * 1_000);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        PoolStats stats = poolStats;
+        if (stats != null) {
+            String pool = poolName;
+            writer.header("hikaricp_connections_active", "gauge", "Connections in use")
+                    .sample("hikaricp_connections_active", stats.getActiveConnections(), "pool", pool);
+            writer.header("hikaricp_connections_idle", "gauge", "Idle connections")
+                    .sample("hikaricp_connections_idle", stats.getIdleConnections(), "pool", pool);
+            writer.header("hikaricp_connections_pending", "gauge", "Threads waiting for a connection")
+                    .sample("hikaricp_connections_pending", stats.getPendingThreads(), "pool", pool);
+            writer.header("hikaricp_connections_max", "gauge", "Maximum pool size")
+                    .sample("hikaricp_connections_max", stats.getMaxConnections(), "pool", pool);
+            writer.header("hikaricp_connections_acquire_seconds", "summary", "Time waiting for a connection")
+                    .summary("hikaricp_connections_acquire_seconds", acquire.snapshot(), "pool", pool);
+            writer.header("hikaricp_connections_usage_seconds", "summary", "Time a connection is borrowed")
+                    .summary("hikaricp_connections_usage_seconds", usage.snapshot(), "pool", pool);
+            writer.header("hikaricp_connections_timeout_total", "counter", "Connection acquisition timeouts")
+                    .sample("hikaricp_connections_timeout_total", timeouts.sum(), "pool", pool);
+        }
+
+        if (!statistics.isStatisticsEnabled()) return;
+
+        counter(writer, "hibernate_sessions_opened_total", "Sessions opened", statistics.getSessionOpenCount());
+        counter(writer, "hibernate_transactions_total", "Transactions", statistics.getTransactionCount());
+        counter(writer, "hibernate_statements_prepared_total", "JDBC statements prepared", statistics.getPrepareStatementCount());
+        counter(writer, "hibernate_query_executions_total", "HQL/SQL query executions", statistics.getQueryExecutionCount());
+        counter(writer, "hibernate_entity_loads_total", "Entities loaded", statistics.getEntityLoadCount());
+        counter(writer, "hibernate_entity_fetches_total", "Entities fetched by a separate select", statistics.getEntityFetchCount());
+        counter(writer, "hibernate_collection_fetches_total", "Collections fetched by a separate select", statistics.getCollectionFetchCount());
+        counter(writer, "hibernate_optimistic_failures_total", "Optimistic lock failures", statistics.getOptimisticFailureCount());
+
+        writer.header("hibernate_query_execution_max_seconds", "gauge", "Slowest query execution")
+                .sample("hibernate_query_execution_max_seconds", statistics.getQueryExecutionMaxTime() / 1e3);
+
+        writer.header("hibernate_cache_requests_total", "counter", "Cache lookups by cache and result")
+                .sample("hibernate_cache_requests_total", statistics.getSecondLevelCacheHitCount(), "cache", "second_level", "result", "hit")
+                .sample("hibernate_cache_requests_total", statistics.getSecondLevelCacheMissCount(), "cache", "second_level", "result", "miss")
+                .sample("hibernate_cache_requests_total", statistics.getQueryCacheHitCount(), "cache", "query", "result", "hit")
+                .sample("hibernate_cache_requests_total", statistics.getQueryCacheMissCount(), "cache", "query", "result", "miss")
+                .sample("hibernate_cache_requests_total", statistics.getQueryPlanCacheHitCount(), "cache", "query_plan", "result", "hit")
+                .sample("hibernate_cache_requests_total", statistics.getQueryPlanCacheMissCount(), "cache", "query_plan", "result", "miss");
+
+        writer.header("hibernate_cache_hit_ratio", "gauge", "Hit ratio by cache")
+                .sample("hibernate_cache_hit_ratio", ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()), "cache", "second_level")
+                .sample("hibernate_cache_hit_ratio", ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()), "cache", "query")
+                .sample("hibernate_cache_hit_ratio", ratio(statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount()), "cache", "query_plan");
+    }
+
+    private static void counter(PrometheusWriter writer, String name, String help, long value) {
+        writer.header(name, "counter", help).sample(name, value);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
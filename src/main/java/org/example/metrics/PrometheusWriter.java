@@ -0,0 +1,78 @@
+package org.example.metrics;
+
+// Small builder for the Prometheus text exposition format (version 0.0.4)
+public class PrometheusWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final StringBuilder sb = new StringBuilder(4096);
+
+    public PrometheusWriter header(String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    public PrometheusWriter sample(String name, double value, String... labels) {
+        sb.append(name);
+        appendLabels(labels);
+        sb.append(' ');
+        appendValue(value);
+        sb.append('\n');
+        return this;
+    }
+
+    // Writes a histogram as a Prometheus summary in seconds: quantiles, _sum and _count
+    public PrometheusWriter summary(String name, LatencyHistogram.Snapshot snapshot, String... labels) {
+        String[] quantileLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, quantileLabels, 0, labels.length);
+        quantileLabels[labels.length] = "quantile";
+
+        for (double quantile : QUANTILES) {
+            quantileLabels[labels.length + 1] = Double.toString(quantile);
+            sample(name, snapshot.percentileMicros(quantile * 100) / 1e6, quantileLabels);
+        }
+        sample(name + "_sum", snapshot.getSumMicros() / 1e6, labels);
+        sample(name + "_count", snapshot.getCount(), labels);
+        return this;
+    }
+
+    private void appendLabels(String[] labels) {
+        if (labels.length == 0) return;
+        sb.append('{');
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"");
+            appendEscaped(labels[i + 1]);
+            sb.append('"');
+        }
+        sb.append('}');
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private void appendValue(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.metrics;
+
+import org.example.config.ApplicationConfig;
+
+import java.util.Arrays;
+
+// Per-request phase timing returned in the Server-Timing header and written to the access log.
+// server.timing.mode: "off", "admin" (only for requests made with an admin token) or "all".
+// State lives in a per-thread instance that is reused across requests; while a request is not
+// being timed start() returns 0 and stop() returns immediately, so nothing is allocated.
+public class ServerTiming {
+
+    public enum Phase {
+        AUTH("auth"), DB("db"), MAPPING("map"), SERIALIZATION("ser");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final String MODE = ApplicationConfig.getProperty("server.timing.mode", "admin");
+    private static final boolean AVAILABLE = !MODE.equals("off");
+    private static final boolean ALWAYS = MODE.equals("all");
+    private static final ThreadLocal<ServerTiming> CURRENT = ThreadLocal.withInitial(ServerTiming::new);
+
+    private final long[] phaseNanos = new long[PHASES.length];
+    private boolean active;
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    // Called at the start of every request
+    public static void beginRequest() {
+        if (!AVAILABLE) return;
+        ServerTiming timing = CURRENT.get();
+        timing.active = ALWAYS;
+        Arrays.fill(timing.phaseNanos, 0);
+    }
+
+    // Turns timing on for the current request, used when an admin token is presented
+    public static void activate() {
+        if (AVAILABLE) CURRENT.get().active = true;
+    }
+
+    // Returns the timed request on this thread, or null when the request is not timed
+    public static ServerTiming current() {
+        if (!AVAILABLE) return null;
+        ServerTiming timing = CURRENT.get();
+        return timing.active ? timing : null;
+    }
+
+    public static long start() {
+        if (!AVAILABLE || !CURRENT.get().active) return 0;
+        return System.nanoTime();
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start == 0) return;
+        CURRENT.get().phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+    }
+
+    public long getNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    // auth;dur=0.412, db;dur=3.108, map;dur=0.051, ser;dur=0.230, total;dur=4.020 (milliseconds)
+    public String header(long totalNanos) {
+        StringBuilder sb = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            appendMetric(sb, phase.getMetricName(), phaseNanos[phase.ordinal()]);
+            sb.append(", ");
+        }
+        appendMetric(sb, "total", totalNanos);
+        return sb.toString();
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, long nanos) {
+        sb.append(name).append(";dur=").append(nanos / 1_000_000).append('.');
+        long fraction = nanos / 1_000 % 1_000;
+        if (fraction < 100) sb.append('0');
+        if (fraction < 10) sb.append('0');
+        sb.append(fraction);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "booking", indexes = @Index(name = "booking_room_dates_idx", columnList = "room_id, check_in, check_out"))
+public class Booking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "booking_id", nullable = false, unique = true)
+    private Integer id;
+
+    @Setter
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", nullable = false)
+    private Room room;
+
+    // First night of the stay
+    @Setter
+    @Column(name = "check_in", nullable = false)
+    private LocalDate checkIn;
+
+    // Departure day, the room is free again from this night
+    @Setter
+    @Column(name = "check_out", nullable = false)
+    private LocalDate checkOut;
+
+    @Setter
+    @Column(name = "guest_name", nullable = false)
+    private String guestName;
+
+    // The user who booked it, only they (or an admin or manager) may read or cancel it
+    @Setter
+    @Column(name = "user_name")
+    private String owner;
+
+    public Booking(Room room, LocalDate checkIn, LocalDate checkOut, String guestName) {
+        this.room = room;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.guestName = guestName;
+    }
+}
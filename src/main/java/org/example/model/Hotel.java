@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.HashSet;
 import java.util.Objects;
@@ -13,6 +14,7 @@ import java.util.Set;
 
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "hotel")
 public class Hotel {
 
@@ -34,15 +36,40 @@ public class Hotel {
     @Column(name = "hotel_type", nullable = false)
     private HotelType hotelType;
 
+    // WGS84 coordinates, optional. Hotels without them are not found by the nearby search.
+    @Setter
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Setter
+    @Column(name = "longitude")
+    private Double longitude;
+
     @OneToMany(mappedBy = "hotel", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
     private Set<Room> rooms = new HashSet<>();
 
+    // Bumped by every update, see HotelDao.patch
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     public Hotel(String hotelName, String hotelAddress, HotelType hotelType) {
         this.hotelName = hotelName;
         this.hotelAddress = hotelAddress;
         this.hotelType = hotelType;
     }
 
+    // A row read without the entity manager, e.g. returned by a conditional UPDATE. The rooms are
+    // not read with it, the set stays empty.
+    public Hotel(Integer id, String hotelName, String hotelAddress, HotelType hotelType, Double latitude,
+                 Double longitude, Integer version) {
+        this(hotelName, hotelAddress, hotelType);
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.version = version;
+    }
+
     public void setRooms(Set<Room> rooms) {
         if(rooms != null) {
             this.rooms = rooms;
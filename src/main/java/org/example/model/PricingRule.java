@@ -0,0 +1,76 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// A price adjustment for the nights it matches. Every condition is optional, rules are applied
+// to a room's base price in priority order (lowest first).
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "pricing_rule")
+public class PricingRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "pricing_rule_id", nullable = false, unique = true)
+    private Integer id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "priority", nullable = false)
+    private Integer priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "room_type")
+    private Room.RoomType roomType;
+
+    // First night the rule applies to
+    @Column(name = "valid_from")
+    private LocalDate validFrom;
+
+    // First night the rule no longer applies to
+    @Column(name = "valid_to")
+    private LocalDate validTo;
+
+    // Comma separated, e.g. "FRIDAY,SATURDAY"
+    @Column(name = "days_of_week")
+    private String daysOfWeek;
+
+    // Number of guests in the room
+    @Column(name = "min_guests")
+    private Integer minGuests;
+
+    @Column(name = "max_guests")
+    private Integer maxGuests;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "adjustment", nullable = false)
+    private Adjustment adjustment;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    public PricingRule(String name, Integer priority, Adjustment adjustment, BigDecimal amount) {
+        this.name = name;
+        this.priority = priority;
+        this.adjustment = adjustment;
+        this.amount = amount;
+    }
+
+    public enum Adjustment {
+        // amount is a percentage of the price so far, e.g. 15 or -10
+        PERCENT,
+        // amount is added to the price so far
+        AMOUNT,
+        // amount replaces the price so far
+        PRICE
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.util.Objects;
@@ -11,6 +12,7 @@ import java.util.Objects;
 @Getter
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "room")
 public class Room {
 
@@ -41,10 +43,25 @@ public class Room {
     @JoinColumn(name = "hotel_id", nullable = false)
     private Hotel hotel;
 
+    // Bumped by every update, see RoomDao.patch
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     public Room(Integer roomNumber, BigDecimal roomPrice, RoomType roomType, Double squareMeters) {
         this.roomNumber = roomNumber;
         this.roomPrice = roomPrice;
         this.roomType = roomType;
+        this.squareMeters = squareMeters;
+    }
+
+    // A row read without the entity manager, e.g. returned by a conditional UPDATE
+    public Room(Integer roomId, Integer roomNumber, BigDecimal roomPrice, RoomType roomType, Double squareMeters,
+                Hotel hotel, Integer version) {
+        this(roomNumber, roomPrice, roomType, squareMeters);
+        this.roomId = roomId;
+        this.hotel = hotel;
+        this.version = version;
     }
 
     @Override
@@ -0,0 +1,119 @@
+package org.example.overview;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.availability.AvailabilityIndex;
+import org.example.availability.AvailableRoom;
+import org.example.config.ApplicationConfig;
+import org.example.dao.impl.HotelDao;
+import org.example.exception.ApiException;
+import org.example.index.RoomIndex;
+import org.example.model.Hotel;
+import org.example.pricing.CompiledPricing;
+import org.example.pricing.PricingEngine;
+import org.example.stats.HotelStats;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Everything a hotel page needs in one call. Only the hotel itself comes from the database, that
+// read runs on a virtual thread while the stats and availability are worked out from the in-memory
+// indexes on the request thread. The hotel is required: when it is missing, fails or is not read
+// before the deadline the call fails. A late read is left to finish on its own rather than
+// interrupted, interrupting a thread inside JDBC makes the driver close the pooled connection.
+// Any other part that fails is left out and named in Overview.missing. The stats part is only
+// worked out when asked for, callers that may not see price stats get none.
+public class HotelOverviewService {
+
+    private static HotelOverviewService instance;
+
+    public static final String STATS = "stats";
+    public static final String AVAILABILITY = "availability";
+
+    private final HotelDao hotels;
+    private final HotelStats stats;
+    private final AvailabilityIndex availability;
+    private final PricingEngine pricing;
+    private final long partTimeoutNanos;
+    private final ExecutorService parts = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("overview-", 0).factory());
+
+    public HotelOverviewService(HotelDao hotels, HotelStats stats, AvailabilityIndex availability, PricingEngine pricing, long partTimeoutMillis) {
+        this.hotels = hotels;
+        this.stats = stats;
+        this.availability = availability;
+        this.pricing = pricing;
+        this.partTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(partTimeoutMillis);
+    }
+
+    public static HotelOverviewService getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            long partTimeout = Long.parseLong(ApplicationConfig.getProperty("overview.part.timeout.millis", "300"));
+            instance = new HotelOverviewService(HotelDao.getInstance(emf), HotelStats.getInstance(emf),
+                    AvailabilityIndex.getInstance(emf), PricingEngine.getInstance(emf), partTimeout);
+        }
+        return instance;
+    }
+
+    public record Overview(Hotel hotel, HotelStats.Summary stats, Availability availability, List<String> missing) {
+    }
+
+    // Rooms free for the whole stay with the stay price after pricing rules, stayCents[i] for rooms[i]
+    public record Availability(List<AvailableRoom> rooms, long[] stayCents) {
+    }
+
+    public Overview overview(int hotelId, LocalDate from, LocalDate to, int guests, boolean withStats) throws ApiException {
+        long deadline = System.nanoTime() + partTimeoutNanos;
+        Future<Hotel> hotel = parts.submit(() -> hotels.read(hotelId));
+        try {
+            List<String> missing = new ArrayList<>(2);
+            HotelStats.Summary foundSummary = withStats ? optional(() -> stats.hotel(hotelId), STATS, missing) : null;
+            Availability foundAvailable = optional(() -> available(hotelId, from, to, guests), AVAILABILITY, missing);
+            Hotel found = required(hotel, deadline);
+            if (found == null) throw ApiException.NOT_FOUND;
+            return new Overview(found, foundSummary, foundAvailable, missing);
+        } finally {
+            hotel.cancel(false);
+        }
+    }
+
+    private Availability available(int hotelId, LocalDate from, LocalDate to, int guests) {
+        List<AvailableRoom> rooms = availability.findAvailable(hotelId, null, from, to);
+        CompiledPricing prices = pricing.current();
+        long[] stayCents = new long[rooms.size()];
+        for (int i = 0; i < stayCents.length; i++) {
+            AvailableRoom room = rooms.get(i);
+            stayCents[i] = prices.stayCents(RoomIndex.toCents(room.price()), room.roomType(), from, to, guests);
+        }
+        return new Availability(rooms, stayCents);
+    }
+
+    private <T> T required(Future<T> part, long deadline) throws ApiException {
+        try {
+            return part.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw ApiException.OVERVIEW_TIMEOUT;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException apiException) throw apiException;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ApiException.OVERVIEW_TIMEOUT;
+        }
+    }
+
+    private <T> T optional(Supplier<T> part, String name, List<String> missing) {
+        try {
+            return part.get();
+        } catch (RuntimeException e) {
+            missing.add(name);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.pricing;
+
+import org.example.model.PricingRule;
+import org.example.model.Room;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// A rule set compiled once for pricing search results. Every rule becomes primitive condition
+// bounds and an affine adjustment (price * factor + addend). For each night of the horizon,
+// room type and guest count the adjustments of the matching rules are folded into a single
+// factor and addend, so pricing a night is one table read, a multiply and a round, and nothing
+// is allocated. Nights past the table run the compiled rules instead.
+// Instances are immutable and shared by all requests until the rule set changes.
+public final class CompiledPricing {
+
+    public static final int MAX_GUESTS = 8;
+
+    private static final Room.RoomType[] ROOM_TYPES = Room.RoomType.values();
+    private static final int NIGHT_STRIDE = ROOM_TYPES.length * MAX_GUESTS;
+    private static final int ANY_TYPE = -1;
+    private static final int ALL_DAYS = 0x7f;
+
+    private final long version;
+    private final long originDay;
+    private final int days;
+    private final CompiledRule[] rules;
+    private final double[] factors;
+    private final double[] addends;
+
+    private CompiledPricing(long version, long originDay, int days, CompiledRule[] rules) {
+        this.version = version;
+        this.originDay = originDay;
+        this.days = days;
+        this.rules = rules;
+        this.factors = new double[days * NIGHT_STRIDE];
+        this.addends = new double[days * NIGHT_STRIDE];
+
+        int cell = 0;
+        for (int day = 0; day < days; day++) {
+            long epochDay = originDay + day;
+            int dayOfWeek = dayOfWeek(epochDay);
+            for (int type = 0; type < ROOM_TYPES.length; type++) {
+                for (int guests = 1; guests <= MAX_GUESTS; guests++) {
+                    double factor = 1;
+                    double addend = 0;
+                    for (CompiledRule rule : rules) {
+                        if (rule.test(type, epochDay, dayOfWeek, guests)) {
+                            factor *= rule.factor;
+                            addend = addend * rule.factor + rule.addend;
+                        }
+                    }
+                    factors[cell] = factor;
+                    addends[cell] = addend;
+                    cell++;
+                }
+            }
+        }
+    }
+
+    // rules are applied in priority order whatever order they are given in
+    public static CompiledPricing compile(long version, List<PricingRule> rules, LocalDate origin, int days) {
+        List<PricingRule> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparing(PricingRule::getPriority).thenComparing(PricingRule::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        CompiledRule[] compiled = new CompiledRule[ordered.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compile(ordered.get(i));
+        }
+        return new CompiledPricing(version, origin.toEpochDay(), days, compiled);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    // Price of one night in cents. guests is clamped to 1..MAX_GUESTS.
+    public long nightCents(long baseCents, Room.RoomType roomType, long epochDay, int guests) {
+        int g = Math.max(1, Math.min(guests, MAX_GUESTS));
+        long day = epochDay - originDay;
+        if (day >= 0 && day < days) {
+            int cell = (int) day * NIGHT_STRIDE + roomType.ordinal() * MAX_GUESTS + g - 1;
+            return round(baseCents * factors[cell] + addends[cell]);
+        }
+        return evaluate(baseCents, roomType.ordinal(), epochDay, g);
+    }
+
+    // Price of the nights from "from" up to "to" in cents
+    public long stayCents(long baseCents, Room.RoomType roomType, LocalDate from, LocalDate to, int guests) {
+        int g = Math.max(1, Math.min(guests, MAX_GUESTS));
+        long first = from.toEpochDay();
+        long end = to.toEpochDay();
+        long total = 0;
+        int cell = (int) (first - originDay) * NIGHT_STRIDE + roomType.ordinal() * MAX_GUESTS + g - 1;
+        for (long epochDay = first; epochDay < end; epochDay++, cell += NIGHT_STRIDE) {
+            long day = epochDay - originDay;
+            total += day >= 0 && day < days
+                    ? round(baseCents * factors[cell] + addends[cell])
+                    : evaluate(baseCents, roomType.ordinal(), epochDay, g);
+        }
+        return total;
+    }
+
+    private long evaluate(long baseCents, int roomType, long epochDay, int guests) {
+        int dayOfWeek = dayOfWeek(epochDay);
+        double price = baseCents;
+        for (CompiledRule rule : rules) {
+            if (rule.test(roomType, epochDay, dayOfWeek, guests)) {
+                price = price * rule.factor + rule.addend;
+            }
+        }
+        return round(price);
+    }
+
+    private static long round(double cents) {
+        return Math.max(0, Math.round(cents));
+    }
+
+    // Monday is 0; 1970-01-01 was a Thursday
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    private static CompiledRule compile(PricingRule rule) {
+        int roomType = rule.getRoomType() != null ? rule.getRoomType().ordinal() : ANY_TYPE;
+        long from = rule.getValidFrom() != null ? rule.getValidFrom().toEpochDay() : Long.MIN_VALUE;
+        long to = rule.getValidTo() != null ? rule.getValidTo().toEpochDay() : Long.MAX_VALUE;
+        int days = rule.getDaysOfWeek() != null && !rule.getDaysOfWeek().isBlank() ? daysOfWeekMask(rule.getDaysOfWeek()) : ALL_DAYS;
+        int minGuests = rule.getMinGuests() != null ? rule.getMinGuests() : 1;
+        int maxGuests = rule.getMaxGuests() != null ? rule.getMaxGuests() : MAX_GUESTS;
+
+        BigDecimal amount = rule.getAmount();
+        return switch (rule.getAdjustment()) {
+            case PERCENT -> new CompiledRule(roomType, from, to, days, minGuests, maxGuests, 1 + amount.doubleValue() / 100, 0);
+            case AMOUNT -> new CompiledRule(roomType, from, to, days, minGuests, maxGuests, 1, amount.movePointRight(2).doubleValue());
+            case PRICE -> new CompiledRule(roomType, from, to, days, minGuests, maxGuests, 0, amount.movePointRight(2).doubleValue());
+        };
+    }
+
+    // "FRIDAY,SATURDAY" -> bits 4 and 5
+    public static int daysOfWeekMask(String daysOfWeek) {
+        int mask = 0;
+        for (String day : daysOfWeek.split(",")) {
+            mask |= 1 << DayOfWeek.valueOf(day.trim().toUpperCase()).ordinal();
+        }
+        return mask;
+    }
+
+    // Conditions as primitive bounds, a missing condition is a bound that always holds
+    private record CompiledRule(int roomType, long fromDay, long toDay, int dayMask, int minGuests, int maxGuests,
+                                double factor, double addend) {
+
+        boolean test(int roomType, long epochDay, int dayOfWeek, int guests) {
+            return (this.roomType == ANY_TYPE || this.roomType == roomType)
+                    && epochDay >= fromDay && epochDay < toDay
+                    && (dayMask & 1 << dayOfWeek) != 0
+                    && guests >= minGuests && guests <= maxGuests;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.pricing;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.ApplicationConfig;
+import org.example.dao.DaoListener;
+import org.example.dao.impl.PricingRuleDao;
+import org.example.model.PricingRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hands out the CompiledPricing of the current rule set. Every rule write bumps the rule-set
+// version; the rules are compiled again on the first request that sees a new version, or when
+// the compiled table is a day old so that it keeps starting today.
+public class PricingEngine {
+
+    private static PricingEngine instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PricingEngine.class);
+    private static final long MAX_AGE_NANOS = TimeUnit.DAYS.toNanos(1);
+
+    private final PricingRuleDao dao;
+    private final int horizonDays;
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile CompiledPricing compiled;
+    private volatile long compiledAt;
+
+    private PricingEngine(PricingRuleDao dao, int horizonDays) {
+        this.dao = dao;
+        this.horizonDays = horizonDays;
+    }
+
+    public static PricingEngine getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            int horizonDays = Integer.parseInt(ApplicationConfig.getProperty("availability.horizon.days", "365"));
+            PricingEngine engine = new PricingEngine(PricingRuleDao.getInstance(emf), horizonDays);
+            engine.dao.addListener(engine.ruleListener());
+            instance = engine;
+        }
+        return instance;
+    }
+
+    public CompiledPricing current() {
+        CompiledPricing current = compiled;
+        if (current != null && current.version() == version.get() && System.nanoTime() - compiledAt < MAX_AGE_NANOS) {
+            return current;
+        }
+        synchronized (this) {
+            current = compiled;
+            long wanted = version.get();
+            if (current != null && current.version() == wanted && System.nanoTime() - compiledAt < MAX_AGE_NANOS) {
+                return current;
+            }
+            // the version is read before the rules, a write that lands meanwhile bumps it again
+            long start = System.nanoTime();
+            List<PricingRule> rules = dao.readAll();
+            current = CompiledPricing.compile(wanted, rules, LocalDate.now(), horizonDays);
+            compiledAt = System.nanoTime();
+            compiled = current;
+            LOGGER.info("Compiled {} pricing rules, version {}, in {} ms", rules.size(), wanted, (compiledAt - start) / 1_000_000);
+            return current;
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    private DaoListener<PricingRule> ruleListener() {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(PricingRule rule) {
+                version.incrementAndGet();
+            }
+
+            @Override
+            public void onDelete(PricingRule rule) {
+                version.incrementAndGet();
+            }
+
+            @Override
+            public void onReload() {
+                version.incrementAndGet();
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.repricing;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// State and progress of one repricing run. Written by the job thread, read by the API.
+public class RepricingJob {
+
+    public enum State {
+        QUEUED, LOADING, PRICING, WRITING, DONE, CANCELLED, FAILED
+    }
+
+    private final long id;
+    private final List<RepricingRule> rules;
+    private final Instant createdAt = Instant.now();
+
+    private volatile State state = State.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile long rooms;
+    private final AtomicLong priced = new AtomicLong();
+    private volatile long written;
+    private volatile long skipped;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    RepricingJob(long id, List<RepricingRule> rules) {
+        this.id = id;
+        this.rules = List.copyOf(rules);
+    }
+
+    // Stops the job at the next chunk, nothing it wrote is kept. Returns false when the job has already finished.
+    public boolean cancel() {
+        if (isFinished()) return false;
+        cancelRequested = true;
+        return true;
+    }
+
+    public boolean isFinished() {
+        return state == State.DONE || state == State.CANCELLED || state == State.FAILED;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    void setRooms(long rooms) {
+        this.rooms = rooms;
+    }
+
+    void addPriced(long count) {
+        priced.addAndGet(count);
+    }
+
+    void addWritten(long written, long skipped) {
+        this.written += written;
+        this.skipped += skipped;
+    }
+
+    void finish(State state, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state = state;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public List<RepricingRule> getRules() {
+        return rules;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getRooms() {
+        return rooms;
+    }
+
+    public long getPriced() {
+        return priced.get();
+    }
+
+    // Rooms updated so far; rolled back again if the job is cancelled or fails
+    public long getWritten() {
+        return written;
+    }
+
+    // Rooms whose price changed between loading and writing, left as they are
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
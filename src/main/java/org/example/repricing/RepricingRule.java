@@ -0,0 +1,15 @@
+package org.example.repricing;
+
+import org.example.model.Hotel;
+import org.example.model.Room;
+
+import java.math.BigDecimal;
+
+// Changes the price of matching rooms by percent, e.g. SUITE rooms in LUXURY hotels +8.
+// A null hotel or room type matches every type.
+public record RepricingRule(Hotel.HotelType hotelType, Room.RoomType roomType, BigDecimal percent) {
+
+    public boolean matches(Hotel.HotelType hotelType, Room.RoomType roomType) {
+        return (this.hotelType == null || this.hotelType == hotelType) && (this.roomType == null || this.roomType == roomType);
+    }
+}
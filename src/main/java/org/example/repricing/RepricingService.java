@@ -0,0 +1,257 @@
+package org.example.repricing;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dao.impl.RoomDao;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs repricing jobs one at a time on a background thread:
+// 1. loads id, price and types of the rooms the rules touch into primitive arrays,
+// 2. computes the new prices in parallel on the common fork-join pool,
+// 3. writes them in one transaction with set-based UPDATEs of CHUNK rooms each.
+// A room whose price changed after it was loaded is skipped rather than overwritten. Cancelling
+// or failing rolls the whole job back. After commit the room listeners reload their state.
+public class RepricingService {
+
+    private static RepricingService instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepricingService.class);
+    private static final Hotel.HotelType[] HOTEL_TYPES = Hotel.HotelType.values();
+    private static final Room.RoomType[] ROOM_TYPES = Room.RoomType.values();
+    private static final int CHUNK = 10_000;
+    private static final int KEPT_JOBS = 100;
+
+    private static final String UPDATE_SQL = "UPDATE room AS r SET price = v.new_cents / 100.0, version = r.version + 1 " +
+            "FROM unnest(?::int4[], ?::int8[], ?::int8[]) AS v(room_id, old_cents, new_cents) " +
+            "WHERE r.room_id = v.room_id AND r.price = v.old_cents / 100.0";
+
+    private final EntityManagerFactory emf;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "repricing");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, RepricingJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, RepricingJob> eldest) {
+            return size() > KEPT_JOBS && eldest.getValue().isFinished();
+        }
+    };
+
+    private RepricingService(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public static RepricingService getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            instance = new RepricingService(emf);
+        }
+        return instance;
+    }
+
+    public RepricingJob submit(List<RepricingRule> rules) {
+        RepricingJob job = new RepricingJob(ids.incrementAndGet(), rules);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        runner.execute(() -> run(job));
+        return job;
+    }
+
+    // The job, or null when it is unknown or has been forgotten
+    public RepricingJob get(long id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    private void run(RepricingJob job) {
+        long start = System.nanoTime();
+        try {
+            if (job.isCancelRequested()) throw new CancellationException();
+            double[] factors = factors(job.getRules());
+            try (var em = emf.createEntityManager()) {
+                em.getTransaction().begin();
+                try {
+                    em.unwrap(Session.class).doWork(connection -> reprice(connection, job, factors));
+                    em.getTransaction().commit();
+                } finally {
+                    if (em.getTransaction().isActive()) em.getTransaction().rollback();
+                }
+            }
+            RoomDao.getInstance(emf).fireReload();
+            job.finish(RepricingJob.State.DONE, null);
+            LOGGER.info("Repricing job {} updated {} rooms, skipped {}, in {} ms",
+                    job.getId(), job.getWritten(), job.getSkipped(), (System.nanoTime() - start) / 1_000_000);
+        } catch (CancellationException e) {
+            job.finish(RepricingJob.State.CANCELLED, null);
+            LOGGER.info("Repricing job {} cancelled", job.getId());
+        } catch (RuntimeException e) {
+            job.finish(RepricingJob.State.FAILED, e.getMessage());
+            LOGGER.error("Repricing job {} failed", job.getId(), e);
+        }
+    }
+
+    private void reprice(Connection connection, RepricingJob job, double[] factors) throws SQLException {
+        // 1. load
+        job.setState(RepricingJob.State.LOADING);
+        Rooms rooms = load(connection, job, factors);
+        job.setRooms(rooms.size);
+
+        // 2. price
+        job.setState(RepricingJob.State.PRICING);
+        long[] newCents = new long[rooms.size];
+        ForkJoinPool.commonPool().invoke(new PriceTask(job, rooms, factors, newCents, 0, rooms.size));
+        if (job.isCancelRequested()) throw new CancellationException();
+
+        // 3. write
+        job.setState(RepricingJob.State.WRITING);
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            for (int from = 0; from < rooms.size; from += CHUNK) {
+                if (job.isCancelRequested()) throw new CancellationException();
+                int to = Math.min(from + CHUNK, rooms.size);
+                Integer[] ids = new Integer[to - from];
+                Long[] oldCents = new Long[ids.length];
+                Long[] changedCents = new Long[ids.length];
+                for (int i = from; i < to; i++) {
+                    ids[i - from] = rooms.roomIds[i];
+                    oldCents[i - from] = rooms.cents[i];
+                    changedCents[i - from] = newCents[i];
+                }
+                Array idArray = connection.createArrayOf("int4", ids);
+                Array oldArray = connection.createArrayOf("int8", oldCents);
+                Array newArray = connection.createArrayOf("int8", changedCents);
+                update.setArray(1, idArray);
+                update.setArray(2, oldArray);
+                update.setArray(3, newArray);
+                int updated = update.executeUpdate();
+                job.addWritten(updated, ids.length - updated);
+                idArray.free();
+                oldArray.free();
+                newArray.free();
+            }
+        }
+    }
+
+    // Rooms of the hotel and room types with a factor other than 1, streamed with a cursor
+    private Rooms load(Connection connection, RepricingJob job, double[] factors) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT r.room_id, r.price, h.hotel_type, r.room_type " +
+                "FROM room r JOIN hotel h ON h.hotel_id = r.hotel_id WHERE (h.hotel_type, r.room_type) IN (");
+        int pairs = 0;
+        for (int i = 0; i < factors.length; i++) {
+            if (factors[i] == 1.0) continue;
+            sql.append(pairs++ == 0 ? "" : ", ").append("('").append(HOTEL_TYPES[i / ROOM_TYPES.length].name())
+                    .append("', '").append(ROOM_TYPES[i % ROOM_TYPES.length].name()).append("')");
+        }
+        Rooms rooms = new Rooms();
+        if (pairs == 0) return rooms;
+        sql.append(')');
+
+        try (PreparedStatement select = connection.prepareStatement(sql.toString())) {
+            select.setFetchSize(CHUNK);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    if (rooms.size % CHUNK == 0 && job.isCancelRequested()) throw new CancellationException();
+                    int group = Hotel.HotelType.valueOf(rs.getString(3)).ordinal() * ROOM_TYPES.length
+                            + Room.RoomType.valueOf(rs.getString(4)).ordinal();
+                    rooms.add(rs.getInt(1), rs.getBigDecimal(2).movePointRight(2).longValue(), (byte) group);
+                }
+            }
+        }
+        return rooms;
+    }
+
+    // Price multiplier per (hotel type, room type): the product of every matching rule
+    static double[] factors(List<RepricingRule> rules) {
+        double[] factors = new double[HOTEL_TYPES.length * ROOM_TYPES.length];
+        Arrays.fill(factors, 1.0);
+        for (Hotel.HotelType hotelType : HOTEL_TYPES) {
+            for (Room.RoomType roomType : ROOM_TYPES) {
+                int group = hotelType.ordinal() * ROOM_TYPES.length + roomType.ordinal();
+                for (RepricingRule rule : rules) {
+                    if (rule.matches(hotelType, roomType)) {
+                        factors[group] *= BigDecimal.ONE.add(rule.percent().movePointLeft(2)).doubleValue();
+                    }
+                }
+            }
+        }
+        return factors;
+    }
+
+    // Column arrays of the loaded rooms
+    static final class Rooms {
+
+        int[] roomIds = new int[CHUNK];
+        long[] cents = new long[CHUNK];
+        byte[] groups = new byte[CHUNK];
+        int size;
+
+        void add(int roomId, long priceCents, byte group) {
+            if (size == roomIds.length) {
+                roomIds = Arrays.copyOf(roomIds, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+                groups = Arrays.copyOf(groups, size * 2);
+            }
+            roomIds[size] = roomId;
+            cents[size] = priceCents;
+            groups[size] = group;
+            size++;
+        }
+    }
+
+    // Splits the rooms in halves down to CHUNK rooms and prices each chunk
+    static final class PriceTask extends RecursiveAction {
+
+        private final RepricingJob job;
+        private final Rooms rooms;
+        private final double[] factors;
+        private final long[] newCents;
+        private final int from;
+        private final int to;
+
+        PriceTask(RepricingJob job, Rooms rooms, double[] factors, long[] newCents, int from, int to) {
+            this.job = job;
+            this.rooms = rooms;
+            this.factors = factors;
+            this.newCents = newCents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (job.isCancelRequested()) return;
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PriceTask(job, rooms, factors, newCents, from, mid),
+                        new PriceTask(job, rooms, factors, newCents, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                newCents[i] = Math.round(rooms.cents[i] * factors[rooms.groups[i]]);
+            }
+            job.addPriced(to - from);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.routes;
+
+import io.javalin.apibuilder.EndpointGroup;
+import org.example.controller.impl.BookingController;
+import org.example.security.RouteRoles;
+
+import static io.javalin.apibuilder.ApiBuilder.*;
+
+public class BookingRoute {
+
+    private final BookingController bookingController = new BookingController();
+
+    protected EndpointGroup getRoutes() {
+
+        return () -> {
+            path("/bookings", () -> {
+                post("/", bookingController::create, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                get("/room/{id}", bookingController::readByRoom, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                get("/{id}", bookingController::read, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                delete("/{id}", bookingController::delete, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
+            });
+        };
+    }
+}
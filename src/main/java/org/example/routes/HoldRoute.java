@@ -0,0 +1,24 @@
+package org.example.routes;
+
+import io.javalin.apibuilder.EndpointGroup;
+import org.example.controller.impl.HoldController;
+import org.example.security.RouteRoles;
+
+import static io.javalin.apibuilder.ApiBuilder.*;
+
+public class HoldRoute {
+
+    private final HoldController holdController = new HoldController();
+
+    protected EndpointGroup getRoutes() {
+
+        return () -> {
+            path("/holds", () -> {
+                post("/", holdController::create, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                get("/{id}", holdController::read, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                delete("/{id}", holdController::delete, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                post("/{id}/confirm", holdController::confirm, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
+            });
+        };
+    }
+}
@@ -18,8 +18,13 @@ public class HotelRoute {
             path("/hotels", () -> {
                 post("/", hotelController::create, RouteRoles.ADMIN, RouteRoles.MANAGER);
                 get("/", hotelController::readAll, RouteRoles.ANYONE);
+                get("/search", hotelController::search, RouteRoles.ANYONE);
+                get("/nearest", hotelController::readNearest, RouteRoles.ANYONE);
+                get("/within", hotelController::readWithin, RouteRoles.ANYONE);
+                get("/{id}/overview", hotelController::readOverview, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
                 get("/{id}", hotelController::read, RouteRoles.USER, RouteRoles.ADMIN, RouteRoles.MANAGER);
                 put("/{id}", hotelController::update, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                patch("/{id}", hotelController::patch, RouteRoles.ADMIN, RouteRoles.MANAGER);
                 delete("/{id}", hotelController::delete, RouteRoles.ADMIN, RouteRoles.MANAGER);
             });
         };
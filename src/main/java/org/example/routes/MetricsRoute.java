@@ -0,0 +1,23 @@
+package org.example.routes;
+
+import io.javalin.apibuilder.EndpointGroup;
+import org.example.controller.impl.MetricsController;
+import org.example.security.RouteRoles;
+
+import static io.javalin.apibuilder.ApiBuilder.get;
+import static io.javalin.apibuilder.ApiBuilder.path;
+
+public class MetricsRoute {
+
+    private final MetricsController metricsController = new MetricsController();
+
+    protected EndpointGroup getRoutes() {
+
+        return () -> {
+            path("/metrics", () -> {
+                get("/", metricsController::scrape, RouteRoles.ADMIN);
+                get("/sql", metricsController::sqlTop, RouteRoles.ADMIN);
+            });
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.routes;
+
+import io.javalin.apibuilder.EndpointGroup;
+import org.example.controller.impl.PricingController;
+import org.example.security.RouteRoles;
+
+import static io.javalin.apibuilder.ApiBuilder.*;
+
+public class PricingRoute {
+
+    private final PricingController pricingController = new PricingController();
+
+    protected EndpointGroup getRoutes() {
+
+        return () -> {
+            path("/pricing/rules", () -> {
+                get("/", pricingController::readAll, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                post("/", pricingController::create, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                put("/{id}", pricingController::update, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                delete("/{id}", pricingController::delete, RouteRoles.ADMIN, RouteRoles.MANAGER);
+            });
+        };
+    }
+}
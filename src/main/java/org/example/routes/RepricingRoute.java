@@ -0,0 +1,23 @@
+package org.example.routes;
+
+import io.javalin.apibuilder.EndpointGroup;
+import org.example.controller.impl.RepricingController;
+import org.example.security.RouteRoles;
+
+import static io.javalin.apibuilder.ApiBuilder.*;
+
+public class RepricingRoute {
+
+    private final RepricingController repricingController = new RepricingController();
+
+    protected EndpointGroup getRoutes() {
+
+        return () -> {
+            path("/repricing", () -> {
+                post("/", repricingController::create, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                get("/{id}", repricingController::read, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                delete("/{id}", repricingController::cancel, RouteRoles.ADMIN, RouteRoles.MANAGER);
+            });
+        };
+    }
+}
@@ -16,8 +16,11 @@ public class RoomRoute {
             path("/rooms", () -> {
                 post("/hotel/{id}", roomController::create, RouteRoles.ADMIN, RouteRoles.MANAGER);
                 get("/", roomController::readAll, RouteRoles.ANYONE);
+                get("/available", roomController::readAvailable, RouteRoles.ANYONE);
+                get("/cheapest", roomController::readCheapest, RouteRoles.ANYONE);
                 get("/{id}", roomController::read, RouteRoles.ADMIN, RouteRoles.MANAGER);
                 put("/{id}", roomController::update, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                patch("/{id}", roomController::patch, RouteRoles.ADMIN, RouteRoles.MANAGER);
                 delete("/{id}", roomController::delete, RouteRoles.ADMIN, RouteRoles.MANAGER);
             });
         };
@@ -4,49 +4,82 @@ import io.javalin.Javalin;
 import io.javalin.apibuilder.EndpointGroup;
 import io.javalin.http.Context;
 import io.javalin.validation.ValidationException;
+import jakarta.persistence.OptimisticLockException;
 import org.example.controller.impl.ExceptionController;
 import org.example.exception.ApiException;
 import org.example.exception.AuthorizationException;
+import org.example.logging.AccessLog;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.ServerTiming;
+import org.example.sql.SqlMonitor;
 import org.hibernate.exception.ConstraintViolationException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import static io.javalin.apibuilder.ApiBuilder.path;
 
 public class Routes {
 
+    private static final String START_NANOS = "startNanos";
+
     private final ExceptionController exceptionController = new ExceptionController();
-    private int count = 0;
+    private final AccessLog accessLog = AccessLog.getInstance();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final SqlMonitor sqlMonitor = SqlMonitor.getInstance();
 
     private final HotelRoute hotelRoute = new HotelRoute();
     private final RoomRoute roomRoute = new RoomRoute();
+    private final BookingRoute bookingRoute = new BookingRoute();
+    private final HoldRoute holdRoute = new HoldRoute();
     private final UserRoutes userRoutes = new UserRoutes();
+    private final StatsRoute statsRoute = new StatsRoute();
+    private final RepricingRoute repricingRoute = new RepricingRoute();
+    private final PricingRoute pricingRoute = new PricingRoute();
+    private final MetricsRoute metricsRoute = new MetricsRoute();
 
-    private final Logger LOGGER = LoggerFactory.getLogger(Routes.class);
+    private void requestStartHandler(Context ctx) {
+        ctx.attribute(START_NANOS, System.nanoTime());
+        sqlMonitor.beginRequest();
+        ServerTiming.beginRequest();
+    }
 
-    private void requestInfoHandler(Context ctx) {
-        String requestInfo = ctx.req().getMethod() + " " + ctx.req().getRequestURI();
-        ctx.attribute("requestInfo", requestInfo);
+    private void requestEndHandler(Context ctx) {
+        Long start = ctx.attribute(START_NANOS);
+        long duration = start != null ? System.nanoTime() - start : 0;
+        String route = ctx.endpointHandlerPath();
+        int status = ctx.statusCode();
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            ctx.header(ServerTiming.HEADER, timing.header(duration));
+        }
+        accessLog.record(ctx.method(), ctx.path(), route, status, duration, timing);
+        metrics.recordRequest(ctx.method(), route, status, duration);
+        sqlMonitor.endRequest(ctx.method(), route);
     }
 
     public EndpointGroup getRoutes(Javalin app) {
         return () -> {
-            app.before(this::requestInfoHandler);
+            app.before(this::requestStartHandler);
 
             app.routes(() -> {
                 path("/", userRoutes.getRoutes());
                 path("/", hotelRoute.getRoutes());
                 path("/", roomRoute.getRoutes());
+                path("/", bookingRoute.getRoutes());
+                path("/", holdRoute.getRoutes());
+                path("/", statsRoute.getRoutes());
+                path("/", repricingRoute.getRoutes());
+                path("/", pricingRoute.getRoutes());
+                path("/", metricsRoute.getRoutes());
             });
 
-            app.after(ctx -> LOGGER.info(" Request {} - {} was handled with status code {}", count++, ctx.attribute("requestInfo"), ctx.status()));
+            app.after(this::requestEndHandler);
 
             app.exception(ConstraintViolationException.class, exceptionController::constraintViolationExceptionHandler);
             app.exception(ValidationException.class, exceptionController::validationExceptionHandler);
             app.exception(ApiException.class, exceptionController::apiExceptionHandler);
+            app.exception(OptimisticLockException.class, exceptionController::optimisticLockExceptionHandler);
             app.exception(AuthorizationException.class, exceptionController::exceptionHandlerNotAuthorized);
             app.exception(Exception.class, exceptionController::exceptionHandler);
 
         };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package org.example.routes;
+
+import io.javalin.apibuilder.EndpointGroup;
+import org.example.controller.impl.StatsController;
+import org.example.security.RouteRoles;
+
+import static io.javalin.apibuilder.ApiBuilder.*;
+
+public class StatsRoute {
+
+    private final StatsController statsController = new StatsController();
+
+    protected EndpointGroup getRoutes() {
+
+        return () -> {
+            path("/stats", () -> {
+                get("/hotels/{id}", statsController::readHotel, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                get("/hotel-types", statsController::readHotelTypes, RouteRoles.ADMIN, RouteRoles.MANAGER);
+                get("/hotel-types/{type}", statsController::readHotelType, RouteRoles.ADMIN, RouteRoles.MANAGER);
+            });
+        };
+    }
+}
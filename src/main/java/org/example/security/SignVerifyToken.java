@@ -58,7 +58,7 @@ public class SignVerifyToken {
         JWSVerifier verifier = new MACVerifier(SECRET_KEY.getBytes());
 
         if (!signedJWT.verify(verifier)) {
-            throw new AuthorizationException(401, "Invalid token signature");
+            throw AuthorizationException.INVALID_SIGNATURE;
         }
         return signedJWT;
     }
@@ -66,7 +66,7 @@ public class SignVerifyToken {
     public UserDTO getJWTClaimsSet(JWTClaimsSet claimsSet) throws AuthorizationException {
 
         if (new Date().after(claimsSet.getExpirationTime()))
-            throw new AuthorizationException(401, "Token is expired");
+            throw AuthorizationException.TOKEN_EXPIRED;
 
         String username = claimsSet.getClaim("username").toString();
         String roles = claimsSet.getClaim("roles").toString();
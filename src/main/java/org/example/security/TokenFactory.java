@@ -24,14 +24,15 @@ public class TokenFactory {
     // Singleton
     private static TokenFactory instance;
 
-    // Properties
-    private final String ISSUER = Objects.requireNonNull(getProperties())[0];
-    private final String TOKEN_EXPIRE_TIME = Objects.requireNonNull(getProperties())[1];
-    private final String SECRET_KEY = Objects.requireNonNull(getProperties())[2];
-
     // Logger
     private final Logger LOGGER = LoggerFactory.getLogger(TokenFactory.class);
 
+    // Properties, read once
+    private final String[] PROPERTIES = Objects.requireNonNull(getProperties());
+    private final String ISSUER = PROPERTIES[0];
+    private final String TOKEN_EXPIRE_TIME = PROPERTIES[1];
+    private final String SECRET_KEY = PROPERTIES[2];
+
     // SignToken class
     private final SignVerifyToken signature = new SignVerifyToken(ISSUER, TOKEN_EXPIRE_TIME, SECRET_KEY);
 
@@ -68,13 +69,13 @@ public class TokenFactory {
 
             if (!tryLogin) {
                 role = json.get("role").toString();
-                if (!roles.contains(role)) throw new ApiException(400, "Role not valid");
+                if (!roles.contains(role)) throw ApiException.INVALID_ROLE;
             }
 
             return new String[]{username, password, role};
 
         } catch (JsonProcessingException | NullPointerException e) {
-            throw new ApiException(400, "Malformed JSON Supplied");
+            throw ApiException.MALFORMED_JSON;
         }
     }
 
@@ -0,0 +1,70 @@
+package org.example.sql;
+
+// Normalizes a SQL statement so statements that only differ in literals, IN-list length,
+// comments or whitespace share one fingerprint
+public final class SqlFingerprint {
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = sql.charAt(i);
+
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '\'') {
+                // string literal, '' is an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                sb.append('?');
+            } else if (isNumberStart(sql, i, sb)) {
+                if (c == '-') i++;
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+                sb.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+                if (!sb.isEmpty() && sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+            } else {
+                sb.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+
+        return collapseLists(sb.toString().trim());
+    }
+
+    // A digit starts a literal unless it is part of an identifier such as r1_0 or t2
+    private static boolean isNumberStart(String sql, int i, StringBuilder sb) {
+        char c = sql.charAt(i);
+        if (!Character.isDigit(c)) {
+            if (c != '-' || i + 1 >= sql.length() || !Character.isDigit(sql.charAt(i + 1))) return false;
+        }
+        if (sb.isEmpty()) return true;
+        char previous = sb.charAt(sb.length() - 1);
+        return !Character.isLetterOrDigit(previous) && previous != '_' && previous != '.' && previous != '"';
+    }
+
+    // (?, ?, ?) -> (?)
+    private static String collapseLists(String sql) {
+        return sql.replaceAll("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)", "(?)");
+    }
+}
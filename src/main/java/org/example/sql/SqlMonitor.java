@@ -0,0 +1,189 @@
+package org.example.sql;
+
+import io.javalin.http.HandlerType;
+import org.example.config.ApplicationConfig;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.PrometheusWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Records latency per SQL fingerprint, logs statements slower than sql.slow.threshold.ms and
+// flags requests that execute more than sql.request.statement.budget statements (N+1 queries).
+// Statements are reported by SqlStatementInspector and SqlTimingListener on the thread that runs them.
+public class SqlMonitor {
+
+    private static SqlMonitor instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlMonitor.class);
+    private static final Logger SLOW_QUERY_LOGGER = LoggerFactory.getLogger("org.example.sql.SlowQueryLog");
+
+    // Upper bound on distinct raw statements remembered, statements with inlined literals would grow it forever
+    private static final int MAX_CACHED_STATEMENTS = 10_000;
+    private static final int MAX_FINGERPRINTS = 2_000;
+
+    private final long slowThresholdNanos;
+    private final int statementBudget;
+
+    private final Map<String, FingerprintStats> byStatement = new ConcurrentHashMap<>();
+    private final Map<String, FingerprintStats> byFingerprint = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestStats> requestStats = ThreadLocal.withInitial(RequestStats::new);
+
+    private final LatencyHistogram statementLatency = new LatencyHistogram();
+    private final LongAdder slowStatements = new LongAdder();
+    private final LongAdder budgetExceeded = new LongAdder();
+
+    public SqlMonitor(long slowThresholdMillis, int statementBudget) {
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+        this.statementBudget = statementBudget;
+    }
+
+    public static SqlMonitor getInstance() {
+        if (instance == null) {
+            long slowThreshold = Long.parseLong(ApplicationConfig.getProperty("sql.slow.threshold.ms", "200"));
+            int budget = Integer.parseInt(ApplicationConfig.getProperty("sql.request.statement.budget", "25"));
+            instance = new SqlMonitor(slowThreshold, budget);
+        }
+        return instance;
+    }
+
+    // Called by SqlStatementInspector when a statement is prepared
+    void statementPrepared(String sql) {
+        RequestStats request = requestStats.get();
+        request.currentSql = sql;
+        if (request.captured != null) request.captured.add(sql);
+    }
+
+    // Collects the SQL prepared on this thread until stopCapture, used by the query plan tests
+    public void startCapture() {
+        requestStats.get().captured = new ArrayList<>();
+    }
+
+    public List<String> stopCapture() {
+        RequestStats request = requestStats.get();
+        List<String> captured = request.captured;
+        request.captured = null;
+        return captured != null ? captured : List.of();
+    }
+
+    // Called by SqlTimingListener when the prepared statement has executed
+    void statementExecuted(long nanos) {
+        RequestStats request = requestStats.get();
+        String sql = request.currentSql;
+        request.statements++;
+        request.nanos += nanos;
+
+        statementLatency.recordNanos(nanos);
+        if (sql == null) return;
+
+        stats(sql).record(nanos);
+
+        if (nanos >= slowThresholdNanos) {
+            slowStatements.increment();
+            SLOW_QUERY_LOGGER.warn("{} ms: {}", nanos / 1_000_000, sql);
+        }
+    }
+
+    private FingerprintStats stats(String sql) {
+        FingerprintStats stats = byStatement.get(sql);
+        if (stats != null) return stats;
+
+        String fingerprint = SqlFingerprint.of(sql);
+        stats = byFingerprint.get(fingerprint);
+        if (stats == null) {
+            if (byFingerprint.size() >= MAX_FINGERPRINTS) {
+                fingerprint = "other";
+            }
+            stats = byFingerprint.computeIfAbsent(fingerprint, FingerprintStats::new);
+        }
+        if (byStatement.size() < MAX_CACHED_STATEMENTS) {
+            byStatement.put(sql, stats);
+        }
+        return stats;
+    }
+
+    public void beginRequest() {
+        RequestStats request = requestStats.get();
+        request.statements = 0;
+        request.nanos = 0;
+        request.currentSql = null;
+    }
+
+    // Returns the number of statements the current request executed
+    public int endRequest(HandlerType method, String route) {
+        RequestStats request = requestStats.get();
+        int statements = request.statements;
+        if (statements > statementBudget) {
+            budgetExceeded.increment();
+            LOGGER.warn("{} {} executed {} SQL statements in {} ms, budget is {}",
+                    method, route, statements, request.nanos / 1_000_000, statementBudget);
+        }
+        return statements;
+    }
+
+    public long requestSqlNanos() {
+        return requestStats.get().nanos;
+    }
+
+    public List<FingerprintStats> top(int limit) {
+        List<FingerprintStats> all = new ArrayList<>(byFingerprint.values());
+        all.sort(Comparator.comparingLong(FingerprintStats::getTotalNanos).reversed());
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        writer.header("sql_statement_seconds", "summary", "JDBC statement execution time")
+                .summary("sql_statement_seconds", statementLatency.snapshot());
+        writer.header("sql_slow_statements_total", "counter", "Statements slower than the slow query threshold")
+                .sample("sql_slow_statements_total", slowStatements.sum());
+        writer.header("sql_request_budget_exceeded_total", "counter", "Requests that exceeded the statement budget")
+                .sample("sql_request_budget_exceeded_total", budgetExceeded.sum());
+    }
+
+    private static class RequestStats {
+        private String currentSql;
+        private List<String> captured;
+        private int statements;
+        private long nanos;
+    }
+
+    public static class FingerprintStats {
+        private final String fingerprint;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        FingerprintStats(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registered as hibernate.session_factory.statement_inspector, remembers the SQL about to run
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlMonitor.getInstance().statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.sql;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Registered as hibernate.session.events.auto, Hibernate creates one per session
+public class SqlTimingListener extends BaseSessionEventListener {
+
+    private final SqlMonitor monitor = SqlMonitor.getInstance();
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        monitor.statementExecuted(System.nanoTime() - start);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        monitor.statementExecuted(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,420 @@
+package org.example.stats;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.ApplicationConfig;
+import org.example.dao.DaoListener;
+import org.example.dao.impl.HotelDao;
+import org.example.dao.impl.RoomDao;
+import org.example.index.RoomIndex;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Room price statistics per hotel and per hotel type, broken down by room type. The rollup is
+// kept current from the RoomDao and HotelDao listeners; every write rebuilds the immutable Summary
+// of the hotel and the hotel type it touched, so reading stats is one lookup whatever the catalog
+// size. Every stats.reconcile.minutes the rollup is compared with a SQL GROUP BY and reloaded
+// when they disagree, which covers writes that bypass the DAOs.
+public class HotelStats {
+
+    private static HotelStats instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotelStats.class);
+    private static final Room.RoomType[] ROOM_TYPES = Room.RoomType.values();
+    private static final Hotel.HotelType[] HOTEL_TYPES = Hotel.HotelType.values();
+
+    // write side, guarded by this
+    private Map<Integer, TrackedRoom> rooms = new HashMap<>();
+    private Map<Integer, HotelGroup> hotels = new HashMap<>();
+    private Group[] hotelTypeGroups = newHotelTypeGroups();
+    private long writes;
+
+    // read side
+    private volatile Map<Integer, Summary> hotelSummaries = new ConcurrentHashMap<>();
+    private volatile Summary[] hotelTypeSummaries = summarize(hotelTypeGroups);
+
+    public static HotelStats getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            HotelStats stats = new HotelStats();
+            // listen before loading, replaying a write that the load already saw is harmless
+            RoomDao.getInstance(emf).addListener(stats.roomListener(emf));
+            HotelDao.getInstance(emf).addListener(stats.hotelListener());
+            stats.load(emf);
+
+            long minutes = Long.parseLong(ApplicationConfig.getProperty("stats.reconcile.minutes", "10"));
+            ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "stats-reconcile");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reconciler.scheduleWithFixedDelay(() -> {
+                try {
+                    stats.reconcile(emf);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Stats reconciliation failed", e);
+                }
+            }, minutes, minutes, TimeUnit.MINUTES);
+            instance = stats;
+        }
+        return instance;
+    }
+
+    // Rebuilds the rollup from the database
+    public void load(EntityManagerFactory emf) {
+        long start = System.nanoTime();
+        try (var em = emf.createEntityManager()) {
+            List<Object[]> hotelRows = em.createQuery("SELECT h.id, h.hotelType FROM Hotel h", Object[].class)
+                    .getResultList();
+            List<Object[]> roomRows = em.createQuery("SELECT r.roomId, r.hotel.id, r.roomType, r.roomPrice FROM Room r", Object[].class)
+                    .getResultList();
+            synchronized (this) {
+                rooms = new HashMap<>(roomRows.size() * 2);
+                hotels = new HashMap<>(hotelRows.size() * 2);
+                hotelTypeGroups = newHotelTypeGroups();
+                for (Object[] hotel : hotelRows) {
+                    hotels.put((Integer) hotel[0], new HotelGroup((Hotel.HotelType) hotel[1]));
+                }
+                for (Object[] room : roomRows) {
+                    add((Integer) room[0], (Integer) room[1], null, (Room.RoomType) room[2], RoomIndex.toCents((BigDecimal) room[3]));
+                }
+
+                Map<Integer, Summary> summaries = new ConcurrentHashMap<>(hotels.size() * 2);
+                hotels.forEach((hotelId, hotel) -> summaries.put(hotelId, hotel.summary(hotelId)));
+                hotelSummaries = summaries;
+                hotelTypeSummaries = summarize(hotelTypeGroups);
+                writes++;
+            }
+            LOGGER.info("Loaded stats for {} hotels and {} rooms in {} ms",
+                    hotelRows.size(), roomRows.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Compares the rollup with the database and reloads it when they disagree. Returns the number of hotels that differed.
+    public int reconcile(EntityManagerFactory emf) {
+        long writesBefore;
+        synchronized (this) {
+            writesBefore = writes;
+        }
+        List<Object[]> rows;
+        try (var em = emf.createEntityManager()) {
+            rows = em.createQuery("SELECT r.hotel.id, r.roomType, COUNT(r), MIN(r.roomPrice), MAX(r.roomPrice), SUM(r.roomPrice) " +
+                    "FROM Room r GROUP BY r.hotel.id, r.roomType", Object[].class).getResultList();
+        }
+
+        Map<Integer, Summary> summaries = hotelSummaries;
+        Set<Integer> drifted = new HashSet<>();
+        Map<Integer, Integer> roomsByHotel = new HashMap<>();
+        for (Object[] row : rows) {
+            int hotelId = (Integer) row[0];
+            int type = ((Room.RoomType) row[1]).ordinal();
+            int count = ((Long) row[2]).intValue();
+            roomsByHotel.merge(hotelId, count, Integer::sum);
+
+            Summary summary = summaries.get(hotelId);
+            if (summary == null || summary.counts[type] != count
+                    || summary.minCents[type] != RoomIndex.toCents((BigDecimal) row[3])
+                    || summary.maxCents[type] != RoomIndex.toCents((BigDecimal) row[4])
+                    || summary.sumCents[type] != RoomIndex.toCents((BigDecimal) row[5])) {
+                drifted.add(hotelId);
+            }
+        }
+        summaries.forEach((hotelId, summary) -> {
+            if (summary.rooms != roomsByHotel.getOrDefault(hotelId, 0)) drifted.add(hotelId);
+        });
+
+        if (drifted.isEmpty()) return 0;
+        synchronized (this) {
+            // a write landed while the query ran, the difference may be that write; check again next time
+            if (writes != writesBefore) return drifted.size();
+        }
+        LOGGER.warn("Stats of {} hotels differ from the database, reloading", drifted.size());
+        load(emf);
+        return drifted.size();
+    }
+
+    // Stats of one hotel, or null when the hotel is unknown
+    public Summary hotel(int hotelId) {
+        return hotelSummaries.get(hotelId);
+    }
+
+    public Summary hotelType(Hotel.HotelType hotelType) {
+        return hotelTypeSummaries[hotelType.ordinal()];
+    }
+
+    public List<Summary> hotelTypes() {
+        return List.of(hotelTypeSummaries);
+    }
+
+    public synchronized void putHotel(int hotelId, Hotel.HotelType hotelType) {
+        HotelGroup hotel = hotels.get(hotelId);
+        if (hotel == null) {
+            hotels.put(hotelId, new HotelGroup(hotelType));
+        } else if (hotel.hotelType != hotelType) {
+            // move the hotel's rooms to the group of its new type
+            hotelTypeGroups[hotel.hotelType.ordinal()].subtract(hotel);
+            hotelTypeGroups[hotelType.ordinal()].addAll(hotel);
+            publishHotelType(hotel.hotelType);
+            hotel.hotelType = hotelType;
+        }
+        publish(hotelId);
+    }
+
+    public synchronized void removeHotel(int hotelId) {
+        HotelGroup hotel = hotels.remove(hotelId);
+        if (hotel == null) return;
+        hotelTypeGroups[hotel.hotelType.ordinal()].subtract(hotel);
+        for (int roomId : hotel.roomIds) {
+            rooms.remove(roomId);
+        }
+        writes++;
+        hotelSummaries.remove(hotelId);
+        publishHotelType(hotel.hotelType);
+    }
+
+    public synchronized void putRoom(int roomId, int hotelId, Hotel.HotelType hotelType, Room.RoomType roomType, BigDecimal price) {
+        TrackedRoom previous = rooms.get(roomId);
+        if (previous != null) {
+            subtract(roomId, previous);
+            if (previous.hotelId != hotelId) publish(previous.hotelId);
+        }
+        add(roomId, hotelId, hotelType, roomType, RoomIndex.toCents(price));
+        publish(hotelId);
+    }
+
+    public synchronized void removeRoom(int roomId) {
+        TrackedRoom previous = rooms.get(roomId);
+        if (previous == null) return;
+        subtract(roomId, previous);
+        publish(previous.hotelId);
+    }
+
+    private void add(int roomId, int hotelId, Hotel.HotelType hotelType, Room.RoomType roomType, long cents) {
+        HotelGroup hotel = hotels.get(hotelId);
+        if (hotel == null) {
+            // a room of a hotel the rollup has not seen yet, e.g. created in the same transaction
+            hotel = new HotelGroup(hotelType != null ? hotelType : Hotel.HotelType.STANDARD);
+            hotels.put(hotelId, hotel);
+        }
+        rooms.put(roomId, new TrackedRoom(hotelId, roomType, cents));
+        hotel.roomIds.add(roomId);
+        hotel.add(roomType, cents);
+        hotelTypeGroups[hotel.hotelType.ordinal()].add(roomType, cents);
+    }
+
+    private void subtract(int roomId, TrackedRoom room) {
+        rooms.remove(roomId);
+        HotelGroup hotel = hotels.get(room.hotelId);
+        hotel.roomIds.remove(roomId);
+        hotel.remove(room.roomType, room.cents);
+        hotelTypeGroups[hotel.hotelType.ordinal()].remove(room.roomType, room.cents);
+    }
+
+    // Publishes the summaries of a hotel and of its hotel type
+    private void publish(int hotelId) {
+        writes++;
+        HotelGroup hotel = hotels.get(hotelId);
+        if (hotel == null) return;
+        hotelSummaries.put(hotelId, hotel.summary(hotelId));
+        publishHotelType(hotel.hotelType);
+    }
+
+    private void publishHotelType(Hotel.HotelType hotelType) {
+        Summary[] summaries = hotelTypeSummaries.clone();
+        summaries[hotelType.ordinal()] = hotelTypeGroups[hotelType.ordinal()].summary(null, hotelType);
+        hotelTypeSummaries = summaries;
+    }
+
+    private static Group[] newHotelTypeGroups() {
+        Group[] groups = new Group[HOTEL_TYPES.length];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = new Group();
+        }
+        return groups;
+    }
+
+    private static Summary[] summarize(Group[] hotelTypeGroups) {
+        Summary[] summaries = new Summary[HOTEL_TYPES.length];
+        for (Hotel.HotelType hotelType : HOTEL_TYPES) {
+            summaries[hotelType.ordinal()] = hotelTypeGroups[hotelType.ordinal()].summary(null, hotelType);
+        }
+        return summaries;
+    }
+
+    private DaoListener<Room> roomListener(EntityManagerFactory emf) {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Room room) {
+                Hotel hotel = room.getHotel();
+                putRoom(room.getRoomId(), hotel.getId(), hotel.getHotelType(), room.getRoomType(), room.getRoomPrice());
+            }
+
+            @Override
+            public void onDelete(Room room) {
+                removeRoom(room.getRoomId());
+            }
+
+            @Override
+            public void onReload() {
+                load(emf);
+            }
+        };
+    }
+
+    private DaoListener<Hotel> hotelListener() {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(Hotel hotel) {
+                synchronized (HotelStats.this) {
+                    putHotel(hotel.getId(), hotel.getHotelType());
+                    for (Room room : hotel.getRooms()) {
+                        putRoom(room.getRoomId(), hotel.getId(), hotel.getHotelType(), room.getRoomType(), room.getRoomPrice());
+                    }
+                }
+            }
+
+            @Override
+            public void onDelete(Hotel hotel) {
+                removeHotel(hotel.getId());
+            }
+        };
+    }
+
+    private record TrackedRoom(int hotelId, Room.RoomType roomType, long cents) {
+    }
+
+    // Running count, sum and price multiset per room type. The multiset keeps min and max exact when rooms are removed.
+    private static class Group {
+
+        final int[] counts = new int[ROOM_TYPES.length];
+        final long[] sumCents = new long[ROOM_TYPES.length];
+        final List<TreeMap<Long, Integer>> prices = new ArrayList<>(ROOM_TYPES.length);
+
+        Group() {
+            for (int i = 0; i < ROOM_TYPES.length; i++) {
+                prices.add(new TreeMap<>());
+            }
+        }
+
+        void add(Room.RoomType roomType, long cents) {
+            add(roomType.ordinal(), cents, 1);
+        }
+
+        void remove(Room.RoomType roomType, long cents) {
+            add(roomType.ordinal(), cents, -1);
+        }
+
+        void addAll(Group other) {
+            for (int type = 0; type < ROOM_TYPES.length; type++) {
+                for (Map.Entry<Long, Integer> price : other.prices.get(type).entrySet()) {
+                    add(type, price.getKey(), price.getValue());
+                }
+            }
+        }
+
+        void subtract(Group other) {
+            for (int type = 0; type < ROOM_TYPES.length; type++) {
+                for (Map.Entry<Long, Integer> price : other.prices.get(type).entrySet()) {
+                    add(type, price.getKey(), -price.getValue());
+                }
+            }
+        }
+
+        private void add(int type, long cents, int rooms) {
+            counts[type] += rooms;
+            sumCents[type] += cents * rooms;
+            prices.get(type).merge(cents, rooms, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        Summary summary(Integer hotelId, Hotel.HotelType hotelType) {
+            long[] minCents = new long[ROOM_TYPES.length];
+            long[] maxCents = new long[ROOM_TYPES.length];
+            for (int type = 0; type < ROOM_TYPES.length; type++) {
+                TreeMap<Long, Integer> typePrices = prices.get(type);
+                if (typePrices.isEmpty()) continue;
+                minCents[type] = typePrices.firstKey();
+                maxCents[type] = typePrices.lastKey();
+            }
+            return new Summary(hotelId, hotelType, counts.clone(), minCents, maxCents, sumCents.clone());
+        }
+    }
+
+    private static class HotelGroup extends Group {
+
+        Hotel.HotelType hotelType;
+        final Set<Integer> roomIds = new HashSet<>();
+
+        HotelGroup(Hotel.HotelType hotelType) {
+            this.hotelType = hotelType;
+        }
+
+        Summary summary(int hotelId) {
+            return summary(hotelId, hotelType);
+        }
+    }
+
+    // Immutable stats of a hotel (hotelId set) or of all hotels of a type (hotelId null). Prices are in cents.
+    public static final class Summary {
+
+        private final Integer hotelId;
+        private final Hotel.HotelType hotelType;
+        private final int[] counts;
+        private final long[] minCents;
+        private final long[] maxCents;
+        private final long[] sumCents;
+        private final int rooms;
+
+        private Summary(Integer hotelId, Hotel.HotelType hotelType, int[] counts, long[] minCents, long[] maxCents, long[] sumCents) {
+            this.hotelId = hotelId;
+            this.hotelType = hotelType;
+            this.counts = counts;
+            this.minCents = minCents;
+            this.maxCents = maxCents;
+            this.sumCents = sumCents;
+            int total = 0;
+            for (int count : counts) total += count;
+            this.rooms = total;
+        }
+
+        public Integer hotelId() {
+            return hotelId;
+        }
+
+        public Hotel.HotelType hotelType() {
+            return hotelType;
+        }
+
+        public int rooms() {
+            return rooms;
+        }
+
+        public int rooms(Room.RoomType roomType) {
+            return counts[roomType.ordinal()];
+        }
+
+        public long minCents(Room.RoomType roomType) {
+            return minCents[roomType.ordinal()];
+        }
+
+        public long maxCents(Room.RoomType roomType) {
+            return maxCents[roomType.ordinal()];
+        }
+
+        public long sumCents(Room.RoomType roomType) {
+            return sumCents[roomType.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package org.example.sync;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.ApplicationConfig;
+import org.example.metrics.PrometheusWriter;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Change notifications between the nodes behind the load balancer. Each node keeps its own
+// in-memory indexes, so a write on one node has to reach the others: after the write commits it
+// is published with pg_notify as a short text event (node, entity, operation, id), and every node
+// LISTENs on a connection of its own, outside the pool, and hands the events of the other nodes
+// to the subscribers. NOTIFY is not durable, events sent while a node is disconnected are lost,
+// so after a reconnect the subscribers are told to resync instead.
+public class ChangeBus {
+
+    private static ChangeBus instance;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeBus.class);
+
+    public static final String CHANNEL = "entity_change";
+
+    // longest wait between reconnect attempts
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+
+    public enum Entity {
+        HOTEL, ROOM, BOOKING, PRICING_RULE;
+
+        private final String label = name().toLowerCase();
+    }
+
+    public enum Operation {
+        SAVE, DELETE, RELOAD;
+
+        private final String label = name().toLowerCase();
+    }
+
+    // One event, on the wire "node entity operation id [detail]". Detail is what a delete needs
+    // beyond the id, the row is gone by the time the other nodes read the event.
+    public record Change(String node, Entity entity, Operation operation, int id, String detail) {
+
+        public String encode() {
+            String payload = node + ' ' + entity.label + ' ' + operation.label + ' ' + id;
+            return detail != null ? payload + ' ' + detail : payload;
+        }
+
+        public static Change decode(String payload) {
+            String[] parts = payload.split(" ", 5);
+            return new Change(parts[0],
+                    Entity.valueOf(parts[1].toUpperCase()),
+                    Operation.valueOf(parts[2].toUpperCase()),
+                    Integer.parseInt(parts[3]),
+                    parts.length > 4 ? parts[4] : null);
+        }
+    }
+
+    public interface Subscriber {
+
+        // Called on the listener thread for every change made by another node
+        void onChange(Change change);
+
+        // Called after a reconnect, changes may have been missed while disconnected
+        void onResync();
+    }
+
+    private final EntityManagerFactory emf;
+    private final String nodeId;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMillis;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private volatile int backendPid;
+    private Thread listener;
+
+    public ChangeBus(EntityManagerFactory emf, String nodeId, int pollMillis) {
+        this.emf = emf;
+        this.nodeId = nodeId;
+        this.pollMillis = pollMillis;
+        Map<String, Object> properties = emf.getProperties();
+        this.url = (String) properties.get("hibernate.connection.url");
+        this.username = (String) properties.get("hibernate.connection.username");
+        this.password = (String) properties.get("hibernate.connection.password");
+    }
+
+    // Only needed with more than one node; publishing costs each write a transaction of its own
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ApplicationConfig.getProperty("sync.enabled", "false"));
+    }
+
+    public static ChangeBus getInstance(EntityManagerFactory emf) {
+        if (instance == null) {
+            String nodeId = ApplicationConfig.getProperty("sync.node.id", "");
+            ChangeBus bus = new ChangeBus(emf, nodeId.isBlank() ? defaultNodeId() : nodeId,
+                    Integer.parseInt(ApplicationConfig.getProperty("sync.poll.millis", "500")));
+            bus.subscribe(new DaoChangeRelay(emf, bus));
+            instance = bus;
+        }
+        return instance;
+    }
+
+    // host and pid, unique per process and readable in the logs of the other nodes
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    // Server process of the listen connection, for tests that cut it
+    int getBackendPid() {
+        return backendPid;
+    }
+
+    // Starts listening and waits a moment for the LISTEN to be in place, so writes made after
+    // start returns are seen. If the database cannot be reached the listener keeps trying and
+    // resyncs once it gets through.
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        CountDownLatch listening = new CountDownLatch(1);
+        listener = new Thread(() -> listen(listening), "change-bus");
+        listener.setDaemon(true);
+        listener.start();
+        try {
+            if (!listening.await(5, TimeUnit.SECONDS)) {
+                LOGGER.warn("Change bus is not listening yet, changes from other nodes are applied after it connects");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        closeQuietly(connection);
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Sends the change to the other nodes. Called after the write committed; a failure is logged
+    // and counted, it does not undo the write.
+    public void publish(Entity entity, Operation operation, int id, String detail) {
+        String payload = new Change(nodeId, entity, operation, id, detail).encode();
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            em.unwrap(Session.class).doWork(c -> {
+                try (PreparedStatement statement = c.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    statement.setString(1, CHANNEL);
+                    statement.setString(2, payload);
+                    statement.execute();
+                }
+            });
+            em.getTransaction().commit();
+            published.increment();
+        } catch (RuntimeException e) {
+            publishFailures.increment();
+            LOGGER.warn("Could not publish change {}", payload, e);
+        }
+    }
+
+    private void listen(CountDownLatch listening) {
+        boolean resync = false;
+        long backoff = 100;
+        while (running) {
+            try (Connection c = DriverManager.getConnection(url, username, password)) {
+                connection = c;
+                try (Statement statement = c.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                backendPid = c.unwrap(PGConnection.class).getBackendPID();
+                connected = true;
+                listening.countDown();
+                backoff = 100;
+                if (resync) {
+                    LOGGER.info("Change bus reconnected, resyncing");
+                    resyncs.increment();
+                    subscribers.forEach(Subscriber::onResync);
+                }
+                // from here on anything that goes wrong may lose events
+                resync = true;
+                poll(c);
+            } catch (SQLException e) {
+                if (!running) break;
+                LOGGER.warn("Change bus lost its connection, retrying in {} ms", backoff, e);
+            } finally {
+                connected = false;
+                connection = null;
+            }
+            if (!running) break;
+            // a failed first attempt also means writes may have been missed
+            resync = true;
+            reconnects.increment();
+            listening.countDown();
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                break;
+            }
+            backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+        }
+    }
+
+    private void poll(Connection c) throws SQLException {
+        PGConnection pg = c.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pg.getNotifications(pollMillis);
+            if (notifications == null || notifications.length == 0) {
+                // nothing arrived: make sure the connection is still alive, a dead one never delivers
+                if (!c.isValid(2)) throw new SQLException("Listen connection is no longer valid");
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                deliver(notification.getParameter());
+            }
+        }
+    }
+
+    void deliver(String payload) {
+        Change change;
+        try {
+            change = Change.decode(payload);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Ignoring malformed change {}", payload);
+            return;
+        }
+        // NOTIFY is delivered to the sender as well
+        if (change.node().equals(nodeId)) return;
+        received.increment();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.onChange(change);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Subscriber failed on change {}", payload, e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        writer.header("sync_connected", "gauge", "1 while the change bus is listening")
+                .sample("sync_connected", connected ? 1 : 0, "node", nodeId);
+        writer.header("sync_published_total", "counter", "Changes sent to the other nodes")
+                .sample("sync_published_total", published.sum());
+        writer.header("sync_publish_failures_total", "counter", "Changes that could not be sent")
+                .sample("sync_publish_failures_total", publishFailures.sum());
+        writer.header("sync_received_total", "counter", "Changes received from the other nodes")
+                .sample("sync_received_total", received.sum());
+        writer.header("sync_reconnects_total", "counter", "Times the listen connection was lost or could not be opened")
+                .sample("sync_reconnects_total", reconnects.sum());
+        writer.header("sync_resyncs_total", "counter", "Full reloads after a reconnect")
+                .sample("sync_resyncs_total", resyncs.sum());
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.sync;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dao.DaoListener;
+import org.example.dao.impl.BookingDao;
+import org.example.dao.impl.HotelDao;
+import org.example.dao.impl.PricingRuleDao;
+import org.example.dao.impl.RoomDao;
+import org.example.model.Booking;
+import org.example.model.Hotel;
+import org.example.model.PricingRule;
+import org.example.model.Room;
+import org.example.sync.ChangeBus.Change;
+import org.example.sync.ChangeBus.Entity;
+import org.example.sync.ChangeBus.Operation;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Connects the DAOs to the change bus. Writes committed here are published; changes from the other
+// nodes are replayed to the DAO listeners as if the write had been made here. A saved entity is
+// read again, so the listeners see the committed row, and a deleted one is handed over as an
+// uninitialized reference, the listeners only ask it for ids. Booking deletes carry the room and
+// the dates in the event, the availability index needs them to free the nights.
+class DaoChangeRelay implements ChangeBus.Subscriber {
+
+    // set while a change of another node is replayed, so it is not published again
+    private static final ThreadLocal<Boolean> REPLAYING = ThreadLocal.withInitial(() -> false);
+
+    private final EntityManagerFactory emf;
+    private final ChangeBus bus;
+    private final HotelDao hotelDao;
+    private final RoomDao roomDao;
+    private final BookingDao bookingDao;
+    private final PricingRuleDao pricingRuleDao;
+
+    DaoChangeRelay(EntityManagerFactory emf, ChangeBus bus) {
+        this.emf = emf;
+        this.bus = bus;
+        this.hotelDao = HotelDao.getInstance(emf);
+        this.roomDao = RoomDao.getInstance(emf);
+        this.bookingDao = BookingDao.getInstance(emf);
+        this.pricingRuleDao = PricingRuleDao.getInstance(emf);
+
+        hotelDao.addListener(publisher(Entity.HOTEL, Hotel::getId, hotel -> null));
+        roomDao.addListener(publisher(Entity.ROOM, Room::getRoomId, room -> null));
+        bookingDao.addListener(publisher(Entity.BOOKING, Booking::getId,
+                booking -> booking.getRoom().getRoomId() + " " + booking.getCheckIn() + " " + booking.getCheckOut()));
+        pricingRuleDao.addListener(publisher(Entity.PRICING_RULE, PricingRule::getId, rule -> null));
+    }
+
+    private <T> DaoListener<T> publisher(Entity entity, Function<T, Integer> id, Function<T, String> deleteDetail) {
+        return new DaoListener<>() {
+            @Override
+            public void onSave(T t) {
+                if (!REPLAYING.get()) bus.publish(entity, Operation.SAVE, id.apply(t), null);
+            }
+
+            @Override
+            public void onDelete(T t) {
+                if (!REPLAYING.get()) bus.publish(entity, Operation.DELETE, id.apply(t), deleteDetail.apply(t));
+            }
+
+            @Override
+            public void onReload() {
+                if (!REPLAYING.get()) bus.publish(entity, Operation.RELOAD, 0, null);
+            }
+        };
+    }
+
+    @Override
+    public void onChange(Change change) {
+        REPLAYING.set(true);
+        try {
+            switch (change.entity()) {
+                case HOTEL -> replay(change, Hotel.class, hotelDao::read, hotelDao::fireSave, hotelDao::fireDelete, hotelDao::fireReload);
+                case ROOM -> replay(change, Room.class, roomDao::read, roomDao::fireSave, roomDao::fireDelete, roomDao::fireReload);
+                case PRICING_RULE -> replay(change, PricingRule.class, pricingRuleDao::read, pricingRuleDao::fireSave,
+                        pricingRuleDao::fireDelete, pricingRuleDao::fireReload);
+                case BOOKING -> {
+                    if (change.operation() == Operation.DELETE) bookingDao.fireDelete(deletedBooking(change.detail()));
+                    else replay(change, Booking.class, bookingDao::read, bookingDao::fireSave, bookingDao::fireDelete, bookingDao::fireReload);
+                }
+            }
+        } finally {
+            REPLAYING.set(false);
+        }
+    }
+
+    // Every listener reloads from the database; the room listeners cover the indexes that are built
+    // from hotels and rooms together
+    @Override
+    public void onResync() {
+        REPLAYING.set(true);
+        try {
+            hotelDao.fireReload();
+            roomDao.fireReload();
+            bookingDao.fireReload();
+            pricingRuleDao.fireReload();
+        } finally {
+            REPLAYING.set(false);
+        }
+    }
+
+    private <T> void replay(Change change, Class<T> type, Function<Integer, T> read,
+                            Consumer<T> save, Consumer<T> delete, Runnable reload) {
+        switch (change.operation()) {
+            case SAVE -> {
+                // null when it has been deleted again since, its delete event follows
+                T t = read.apply(change.id());
+                if (t != null) save.accept(t);
+            }
+            case DELETE -> delete.accept(reference(type, change.id()));
+            case RELOAD -> reload.run();
+        }
+    }
+
+    private Booking deletedBooking(String detail) {
+        String[] parts = detail.split(" ");
+        return new Booking(reference(Room.class, Integer.parseInt(parts[0])),
+                LocalDate.parse(parts[1]), LocalDate.parse(parts[2]), null);
+    }
+
+    // Only the id of a reference can be read once the entity manager is closed
+    private <T> T reference(Class<T> type, int id) {
+        try (var em = emf.createEntityManager()) {
+            return em.getReference(type, id);
+        }
+    }
+}
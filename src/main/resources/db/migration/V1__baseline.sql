@@ -0,0 +1,33 @@
+-- The schema as hbm2ddl.auto=update created it. Databases that were created that way are
+-- baselined at this version and start from V2.
+
+CREATE TABLE hotel (
+    hotel_id      integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    hotel_name    varchar(255)     NOT NULL UNIQUE,
+    hotel_address varchar(255)     NOT NULL,
+    hotel_type    varchar(255)     NOT NULL CHECK (hotel_type IN ('BUDGET', 'STANDARD', 'LUXURY'))
+);
+
+CREATE TABLE room (
+    room_id       integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_number   integer          NOT NULL,
+    price         numeric(38, 2)   NOT NULL,
+    square_meters double precision,
+    room_type     varchar(255)     NOT NULL CHECK (room_type IN ('SINGLE', 'DOUBLE', 'SUITE')),
+    hotel_id      integer          NOT NULL REFERENCES hotel (hotel_id)
+);
+
+CREATE TABLE users (
+    user_name     varchar(25)  PRIMARY KEY,
+    user_password varchar(255) NOT NULL
+);
+
+CREATE TABLE roles (
+    role_name varchar(20) PRIMARY KEY
+);
+
+CREATE TABLE user_roles (
+    user_name varchar(25) NOT NULL REFERENCES users (user_name),
+    role_name varchar(20) NOT NULL REFERENCES roles (role_name),
+    PRIMARY KEY (user_name, role_name)
+);
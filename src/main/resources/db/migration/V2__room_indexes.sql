@@ -0,0 +1,11 @@
+-- Indexes hbm2ddl never created.
+
+-- Hotel.rooms is fetched eagerly, one lookup by hotel_id for every hotel that is loaded
+CREATE INDEX IF NOT EXISTS room_hotel_id_idx ON room (hotel_id);
+
+-- RoomDao.readAll price ranges
+CREATE INDEX IF NOT EXISTS room_price_idx ON room (price);
+
+-- There are only three room types, so on its own room_type would rarely be worth an index scan.
+-- Leading a composite with price it serves "suites under 1000" as one range scan.
+CREATE INDEX IF NOT EXISTS room_room_type_price_idx ON room (room_type, price);
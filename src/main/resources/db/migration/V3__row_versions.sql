@@ -0,0 +1,4 @@
+-- Row versions for optimistic locking (@Version on Hotel and Room). Every write of a row bumps
+-- its version, a write that names an older version than the row has changes nothing.
+ALTER TABLE hotel ADD COLUMN IF NOT EXISTS version integer NOT NULL DEFAULT 0;
+ALTER TABLE room ADD COLUMN IF NOT EXISTS version integer NOT NULL DEFAULT 0;
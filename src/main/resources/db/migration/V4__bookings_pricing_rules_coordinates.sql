@@ -0,0 +1,29 @@
+-- Tables and columns added after the baseline: bookings, pricing rules and hotel coordinates.
+-- A database baselined at V1 gets them here; IF NOT EXISTS leaves one that already has them alone.
+
+ALTER TABLE hotel ADD COLUMN IF NOT EXISTS latitude double precision;
+ALTER TABLE hotel ADD COLUMN IF NOT EXISTS longitude double precision;
+
+CREATE TABLE IF NOT EXISTS booking (
+    booking_id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_id    integer      NOT NULL REFERENCES room (room_id),
+    check_in   date         NOT NULL,
+    check_out  date         NOT NULL,
+    guest_name varchar(255) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS booking_room_dates_idx ON booking (room_id, check_in, check_out);
+
+CREATE TABLE IF NOT EXISTS pricing_rule (
+    pricing_rule_id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            varchar(255)   NOT NULL,
+    priority        integer        NOT NULL,
+    room_type       varchar(255) CHECK (room_type IN ('SINGLE', 'DOUBLE', 'SUITE')),
+    valid_from      date,
+    valid_to        date,
+    days_of_week    varchar(255),
+    min_guests      integer,
+    max_guests      integer,
+    adjustment      varchar(255)   NOT NULL CHECK (adjustment IN ('PERCENT', 'AMOUNT', 'PRICE')),
+    amount          numeric(38, 2) NOT NULL
+);
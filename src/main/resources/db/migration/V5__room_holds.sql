@@ -0,0 +1,13 @@
+-- Holds are checked by every booking, on every node, under the room's row lock. The availability
+-- index of the node that placed a hold keeps it as well, for searches and expiry. A row past
+-- expires_at is dead: the checks ignore it and the next hold of the room removes it.
+CREATE TABLE IF NOT EXISTS room_hold (
+    hold_id    bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_id    integer     NOT NULL REFERENCES room (room_id) ON DELETE CASCADE,
+    check_in   date        NOT NULL,
+    check_out  date        NOT NULL,
+    user_name  varchar(25) NOT NULL,
+    expires_at timestamptz NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS room_hold_room_dates_idx ON room_hold (room_id, check_in, check_out);
@@ -0,0 +1,3 @@
+-- The user who made a booking. Bookings made before there was one can only be read and cancelled
+-- by admins and managers.
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS user_name varchar(25);
@@ -0,0 +1,237 @@
+package org.example.availability;
+
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+import org.example.model.Room;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Holds against an availability index with one room and a store standing in for the database
+class HoldServiceTest
+{
+    private static final int ROOM = 1;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate checkIn = today.plusDays(10);
+    private final LocalDate checkOut = today.plusDays(13);
+
+    private AvailabilityIndex availability;
+    private TimerWheel wheel;
+    private FakeStore store;
+    private HoldService service;
+
+    @BeforeEach
+    void setUp()
+    {
+        availability = new AvailabilityIndex(today, 60);
+        availability.putRoom(ROOM, 1, 101, new BigDecimal(1000), Room.RoomType.SINGLE);
+        wheel = new TimerWheel("test-holds", 10, 1024);
+        store = new FakeStore();
+        service = new HoldService(availability, store, wheel, 600, 1800);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        wheel.close();
+    }
+
+    @Test
+    void holdHidesTheNightsUntilReleased() throws ApiException
+    {
+        Hold hold = service.hold(ROOM, checkIn, checkOut, null, "marion");
+
+        assertEquals("marion", hold.owner());
+        assertTrue(store.holds.containsKey(hold.id()));
+        assertFalse(availability.isAvailable(ROOM, checkIn.plusDays(1), checkOut.plusDays(1)));
+        ApiException conflict = assertThrows(ApiException.class, () -> service.hold(ROOM, checkIn, checkIn.plusDays(1), null, "norman"));
+        assertEquals(409, conflict.getStatusCode());
+
+        service.release(hold.id(), "marion");
+        assertTrue(availability.isAvailable(ROOM, checkIn, checkOut));
+        assertFalse(store.holds.containsKey(hold.id()));
+        assertEquals(0, service.getActiveCount());
+    }
+
+    @Test
+    void onlyTheOwnerOrStaffSeeAHold() throws ApiException
+    {
+        Hold hold = service.hold(ROOM, checkIn, checkOut, null, "marion");
+
+        assertEquals(404, assertThrows(ApiException.class, () -> service.get(hold.id(), "norman")).getStatusCode());
+        assertEquals(404, assertThrows(ApiException.class, () -> service.release(hold.id(), "norman")).getStatusCode());
+        assertEquals(404, assertThrows(ApiException.class, () -> service.confirm(hold.id(), "norman", "Norman")).getStatusCode());
+        // still held after the refused attempts
+        assertEquals(hold, service.get(hold.id(), "marion"));
+        assertEquals(hold, service.get(hold.id(), null));
+        service.release(hold.id(), null);
+    }
+
+    @Test
+    void confirmBooksTheHeldNightsOnce() throws ApiException
+    {
+        Hold hold = service.hold(ROOM, checkIn, checkOut, null, "marion");
+
+        Booking booking = service.confirm(hold.id(), "marion", "Marion Crane");
+        assertEquals(checkIn, booking.getCheckIn());
+        assertEquals(checkOut, booking.getCheckOut());
+        assertEquals(List.of(hold.id()), store.booked);
+        assertFalse(store.holds.containsKey(hold.id()));
+        assertEquals(0, service.getActiveCount());
+
+        assertEquals(404, assertThrows(ApiException.class, () -> service.confirm(hold.id(), "marion", "Marion Crane")).getStatusCode());
+    }
+
+    @Test
+    void failedConfirmStillRemovesTheHold() throws ApiException
+    {
+        Hold hold = service.hold(ROOM, checkIn, checkOut, null, "marion");
+        store.refuseBookings = true;
+
+        assertEquals(409, assertThrows(ApiException.class, () -> service.confirm(hold.id(), "marion", "Marion Crane")).getStatusCode());
+        assertFalse(store.holds.containsKey(hold.id()));
+        assertTrue(availability.isAvailable(ROOM, checkIn, checkOut));
+    }
+
+    @Test
+    void holdRefusedByTheStoreLeavesTheIndexFree()
+    {
+        store.refuseHolds = true;
+
+        assertEquals(409, assertThrows(ApiException.class, () -> service.hold(ROOM, checkIn, checkOut, null, "marion")).getStatusCode());
+        assertTrue(availability.isAvailable(ROOM, checkIn, checkOut));
+        assertEquals(0, service.getActiveCount());
+    }
+
+    @Test
+    void expiredHoldFreesTheNights() throws Exception
+    {
+        Hold hold = service.hold(ROOM, checkIn, checkOut, 1L, "marion");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (service.getActiveCount() > 0 && System.nanoTime() < deadline)
+        {
+            Thread.sleep(20);
+        }
+        assertEquals(0, service.getActiveCount());
+        assertEquals(1, service.getExpiredCount());
+        assertTrue(availability.isAvailable(ROOM, checkIn, checkOut));
+        assertEquals(404, assertThrows(ApiException.class, () -> service.confirm(hold.id(), "marion", "Marion Crane")).getStatusCode());
+    }
+
+    @Test
+    void invalidRequestsAreRefused()
+    {
+        assertEquals(404, assertThrows(ApiException.class, () -> service.hold(2, checkIn, checkOut, null, "marion")).getStatusCode());
+        assertEquals(400, assertThrows(ApiException.class, () -> service.hold(ROOM, checkIn, checkOut, 3600L, "marion")).getStatusCode());
+        assertEquals(400, assertThrows(ApiException.class, () -> service.hold(ROOM, today.plusDays(50), today.plusDays(70), null, "marion")).getStatusCode());
+    }
+
+    // A second node: its own index and wheel, the same database
+    private HoldService otherNode(TimerWheel otherWheel)
+    {
+        AvailabilityIndex otherAvailability = new AvailabilityIndex(today, 60);
+        otherAvailability.putRoom(ROOM, 1, 101, new BigDecimal(1000), Room.RoomType.SINGLE);
+        return new HoldService(otherAvailability, store, otherWheel, 600, 1800);
+    }
+
+    @Test
+    void holdPlacedOnAnotherNodeIsConfirmedThere() throws ApiException
+    {
+        TimerWheel otherWheel = new TimerWheel("test-holds-other", 10, 1024);
+        try
+        {
+            HoldService other = otherNode(otherWheel);
+            Hold hold = service.hold(ROOM, checkIn, checkOut, null, "marion");
+
+            assertEquals(hold, other.get(hold.id(), "marion"));
+            assertEquals(404, assertThrows(ApiException.class, () -> other.get(hold.id(), "norman")).getStatusCode());
+
+            other.confirm(hold.id(), "marion", "Marion Crane");
+            assertEquals(List.of(hold.id()), store.booked);
+            // the placing node finds the row gone and books nothing
+            assertEquals(404, assertThrows(ApiException.class, () -> service.confirm(hold.id(), "marion", "Marion Crane")).getStatusCode());
+            assertEquals(404, assertThrows(ApiException.class, () -> other.confirm(hold.id(), "marion", "Marion Crane")).getStatusCode());
+            assertEquals(List.of(hold.id()), store.booked);
+            assertEquals(0, service.getActiveCount());
+        } finally
+        {
+            otherWheel.close();
+        }
+    }
+
+    @Test
+    void holdPlacedOnAnotherNodeIsReleasedThere() throws ApiException
+    {
+        TimerWheel otherWheel = new TimerWheel("test-holds-other", 10, 1024);
+        try
+        {
+            HoldService other = otherNode(otherWheel);
+            Hold hold = service.hold(ROOM, checkIn, checkOut, null, "marion");
+
+            other.release(hold.id(), "marion");
+            assertFalse(store.holds.containsKey(hold.id()));
+            assertEquals(404, assertThrows(ApiException.class, () -> other.release(hold.id(), "marion")).getStatusCode());
+            // the placing node still frees its own index
+            service.release(hold.id(), "marion");
+            assertTrue(availability.isAvailable(ROOM, checkIn, checkOut));
+        } finally
+        {
+            otherWheel.close();
+        }
+    }
+
+    private static class FakeStore implements HoldService.Store
+    {
+        private final AtomicLong ids = new AtomicLong();
+        final Map<Long, Hold> holds = new HashMap<>();
+        final List<Long> booked = new ArrayList<>();
+        boolean refuseHolds;
+        boolean refuseBookings;
+
+        @Override
+        public synchronized Hold insert(int roomId, LocalDate checkIn, LocalDate checkOut, String owner, long ttlSeconds) throws ApiException
+        {
+            if (refuseHolds) throw ApiException.HOLD_CONFLICT;
+            Hold hold = new Hold(ids.incrementAndGet(), roomId, checkIn, checkOut, owner, System.currentTimeMillis() + ttlSeconds * 1000);
+            holds.put(hold.id(), hold);
+            return hold;
+        }
+
+        @Override
+        public synchronized Hold find(long holdId)
+        {
+            Hold hold = holds.get(holdId);
+            return hold != null && hold.expiresAt() > System.currentTimeMillis() ? hold : null;
+        }
+
+        @Override
+        public synchronized boolean delete(long holdId)
+        {
+            boolean live = find(holdId) != null;
+            holds.remove(holdId);
+            return live;
+        }
+
+        @Override
+        public synchronized Booking book(Hold hold, String guestName) throws ApiException
+        {
+            if (refuseBookings) throw ApiException.BOOKING_CONFLICT;
+            if (!delete(hold.id())) throw ApiException.NOT_FOUND;
+            booked.add(hold.id());
+            return new Booking(null, hold.checkIn(), hold.checkOut(), guestName);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest
+{
+    // 64 slots of 10 ms, one turn is 640 ms
+    private final TimerWheel wheel = new TimerWheel("test-wheel", 10, 64);
+
+    @AfterEach
+    void tearDown()
+    {
+        wheel.close();
+    }
+
+    @Test
+    void timeoutFiresAfterItsDelayNeverBefore() throws InterruptedException
+    {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        wheel.schedule(100, TimeUnit.MILLISECONDS, fired::countDown);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(millis >= 100, "Fired after " + millis + " ms");
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void delayLongerThanATurnWaitsForItsTurn() throws InterruptedException
+    {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        wheel.schedule(1000, TimeUnit.MILLISECONDS, fired::countDown);
+
+        assertTrue(fired.await(3, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws InterruptedException
+    {
+        AtomicInteger runs = new AtomicInteger();
+        TimerWheel.Timeout timeout = wheel.schedule(50, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+        assertEquals(1, wheel.pending());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel(), "Only the first cancel wins");
+        assertEquals(0, wheel.pending());
+        Thread.sleep(200);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void firedTimeoutCannotBeCancelled() throws InterruptedException
+    {
+        CountDownLatch fired = new CountDownLatch(1);
+        TimerWheel.Timeout timeout = wheel.schedule(20, TimeUnit.MILLISECONDS, fired::countDown);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWheel() throws InterruptedException
+    {
+        CountDownLatch fired = new CountDownLatch(1);
+        wheel.schedule(10, TimeUnit.MILLISECONDS, () -> {
+            throw new IllegalStateException("fails");
+        });
+        wheel.schedule(50, TimeUnit.MILLISECONDS, fired::countDown);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.javalin.http.HandlerType;
+import org.example.logging.AccessLog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of access logging, as seen by the request thread.
+// synchronousLog reproduces the old Routes before/after handlers, asyncRecord is the AccessLog path.
+// Both loggers write to a discarding stream so only the logging pipeline itself is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AccessLogBenchmark {
+
+    private Logger syncLogger;
+    private AccessLog accessLog;
+    private int count = 0;
+
+    @Param({"1.0", "0.1"})
+    public double sampleRate;
+
+    @Setup
+    public void setup() {
+        syncLogger = discardingLogger("sync", "%d{ISO8601} [%thread] %-5level %logger{36} - %msg%n");
+        accessLog = new AccessLog(discardingLogger("async", "%msg%n"), 8192, 256, sampleRate);
+    }
+
+    @TearDown
+    public void tearDown() {
+        accessLog.close();
+    }
+
+    @Benchmark
+    public void synchronousLog() {
+        String requestInfo = "GET" + " " + "/api/v1/hotels/42";
+        syncLogger.info(" Request {} - {} was handled with status code {}", count++, requestInfo, 200);
+    }
+
+    @Benchmark
+    public void asyncRecord() {
+        accessLog.record(HandlerType.GET, "/api/v1/hotels/42", "/api/v1/hotels/{id}", 200, 1_250_000, null);
+    }
+
+    private static Logger discardingLogger(String name, String pattern) {
+        LoggerContext context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(pattern);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger logger = context.getLogger(name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AccessLogBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
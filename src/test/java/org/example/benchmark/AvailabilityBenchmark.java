@@ -0,0 +1,103 @@
+package org.example.benchmark;
+
+import org.example.availability.AvailabilityIndex;
+import org.example.model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Availability queries against 100k rooms (1000 hotels of 100 rooms) with a 365 night horizon,
+// roughly half of the nights booked in stays of 1-14 nights. Each invocation asks for a random
+// 1-7 night stay, either within one hotel or across all rooms under a price.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int HOTELS = 1_000;
+    private static final int ROOMS_PER_HOTEL = 100;
+    private static final int HORIZON = 365;
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(1000);
+
+    private final LocalDate origin = LocalDate.of(2024, 1, 1);
+    private AvailabilityIndex index;
+
+    // Stays are drawn up front, per-invocation setup would cost more than a hotel query
+    @State(Scope.Thread)
+    public static class Stays {
+        private static final int COUNT = 1024;
+        private final int[] hotelIds = new int[COUNT];
+        private final LocalDate[] from = new LocalDate[COUNT];
+        private final LocalDate[] to = new LocalDate[COUNT];
+        private int next;
+
+        @Setup
+        public void setup(AvailabilityBenchmark benchmark) {
+            Random random = new Random(7);
+            for (int i = 0; i < COUNT; i++) {
+                hotelIds[i] = 1 + random.nextInt(HOTELS);
+                from[i] = benchmark.origin.plusDays(random.nextInt(HORIZON - 7));
+                to[i] = from[i].plusDays(1 + random.nextInt(7));
+            }
+        }
+
+        int next() {
+            next = (next + 1) & (COUNT - 1);
+            return next;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        index = new AvailabilityIndex(origin, HORIZON);
+        int roomId = 1;
+        for (int hotel = 1; hotel <= HOTELS; hotel++) {
+            for (int number = 1; number <= ROOMS_PER_HOTEL; number++, roomId++) {
+                index.putRoom(roomId, hotel, 100 + number, BigDecimal.valueOf(500 + random.nextInt(4500)), Room.RoomType.DOUBLE);
+                for (int night = random.nextInt(14); night < HORIZON; ) {
+                    int nights = 1 + random.nextInt(14);
+                    index.book(roomId, origin.plusDays(night), origin.plusDays(Math.min(night + nights, HORIZON)));
+                    night += nights + random.nextInt(2 * nights);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Object hotel(Stays stays) {
+        int i = stays.next();
+        return index.findAvailable(stays.hotelIds[i], null, stays.from[i], stays.to[i]);
+    }
+
+    @Benchmark
+    public int underPriceCount(Stays stays) {
+        int i = stays.next();
+        return index.countAvailable(null, MAX_PRICE, stays.from[i], stays.to[i]);
+    }
+
+    @Benchmark
+    public Object underPrice(Stays stays) {
+        int i = stays.next();
+        return index.findAvailable(null, MAX_PRICE, stays.from[i], stays.to[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AvailabilityBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares a JMH JSON result (-rf json) with the stored baseline and fails when a benchmark got
+// slower or allocates more per operation than the tolerances allow. Run by the jmh profile.
+// Scores depend on the machine, so the baseline is only meaningful on the machine that recorded
+// it; bytes per operation (gc.alloc.rate.norm) hardly do. A missing baseline fails the check, a
+// comparison against nothing would pass every time; -Djmh.baseline.update=true records the result
+// as the baseline, to be committed.
+public class BenchmarkBaseline {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    // allocation noise of a few objects, so small allocations are not flagged on rounding
+    private static final double ALLOCATION_SLACK_BYTES = 64;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private record Score(String mode, double score, String unit, double bytesPerOp) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path resultFile = Path.of(args.length > 0 ? args[0] : "target/jmh-result.json");
+        Path baselineFile = Path.of(args.length > 1 ? args[1] : "benchmarks/baseline.json");
+        double tolerance = Double.parseDouble(System.getProperty("jmh.baseline.tolerance", "0.10"));
+        double allocationTolerance = Double.parseDouble(System.getProperty("jmh.baseline.allocation.tolerance", "0.05"));
+
+        JsonNode result = MAPPER.readTree(resultFile.toFile());
+        if (Boolean.getBoolean("jmh.baseline.update")) {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            MAPPER.writeValue(baselineFile.toFile(), result);
+            System.out.println("Recorded " + result.size() + " benchmarks as the baseline in " + baselineFile);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.err.println("No baseline at " + baselineFile + ", nothing to compare " + resultFile + " with.");
+            System.err.println("Record one on the benchmark machine with -Djmh.baseline.update=true and commit it.");
+            System.exit(1);
+        }
+        Map<String, Score> baseline = scores(MAPPER.readTree(baselineFile.toFile()));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-70s %14s %14s %8s %12s %12s%n", "Benchmark", "baseline", "now", "change", "B/op base", "B/op now");
+        for (Map.Entry<String, Score> entry : scores(result).entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.mode().equals(now.mode()) || !before.unit().equals(now.unit())) {
+                System.out.printf("%-70s %14s %14.3f %8s%n", entry.getKey(), "new", now.score(), "");
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score();
+            // throughput should not drop, every other mode measures time and should not grow
+            boolean slower = now.mode().equals("thrpt") ? change < -tolerance : change > tolerance;
+            boolean allocates = !Double.isNaN(before.bytesPerOp()) && !Double.isNaN(now.bytesPerOp())
+                    && now.bytesPerOp() > before.bytesPerOp() * (1 + allocationTolerance) + ALLOCATION_SLACK_BYTES;
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %12.0f %12.0f%s%n", entry.getKey(), before.score(), now.score(),
+                    change * 100, before.bytesPerOp(), now.bytesPerOp(), slower || allocates ? "  <-- regression" : "");
+            if (slower) regressions.add(entry.getKey() + " score " + before.score() + " -> " + now.score() + " " + now.unit());
+            if (allocates) regressions.add(entry.getKey() + " allocates " + before.bytesPerOp() + " -> " + now.bytesPerOp() + " B/op");
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.println("Regressions against " + baselineFile + ":");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    // benchmark name and parameters -> score
+    private static Map<String, Score> scores(JsonNode runs) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+            fields.forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String key = run.get("benchmark").asText() + (params.isEmpty() ? "" : " " + params);
+
+            JsonNode primary = run.get("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            scores.put(key, new Score(run.get("mode").asText(), primary.get("score").asDouble(),
+                    primary.get("scoreUnit").asText(), allocation.isMissingNode() ? Double.NaN : allocation.get("score").asDouble()));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.dao.impl.BookingDao;
+import org.example.dao.impl.HotelDao;
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BookingDao.book against a Postgres testcontainer, every thread booking consecutive nights of a room
+// of its own. The room lock is per row, so eightThreads should reach several times the throughput
+// of oneThread; a global lock would keep them level. Needs Docker.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final int ROOMS = 8;
+
+    private BookingDao bookingDao;
+    private final List<Integer> roomIds = new ArrayList<>();
+    private final AtomicInteger threads = new AtomicInteger();
+    private final LocalDate today = LocalDate.now();
+
+    @State(Scope.Thread)
+    public static class Guest {
+        int roomId = -1;
+        int night;
+    }
+
+    @Setup
+    public void setup() {
+        HibernateConfig.setTest(true);
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        bookingDao = BookingDao.getInstance(emf);
+
+        Hotel hotel = new Hotel("Benchmark " + System.nanoTime(), "Benchmark street", Hotel.HotelType.STANDARD);
+        for (int i = 0; i < ROOMS; i++) {
+            hotel.addRoom(new Room(100 + i, new BigDecimal(1000), Room.RoomType.SINGLE, 20.0));
+        }
+        HotelDao.getInstance(emf).create(hotel);
+        hotel.getRooms().forEach(room -> roomIds.add(room.getRoomId()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        HibernateConfig.setTest(false);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Booking oneThread(Guest guest) throws ApiException {
+        return book(guest);
+    }
+
+    @Benchmark
+    @Threads(ROOMS)
+    public Booking eightThreads(Guest guest) throws ApiException {
+        return book(guest);
+    }
+
+    private Booking book(Guest guest) throws ApiException {
+        // each benchmark runs in a fork of its own with a fresh hotel, its threads take the rooms in turn
+        if (guest.roomId < 0) guest.roomId = roomIds.get(threads.getAndIncrement() % ROOMS);
+        LocalDate checkIn = today.plusDays(guest.night++);
+        return bookingDao.book(guest.roomId, new Booking(null, checkIn, checkIn.plusDays(1), "guest"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BookingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
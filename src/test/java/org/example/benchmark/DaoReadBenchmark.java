@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.DataGenerator;
+import org.example.config.HibernateConfig;
+import org.example.dao.impl.BookingDao;
+import org.example.dao.impl.HotelDao;
+import org.example.dao.impl.RoomDao;
+import org.example.model.Booking;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The DAO read paths behind the GET endpoints, through Hibernate and the pool, against a Postgres
+// testcontainer holding 200 generated hotels of 50 rooms with two bookings each. Needs Docker.
+// The reads walk through the ids so they do not hit the same row every time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoReadBenchmark {
+
+    private static final int HOTELS = 200;
+    private static final int ROOMS_PER_HOTEL = 50;
+
+    private HotelDao hotelDao;
+    private RoomDao roomDao;
+    private BookingDao bookingDao;
+    private int firstHotelId;
+    private int firstRoomId;
+    private int next;
+
+    @Setup
+    public void setup() throws SQLException {
+        HibernateConfig.setTest(true);
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        hotelDao = HotelDao.getInstance(emf);
+        roomDao = RoomDao.getInstance(emf);
+        bookingDao = BookingDao.getInstance(emf);
+
+        Object url = emf.getProperties().get("hibernate.connection.url");
+        new DataGenerator(url.toString(), "postgres", "postgres",
+                new DataGenerator.Settings(HOTELS, ROOMS_PER_HOTEL, 0, 2, 42, 4)).generate();
+        try (var em = emf.createEntityManager()) {
+            firstHotelId = em.createQuery("SELECT min(h.id) FROM Hotel h", Integer.class).getSingleResult();
+            firstRoomId = em.createQuery("SELECT min(r.roomId) FROM Room r", Integer.class).getSingleResult();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        HibernateConfig.setTest(false);
+    }
+
+    @Benchmark
+    public Hotel hotelWithRooms() {
+        return hotelDao.read(firstHotelId + next++ % HOTELS);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Hotel> allHotels() {
+        return hotelDao.readAll();
+    }
+
+    @Benchmark
+    public Room roomWithHotel() {
+        return roomDao.read(firstRoomId + next++ % (HOTELS * ROOMS_PER_HOTEL));
+    }
+
+    @Benchmark
+    public List<Room> roomsInPriceRange() {
+        return roomDao.readAll(1000, 1010);
+    }
+
+    @Benchmark
+    public List<Booking> bookingsOfRoom() {
+        return bookingDao.readAllByRoom(firstRoomId + next++ % (HOTELS * ROOMS_PER_HOTEL));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DaoReadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.exception.ApiException;
+import org.example.exception.Message;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Throughput of producing a 404 error body, thrown from a configurable call depth to mimic
+// the Jetty/Javalin frames above a handler.
+// stackTrace: the old path, a fresh exception with a stack trace serialized with ctx.json.
+// stackless: a fresh ApiException (no stack trace) serialized on demand.
+// preallocated: the shared ApiException.NOT_FOUND and its cached body.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"20", "100"})
+    public int depth;
+
+    @Benchmark
+    public String stackTrace() throws JsonProcessingException {
+        try {
+            throwAt(depth, () -> new LegacyException(404, "Not a valid id"));
+            return null;
+        } catch (LegacyException e) {
+            return MAPPER.writeValueAsString(new Message(e.statusCode, e.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public String stackless() {
+        try {
+            throwAt(depth, () -> new ApiException(404, "Not a valid id"));
+            return null;
+        } catch (ApiException e) {
+            return e.getBody();
+        }
+    }
+
+    @Benchmark
+    public String preallocated() {
+        try {
+            throwAt(depth, () -> ApiException.NOT_FOUND);
+            return null;
+        } catch (ApiException e) {
+            return e.getBody();
+        }
+    }
+
+    private static <E extends Exception> void throwAt(int depth, Supplier<E> supplier) throws E {
+        if (depth == 0) throw supplier.get();
+        throwAt(depth - 1, supplier);
+    }
+
+    // ApiException as it was before the fast path: captures the full stack trace
+    private static class LegacyException extends Exception {
+        private final int statusCode;
+
+        LegacyException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ErrorPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
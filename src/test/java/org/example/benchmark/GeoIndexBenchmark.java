@@ -0,0 +1,92 @@
+package org.example.benchmark;
+
+import org.example.index.GeoIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Nearest and radius searches over 100k hotels: 90% clustered around 200 cities (about 20 km
+// spread), the rest spread over the globe. Queries are made from random points in the cities.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoIndexBenchmark {
+
+    private static final int HOTELS = 100_000;
+    private static final int CITIES = 200;
+    private static final int QUERIES = 1024;
+
+    private final GeoIndex index = new GeoIndex();
+    private final double[] queryLatitudes = new double[QUERIES];
+    private final double[] queryLongitudes = new double[QUERIES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        double[] cityLatitudes = new double[CITIES];
+        double[] cityLongitudes = new double[CITIES];
+        for (int city = 0; city < CITIES; city++) {
+            cityLatitudes[city] = random.nextDouble() * 120 - 60;
+            cityLongitudes[city] = random.nextDouble() * 360 - 180;
+        }
+
+        GeoIndex.Cells.Builder builder = new GeoIndex.Cells.Builder(HOTELS);
+        for (int hotel = 1; hotel <= HOTELS; hotel++) {
+            if (random.nextInt(10) == 0) {
+                builder.add(hotel, "Hotel " + hotel, Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)), random.nextDouble() * 360 - 180);
+            } else {
+                int city = random.nextInt(CITIES);
+                builder.add(hotel, "Hotel " + hotel, cityLatitudes[city] + random.nextGaussian() * 0.2,
+                        cityLongitudes[city] + random.nextGaussian() * 0.2);
+            }
+        }
+        index.replace(builder.build());
+
+        for (int i = 0; i < QUERIES; i++) {
+            int city = random.nextInt(CITIES);
+            queryLatitudes[i] = cityLatitudes[city] + random.nextGaussian() * 0.1;
+            queryLongitudes[i] = cityLongitudes[city] + random.nextGaussian() * 0.1;
+        }
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public GeoIndex.Hits nearest10() {
+        int i = nextQuery();
+        return index.nearest(queryLatitudes[i], queryLongitudes[i], 10);
+    }
+
+    @Benchmark
+    public GeoIndex.Hits within5km() {
+        int i = nextQuery();
+        return index.within(queryLatitudes[i], queryLongitudes[i], 5, 100);
+    }
+
+    @Benchmark
+    public GeoIndex.Hits within50km() {
+        int i = nextQuery();
+        return index.within(queryLatitudes[i], queryLongitudes[i], 50, 1000);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GeoIndexBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.benchmark;
+
+import org.example.availability.AvailabilityIndex;
+import org.example.availability.Hold;
+import org.example.availability.HoldService;
+import org.example.availability.TimerWheel;
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+import org.example.model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Placing and releasing holds with 100k other holds live, on 200k rooms (2000 hotels of 100 rooms)
+// with a 365 night horizon. The live holds have the longest TTL so none expire during the run.
+// wheel measures scheduling and cancelling a timeout alone. The database side of the holds is
+// replaced by a store that only hands out ids, so this is the in-memory cost of a hold on top of
+// its two statements.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HoldBenchmark {
+
+    private static final int HOTELS = 2_000;
+    private static final int ROOMS_PER_HOTEL = 100;
+    private static final int ROOMS = HOTELS * ROOMS_PER_HOTEL;
+    private static final int LIVE_HOLDS = 100_000;
+    private static final int HORIZON = 365;
+    private static final long MAX_TTL = 1800;
+
+    private final LocalDate origin = LocalDate.now();
+    private TimerWheel wheel;
+    private HoldService service;
+
+    @State(Scope.Thread)
+    public static class Stays {
+        private static final int COUNT = 1024;
+        private final int[] roomIds = new int[COUNT];
+        private final LocalDate[] from = new LocalDate[COUNT];
+        private final LocalDate[] to = new LocalDate[COUNT];
+        private int next;
+
+        @Setup
+        public void setup(HoldBenchmark benchmark) {
+            Random random = new Random(Thread.currentThread().threadId());
+            for (int i = 0; i < COUNT; i++) {
+                roomIds[i] = 1 + random.nextInt(ROOMS);
+                from[i] = benchmark.origin.plusDays(random.nextInt(HORIZON - 7));
+                to[i] = from[i].plusDays(1 + random.nextInt(7));
+            }
+        }
+
+        int next() {
+            next = (next + 1) & (COUNT - 1);
+            return next;
+        }
+    }
+
+    @Setup
+    public void setup() throws ApiException {
+        Random random = new Random(42);
+        AvailabilityIndex index = new AvailabilityIndex(origin, HORIZON);
+        for (int roomId = 1; roomId <= ROOMS; roomId++) {
+            index.putRoom(roomId, 1 + (roomId - 1) / ROOMS_PER_HOTEL, 100 + roomId % ROOMS_PER_HOTEL,
+                    BigDecimal.valueOf(500 + random.nextInt(4500)), Room.RoomType.DOUBLE);
+        }
+        wheel = new TimerWheel("hold-expiry", 100, 32768);
+        service = new HoldService(index, new IdStore(), wheel, 600, MAX_TTL);
+        for (int i = 0; i < LIVE_HOLDS; i++) {
+            LocalDate from = origin.plusDays(random.nextInt(HORIZON - 7));
+            try {
+                service.hold(1 + random.nextInt(ROOMS), from, from.plusDays(1 + random.nextInt(7)), MAX_TTL, "bench");
+            } catch (ApiException e) {
+                i--; // overlaps an earlier hold, draw again
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        wheel.close();
+    }
+
+    @Benchmark
+    public Object holdAndRelease(Stays stays) throws ApiException {
+        int i = stays.next();
+        Hold hold;
+        try {
+            hold = service.hold(stays.roomIds[i], stays.from[i], stays.to[i], MAX_TTL, "bench");
+        } catch (ApiException e) {
+            return e; // held or booked already
+        }
+        service.release(hold.id(), null);
+        return hold;
+    }
+
+    @Benchmark
+    public boolean wheel() {
+        return wheel.schedule(MAX_TTL, TimeUnit.SECONDS, () -> { }).cancel();
+    }
+
+    private static class IdStore implements HoldService.Store {
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public Hold insert(int roomId, LocalDate checkIn, LocalDate checkOut, String owner, long ttlSeconds) {
+            return new Hold(ids.incrementAndGet(), roomId, checkIn, checkOut, owner, System.currentTimeMillis() + ttlSeconds * 1000);
+        }
+
+        @Override
+        public Hold find(long holdId) {
+            return null;
+        }
+
+        @Override
+        public boolean delete(long holdId) {
+            return true;
+        }
+
+        @Override
+        public Booking book(Hold hold, String guestName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HoldBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.benchmark;
+
+import org.example.index.HotelSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Search latency over 1M hotels built from a small vocabulary, so common words such as "hotel"
+// or a city name match 5-15% of the catalog. Sample time mode reports the p99 per query kind.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HotelSearchBenchmark {
+
+    private static final int HOTELS = 1_000_000;
+
+    private static final String[] PREFIXES = {"Grand", "Royal", "Park", "City", "Plaza", "Harbour", "Palace", "Garden",
+            "Sunset", "Ocean", "Nordic", "Central", "Imperial", "Golden", "Silver", "Alpine", "River", "Lake", "Crown", "Regent"};
+    private static final String[] KINDS = {"Hotel", "Inn", "Resort", "Suites", "Lodge", "Hostel", "Motel", "Apartments"};
+    private static final String[] CITIES = {"Copenhagen", "Aarhus", "Odense", "Aalborg", "Berlin", "Hamburg", "Paris", "Lyon",
+            "London", "Madrid", "Rome", "Milan", "Oslo", "Bergen", "Stockholm", "Malmö", "Helsinki", "Vienna", "Zürich", "Prague"};
+    private static final String[] STREETS = {"Nørregade", "Østergade", "Main Street", "High Street", "Hauptstraße",
+            "Rue de Rivoli", "Via Roma", "Kongens Nytorv", "Strøget", "Vesterbrogade"};
+
+    private static final String[] EXACT = {"grand copenhagen", "nordic lodge oslo", "harbour suites bergen", "strøget", "zurich"};
+    private static final String[] PREFIX = {"copen", "grand hot", "vesterbro", "golden in", "nørregade 12"};
+    private static final String[] TYPO = {"royl palace", "palce rome", "stokholm", "harbor inn"};
+
+    private final HotelSearchIndex index = new HotelSearchIndex();
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int hotel = 1; hotel <= HOTELS; hotel++) {
+            String city = CITIES[random.nextInt(CITIES.length)];
+            String second = random.nextInt(3) == 0 ? PREFIXES[random.nextInt(PREFIXES.length)] + " " : "";
+            String name = PREFIXES[random.nextInt(PREFIXES.length)] + " " + second + KINDS[random.nextInt(KINDS.length)] + " " + city
+                    + " " + Integer.toString(hotel, 36);
+            String address = STREETS[random.nextInt(STREETS.length)] + " " + (1 + random.nextInt(200)) + ", " + city;
+            index.put(hotel, name, address);
+        }
+    }
+
+    private String nextQuery(String[] queries) {
+        next++;
+        return queries[(next & Integer.MAX_VALUE) % queries.length];
+    }
+
+    @Benchmark
+    public List<HotelSearchIndex.SearchHit> exactWords() {
+        return index.search(nextQuery(EXACT), 10);
+    }
+
+    @Benchmark
+    public List<HotelSearchIndex.SearchHit> prefix() {
+        return index.search(nextQuery(PREFIX), 10);
+    }
+
+    @Benchmark
+    public List<HotelSearchIndex.SearchHit> typo() {
+        return index.search(nextQuery(TYPO), 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HotelSearchBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.benchmark;
+
+import io.javalin.Javalin;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.ApplicationConfig;
+import org.example.config.DataGenerator;
+import org.example.config.HibernateConfig;
+import org.example.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Open-loop HTTP load against the app on the local Postgres (the db.* properties). Requests are
+// started at a constant rate whatever the server does, each on its own virtual thread, and the
+// latency is measured from the moment the request was due, not from when it was sent. A server
+// that stalls therefore shows up in the percentiles instead of just slowing the generator down
+// (coordinated omission). Run with -Dload.generate=true once to seed the database with
+// DataGenerator (populate.* properties); logins and tokens use its guest users.
+//
+// -Dload.rate            requests per second (200)
+// -Dload.duration.seconds measured time (60), after -Dload.warmup.seconds (10) that are not recorded
+// -Dload.mix             scenario weights (hotels:70,hotel:20,login:5,room:5)
+// -Dload.target          base URL of a running app, by default one is started here on a free port
+// -Dload.max.inflight    requests in flight before new ones are dropped and counted (10000)
+public class LoadGenerator {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    // DataGenerator makes guest1 an admin and guest3 a plain user
+    private static final String ADMIN = "guest1";
+    private static final String USER = "guest3";
+    private static final String ALL = "all";
+
+    private record Scenario(String name, Function<LoadGenerator, HttpRequest> request) {
+    }
+
+    private static final List<Scenario> SCENARIOS = List.of(
+            new Scenario("hotels", load -> load.get("/hotels", null)),
+            new Scenario("hotel", load -> load.get("/hotels/" + load.randomHotel(), load.userToken)),
+            new Scenario("login", load -> load.post("/auth/login", null,
+                    "{\"username\": \"guest" + (1 + ThreadLocalRandom.current().nextInt(load.users)) + "\", \"password\": \"" + DataGenerator.PASSWORD + "\"}")),
+            new Scenario("room", load -> load.post("/rooms/hotel/" + load.randomHotel(), load.adminToken,
+                    "{\"roomNumber\": " + load.nextRoomNumber.incrementAndGet() + ", \"roomPrice\": 1150, \"roomType\": \"SINGLE\"}")));
+
+    // per scenario, latency from when the request was due
+    private static class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder failures = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            latency.recordNanos(latencyNanos);
+            if (status < 0) failures.increment();
+            else if (status >= 500) serverErrors.increment();
+            else if (status >= 400) clientErrors.increment();
+            else ok.increment();
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String base;
+    private final int firstHotel;
+    private final int hotelCount;
+    private final int users;
+    // high enough not to clash with generated room numbers
+    private final AtomicInteger nextRoomNumber = new AtomicInteger(100_000);
+    private String userToken;
+    private String adminToken;
+
+    private LoadGenerator(String base, int firstHotel, int hotelCount, int users) {
+        this.base = base;
+        this.firstHotel = firstHotel;
+        this.hotelCount = hotelCount;
+        this.users = users;
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        long durationSeconds = Long.getLong("load.duration.seconds", 60);
+        long warmupSeconds = Long.getLong("load.warmup.seconds", 10);
+        int maxInFlight = Integer.getInteger("load.max.inflight", 10_000);
+        List<Scenario> mix = mix(System.getProperty("load.mix", "hotels:70,hotel:20,login:5,room:5"));
+
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        DataGenerator.Settings settings = DataGenerator.settingsFromProperties();
+        if (Boolean.getBoolean("load.generate")) {
+            String url = ApplicationConfig.getProperty("db.connection.string") + ApplicationConfig.getProperty("db.name");
+            new DataGenerator(url, ApplicationConfig.getProperty("db.username"), ApplicationConfig.getProperty("db.password"), settings).generate();
+        }
+        int firstHotel;
+        int lastHotel;
+        try (var em = emf.createEntityManager()) {
+            Object[] range = em.createQuery("SELECT min(h.id), max(h.id) FROM Hotel h", Object[].class).getSingleResult();
+            if (range[0] == null) throw new IllegalStateException("No hotels, run with -Dload.generate=true first");
+            firstHotel = (Integer) range[0];
+            lastHotel = (Integer) range[1];
+        }
+
+        Javalin app = null;
+        String target = System.getProperty("load.target");
+        if (target == null) {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            app = Javalin.create();
+            ApplicationConfig.startServer(app, port);
+            target = "http://localhost:" + port;
+        }
+
+        LoadGenerator load = new LoadGenerator(target + "/api/v1", firstHotel, lastHotel - firstHotel + 1, settings.users());
+        load.userToken = load.login(USER);
+        load.adminToken = load.login(ADMIN);
+
+        System.out.printf("Open loop at %.0f req/s, %d s warmup, %d s measured, against %s%n", rate, warmupSeconds, durationSeconds, target);
+        try {
+            load.run(mix, rate, TimeUnit.SECONDS.toNanos(warmupSeconds), false, maxInFlight);
+            Map<String, Stats> stats = load.run(mix, rate, TimeUnit.SECONDS.toNanos(durationSeconds), true, maxInFlight);
+            report(stats, durationSeconds, rate);
+        } finally {
+            if (app != null) ApplicationConfig.stopServer(app);
+            emf.close();
+        }
+        System.exit(0);
+    }
+
+    // Starts a request every 1/rate seconds for the duration, waits for the stragglers
+    private Map<String, Stats> run(List<Scenario> mix, double rate, long durationNanos, boolean record, int maxInFlight) {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (Scenario scenario : mix) stats.putIfAbsent(scenario.name(), new Stats());
+        Stats all = new Stats();
+        stats.put(ALL, all);
+        LongAdder dropped = new LongAdder();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long due = start + i * interval;
+                if (due - start >= durationNanos) break;
+                long wait = due - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                Scenario scenario = mix.get(ThreadLocalRandom.current().nextInt(mix.size()));
+                Stats scenarioStats = stats.get(scenario.name());
+                if (inFlight.get() >= maxInFlight) {
+                    dropped.increment();
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                requests.execute(() -> {
+                    try {
+                        send(scenario.request().apply(this), due, record ? scenarioStats : null, record ? all : null);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        if (dropped.sum() > 0) {
+            System.out.println("Dropped " + dropped.sum() + " requests with " + maxInFlight + " in flight, the server is far behind");
+        }
+        return stats;
+    }
+
+    private void send(HttpRequest request, long due, Stats stats, Stats all) {
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (stats == null) return;
+        long latency = System.nanoTime() - due;
+        stats.record(latency, status);
+        all.record(latency, status);
+    }
+
+    private static void report(Map<String, Stats> stats, long durationSeconds, double rate) {
+        System.out.printf("%-8s %9s %9s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "req/s", "2xx/3xx", "4xx", "5xx/io", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long totalErrors = 0;
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            line(entry.getKey(), s.latency.snapshot(), durationSeconds, s.ok.sum(), s.clientErrors.sum(), s.serverErrors.sum() + s.failures.sum());
+            if (!entry.getKey().equals(ALL)) totalErrors += s.serverErrors.sum() + s.failures.sum();
+        }
+        System.out.printf("achieved %.1f of %.1f req/s, %d server errors or failed requests%n",
+                stats.get(ALL).latency.getCount() / (double) durationSeconds, rate, totalErrors);
+    }
+
+    private static void line(String name, LatencyHistogram.Snapshot snapshot, long durationSeconds, long ok, long clientErrors, long serverErrors) {
+        System.out.printf("%-8s %9d %9.1f %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, snapshot.getCount(),
+                snapshot.getCount() / (double) durationSeconds, ok, clientErrors, serverErrors,
+                snapshot.percentileMicros(50) / 1000.0, snapshot.percentileMicros(90) / 1000.0,
+                snapshot.percentileMicros(99) / 1000.0, snapshot.percentileMicros(99.9) / 1000.0, snapshot.maxMicros() / 1000.0);
+    }
+
+    // "hotels:70,hotel:20" -> a list holding each scenario as often as its weight
+    private static List<Scenario> mix(String weights) {
+        List<Scenario> mix = new ArrayList<>();
+        for (String part : weights.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            Scenario scenario = SCENARIOS.stream().filter(s -> s.name().equals(nameAndWeight[0])).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown scenario " + nameAndWeight[0]));
+            for (int i = 0; i < Integer.parseInt(nameAndWeight[1]); i++) mix.add(scenario);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("Empty load.mix");
+        return mix;
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpRequest request = post("/auth/login", null,
+                "{\"username\": \"" + username + "\", \"password\": \"" + DataGenerator.PASSWORD + "\"}");
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Could not log in as " + username + ": " + response.statusCode() + " " + response.body());
+        }
+        return token.group(1);
+    }
+
+    private int randomHotel() {
+        return firstHotel + ThreadLocalRandom.current().nextInt(hotelCount);
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder.GET().build();
+    }
+
+    private HttpRequest post(String path, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.benchmark;
+
+import io.javalin.json.JavalinJackson;
+import org.example.dto.HotelDto;
+import org.example.dto.RoomDto;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// The response side of GET /hotels and /rooms: entities to DTOs, and DTOs to JSON with the
+// JavalinJackson mapper ctx.json uses. Hotels have 20 rooms each, as loaded with their rooms.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int ROOMS_PER_HOTEL = 20;
+
+    @Param({"10", "100"})
+    public int hotelCount;
+
+    private final JavalinJackson json = new JavalinJackson();
+    private List<Hotel> hotels;
+    private List<Room> rooms;
+    private List<HotelDto> hotelDtos;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        Random random = new Random(42);
+        Hotel.HotelType[] hotelTypes = Hotel.HotelType.values();
+        Room.RoomType[] roomTypes = Room.RoomType.values();
+        // ids are generated by the database, the DTOs still carry them
+        Field id = Hotel.class.getDeclaredField("id");
+        id.setAccessible(true);
+
+        hotels = new ArrayList<>(hotelCount);
+        rooms = new ArrayList<>(hotelCount * ROOMS_PER_HOTEL);
+        for (int h = 1; h <= hotelCount; h++) {
+            Hotel hotel = new Hotel("Hotel " + h, "Street " + h, hotelTypes[h % hotelTypes.length]);
+            id.set(hotel, h);
+            hotel.setLatitude(55 + random.nextDouble());
+            hotel.setLongitude(12 + random.nextDouble());
+            Set<Room> hotelRooms = new HashSet<>();
+            for (int n = 1; n <= ROOMS_PER_HOTEL; n++) {
+                Room room = new Room(100 + n, BigDecimal.valueOf(500 + random.nextInt(4500)),
+                        roomTypes[random.nextInt(roomTypes.length)], 15 + random.nextInt(40) / 2.0);
+                hotelRooms.add(room);
+            }
+            hotel.setRooms(hotelRooms);
+            hotels.add(hotel);
+            rooms.addAll(hotel.getRooms());
+        }
+        hotelDtos = HotelDto.toHotelDTOList(hotels);
+    }
+
+    @Benchmark
+    public List<HotelDto> hotelDtos() {
+        return HotelDto.toHotelDTOList(hotels);
+    }
+
+    @Benchmark
+    public List<RoomDto> roomDtos() {
+        return RoomDto.toRoomDTOList(rooms);
+    }
+
+    @Benchmark
+    public String serializeHotels() {
+        return json.toJsonString(hotelDtos, List.class);
+    }
+
+    // what a GET /hotels response costs after the query
+    @Benchmark
+    public String mapAndSerializeHotels() {
+        return json.toJsonString(HotelDto.toHotelDTOList(hotels), List.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
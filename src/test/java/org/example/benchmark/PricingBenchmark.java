@@ -0,0 +1,131 @@
+package org.example.benchmark;
+
+import org.example.model.PricingRule;
+import org.example.model.Room;
+import org.example.pricing.CompiledPricing;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Pricing one million room-nights (10k rooms, 100-night stays) with six seasonal, weekday,
+// room type and guest rules. compiledTable prices nights inside the compiled horizon,
+// compiledRules nights past it, and interpreted walks the rule entities with BigDecimal and
+// LocalDate per night the way a straightforward implementation would. Scores are per night.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final int ROOMS = 10_000;
+    private static final int NIGHTS = 100;
+    private static final int ROOM_NIGHTS = ROOMS * NIGHTS;
+    private static final Room.RoomType[] TYPES = Room.RoomType.values();
+
+    private final LocalDate origin = LocalDate.of(2024, 1, 1);
+    private final long[] baseCents = new long[ROOMS];
+    private final Room.RoomType[] roomTypes = new Room.RoomType[ROOMS];
+    private final int[] guests = new int[ROOMS];
+
+    private List<PricingRule> rules;
+    private CompiledPricing pricing;
+
+    @Setup
+    public void setup() {
+        PricingRule summer = new PricingRule("Summer weekends", 10, PricingRule.Adjustment.PERCENT, BigDecimal.valueOf(20));
+        summer.setValidFrom(LocalDate.of(2024, 6, 1));
+        summer.setValidTo(LocalDate.of(2024, 9, 1));
+        summer.setDaysOfWeek("FRIDAY,SATURDAY");
+        PricingRule winter = new PricingRule("Winter", 20, PricingRule.Adjustment.PERCENT, BigDecimal.valueOf(-10));
+        winter.setValidTo(LocalDate.of(2024, 3, 1));
+        PricingRule suites = new PricingRule("Suite supplement", 30, PricingRule.Adjustment.AMOUNT, BigDecimal.valueOf(50));
+        suites.setRoomType(Room.RoomType.SUITE);
+        PricingRule family = new PricingRule("Three or more guests", 40, PricingRule.Adjustment.PERCENT, BigDecimal.valueOf(15));
+        family.setMinGuests(3);
+        PricingRule single = new PricingRule("Single use", 50, PricingRule.Adjustment.PERCENT, BigDecimal.valueOf(-5));
+        single.setMaxGuests(1);
+        single.setRoomType(Room.RoomType.DOUBLE);
+        PricingRule newYear = new PricingRule("New Year's Eve", 60, PricingRule.Adjustment.PRICE, BigDecimal.valueOf(2500));
+        newYear.setValidFrom(LocalDate.of(2024, 12, 31));
+        newYear.setValidTo(LocalDate.of(2025, 1, 1));
+        rules = List.of(summer, winter, suites, family, single, newYear);
+        pricing = CompiledPricing.compile(1, rules, origin, 365);
+
+        Random random = new Random(42);
+        for (int room = 0; room < ROOMS; room++) {
+            baseCents[room] = 50_000 + random.nextInt(450_000);
+            roomTypes[room] = TYPES[random.nextInt(TYPES.length)];
+            guests[room] = 1 + random.nextInt(4);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROOM_NIGHTS)
+    public long compiledTable() {
+        return price(origin.plusDays(120), origin.plusDays(120 + NIGHTS));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROOM_NIGHTS)
+    public long compiledRules() {
+        return price(origin.plusDays(400), origin.plusDays(400 + NIGHTS));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROOM_NIGHTS)
+    public long interpreted() {
+        LocalDate from = origin.plusDays(120);
+        long total = 0;
+        for (int room = 0; room < ROOMS; room++) {
+            for (int night = 0; night < NIGHTS; night++) {
+                total += interpret(BigDecimal.valueOf(baseCents[room], 2), roomTypes[room], from.plusDays(night), guests[room]);
+            }
+        }
+        return total;
+    }
+
+    private long price(LocalDate from, LocalDate to) {
+        long total = 0;
+        for (int room = 0; room < ROOMS; room++) {
+            total += pricing.stayCents(baseCents[room], roomTypes[room], from, to, guests[room]);
+        }
+        return total;
+    }
+
+    private long interpret(BigDecimal price, Room.RoomType roomType, LocalDate night, int guests) {
+        for (PricingRule rule : rules) {
+            if (rule.getRoomType() != null && rule.getRoomType() != roomType) continue;
+            if (rule.getValidFrom() != null && night.isBefore(rule.getValidFrom())) continue;
+            if (rule.getValidTo() != null && !night.isBefore(rule.getValidTo())) continue;
+            if (rule.getDaysOfWeek() != null && !rule.getDaysOfWeek().contains(night.getDayOfWeek().name())) continue;
+            if (rule.getMinGuests() != null && guests < rule.getMinGuests()) continue;
+            if (rule.getMaxGuests() != null && guests > rule.getMaxGuests()) continue;
+            price = switch (rule.getAdjustment()) {
+                case PERCENT -> price.multiply(BigDecimal.ONE.add(rule.getAmount().movePointLeft(2)));
+                case AMOUNT -> price.add(rule.getAmount());
+                case PRICE -> rule.getAmount();
+            };
+        }
+        return price.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.model.Hotel;
+import org.example.repricing.RepricingJob;
+import org.example.repricing.RepricingRule;
+import org.example.repricing.RepricingService;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One repricing job end to end (load, price, write, commit) over 1M rooms in a Postgres
+// testcontainer, 1000 hotels of 1000 rooms. Needs Docker; seeding takes a minute or two.
+// Each invocation raises every room by 1%, so all rooms are written every time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RepricingBenchmark {
+
+    private static final int HOTELS = 1_000;
+    private static final int ROOMS_PER_HOTEL = 1_000;
+    private static final String[] ROOM_TYPES = {"SINGLE", "DOUBLE", "SUITE"};
+
+    private static final List<RepricingRule> ALL_ROOMS = List.of(new RepricingRule(null, null, BigDecimal.ONE));
+
+    private RepricingService service;
+
+    @Setup
+    public void setup() {
+        HibernateConfig.setTest(true);
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        service = RepricingService.getInstance(emf);
+
+        Random random = new Random(42);
+        Hotel.HotelType[] hotelTypes = Hotel.HotelType.values();
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement hotels = connection.prepareStatement(
+                        "INSERT INTO hotel (hotel_name, hotel_address, hotel_type) VALUES (?, ?, ?)")) {
+                    for (int hotel = 1; hotel <= HOTELS; hotel++) {
+                        hotels.setString(1, "Hotel " + hotel);
+                        hotels.setString(2, "Street " + hotel);
+                        hotels.setString(3, hotelTypes[hotel % hotelTypes.length].name());
+                        hotels.addBatch();
+                    }
+                    hotels.executeBatch();
+                }
+                try (PreparedStatement rooms = connection.prepareStatement(
+                        "INSERT INTO room (room_number, price, room_type, hotel_id) VALUES (?, ?, ?, ?)")) {
+                    for (int hotel = 1; hotel <= HOTELS; hotel++) {
+                        for (int number = 1; number <= ROOMS_PER_HOTEL; number++) {
+                            rooms.setInt(1, number);
+                            rooms.setBigDecimal(2, BigDecimal.valueOf(50_000 + random.nextInt(450_000), 2));
+                            rooms.setString(3, ROOM_TYPES[random.nextInt(ROOM_TYPES.length)]);
+                            rooms.setInt(4, hotel);
+                            rooms.addBatch();
+                        }
+                        rooms.executeBatch();
+                    }
+                }
+            });
+            em.getTransaction().commit();
+        }
+    }
+
+    @Benchmark
+    public long repriceMillionRooms() throws InterruptedException {
+        RepricingJob job = service.submit(ALL_ROOMS);
+        while (!job.isFinished()) {
+            Thread.sleep(5);
+        }
+        if (job.getState() != RepricingJob.State.DONE) throw new IllegalStateException(job.getError());
+        return job.getWritten();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RepricingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
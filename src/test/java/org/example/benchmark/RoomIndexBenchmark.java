@@ -0,0 +1,136 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.dao.impl.RoomDao;
+import org.example.index.RoomFilter;
+import org.example.index.RoomIndex;
+import org.example.model.Room;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Price range and cheapest-room queries on the in-memory RoomIndex against the SQL path that
+// GET /rooms?range= used before (RoomDao.readAll(min, max)). Both see the same rooms: 1000
+// hotels of 100 rooms with prices from 500 to 5000. The sql* benchmarks start a Postgres
+// testcontainer and need Docker; run only the index ones with -e sql.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomIndexBenchmark {
+
+    private static final int HOTELS = 1_000;
+    private static final int ROOMS_PER_HOTEL = 100;
+    private static final Room.RoomType[] TYPES = Room.RoomType.values();
+
+    // Price window of 10 currency units, about 200 rooms
+    private static final int MIN_PRICE = 2_000;
+    private static final int MAX_PRICE = 2_010;
+
+    @State(Scope.Benchmark)
+    public static class Index {
+        RoomIndex index = new RoomIndex();
+        RoomFilter suites = RoomFilter.of(35.0, Room.RoomType.SUITE, null);
+
+        @Setup
+        public void setup() {
+            Random random = new Random(42);
+            RoomIndex.Columns.Builder builder = new RoomIndex.Columns.Builder(HOTELS * ROOMS_PER_HOTEL);
+            int roomId = 1;
+            for (int hotel = 1; hotel <= HOTELS; hotel++) {
+                for (int number = 1; number <= ROOMS_PER_HOTEL; number++) {
+                    builder.add(roomId++, hotel, 100 + number, price(random), squareMeters(random), TYPES[random.nextInt(TYPES.length)]);
+                }
+            }
+            index.replace(builder.build());
+            long rooms = (long) HOTELS * ROOMS_PER_HOTEL;
+            System.out.printf("%nRoomIndex: %d bytes per room, %d KB for %d rooms%n",
+                    RoomIndex.BYTES_PER_ROOM, RoomIndex.BYTES_PER_ROOM * rooms / 1024, rooms);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Sql {
+        RoomDao dao;
+
+        @Setup
+        public void setup() {
+            HibernateConfig.setTest(true);
+            EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+            dao = RoomDao.getInstance(emf);
+
+            Random random = new Random(42);
+            try (var em = emf.createEntityManager()) {
+                em.getTransaction().begin();
+                em.unwrap(Session.class).doWork(connection -> {
+                    try (PreparedStatement hotels = connection.prepareStatement(
+                            "INSERT INTO hotel (hotel_name, hotel_address, hotel_type) VALUES (?, ?, 'STANDARD')")) {
+                        for (int hotel = 1; hotel <= HOTELS; hotel++) {
+                            hotels.setString(1, "Hotel " + hotel);
+                            hotels.setString(2, "Street " + hotel);
+                            hotels.addBatch();
+                        }
+                        hotels.executeBatch();
+                    }
+                    try (PreparedStatement rooms = connection.prepareStatement(
+                            "INSERT INTO room (room_number, price, square_meters, room_type, hotel_id) VALUES (?, ?, ?, ?, ?)")) {
+                        for (int hotel = 1; hotel <= HOTELS; hotel++) {
+                            for (int number = 1; number <= ROOMS_PER_HOTEL; number++) {
+                                rooms.setInt(1, 100 + number);
+                                rooms.setBigDecimal(2, price(random));
+                                rooms.setDouble(3, squareMeters(random));
+                                rooms.setString(4, TYPES[random.nextInt(TYPES.length)].name());
+                                rooms.setInt(5, hotel);
+                                rooms.addBatch();
+                            }
+                            rooms.executeBatch();
+                        }
+                    }
+                });
+                em.getTransaction().commit();
+            }
+        }
+    }
+
+    private static BigDecimal price(Random random) {
+        return BigDecimal.valueOf(50_000 + random.nextInt(450_000), 2);
+    }
+
+    private static Double squareMeters(Random random) {
+        return 15.0 + random.nextInt(40);
+    }
+
+    @Benchmark
+    public int[] indexPriceRange(Index state) {
+        return state.index.snapshot().priceRange(MIN_PRICE * 100L, MAX_PRICE * 100L, RoomFilter.ANY, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public int[] indexCheapestSuites(Index state) {
+        return state.index.snapshot().cheapest(10, state.suites);
+    }
+
+    @Benchmark
+    public Object sqlPriceRange(Sql state) {
+        return state.dao.readAll(MIN_PRICE, MAX_PRICE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RoomIndexBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
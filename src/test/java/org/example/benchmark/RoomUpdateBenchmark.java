@@ -0,0 +1,89 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.DataGenerator;
+import org.example.config.HibernateConfig;
+import org.example.dao.impl.RoomDao;
+import org.example.dao.impl.RoomUpdateBatcher;
+import org.example.model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bursts of PUT /rooms/{id} at the DAO: 32 threads changing room prices against a Postgres
+// testcontainer, each thread on rooms of its own so they never wait on a row lock. windowMillis 0
+// is RoomDao.update with a transaction per update, above that RoomUpdateBatcher groups the updates
+// that arrive within the window. Throughput is updates per millisecond over all threads; sample
+// time is the latency one caller sees, the wait for the window included. Needs Docker.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class RoomUpdateBenchmark {
+
+    private static final int HOTELS = 100;
+    private static final int ROOMS_PER_HOTEL = 50;
+    private static final int ROOMS_PER_THREAD = HOTELS * ROOMS_PER_HOTEL / 32;
+
+    @Param({"0", "1", "2", "5", "10"})
+    public int windowMillis;
+
+    private RoomDao roomDao;
+    private RoomUpdateBatcher batcher;
+    private Room[] rooms;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Caller {
+        int first = -1;
+        int next;
+    }
+
+    @Setup
+    public void setup() throws SQLException {
+        HibernateConfig.setTest(true);
+        EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+        roomDao = RoomDao.getInstance(emf);
+
+        Object url = emf.getProperties().get("hibernate.connection.url");
+        new DataGenerator(url.toString(), "postgres", "postgres",
+                new DataGenerator.Settings(HOTELS, ROOMS_PER_HOTEL, 0, 0, 42, 4)).generate();
+        List<Room> all = roomDao.readAll();
+        rooms = all.toArray(new Room[0]);
+        if (windowMillis > 0) batcher = new RoomUpdateBatcher(emf, roomDao, windowMillis, 64);
+    }
+
+    @TearDown
+    public void tearDown() {
+        HibernateConfig.setTest(false);
+    }
+
+    @Benchmark
+    public Room updatePrice(Caller caller) {
+        if (caller.first < 0) caller.first = threads.getAndIncrement() * ROOMS_PER_THREAD;
+        Room current = rooms[caller.first + caller.next++ % ROOMS_PER_THREAD];
+        Room update = new Room(current.getRoomNumber(), BigDecimal.valueOf(500 + caller.next % 500),
+                current.getRoomType(), current.getSquareMeters());
+        return batcher != null ? batcher.update(current.getRoomId(), update) : roomDao.update(current.getRoomId(), update);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RoomUpdateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
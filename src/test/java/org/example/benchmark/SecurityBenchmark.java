@@ -0,0 +1,109 @@
+package org.example.benchmark;
+
+import io.javalin.http.Context;
+import io.javalin.security.RouteRole;
+import org.example.controller.impl.AccessManagerController;
+import org.example.dto.UserDTO;
+import org.example.security.RouteRoles;
+import org.example.security.TokenFactory;
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// What authentication costs per request: signing and verifying a token, the access manager in
+// front of a protected and a public route, and the bcrypt check a login does.
+// The access manager gets a Context that only answers path(), header("Authorization") and the
+// request attributes it stores the signed-in user in.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityBenchmark {
+
+    private static final Set<String> ROLES = Set.of("user");
+    private static final Set<RouteRole> PROTECTED = Set.of(RouteRoles.USER, RouteRoles.ADMIN);
+    private static final Set<RouteRole> PUBLIC = Set.of(RouteRoles.ANYONE);
+
+    private TokenFactory tokenFactory;
+    private AccessManagerController accessManager;
+    private String token;
+    private Context protectedRequest;
+    private Context publicRequest;
+    private String passwordHash;
+    private long handled;
+
+    @Setup
+    public void setup() throws Exception {
+        tokenFactory = TokenFactory.getInstance();
+        accessManager = new AccessManagerController();
+        token = tokenFactory.createToken("benchmark", ROLES);
+        protectedRequest = request("/api/v1/rooms/1", "Bearer " + token);
+        publicRequest = request("/api/v1/hotels", null);
+        // same cost factor as User
+        passwordHash = BCrypt.hashpw("password", BCrypt.gensalt());
+    }
+
+    @Benchmark
+    public String createToken() throws Exception {
+        return tokenFactory.createToken("benchmark", ROLES);
+    }
+
+    @Benchmark
+    public UserDTO verifyToken() throws Exception {
+        return tokenFactory.verifyToken(token);
+    }
+
+    @Benchmark
+    public long accessManagerProtected() throws Exception {
+        accessManager.accessManagerHandler(this::handle, protectedRequest, PROTECTED);
+        return handled;
+    }
+
+    @Benchmark
+    public long accessManagerPublic() throws Exception {
+        accessManager.accessManagerHandler(this::handle, publicRequest, PUBLIC);
+        return handled;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptVerify() {
+        return BCrypt.checkpw("password", passwordHash);
+    }
+
+    private void handle(Context ctx) {
+        handled++;
+    }
+
+    private static Context request(String path, String authorization) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "path" -> path;
+                    case "header" -> args.length == 1 && "Authorization".equals(args[0]) ? authorization : null;
+                    case "attribute" -> args.length == 2 ? attributes.put((String) args[0], args[1]) : attributes.get((String) args[0]);
+                    case "attributeMap" -> attributes;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SecurityBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.benchmark;
+
+import org.example.config.DataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time to first request: from launching a fresh JVM running Main until GET /hotels/search first
+// returns 200, against a Postgres testcontainer with 1000 generated hotels of 100 rooms. Needs Docker.
+// "default" lets the routes build the singletons as they need them, "fast" is boot.fast.
+// Extra JVM flags for the app go in -Dstartup.jvm.args, e.g. -Dstartup.jvm.args=-XX:SharedArchiveFile=target/app.jsa
+// (CDS only archives classes from jars, so pair that with -Dstartup.classpath=target/app.jar:target/lib/*).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final int HOTELS = 1_000;
+    private static final int ROOMS_PER_HOTEL = 100;
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    @Param({"default", "fast"})
+    public String mode;
+
+    private PostgreSQLContainer<?> postgres;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Process app;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:15.3-alpine3.18");
+        postgres.start();
+
+        // a default boot migrates the schema, then the generator fills it
+        launch(false);
+        awaitFirstRequest();
+        stop();
+        new DataGenerator(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(),
+                new DataGenerator.Settings(HOTELS, ROOMS_PER_HOTEL, 100, 2, 42, 4)).generate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        postgres.stop();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (app == null) return;
+        app.destroy();
+        if (!app.waitFor(10, TimeUnit.SECONDS)) app.destroyForcibly().waitFor();
+        app = null;
+    }
+
+    @Benchmark
+    public long timeToFirstRequest() throws Exception {
+        long start = System.nanoTime();
+        launch(mode.equals("fast"));
+        awaitFirstRequest();
+        return System.nanoTime() - start;
+    }
+
+    private void launch(boolean fast) throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        // jdbc:postgresql://host:port/db?params -> connection string and database name as HibernateConfig joins them
+        String url = postgres.getJdbcUrl();
+        String base = url.substring(0, url.indexOf('/', "jdbc:postgresql://".length()) + 1);
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        String jvmArgs = System.getProperty("startup.jvm.args", "");
+        if (!jvmArgs.isBlank()) command.addAll(List.of(jvmArgs.trim().split("\\s+")));
+        command.add("-Djavalin.port=" + port);
+        command.add("-Ddb.connection.string=" + base);
+        command.add("-Ddb.name=" + postgres.getDatabaseName());
+        command.add("-Ddb.username=" + postgres.getUsername());
+        command.add("-Ddb.password=" + postgres.getPassword());
+        command.add("-Dboot.fast=" + fast);
+        command.add("-cp");
+        command.add(System.getProperty("startup.classpath", System.getProperty("java.class.path")));
+        command.add("org.example.Main");
+
+        app = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private void awaitFirstRequest() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/hotels/search?q=hotel")).build();
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) throw new IllegalStateException("The app exited with " + app.exitValue());
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("The app did not answer within two minutes");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StartupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
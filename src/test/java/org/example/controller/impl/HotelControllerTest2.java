@@ -142,6 +142,23 @@ class HotelControllerTest2
                 .body("id", equalTo(h1.getId()));
     }
 
+    @Test
+    void overviewLeavesOutStatsForUsers()
+    {
+        // price stats are for admins and managers only, as on /stats
+        given()
+                .header("Authorization", userToken)
+                .contentType("application/json")
+                .when()
+                .get(BASE_URL + "/hotels/" + h1.getId() + "/overview")
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.OK_200)
+                .body("hotel.id", equalTo(h1.getId()))
+                .body("stats", nullValue())
+                .body("missing", not(hasItem("stats")));
+    }
+
     @Test
     void readAll()
     {
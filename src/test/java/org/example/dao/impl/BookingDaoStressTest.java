@@ -0,0 +1,152 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.availability.AvailabilityIndex;
+import org.example.config.HibernateConfig;
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Many threads booking the same rooms must never produce overlapping stays. That bookings of
+// different rooms do not wait on each other is measured by BookingBenchmark.
+class BookingDaoStressTest
+{
+    private static EntityManagerFactory emfTest;
+    private static BookingDao bookingDao;
+    private static HotelDao hotelDao;
+    private static AvailabilityIndex availability;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        HibernateConfig.setTest(true);
+        emfTest = HibernateConfig.getEntityManagerFactory();
+        bookingDao = BookingDao.getInstance(emfTest);
+        hotelDao = HotelDao.getInstance(emfTest);
+        availability = AvailabilityIndex.getInstance(emfTest);
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        deleteAll();
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        deleteAll();
+        HibernateConfig.setTest(false);
+    }
+
+    @Test
+    void noDoubleBookingUnderContention() throws Exception
+    {
+        List<Integer> roomIds = createRooms("Contended", 4);
+        int threads = 16;
+        int attemptsPerThread = 100;
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        runConcurrently(threads, thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < attemptsPerThread; i++) {
+                int roomId = roomIds.get(random.nextInt(roomIds.size()));
+                LocalDate checkIn = today.plusDays(random.nextInt(60));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                try {
+                    bookingDao.book(roomId, new Booking(null, checkIn, checkOut, "guest-" + thread));
+                    booked.incrementAndGet();
+                } catch (ApiException e) {
+                    assertSame(ApiException.BOOKING_CONFLICT, e);
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(threads * attemptsPerThread, booked.get() + conflicts.get());
+        assertTrue(conflicts.get() > 0, "the rooms were expected to be contended");
+
+        try (var em = emfTest.createEntityManager())
+        {
+            long stored = em.createQuery("SELECT count(b) FROM Booking b", Long.class).getSingleResult();
+            long overlapping = em.createQuery("SELECT count(a) FROM Booking a, Booking b WHERE a.room = b.room " +
+                    "AND a.id < b.id AND a.checkIn < b.checkOut AND b.checkIn < a.checkOut", Long.class).getSingleResult();
+            assertEquals(booked.get(), stored);
+            assertEquals(0, overlapping);
+        }
+
+        // the in-memory index saw every committed booking
+        for (int roomId : roomIds) {
+            for (Booking booking : bookingDao.readAllByRoom(roomId)) {
+                assertFalse(availability.isAvailable(roomId, booking.getCheckIn(), booking.getCheckOut()));
+            }
+        }
+    }
+
+    private List<Integer> createRooms(String hotelName, int count)
+    {
+        Hotel hotel = new Hotel(hotelName, "Stress street", Hotel.HotelType.STANDARD);
+        for (int i = 0; i < count; i++) {
+            hotel.addRoom(new Room(100 + i, new BigDecimal(1000), Room.RoomType.SINGLE, 20.0));
+        }
+        hotelDao.create(hotel);
+        List<Integer> roomIds = new ArrayList<>();
+        hotel.getRooms().forEach(room -> roomIds.add(room.getRoomId()));
+        return roomIds;
+    }
+
+    private interface Task
+    {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(int threads, Task task) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void deleteAll()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Booking b").executeUpdate();
+            em.createQuery("DELETE FROM Room r").executeUpdate();
+            em.createQuery("DELETE FROM Hotel h").executeUpdate();
+            em.getTransaction().commit();
+        }
+    }
+}
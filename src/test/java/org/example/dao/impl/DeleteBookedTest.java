@@ -0,0 +1,94 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Rooms and hotels with bookings cannot be deleted: the foreign key refuses it, the exception handler
+// turns the violation into 409, and nothing is gone afterwards.
+class DeleteBookedTest
+{
+    private static EntityManagerFactory emfTest;
+    private static BookingDao bookingDao;
+    private static HotelDao hotelDao;
+    private static RoomDao roomDao;
+
+    private Hotel hotel;
+    private Room booked;
+    private Room free;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        HibernateConfig.setTest(true);
+        emfTest = HibernateConfig.getEntityManagerFactory();
+        bookingDao = BookingDao.getInstance(emfTest);
+        hotelDao = HotelDao.getInstance(emfTest);
+        roomDao = RoomDao.getInstance(emfTest);
+    }
+
+    @BeforeEach
+    void setUp() throws ApiException
+    {
+        deleteAll();
+        hotel = new Hotel("Booked", "Booking street", Hotel.HotelType.STANDARD);
+        booked = new Room(101, new BigDecimal(1000), Room.RoomType.SINGLE, 20.0);
+        free = new Room(102, new BigDecimal(1000), Room.RoomType.SINGLE, 20.0);
+        hotel.addRoom(booked);
+        hotel.addRoom(free);
+        hotelDao.create(hotel);
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        bookingDao.book(booked.getRoomId(), new Booking(null, checkIn, checkIn.plusDays(2), "Marion"));
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        deleteAll();
+        HibernateConfig.setTest(false);
+    }
+
+    @Test
+    void bookedRoomIsKept()
+    {
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class, () -> roomDao.delete(booked.getRoomId()));
+        assertEquals("23503", e.getSQLState());
+        assertNotNull(roomDao.read(booked.getRoomId()));
+    }
+
+    @Test
+    void hotelWithABookedRoomIsKept()
+    {
+        assertThrows(ConstraintViolationException.class, () -> hotelDao.delete(hotel.getId()));
+        assertEquals(2, hotelDao.read(hotel.getId()).getRooms().size());
+    }
+
+    @Test
+    void roomWithoutBookingsIsDeleted()
+    {
+        roomDao.delete(free.getRoomId());
+        assertNull(roomDao.read(free.getRoomId()));
+    }
+
+    private static void deleteAll()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Booking b").executeUpdate();
+            em.createQuery("DELETE FROM Room r").executeUpdate();
+            em.createQuery("DELETE FROM Hotel h").executeUpdate();
+            em.getTransaction().commit();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.exception.ApiException;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Conditional updates: a patch naming the version the row has wins and bumps it, one naming an
+// older version is refused and changes nothing.
+class OptimisticLockingTest
+{
+    private static EntityManagerFactory emfTest;
+    private static HotelDao hotelDao;
+    private static RoomDao roomDao;
+
+    private Hotel hotel;
+    private Room room;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        HibernateConfig.setTest(true);
+        emfTest = HibernateConfig.getEntityManagerFactory();
+        hotelDao = HotelDao.getInstance(emfTest);
+        roomDao = RoomDao.getInstance(emfTest);
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        deleteAll();
+        hotel = new Hotel("Versioned", "Version street", Hotel.HotelType.STANDARD);
+        room = new Room(101, new BigDecimal(1000), Room.RoomType.SINGLE, 20.0);
+        hotel.addRoom(room);
+        hotelDao.create(hotel);
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        deleteAll();
+        HibernateConfig.setTest(false);
+    }
+
+    @Test
+    void patchChangesOnlyTheGivenFields() throws ApiException
+    {
+        Room patched = roomDao.patch(room.getRoomId(), 0, new Room(null, new BigDecimal(1500), null, null));
+
+        assertEquals(1, patched.getVersion());
+        assertEquals(0, new BigDecimal(1500).compareTo(patched.getRoomPrice()));
+        assertEquals(101, patched.getRoomNumber());
+        assertEquals(hotel.getId(), patched.getHotel().getId());
+        assertEquals(Hotel.HotelType.STANDARD, patched.getHotel().getHotelType());
+
+        Room read = roomDao.read(room.getRoomId());
+        assertEquals(1, read.getVersion());
+        assertEquals(0, new BigDecimal(1500).compareTo(read.getRoomPrice()));
+        assertEquals(20.0, read.getSquareMeters());
+    }
+
+    @Test
+    void staleVersionIsRefused() throws ApiException
+    {
+        roomDao.patch(room.getRoomId(), 0, new Room(null, new BigDecimal(1500), null, null));
+
+        ApiException e = assertThrows(ApiException.class,
+                () -> roomDao.patch(room.getRoomId(), 0, new Room(null, new BigDecimal(900), null, null)));
+        assertEquals(409, e.getStatusCode());
+        assertEquals(0, new BigDecimal(1500).compareTo(roomDao.read(room.getRoomId()).getRoomPrice()));
+    }
+
+    @Test
+    void missingRowIsNotFound()
+    {
+        ApiException e = assertThrows(ApiException.class,
+                () -> hotelDao.patch(hotel.getId() + 1000, 0, new Hotel("Nowhere", null, null)));
+        assertEquals(404, e.getStatusCode());
+    }
+
+    @Test
+    void putBumpsTheVersionAPatchHasToName() throws ApiException
+    {
+        Hotel update = new Hotel("Versioned", "Other street", Hotel.HotelType.STANDARD);
+        assertEquals(1, hotelDao.update(hotel.getId(), update).getVersion());
+
+        ApiException e = assertThrows(ApiException.class,
+                () -> hotelDao.patch(hotel.getId(), 0, new Hotel(null, null, Hotel.HotelType.LUXURY)));
+        assertEquals(409, e.getStatusCode());
+
+        Hotel patched = hotelDao.patch(hotel.getId(), 1, new Hotel(null, null, Hotel.HotelType.LUXURY));
+        assertEquals(2, patched.getVersion());
+        assertEquals("Other street", patched.getHotelAddress());
+        assertEquals(Hotel.HotelType.LUXURY, hotelDao.read(hotel.getId()).getHotelType());
+    }
+
+    @Test
+    void concurrentPatchesOfOneVersionHaveOneWinner() throws Exception
+    {
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < writers; i++)
+        {
+            BigDecimal price = new BigDecimal(2000 + i);
+            results.add(executor.submit(() -> {
+                start.await();
+                try
+                {
+                    roomDao.patch(room.getRoomId(), 0, new Room(null, price, null, null));
+                    return 200;
+                } catch (ApiException e)
+                {
+                    return e.getStatusCode();
+                }
+            }));
+        }
+        start.countDown();
+
+        int won = 0;
+        for (Future<Integer> result : results)
+        {
+            int status = result.get();
+            if (status == 200) won++;
+            else assertEquals(409, status);
+        }
+        executor.shutdown();
+        assertEquals(1, won);
+        assertEquals(1, roomDao.read(room.getRoomId()).getVersion());
+    }
+
+    private static void deleteAll()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Booking b").executeUpdate();
+            em.createQuery("DELETE FROM Room r").executeUpdate();
+            em.createQuery("DELETE FROM Hotel h").executeUpdate();
+            em.getTransaction().commit();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.sql.SqlMonitor;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the DAO queries against the migrated schema with 1000 hotels of 100 rooms and 20k bookings,
+// captures the SQL Hibernate sends and EXPLAINs it. A sequential scan of one of the big tables means
+// an index is missing or no longer matches the query.
+class QueryPlanTest
+{
+    private static final int HOTELS = 1_000;
+    private static final int ROOMS_PER_HOTEL = 100;
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (room|hotel|booking)\\b");
+
+    private static EntityManagerFactory emfTest;
+    private static HotelDao hotelDao;
+    private static RoomDao roomDao;
+    private static BookingDao bookingDao;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        HibernateConfig.setTest(true);
+        emfTest = HibernateConfig.getEntityManagerFactory();
+        hotelDao = HotelDao.getInstance(emfTest);
+        roomDao = RoomDao.getInstance(emfTest);
+        bookingDao = BookingDao.getInstance(emfTest);
+
+        deleteAll();
+        try (var em = emfTest.createEntityManager())
+        {
+            em.getTransaction().begin();
+            em.createNativeQuery("INSERT INTO hotel (hotel_name, hotel_address, hotel_type) " +
+                    "SELECT 'Plan Hotel ' || i, 'Street ' || i, (ARRAY['BUDGET','STANDARD','LUXURY'])[1 + i % 3] " +
+                    "FROM generate_series(1, " + HOTELS + ") i").executeUpdate();
+            em.createNativeQuery("INSERT INTO room (room_number, price, room_type, hotel_id) " +
+                    "SELECT n, 500 + (h.hotel_id * 7 + n * 13) % 4500, (ARRAY['SINGLE','DOUBLE','SUITE'])[1 + n % 3], h.hotel_id " +
+                    "FROM hotel h, generate_series(1, " + ROOMS_PER_HOTEL + ") n").executeUpdate();
+            em.createNativeQuery("INSERT INTO booking (room_id, check_in, check_out, guest_name) " +
+                    "SELECT r.room_id, current_date + (r.room_id % 300), current_date + (r.room_id % 300) + 3, 'Guest' " +
+                    "FROM room r WHERE r.room_id % 5 = 0").executeUpdate();
+            em.getTransaction().commit();
+        }
+        // fresh statistics, as autovacuum would have them on a live database
+        try (var em = emfTest.createEntityManager())
+        {
+            em.unwrap(Session.class).doWork(connection -> {
+                try (Statement statement = connection.createStatement())
+                {
+                    statement.execute("ANALYZE hotel, room, booking");
+                }
+            });
+        }
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        deleteAll();
+        HibernateConfig.setTest(false);
+    }
+
+    @Test
+    void roomsUpToPriceUseIndex()
+    {
+        assertNoSeqScan(() -> roomDao.readAll(505), firstHotelId());
+    }
+
+    @Test
+    void roomsInPriceRangeUseIndex()
+    {
+        assertNoSeqScan(() -> roomDao.readAll(500, 510), firstHotelId());
+    }
+
+    @Test
+    void hotelWithRoomsUsesIndex()
+    {
+        int hotelId = Integer.parseInt(firstHotelId());
+        assertNoSeqScan(() -> hotelDao.read(hotelId), firstHotelId());
+    }
+
+    @Test
+    void roomWithHotelUsesIndex()
+    {
+        int roomId = firstRoomId();
+        assertNoSeqScan(() -> roomDao.read(roomId), String.valueOf(roomId));
+    }
+
+    @Test
+    void bookingsOfRoomUseIndex()
+    {
+        int roomId = firstRoomId();
+        assertNoSeqScan(() -> bookingDao.readAllByRoom(roomId), String.valueOf(roomId));
+    }
+
+    // Runs daoCall, then explains every distinct statement it sent with each ? bound to parameter
+    private static void assertNoSeqScan(Runnable daoCall, String parameter)
+    {
+        SqlMonitor monitor = SqlMonitor.getInstance();
+        monitor.startCapture();
+        List<String> statements;
+        try
+        {
+            daoCall.run();
+        } finally
+        {
+            statements = monitor.stopCapture();
+        }
+        assertFalse(statements.isEmpty(), "No SQL was captured");
+
+        for (String sql : new LinkedHashSet<>(statements))
+        {
+            String plan = explain(sql.replace("?", parameter));
+            assertFalse(SEQ_SCAN.matcher(plan).find(), "Sequential scan for\n" + sql + "\n" + plan);
+        }
+    }
+
+    private static String explain(String sql)
+    {
+        List<String> lines = new ArrayList<>();
+        try (var em = emfTest.createEntityManager())
+        {
+            em.unwrap(Session.class).doWork(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet plan = statement.executeQuery("EXPLAIN " + sql))
+                {
+                    while (plan.next()) lines.add(plan.getString(1));
+                }
+            });
+        }
+        return String.join("\n", lines);
+    }
+
+    private static String firstHotelId()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            return em.createQuery("SELECT min(h.id) FROM Hotel h", Integer.class).getSingleResult().toString();
+        }
+    }
+
+    private static int firstRoomId()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            return em.createQuery("SELECT min(r.roomId) FROM Room r WHERE mod(r.roomId, 5) = 0", Integer.class).getSingleResult();
+        }
+    }
+
+    private static void deleteAll()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Booking b").executeUpdate();
+            em.createQuery("DELETE FROM Room r").executeUpdate();
+            em.createQuery("DELETE FROM Hotel h").executeUpdate();
+            em.getTransaction().commit();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.availability.Hold;
+import org.example.config.HibernateConfig;
+import org.example.exception.ApiException;
+import org.example.model.Booking;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Holds in the database: a booking made anywhere, not only through the node that placed the hold,
+// is refused for held nights until the hold is confirmed, released or expired.
+class RoomHoldTest
+{
+    private static EntityManagerFactory emfTest;
+    private static BookingDao bookingDao;
+    private static HotelDao hotelDao;
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(10);
+    private final LocalDate checkOut = checkIn.plusDays(3);
+    private int roomId;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        HibernateConfig.setTest(true);
+        emfTest = HibernateConfig.getEntityManagerFactory();
+        bookingDao = BookingDao.getInstance(emfTest);
+        hotelDao = HotelDao.getInstance(emfTest);
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        deleteAll();
+        Hotel hotel = new Hotel("Held", "Hold street", Hotel.HotelType.STANDARD);
+        Room room = new Room(101, new BigDecimal(1000), Room.RoomType.SINGLE, 20.0);
+        hotel.addRoom(room);
+        hotelDao.create(hotel);
+        roomId = room.getRoomId();
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        deleteAll();
+        HibernateConfig.setTest(false);
+    }
+
+    @Test
+    void liveHoldRefusesOverlappingBookingsAndHolds() throws ApiException
+    {
+        bookingDao.placeHold(roomId, checkIn, checkOut, "marion", 600);
+
+        assertSame(ApiException.HOLD_CONFLICT, assertThrows(ApiException.class,
+                () -> bookingDao.book(roomId, new Booking(null, checkIn.plusDays(2), checkOut.plusDays(2), "Norman"))));
+        assertSame(ApiException.HOLD_CONFLICT, assertThrows(ApiException.class,
+                () -> bookingDao.placeHold(roomId, checkIn.minusDays(1), checkIn.plusDays(1), "norman", 600)));
+        // the nights around it are free
+        assertNotNull(bookingDao.book(roomId, new Booking(null, checkOut, checkOut.plusDays(1), "Norman")).getId());
+    }
+
+    @Test
+    void confirmingBooksTheHeldNights() throws ApiException
+    {
+        Hold hold = bookingDao.placeHold(roomId, checkIn, checkOut, "marion", 600);
+        assertTrue(hold.expiresAt() > System.currentTimeMillis());
+
+        Booking booking = bookingDao.book(roomId, new Booking(null, checkIn, checkOut, "Marion"), hold.id());
+        assertNotNull(booking.getId());
+        assertSame(ApiException.BOOKING_CONFLICT, assertThrows(ApiException.class,
+                () -> bookingDao.book(roomId, new Booking(null, checkIn, checkOut, "Norman"))));
+    }
+
+    @Test
+    void holdIsReadAndConfirmedOnceFromTheDatabase() throws ApiException
+    {
+        Hold hold = bookingDao.placeHold(roomId, checkIn, checkOut, "marion", 600);
+
+        // what another node sees of it
+        Hold read = bookingDao.readHold(hold.id());
+        assertEquals(hold.roomId(), read.roomId());
+        assertEquals(checkIn, read.checkIn());
+        assertEquals(checkOut, read.checkOut());
+        assertEquals("marion", read.owner());
+
+        assertNotNull(bookingDao.book(roomId, new Booking(null, checkIn, checkOut, "Marion"), hold.id()).getId());
+        assertNull(bookingDao.readHold(hold.id()));
+        assertSame(ApiException.NOT_FOUND, assertThrows(ApiException.class,
+                () -> bookingDao.book(roomId, new Booking(null, checkOut, checkOut.plusDays(1), "Marion"), hold.id())));
+        assertFalse(bookingDao.removeHold(hold.id()));
+    }
+
+    @Test
+    void expiredHoldCannotBeConfirmed() throws Exception
+    {
+        Hold hold = bookingDao.placeHold(roomId, checkIn, checkOut, "marion", 1);
+
+        Thread.sleep(1_100);
+        assertNull(bookingDao.readHold(hold.id()));
+        assertSame(ApiException.NOT_FOUND, assertThrows(ApiException.class,
+                () -> bookingDao.book(roomId, new Booking(null, checkIn, checkOut, "Marion"), hold.id())));
+        assertFalse(bookingDao.removeHold(hold.id()));
+    }
+
+    @Test
+    void releasedAndExpiredHoldsDoNotCount() throws Exception
+    {
+        Hold released = bookingDao.placeHold(roomId, checkIn, checkOut, "marion", 600);
+        assertTrue(bookingDao.removeHold(released.id()));
+        bookingDao.placeHold(roomId, checkIn, checkOut, "norman", 1);
+
+        Thread.sleep(1_100);
+        assertNotNull(bookingDao.book(roomId, new Booking(null, checkIn, checkOut, "Lila")).getId());
+    }
+
+    @Test
+    void missingRoomIsNotFound()
+    {
+        assertSame(ApiException.NOT_FOUND, assertThrows(ApiException.class,
+                () -> bookingDao.placeHold(roomId + 1000, checkIn, checkOut, "marion", 600)));
+    }
+
+    private static void deleteAll()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM room_hold").executeUpdate();
+            em.createQuery("DELETE FROM Booking b").executeUpdate();
+            em.createQuery("DELETE FROM Room r").executeUpdate();
+            em.createQuery("DELETE FROM Hotel h").executeUpdate();
+            em.getTransaction().commit();
+        }
+    }
+}
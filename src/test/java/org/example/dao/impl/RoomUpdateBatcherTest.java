@@ -0,0 +1,159 @@
+package org.example.dao.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Concurrent updates through a batcher with a wide window: they share transactions, yet every
+// caller gets its own room back and a failing update fails only its own caller.
+class RoomUpdateBatcherTest
+{
+    private static final int ROOMS = 16;
+
+    private static EntityManagerFactory emfTest;
+    private static HotelDao hotelDao;
+    private static RoomDao roomDao;
+
+    private RoomUpdateBatcher batcher;
+    private List<Integer> roomIds;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        HibernateConfig.setTest(true);
+        emfTest = HibernateConfig.getEntityManagerFactory();
+        hotelDao = HotelDao.getInstance(emfTest);
+        roomDao = RoomDao.getInstance(emfTest);
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        batcher = new RoomUpdateBatcher(emfTest, roomDao, 20, 64);
+        deleteAll();
+        Hotel hotel = new Hotel("Batched", "Batch street", Hotel.HotelType.STANDARD);
+        for (int i = 0; i < ROOMS; i++)
+        {
+            hotel.addRoom(new Room(100 + i, new BigDecimal(1000), Room.RoomType.SINGLE, 20.0));
+        }
+        hotelDao.create(hotel);
+        roomIds = new ArrayList<>();
+        hotel.getRooms().forEach(room -> roomIds.add(room.getRoomId()));
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        deleteAll();
+        HibernateConfig.setTest(false);
+    }
+
+    @Test
+    void concurrentUpdatesShareACommit() throws Exception
+    {
+        List<CompletableFuture<Room>> results = updateConcurrently(i -> new BigDecimal(2000 + i));
+
+        for (int i = 0; i < ROOMS; i++)
+        {
+            Room room = results.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(roomIds.get(i), room.getRoomId());
+            assertEquals(0, new BigDecimal(2000 + i).compareTo(room.getRoomPrice()));
+            assertEquals(0, new BigDecimal(2000 + i).compareTo(roomDao.read(roomIds.get(i)).getRoomPrice()));
+        }
+        // 16 updates released together within a 20 ms window, a few commits at most
+        assertEquals(ROOMS, batcher.getBatchedUpdates());
+        assertTrue(batcher.getBatches() <= 4, batcher.getBatches() + " commits for " + ROOMS + " updates");
+    }
+
+    @Test
+    void failingUpdateFailsOnlyItsCaller() throws Exception
+    {
+        // numeric(38, 2) cannot hold it, Postgres rejects the statement and with it the batch
+        BigDecimal tooLarge = new BigDecimal("1e40");
+        List<CompletableFuture<Room>> results = updateConcurrently(i -> i == 3 ? tooLarge : new BigDecimal(3000 + i));
+
+        for (int i = 0; i < ROOMS; i++)
+        {
+            CompletableFuture<Room> result = results.get(i);
+            if (i == 3)
+            {
+                assertThrows(Exception.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertEquals(0, new BigDecimal(1000).compareTo(roomDao.read(roomIds.get(i)).getRoomPrice()));
+            } else
+            {
+                assertEquals(0, new BigDecimal(3000 + i).compareTo(result.get(10, TimeUnit.SECONDS).getRoomPrice()));
+            }
+        }
+    }
+
+    @Test
+    void secondUpdateOfARoomSeesItsOwnWrite() throws Exception
+    {
+        int roomId = roomIds.get(0);
+        CompletableFuture<Room> first = CompletableFuture.supplyAsync(() -> batcher.update(roomId, room(100, new BigDecimal(4000))));
+        CompletableFuture<Room> second = CompletableFuture.supplyAsync(() -> batcher.update(roomId, room(100, new BigDecimal(5000))));
+
+        BigDecimal firstPrice = first.get(10, TimeUnit.SECONDS).getRoomPrice();
+        BigDecimal secondPrice = second.get(10, TimeUnit.SECONDS).getRoomPrice();
+        assertNotEquals(0, firstPrice.compareTo(secondPrice));
+    }
+
+    private interface Price
+    {
+        BigDecimal of(int i);
+    }
+
+    private List<CompletableFuture<Room>> updateConcurrently(Price price) throws InterruptedException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(ROOMS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Room>> results = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++)
+        {
+            int index = i;
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    start.await();
+                } catch (InterruptedException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+                return batcher.update(roomIds.get(index), room(100 + index, price.of(index)));
+            }, executor));
+        }
+        start.countDown();
+        executor.shutdown();
+        return results;
+    }
+
+    private static Room room(int roomNumber, BigDecimal price)
+    {
+        return new Room(roomNumber, price, Room.RoomType.SINGLE, 20.0);
+    }
+
+    private static void deleteAll()
+    {
+        try (var em = emfTest.createEntityManager())
+        {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Booking b").executeUpdate();
+            em.createQuery("DELETE FROM Room r").executeUpdate();
+            em.createQuery("DELETE FROM Hotel h").executeUpdate();
+            em.getTransaction().commit();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoIndexTest
+{
+    private final GeoIndex index = new GeoIndex();
+
+    private void assertSortedByCell(GeoIndex.Cells cells)
+    {
+        for (int i = 1; i < cells.size(); i++) {
+            int previous = GeoIndex.row(cells.latitude(i - 1)) * GeoIndex.COLUMNS + GeoIndex.column(cells.longitude(i - 1));
+            int current = GeoIndex.row(cells.latitude(i)) * GeoIndex.COLUMNS + GeoIndex.column(cells.longitude(i));
+            assertTrue(previous <= current, "Out of order at " + i);
+        }
+    }
+
+    @Test
+    void putMovesTheHotelToItsNewCell()
+    {
+        index.put(1, "Copenhagen", 55.68, 12.57);
+        index.put(2, "Aarhus", 56.16, 10.20);
+        index.put(3, "Odense", 55.40, 10.39);
+
+        index.put(1, "Copenhagen", 57.05, 9.92);
+
+        GeoIndex.Cells cells = index.snapshot();
+        assertEquals(3, cells.size());
+        assertSortedByCell(cells);
+        GeoIndex.Hits hits = index.within(57.05, 9.92, 1, 10);
+        assertEquals(1, hits.size());
+        assertEquals(1, hits.hotelId(0));
+        assertEquals(0, index.within(55.68, 12.57, 1, 10).size());
+    }
+
+    @Test
+    void putWithoutCoordinatesDropsTheHotel()
+    {
+        index.put(1, "Copenhagen", 55.68, 12.57);
+        index.put(2, "Aarhus", 56.16, 10.20);
+
+        index.put(1, "Copenhagen", null, null);
+
+        GeoIndex.Cells cells = index.snapshot();
+        assertEquals(1, cells.size());
+        assertEquals(2, cells.hotelId(0));
+    }
+
+    @Test
+    void removingAnUnknownHotelKeepsTheGeneration()
+    {
+        index.put(1, "Copenhagen", 55.68, 12.57);
+        GeoIndex.Cells before = index.snapshot();
+
+        index.remove(42);
+        index.put(43, "Nowhere", null, null);
+
+        assertSame(before, index.snapshot());
+    }
+
+    @Test
+    void nearestFindsTheClosestHotels()
+    {
+        index.put(1, "Copenhagen", 55.68, 12.57);
+        index.put(2, "Aarhus", 56.16, 10.20);
+        index.put(3, "Odense", 55.40, 10.39);
+        index.remove(3);
+
+        GeoIndex.Hits hits = index.nearest(55.40, 10.39, 1);
+        assertEquals(1, hits.size());
+        assertEquals(2, hits.hotelId(0));
+    }
+}
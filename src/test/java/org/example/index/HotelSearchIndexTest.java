@@ -0,0 +1,98 @@
+package org.example.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelSearchIndexTest
+{
+    private HotelSearchIndex index;
+
+    @BeforeEach
+    void setUp()
+    {
+        index = new HotelSearchIndex();
+        index.put(1, "Hotel Copenhagen Strand", "Havnegade 37, København");
+        index.put(2, "Cab-inn City", "Mitchellsgade 14, København");
+        index.put(3, "Scandic Aarhus City", "Østergade 10, Aarhus");
+        index.put(4, "Hotel Odense", "Østre Stationsvej 31, Odense");
+    }
+
+    private static List<Integer> ids(List<HotelSearchIndex.SearchHit> hits)
+    {
+        return hits.stream().map(HotelSearchIndex.SearchHit::hotelId).toList();
+    }
+
+    @Test
+    void exactWordsMatchNamesAndAddresses()
+    {
+        assertEquals(List.of(3), ids(index.search("aarhus", 10)));
+        assertEquals(List.of(1, 2), ids(index.search("kobenhavn", 10)));
+    }
+
+    @Test
+    void lastWordMatchesAsAPrefix()
+    {
+        assertEquals(List.of(1), ids(index.search("copen", 10)));
+        // only the last word is expanded, an earlier "copen" matches nothing and is left out
+        assertEquals(List.of(1), ids(index.search("copen strand", 10)));
+    }
+
+    @Test
+    void typosMatchBySharedTrigrams()
+    {
+        List<HotelSearchIndex.SearchHit> hits = index.search("odenze", 10);
+        assertEquals(List.of(4), ids(hits));
+        assertTrue(hits.get(0).score() < index.search("odense", 10).get(0).score());
+    }
+
+    @Test
+    void allWordsMustMatch()
+    {
+        assertEquals(List.of(3), ids(index.search("city aarhus", 10)));
+        assertEquals(List.of(), ids(index.search("city odense", 10)));
+    }
+
+    @Test
+    void lastWordIsStillAPrefixPastEightWords()
+    {
+        // nine words: the eighth is dropped, the ninth is kept and expanded as a prefix
+        List<HotelSearchIndex.SearchHit> hits = index.search("hotel hotel hotel hotel hotel hotel hotel hotel copen", 10);
+        assertEquals(List.of(1), ids(hits));
+    }
+
+    @Test
+    void deletedHotelsAreNotFound()
+    {
+        index.remove(3);
+
+        assertEquals(List.of(), ids(index.search("aarhus", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void updatedHotelsAreFoundByTheirNewTextOnly()
+    {
+        index.put(4, "Hotel Svendborg", "Havnepladsen 1, Svendborg");
+
+        assertEquals(List.of(), ids(index.search("odense", 10)));
+        List<HotelSearchIndex.SearchHit> hits = index.search("svendborg", 10);
+        assertEquals(List.of(4), ids(hits));
+        assertEquals("Hotel Svendborg", hits.get(0).hotelName());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void broadQueriesStillWorkAfterTheScratchBuffersAreTrimmed()
+    {
+        for (int i = 100; i < 10_100; i++) {
+            index.put(i, "Budget Hotel " + i, "Vesterbrogade " + i);
+        }
+
+        assertEquals(10, index.search("hotel", 10).size());
+        assertEquals(List.of(3), ids(index.search("aarhus", 10)));
+    }
+}
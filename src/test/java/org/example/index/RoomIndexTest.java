@@ -0,0 +1,114 @@
+package org.example.index;
+
+import org.example.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomIndexTest
+{
+    private final RoomIndex index = new RoomIndex();
+
+    private static Room room(int roomId, int number, String price)
+    {
+        return new Room(roomId, number, new BigDecimal(price), Room.RoomType.SINGLE, 20.0, null, 0);
+    }
+
+    private void assertSortedByPrice(RoomIndex.Columns columns)
+    {
+        for (int i = 1; i < columns.size(); i++) {
+            assertTrue(columns.priceCents(i - 1) <= columns.priceCents(i), "Out of order at " + i);
+        }
+    }
+
+    private static int positionOf(RoomIndex.Columns columns, int roomId)
+    {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.roomId(i) == roomId) return i;
+        }
+        return -1;
+    }
+
+    @Test
+    void putReplacesTheRoomAndKeepsPriceOrder()
+    {
+        index.put(1, 10, 101, new BigDecimal("300"), 20.0, Room.RoomType.SINGLE);
+        index.put(2, 10, 102, new BigDecimal("100"), 20.0, Room.RoomType.SINGLE);
+        index.put(3, 10, 103, new BigDecimal("200"), 20.0, Room.RoomType.SINGLE);
+        index.put(1, 10, 101, new BigDecimal("50"), 20.0, Room.RoomType.DOUBLE);
+
+        RoomIndex.Columns columns = index.snapshot();
+        assertEquals(3, columns.size());
+        assertSortedByPrice(columns);
+        assertEquals(1, columns.roomId(0));
+        assertEquals(5000, columns.priceCents(0));
+        assertEquals(Room.RoomType.DOUBLE, columns.roomType(0));
+    }
+
+    @Test
+    void equalPricesKeepInsertionOrder()
+    {
+        index.put(1, 10, 101, new BigDecimal("100"), 20.0, Room.RoomType.SINGLE);
+        index.put(2, 10, 102, new BigDecimal("100"), 20.0, Room.RoomType.SINGLE);
+
+        RoomIndex.Columns columns = index.snapshot();
+        assertEquals(1, columns.roomId(0));
+        assertEquals(2, columns.roomId(1));
+    }
+
+    @Test
+    void putHotelReplacesItsRoomsInOneGeneration()
+    {
+        index.put(1, 10, 101, new BigDecimal("300"), 20.0, Room.RoomType.SINGLE);
+        index.put(9, 20, 901, new BigDecimal("150"), 20.0, Room.RoomType.SINGLE);
+
+        index.putHotel(10, List.of(room(1, 101, "100"), room(2, 102, "250"), room(3, 103, "175")));
+
+        RoomIndex.Columns columns = index.snapshot();
+        assertEquals(4, columns.size());
+        assertSortedByPrice(columns);
+        assertEquals(10000, columns.priceCents(positionOf(columns, 1)));
+        assertEquals(10, columns.hotelId(positionOf(columns, 3)));
+        assertEquals(20, columns.hotelId(positionOf(columns, 9)));
+    }
+
+    @Test
+    void removeHotelDropsOnlyItsRooms()
+    {
+        index.putHotel(10, List.of(room(1, 101, "100"), room(2, 102, "250")));
+        index.putHotel(20, List.of(room(3, 301, "175")));
+
+        index.removeHotel(10);
+
+        RoomIndex.Columns columns = index.snapshot();
+        assertEquals(1, columns.size());
+        assertEquals(3, columns.roomId(0));
+    }
+
+    @Test
+    void removingAnUnknownRoomKeepsTheGeneration()
+    {
+        index.put(1, 10, 101, new BigDecimal("100"), 20.0, Room.RoomType.SINGLE);
+        RoomIndex.Columns before = index.snapshot();
+
+        index.remove(42);
+        index.removeHotel(42);
+
+        assertSame(before, index.snapshot());
+    }
+
+    @Test
+    void readersKeepTheirSnapshot()
+    {
+        index.put(1, 10, 101, new BigDecimal("100"), 20.0, Room.RoomType.SINGLE);
+        RoomIndex.Columns before = index.snapshot();
+
+        index.remove(1);
+
+        assertEquals(1, before.size());
+        assertEquals(0, index.snapshot().size());
+    }
+}
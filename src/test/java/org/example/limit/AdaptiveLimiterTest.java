@@ -0,0 +1,139 @@
+package org.example.limit;
+
+import org.example.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The database is simulated: a pool of 20 connections (a fair semaphore, like Hikari's queue) and a
+// query time that the test raises from 5 ms to 50 ms. 200 clients call it in a loop through the
+// limiter, as the request threads of a busy server would.
+class AdaptiveLimiterTest
+{
+    private static final int CONNECTIONS = 20;
+    private static final int CLIENTS = 200;
+
+    @Test
+    void rejectsOverTheLimitWithoutWaiting()
+    {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 2, 2, 1.5, 100);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(1_000_000);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void slowDatabaseIsShedInsteadOfQueued() throws InterruptedException
+    {
+        SlowDatabase database = new SlowDatabase();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 4, 200, 1.5, 100);
+
+        database.queryMillis = 5;
+        run(database, limiter, 2_000);
+        int fastLimit = limiter.getLimit();
+
+        database.queryMillis = 50;
+        run(database, limiter, 3_000);
+        long rejectedBefore = limiter.getRejected();
+        Result slow = run(database, limiter, 2_000);
+
+        // unlimited, 200 clients on 20 connections wait about 10 queries of 50 ms for a connection
+        Result unlimited = run(database, null, 2_000);
+
+        long p99 = slow.latency.snapshot().percentileMicros(99) / 1_000;
+        long unlimitedP99 = unlimited.latency.snapshot().percentileMicros(99) / 1_000;
+        assertTrue(p99 < 200, "p99 " + p99 + " ms with the limiter, " + unlimitedP99 + " ms without");
+        assertTrue(p99 * 2 < unlimitedP99, "p99 " + p99 + " ms with the limiter, " + unlimitedP99 + " ms without");
+        assertTrue(limiter.getRejected() > rejectedBefore, "Nothing rejected");
+        assertTrue(limiter.getLimit() < CLIENTS / 2, "Limit " + limiter.getLimit() + " after the slowdown, " + fastLimit + " before");
+    }
+
+    @Test
+    void limitGrowsBackWhenTheDatabaseRecovers() throws InterruptedException
+    {
+        SlowDatabase database = new SlowDatabase();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 4, 200, 1.5, 100);
+
+        database.queryMillis = 50;
+        run(database, limiter, 3_000);
+        int slowLimit = limiter.getLimit();
+
+        database.queryMillis = 5;
+        // with 20 connections at 5 ms the limit still ends near the pool size, but it must not shrink
+        // and it has to let the clients through
+        Result fast = run(database, limiter, 3_000);
+        assertTrue(limiter.getLimit() >= slowLimit, "Limit " + limiter.getLimit() + " after recovery, " + slowLimit + " while slow");
+        assertTrue(fast.latency.getCount() > 3 * CONNECTIONS * 1_000 / 5 / 2, "Only " + fast.latency.getCount() + " queries");
+    }
+
+    // Each client queries in a loop, a rejected client backs off for a millisecond
+    private static Result run(SlowDatabase database, AdaptiveLimiter limiter, long millis) throws InterruptedException
+    {
+        Result result = new Result();
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        List<Thread> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++)
+        {
+            clients.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < end)
+                {
+                    try
+                    {
+                        if (limiter != null && !limiter.tryAcquire())
+                        {
+                            Thread.sleep(1);
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        try
+                        {
+                            database.query();
+                        } finally
+                        {
+                            long latency = System.nanoTime() - start;
+                            if (limiter != null) limiter.release(latency);
+                            result.latency.recordNanos(latency);
+                        }
+                    } catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Thread client : clients) client.join();
+        return result;
+    }
+
+    private static class Result
+    {
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private static class SlowDatabase
+    {
+        final Semaphore connections = new Semaphore(CONNECTIONS, true);
+        volatile long queryMillis;
+
+        void query() throws InterruptedException
+        {
+            connections.acquire();
+            try
+            {
+                Thread.sleep(queryMillis);
+            } finally
+            {
+                connections.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.limit;
+
+import org.example.limit.PriorityLimiter.ClassSettings;
+import org.example.limit.PriorityLimiter.Priority;
+import org.example.metrics.PrometheusWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityLimiterTest
+{
+    private static final long MILLIS = 1_000_000;
+
+    // With a limit of 10 CRITICAL is guaranteed 3 slots, NORMAL 4, LOW 3
+    private static PriorityLimiter limiter(AdaptiveLimiter adaptive, long normalWaitMillis)
+    {
+        return new PriorityLimiter(adaptive,
+                new ClassSettings(0.3, 4, 1_000),
+                new ClassSettings(0.4, 4, normalWaitMillis),
+                new ClassSettings(0.3, 0, 0));
+    }
+
+    @Test
+    void lowPriorityFloodLeavesTheGuaranteeForCritical() throws InterruptedException
+    {
+        PriorityLimiter limiter = limiter(new AdaptiveLimiter(10, 10, 10, 1.5, 100), 50);
+
+        int low = 0;
+        while (limiter.acquire(Priority.LOW)) low++;
+        assertEquals(10, low, "LOW borrows up to the limit");
+        for (int i = 0; i < 4; i++)
+        {
+            assertTrue(limiter.acquire(Priority.NORMAL), "NORMAL slot " + i);
+        }
+        assertFalse(limiter.acquire(Priority.NORMAL), "NORMAL gets only its guarantee");
+
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(limiter.acquire(Priority.CRITICAL), "CRITICAL slot " + i);
+        }
+        assertEquals(1, limiter.getRejected(Priority.LOW));
+        assertEquals(1, limiter.getRejected(Priority.NORMAL));
+    }
+
+    @Test
+    void lowPriorityIsShedFirstWhenLatencyTargetIsMissed() throws InterruptedException
+    {
+        AdaptiveLimiter adaptive = new AdaptiveLimiter(10, 10, 10, 1.5, 1);
+        PriorityLimiter limiter = limiter(adaptive, 50);
+
+        // a fast window sets the no-load latency, a window five times slower misses the target
+        sampleWindow(adaptive, MILLIS);
+        sampleWindow(adaptive, 5 * MILLIS);
+        assertTrue(adaptive.isCongested());
+
+        int low = 0;
+        while (limiter.acquire(Priority.LOW)) low++;
+        assertEquals(1, low, "LOW keeps half its share and borrows nothing");
+        for (int i = 0; i < 10 - low; i++)
+        {
+            assertTrue(limiter.acquire(Priority.CRITICAL), "CRITICAL may still borrow up to the limit, slot " + i);
+        }
+    }
+
+    @Test
+    void releasedSlotGoesToTheWaitingCriticalRequest() throws Exception
+    {
+        PriorityLimiter limiter = limiter(new AdaptiveLimiter(10, 10, 10, 1.5, 100), 1_000);
+        for (int i = 0; i < 6; i++)
+        {
+            assertTrue(limiter.acquire(Priority.CRITICAL));
+        }
+        for (int i = 0; i < 4; i++)
+        {
+            assertTrue(limiter.acquire(Priority.NORMAL));
+        }
+
+        // both are over their guarantee and the limit is reached, NORMAL started waiting first
+        CompletableFuture<Boolean> normal = CompletableFuture.supplyAsync(() -> acquire(limiter, Priority.NORMAL));
+        Thread.sleep(20);
+        CompletableFuture<Boolean> critical = CompletableFuture.supplyAsync(() -> acquire(limiter, Priority.CRITICAL));
+        Thread.sleep(20);
+        assertFalse(normal.isDone());
+        assertFalse(critical.isDone());
+
+        limiter.release(Priority.CRITICAL, MILLIS);
+        assertTrue(critical.get(1, TimeUnit.SECONDS));
+        assertFalse(normal.isDone(), "NORMAL borrowed ahead of CRITICAL");
+
+        limiter.release(Priority.NORMAL, MILLIS);
+        assertTrue(normal.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void sheddingIsExportedByPriorityAndReason() throws InterruptedException
+    {
+        PriorityLimiter limiter = limiter(new AdaptiveLimiter(10, 10, 10, 1.5, 100), 50);
+        while (limiter.acquire(Priority.LOW)) ;
+        for (int i = 0; i < 4; i++)
+        {
+            assertTrue(limiter.acquire(Priority.NORMAL));
+        }
+        // NORMAL waits out its 50 ms and times out
+        assertFalse(limiter.acquire(Priority.NORMAL));
+
+        PrometheusWriter writer = new PrometheusWriter();
+        limiter.writeTo(writer);
+        String metrics = writer.toString();
+        assertTrue(metrics.contains("limiter_admitted_total{priority=\"low\"} 10"), metrics);
+        assertTrue(metrics.contains("limiter_shed_total{priority=\"low\",reason=\"queue_full\"} 1"), metrics);
+        assertTrue(metrics.contains("limiter_shed_total{priority=\"normal\",reason=\"timeout\"} 1"), metrics);
+        assertTrue(metrics.contains("limiter_queued_total{priority=\"normal\"} 1"), metrics);
+        assertTrue(metrics.contains("limiter_in_flight{priority=\"normal\"} 4"), metrics);
+        assertTrue(metrics.contains("limiter_budget{priority=\"critical\"} 3"), metrics);
+    }
+
+    private static void sampleWindow(AdaptiveLimiter adaptive, long latencyNanos) throws InterruptedException
+    {
+        Thread.sleep(2);
+        adaptive.sample(latencyNanos, 10);
+    }
+
+    private static boolean acquire(PriorityLimiter limiter, Priority priority)
+    {
+        try
+        {
+            return limiter.acquire(priority);
+        } catch (InterruptedException e)
+        {
+            return false;
+        }
+    }
+}
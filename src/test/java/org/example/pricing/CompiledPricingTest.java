@@ -0,0 +1,199 @@
+package org.example.pricing;
+
+import org.example.dto.PricingRuleDto;
+import org.example.model.PricingRule;
+import org.example.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPricingTest
+{
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 5, 1);
+    private static final long BASE = 100_000;
+
+    private static PricingRule rule(int id, int priority, PricingRule.Adjustment adjustment, String amount)
+    {
+        PricingRule rule = new PricingRule("rule " + id, priority, adjustment, new BigDecimal(amount));
+        rule.setId(id);
+        return rule;
+    }
+
+    // summer +20%, weekends +100, 3-4 guests +15%, 5 or more guests a fixed 800 before anything else
+    private static List<PricingRule> overlappingRules()
+    {
+        PricingRule summer = rule(1, 10, PricingRule.Adjustment.PERCENT, "20");
+        summer.setValidFrom(LocalDate.of(2026, 6, 1));
+        summer.setValidTo(LocalDate.of(2026, 9, 1));
+        PricingRule weekend = rule(2, 20, PricingRule.Adjustment.AMOUNT, "100");
+        weekend.setDaysOfWeek("FRIDAY,SATURDAY");
+        PricingRule family = rule(3, 30, PricingRule.Adjustment.PERCENT, "15");
+        family.setMinGuests(3);
+        family.setMaxGuests(4);
+        PricingRule group = rule(4, 5, PricingRule.Adjustment.PRICE, "800");
+        group.setMinGuests(5);
+        return List.of(summer, weekend, family, group);
+    }
+
+    private static long night(CompiledPricing pricing, String date, int guests)
+    {
+        return pricing.nightCents(BASE, Room.RoomType.DOUBLE, LocalDate.parse(date).toEpochDay(), guests);
+    }
+
+    @Test
+    void overlappingDateAndGuestRulesApplyInPriorityOrder()
+    {
+        CompiledPricing pricing = CompiledPricing.compile(1, overlappingRules(), ORIGIN, 365);
+
+        assertEquals(100_000, night(pricing, "2026-05-05", 2));
+        assertEquals(110_000, night(pricing, "2026-05-08", 2));
+        assertEquals(120_000, night(pricing, "2026-07-01", 2));
+        assertEquals(130_000, night(pricing, "2026-07-03", 2));
+        assertEquals(149_500, night(pricing, "2026-07-03", 3));
+        // the fixed group price comes first, then summer and weekend apply to it
+        assertEquals(106_000, night(pricing, "2026-07-03", 6));
+        // validTo is the first night the rule no longer applies to
+        assertEquals(100_000, night(pricing, "2026-09-01", 2));
+    }
+
+    @Test
+    void stayIsTheSumOfItsNights()
+    {
+        CompiledPricing pricing = CompiledPricing.compile(1, overlappingRules(), ORIGIN, 365);
+
+        long stay = pricing.stayCents(BASE, Room.RoomType.DOUBLE, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 5), 2);
+        assertEquals(120_000 + 120_000 + 130_000 + 130_000, stay);
+    }
+
+    @Test
+    void ruleOrderInTheListDoesNotMatter()
+    {
+        List<PricingRule> reversed = new ArrayList<>(overlappingRules());
+        Collections.reverse(reversed);
+        CompiledPricing pricing = CompiledPricing.compile(1, reversed, ORIGIN, 365);
+
+        assertEquals(106_000, night(pricing, "2026-07-03", 6));
+        assertEquals(149_500, night(pricing, "2026-07-03", 3));
+    }
+
+    @Test
+    void nightsPastTheTableArePricedTheSame()
+    {
+        CompiledPricing table = CompiledPricing.compile(1, overlappingRules(), ORIGIN, 365);
+        CompiledPricing shortTable = CompiledPricing.compile(1, overlappingRules(), ORIGIN, 30);
+
+        for (String date : List.of("2026-07-01", "2026-07-03", "2026-09-01", "2027-07-03")) {
+            for (int guests = 1; guests <= CompiledPricing.MAX_GUESTS; guests++) {
+                assertEquals(night(table, date, guests), night(shortTable, date, guests), date + " " + guests);
+            }
+        }
+        LocalDate from = LocalDate.of(2026, 5, 20);
+        LocalDate to = LocalDate.of(2026, 6, 20);
+        assertEquals(table.stayCents(BASE, Room.RoomType.DOUBLE, from, to, 4),
+                shortTable.stayCents(BASE, Room.RoomType.DOUBLE, from, to, 4));
+    }
+
+    @Test
+    void compiledPricesMatchEvaluatingTheRulesOneByOne()
+    {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            List<PricingRule> rules = randomRules(random, 1 + random.nextInt(8));
+            CompiledPricing pricing = CompiledPricing.compile(round, rules, ORIGIN, 120);
+            for (int n = 0; n < 500; n++) {
+                long base = 10_000 + random.nextInt(500_000);
+                Room.RoomType type = Room.RoomType.values()[random.nextInt(Room.RoomType.values().length)];
+                LocalDate night = ORIGIN.plusDays(random.nextInt(200) - 20);
+                int guests = 1 + random.nextInt(CompiledPricing.MAX_GUESTS);
+
+                long expected = reference(rules, base, type, night, guests);
+                long actual = pricing.nightCents(base, type, night.toEpochDay(), guests);
+                // the table folds the rules into one factor and addend, which may round differently by a cent
+                assertTrue(Math.abs(expected - actual) <= 1,
+                        "Expected " + expected + " but was " + actual + " for " + type + " " + night + " " + guests);
+            }
+        }
+    }
+
+    @Test
+    void rulesWithMoreMinimumThanMaximumGuestsAreRejected()
+    {
+        PricingRule rule = rule(1, 10, PricingRule.Adjustment.PERCENT, "10");
+        rule.setMinGuests(4);
+        rule.setMaxGuests(2);
+        assertFalse(new PricingRuleDto(rule).isValid());
+
+        rule.setMaxGuests(4);
+        assertTrue(new PricingRuleDto(rule).isValid());
+    }
+
+    private static List<PricingRule> randomRules(Random random, int count)
+    {
+        List<PricingRule> rules = new ArrayList<>();
+        PricingRule.Adjustment[] adjustments = PricingRule.Adjustment.values();
+        for (int id = 1; id <= count; id++) {
+            PricingRule.Adjustment adjustment = adjustments[random.nextInt(adjustments.length)];
+            String amount = switch (adjustment) {
+                case PERCENT -> String.valueOf(random.nextInt(61) - 30);
+                case AMOUNT -> String.valueOf(random.nextInt(401) - 100) + ".50";
+                case PRICE -> String.valueOf(200 + random.nextInt(2000));
+            };
+            // priorities collide on purpose, ties are broken by id
+            PricingRule rule = rule(id, random.nextInt(4), adjustment, amount);
+            if (random.nextBoolean()) rule.setRoomType(Room.RoomType.values()[random.nextInt(Room.RoomType.values().length)]);
+            if (random.nextBoolean()) {
+                LocalDate from = ORIGIN.plusDays(random.nextInt(150) - 10);
+                rule.setValidFrom(from);
+                rule.setValidTo(from.plusDays(1 + random.nextInt(60)));
+            }
+            if (random.nextInt(3) == 0) rule.setDaysOfWeek(random.nextBoolean() ? "FRIDAY,SATURDAY" : "monday, tuesday");
+            if (random.nextInt(3) == 0) {
+                int min = 1 + random.nextInt(CompiledPricing.MAX_GUESTS);
+                rule.setMinGuests(min);
+                rule.setMaxGuests(min + random.nextInt(CompiledPricing.MAX_GUESTS - min + 1));
+            }
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    // The rule entities applied one at a time, without compiling anything
+    private static long reference(List<PricingRule> rules, long baseCents, Room.RoomType type, LocalDate night, int guests)
+    {
+        List<PricingRule> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparing(PricingRule::getPriority).thenComparing(PricingRule::getId));
+        double price = baseCents;
+        for (PricingRule rule : ordered) {
+            if (rule.getRoomType() != null && rule.getRoomType() != type) continue;
+            if (rule.getValidFrom() != null && night.isBefore(rule.getValidFrom())) continue;
+            if (rule.getValidTo() != null && !night.isBefore(rule.getValidTo())) continue;
+            if (rule.getDaysOfWeek() != null && !appliesOn(rule.getDaysOfWeek(), night.getDayOfWeek())) continue;
+            if (rule.getMinGuests() != null && guests < rule.getMinGuests()) continue;
+            if (rule.getMaxGuests() != null && guests > rule.getMaxGuests()) continue;
+            double amount = rule.getAmount().doubleValue();
+            price = switch (rule.getAdjustment()) {
+                case PERCENT -> price * (1 + amount / 100);
+                case AMOUNT -> price + amount * 100;
+                case PRICE -> amount * 100;
+            };
+        }
+        return Math.max(0, Math.round(price));
+    }
+
+    private static boolean appliesOn(String daysOfWeek, DayOfWeek day)
+    {
+        for (String name : daysOfWeek.split(",")) {
+            if (DayOfWeek.valueOf(name.trim().toUpperCase()) == day) return true;
+        }
+        return false;
+    }
+}
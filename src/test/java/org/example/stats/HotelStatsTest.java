@@ -0,0 +1,131 @@
+package org.example.stats;
+
+import org.example.dto.HotelStatsDto;
+import org.example.model.Hotel;
+import org.example.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelStatsTest
+{
+    private final HotelStats stats = new HotelStats();
+
+    private void room(int roomId, int hotelId, Room.RoomType type, String price)
+    {
+        stats.putRoom(roomId, hotelId, Hotel.HotelType.STANDARD, type, new BigDecimal(price));
+    }
+
+    @Test
+    void emptyHotelHasNoRoomsAndNoPrices()
+    {
+        stats.putHotel(1, Hotel.HotelType.BUDGET);
+
+        HotelStats.Summary summary = stats.hotel(1);
+        assertEquals(0, summary.rooms());
+        assertEquals(0, summary.rooms(Room.RoomType.SINGLE));
+
+        HotelStatsDto dto = new HotelStatsDto(summary);
+        assertEquals(0, dto.getRooms());
+        assertNull(dto.getMinPrice());
+        assertNull(dto.getAvgPrice());
+        assertNull(dto.getRoomTypes().get("SINGLE").getMaxPrice());
+        assertNull(stats.hotel(2));
+    }
+
+    @Test
+    void singleRoomIsMinMaxAndAverage()
+    {
+        stats.putHotel(1, Hotel.HotelType.STANDARD);
+        room(10, 1, Room.RoomType.DOUBLE, "899.50");
+
+        HotelStatsDto dto = new HotelStatsDto(stats.hotel(1));
+        assertEquals(1, dto.getRooms());
+        assertEquals(new BigDecimal("899.50"), dto.getMinPrice());
+        assertEquals(new BigDecimal("899.50"), dto.getMaxPrice());
+        assertEquals(new BigDecimal("899.50"), dto.getAvgPrice());
+        assertEquals(1, dto.getRoomTypes().get("DOUBLE").getRooms());
+        assertEquals(0, dto.getRoomTypes().get("SUITE").getRooms());
+    }
+
+    @Test
+    void aggregatesPerRoomTypeAndHotelType()
+    {
+        stats.putHotel(1, Hotel.HotelType.STANDARD);
+        stats.putHotel(2, Hotel.HotelType.STANDARD);
+        room(10, 1, Room.RoomType.SINGLE, "500");
+        room(11, 1, Room.RoomType.SINGLE, "700");
+        room(12, 1, Room.RoomType.SUITE, "2000");
+        room(20, 2, Room.RoomType.SINGLE, "400");
+
+        HotelStats.Summary hotel = stats.hotel(1);
+        assertEquals(3, hotel.rooms());
+        assertEquals(2, hotel.rooms(Room.RoomType.SINGLE));
+        assertEquals(50_000, hotel.minCents(Room.RoomType.SINGLE));
+        assertEquals(70_000, hotel.maxCents(Room.RoomType.SINGLE));
+        assertEquals(120_000, hotel.sumCents(Room.RoomType.SINGLE));
+        assertEquals(new BigDecimal("1066.67"), new HotelStatsDto(hotel).getAvgPrice());
+
+        HotelStats.Summary standard = stats.hotelType(Hotel.HotelType.STANDARD);
+        assertNull(standard.hotelId());
+        assertEquals(4, standard.rooms());
+        assertEquals(40_000, standard.minCents(Room.RoomType.SINGLE));
+        assertEquals(0, stats.hotelType(Hotel.HotelType.LUXURY).rooms());
+    }
+
+    // min and max are the 0th and 100th percentile of the prices; HotelStats keeps no other
+    // percentile, these must stay exact when the extreme rooms go away
+    @Test
+    void minAndMaxStayExactWhenTheExtremesAreRemoved()
+    {
+        stats.putHotel(1, Hotel.HotelType.STANDARD);
+        String[] prices = {"300", "100", "500", "100", "900", "700"};
+        for (int i = 0; i < prices.length; i++) {
+            room(10 + i, 1, Room.RoomType.DOUBLE, prices[i]);
+        }
+
+        stats.removeRoom(11);
+        assertEquals(10_000, stats.hotel(1).minCents(Room.RoomType.DOUBLE));
+        stats.removeRoom(13);
+        assertEquals(30_000, stats.hotel(1).minCents(Room.RoomType.DOUBLE));
+        stats.removeRoom(14);
+        assertEquals(70_000, stats.hotel(1).maxCents(Room.RoomType.DOUBLE));
+        // repricing the cheapest room above the others moves both ends
+        room(10, 1, Room.RoomType.DOUBLE, "1000");
+        assertEquals(50_000, stats.hotel(1).minCents(Room.RoomType.DOUBLE));
+        assertEquals(100_000, stats.hotel(1).maxCents(Room.RoomType.DOUBLE));
+        assertEquals(3, stats.hotel(1).rooms());
+    }
+
+    @Test
+    void changingTheHotelTypeMovesItsRooms()
+    {
+        stats.putHotel(1, Hotel.HotelType.STANDARD);
+        room(10, 1, Room.RoomType.SINGLE, "500");
+
+        stats.putHotel(1, Hotel.HotelType.LUXURY);
+
+        assertEquals(0, stats.hotelType(Hotel.HotelType.STANDARD).rooms());
+        assertEquals(1, stats.hotelType(Hotel.HotelType.LUXURY).rooms());
+        assertEquals(Hotel.HotelType.LUXURY, stats.hotel(1).hotelType());
+    }
+
+    @Test
+    void removingAHotelRemovesItsRooms()
+    {
+        stats.putHotel(1, Hotel.HotelType.STANDARD);
+        room(10, 1, Room.RoomType.SINGLE, "500");
+        room(11, 1, Room.RoomType.SINGLE, "600");
+
+        stats.removeHotel(1);
+
+        assertNull(stats.hotel(1));
+        assertEquals(0, stats.hotelType(Hotel.HotelType.STANDARD).rooms());
+        List<HotelStatsDto> dtos = HotelStatsDto.toHotelStatsDTOList(stats.hotelTypes());
+        assertEquals(Hotel.HotelType.values().length, dtos.size());
+        assertTrue(dtos.stream().allMatch(dto -> dto.getRooms() == 0 && dto.getMinPrice() == null));
+    }
+}
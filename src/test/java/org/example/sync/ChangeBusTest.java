@@ -0,0 +1,132 @@
+package org.example.sync;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateConfig;
+import org.example.sync.ChangeBus.Change;
+import org.example.sync.ChangeBus.Entity;
+import org.example.sync.ChangeBus.Operation;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two nodes against one Postgres: each bus stands for a server instance with its own listen
+// connection and node id.
+class ChangeBusTest
+{
+    private static EntityManagerFactory emfTest;
+
+    private ChangeBus nodeA;
+    private ChangeBus nodeB;
+    private final Recorder receivedA = new Recorder();
+    private final Recorder receivedB = new Recorder();
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        HibernateConfig.setTest(true);
+        emfTest = HibernateConfig.getEntityManagerFactory();
+    }
+
+    @AfterAll
+    static void tearDown()
+    {
+        HibernateConfig.setTest(false);
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        nodeA = new ChangeBus(emfTest, "a", 100);
+        nodeB = new ChangeBus(emfTest, "b", 100);
+        nodeA.subscribe(receivedA);
+        nodeB.subscribe(receivedB);
+        nodeA.start();
+        nodeB.start();
+        assertTrue(nodeA.isConnected());
+        assertTrue(nodeB.isConnected());
+    }
+
+    @AfterEach
+    void stop()
+    {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    void changeReachesTheOtherNodeOnly() throws InterruptedException
+    {
+        long start = System.nanoTime();
+        nodeA.publish(Entity.ROOM, Operation.SAVE, 42, null);
+
+        Change change = receivedB.changes.poll(2, TimeUnit.SECONDS);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(new Change("a", Entity.ROOM, Operation.SAVE, 42, null), change);
+        assertTrue(millis < 500, "Delivered after " + millis + " ms");
+        // a node does not replay its own writes
+        assertNull(receivedA.changes.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void bookingDeleteCarriesRoomAndDates() throws InterruptedException
+    {
+        nodeB.publish(Entity.BOOKING, Operation.DELETE, 7, "42 2024-05-01 2024-05-03");
+
+        Change change = receivedA.changes.poll(2, TimeUnit.SECONDS);
+        assertNotNull(change);
+        assertEquals(Entity.BOOKING, change.entity());
+        assertEquals("42 2024-05-01 2024-05-03", change.detail());
+    }
+
+    @Test
+    void lostConnectionIsResynced() throws InterruptedException
+    {
+        int pid = nodeB.getBackendPid();
+        try (var em = emfTest.createEntityManager())
+        {
+            em.createNativeQuery("SELECT pg_terminate_backend(" + pid + ")").getSingleResult();
+        }
+
+        assertTrue(receivedB.resyncs.poll(10, TimeUnit.SECONDS) != null, "No resync after the connection was cut");
+        assertNotEquals(pid, nodeB.getBackendPid());
+        assertNull(receivedA.resyncs.poll(100, TimeUnit.MILLISECONDS));
+
+        nodeA.publish(Entity.HOTEL, Operation.DELETE, 3, null);
+        Change change = receivedB.changes.poll(2, TimeUnit.SECONDS);
+        assertNotNull(change, "Nothing received after the reconnect");
+        assertEquals(Operation.DELETE, change.operation());
+    }
+
+    @Test
+    void payloadRoundTrips()
+    {
+        Change change = new Change("host:123", Entity.PRICING_RULE, Operation.RELOAD, 0, null);
+        assertEquals("host:123 pricing_rule reload 0", change.encode());
+        assertEquals(change, Change.decode(change.encode()));
+
+        Change booking = new Change("b", Entity.BOOKING, Operation.DELETE, 7, "42 2024-05-01 2024-05-03");
+        assertEquals(booking, Change.decode(booking.encode()));
+    }
+
+    private static class Recorder implements ChangeBus.Subscriber
+    {
+        final BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+        final BlockingQueue<Boolean> resyncs = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onChange(Change change)
+        {
+            changes.add(change);
+        }
+
+        @Override
+        public void onResync()
+        {
+            resyncs.add(true);
+        }
+    }
+}